@@ -0,0 +1,272 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx;
+
+import com.github.noony.app.timelinefx.core.TimeLineProject;
+import com.github.noony.app.timelinefx.hmi.byperson.FriezePeopleLinearDrawing;
+import com.github.noony.app.timelinefx.hmi.freemap.FriezeFreeFormDrawing;
+import com.github.noony.app.timelinefx.hmi.picturechronology.PictureChronologyDrawing;
+import com.github.noony.app.timelinefx.save.XMLHandler;
+import com.github.noony.app.timelinefx.utils.ImageService;
+import com.github.noony.app.timelinefx.utils.PngExporter;
+import com.github.noony.app.timelinefx.utils.SvgExporter;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.application.Platform;
+import javafx.scene.Node;
+
+/**
+ * Command line entry point rendering every drawing of a project to image
+ * files, without opening a window.
+ *
+ * Each linear frieze, free map and picture chronology of the project is drawn
+ * offscreen on the JavaFX thread, once its images are loaded, then exported
+ * by a pool of worker threads with
+ * {@link PngExporter#exportTiledPNG(Node, File, double)} and
+ * {@link SvgExporter#export(Node, File, double)} at the requested scale. The
+ * JavaFX toolkit is started without any stage; it uses the headless Monocle
+ * platform when Monocle is on the class path, as with the {@code headless}
+ * Maven profile, and needs a display otherwise.
+ *
+ * Usage:
+ * {@code BatchExporter <projectFile> <outputFolder> [--scale <scale>] [--workers <nbWorkers>]}
+ *
+ * @author hamon
+ */
+public final class BatchExporter {
+
+    public static final double DEFAULT_SCALE = 1.0;
+    public static final double LINEAR_FRIEZE_WIDTH = 1600;
+    public static final double LINEAR_FRIEZE_HEIGHT = 900;
+
+    private static final Logger LOG = Logger.getGlobal();
+
+    private static final String MONOCLE_FACTORY = "com.sun.glass.ui.monocle.MonoclePlatformFactory";
+    private static final String PNG_EXTENSION = ".png";
+
+    private final TimeLineProject project;
+    private final File outputFolder;
+    private final double scale;
+    private final int nbWorkers;
+
+    private final AtomicInteger nbExported = new AtomicInteger();
+    private final AtomicInteger nbFailed = new AtomicInteger();
+
+    /**
+     *
+     * @param aProject the project to export the drawings of
+     * @param anOutputFolder the folder the images are written to
+     * @param aScale the scale the drawings are rendered at
+     * @param aNbWorkers the number of images encoded in parallel
+     */
+    public BatchExporter(TimeLineProject aProject, File anOutputFolder, double aScale, int aNbWorkers) {
+        project = aProject;
+        outputFolder = anOutputFolder;
+        scale = aScale;
+        nbWorkers = Math.max(1, aNbWorkers);
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: BatchExporter <projectFile> <outputFolder> [--scale <scale>] [--workers <nbWorkers>]");
+            System.exit(1);
+        }
+        var projectFile = new File(args[0]).getAbsoluteFile();
+        var outputFolder = new File(args[1]);
+        var scale = DEFAULT_SCALE;
+        var nbWorkers = Runtime.getRuntime().availableProcessors();
+        for (int i = 2; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--scale" ->
+                    scale = Double.parseDouble(args[i + 1]);
+                case "--workers" ->
+                    nbWorkers = Integer.parseInt(args[i + 1]);
+                default ->
+                    throw new IllegalArgumentException("Unsupported option: " + args[i]);
+            }
+        }
+        Configuration.loadPreferences();
+        var project = XMLHandler.loadFile(projectFile);
+        if (project == null) {
+            System.err.println("Could not load project " + projectFile);
+            System.exit(2);
+        }
+        if (!outputFolder.isDirectory() && !outputFolder.mkdirs()) {
+            System.err.println("Could not create output folder " + outputFolder);
+            System.exit(2);
+        }
+        try {
+            startHeadlessToolkit();
+        } catch (UnsupportedOperationException ex) {
+            System.err.println("Could not start JavaFX without a display, add Monocle to the class path (Maven profile headless) :: " + ex.getMessage());
+            System.exit(2);
+        }
+        var exporter = new BatchExporter(project, outputFolder, scale, nbWorkers);
+        var nbFailures = exporter.exportAll();
+        Platform.exit();
+        System.exit(nbFailures == 0 ? 0 : 3);
+    }
+
+    /**
+     * Starts the JavaFX toolkit without any window, if it is not started yet.
+     */
+    public static void startHeadlessToolkit() {
+        if (isOnClassPath(MONOCLE_FACTORY)) {
+            setPropertyIfAbsent("glass.platform", "Monocle");
+            setPropertyIfAbsent("monocle.platform", "Headless");
+        }
+        setPropertyIfAbsent("prism.order", "sw");
+        setPropertyIfAbsent("java.awt.headless", "true");
+        try {
+            Platform.startup(() -> {
+                // no stage
+            });
+        } catch (IllegalStateException ex) {
+            // already started
+        }
+        Platform.setImplicitExit(false);
+    }
+
+    /**
+     * Renders all the drawings of the project and waits for their images to
+     * be written.
+     *
+     * @return the number of drawings that could not be exported
+     */
+    public int exportAll() {
+        var startTime = System.nanoTime();
+        ExecutorService workers = Executors.newFixedThreadPool(nbWorkers, runnable -> {
+            var thread = new Thread(runnable, "BatchExporter-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // bounds the number of drawings waiting to be exported
+        var inFlight = new Semaphore(2 * nbWorkers);
+        List<CompletableFuture<Void>> exports = new ArrayList<>();
+        try {
+            for (var export : listExports()) {
+                inFlight.acquire();
+                exports.add(export(export, workers).whenComplete((result, ex) -> inFlight.release()));
+            }
+            CompletableFuture.allOf(exports.toArray(CompletableFuture[]::new)).handle((result, ex) -> null).join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            workers.shutdown();
+        }
+        LOG.log(Level.INFO, "Exported {0} drawings of {1} to {2} in {3} ms, {4} failed",
+                new Object[]{nbExported.get(), project.getName(), outputFolder, (System.nanoTime() - startTime) / 1_000_000, nbFailed.get()});
+        return nbFailed.get();
+    }
+
+    public int getNbExported() {
+        return nbExported.get();
+    }
+
+    private List<Export> listExports() {
+        List<Export> result = new ArrayList<>();
+        project.getFriezes().forEach(frieze -> {
+            result.add(new Export("frieze_" + frieze.getId() + "_" + frieze.getName(), () -> {
+                var drawing = new FriezePeopleLinearDrawing(frieze);
+                drawing.setWidth(LINEAR_FRIEZE_WIDTH);
+                drawing.setHeight(LINEAR_FRIEZE_HEIGHT);
+                return drawing.getNode();
+            }));
+            frieze.getFriezeFreeMaps().forEach(freeMap
+                    -> result.add(new Export("freemap_" + freeMap.getId() + "_" + freeMap.getName(), () -> new FriezeFreeFormDrawing(freeMap).getNode())));
+        });
+        project.getPictureChronologies().forEach(chronology
+                -> result.add(new Export("chronology_" + chronology.getId() + "_" + chronology.getName(), () -> new PictureChronologyDrawing(chronology).getNode())));
+        return result;
+    }
+
+    private CompletableFuture<Void> export(Export export, ExecutorService workers) {
+        var file = new File(outputFolder, toFileName(export.name));
+        return CompletableFuture.supplyAsync(export.drawingSupplier, Platform::runLater)
+                // the drawings load their images asynchronously
+                .thenCompose(node -> ImageService.getInstance().whenIdle().thenApply(result -> node))
+                // lets the images delivered and the layouts requested with runLater be applied
+                .thenApplyAsync(node -> node, BatchExporter::runLaterAfterPulse)
+                .thenAcceptAsync(node -> write(node, file), workers)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        nbFailed.incrementAndGet();
+                        LOG.log(Level.SEVERE, "Could not export {0} to {1} :: {2}", new Object[]{export.name, file, ex});
+                    } else {
+                        nbExported.incrementAndGet();
+                        LOG.log(Level.FINE, "Exported {0} to {1}", new Object[]{export.name, file});
+                    }
+                });
+    }
+
+    private void write(Node node, File file) {
+        var pngFile = new File(file.getPath() + PNG_EXTENSION);
+        var svgFile = new File(file.getPath() + SvgExporter.SVG_EXTENSION);
+        try {
+            // rendered in tiles, the drawing may be larger than a texture
+            PngExporter.exportTiledPNG(node, pngFile, scale);
+            // the offscreen drawing is no longer modified once its images are loaded
+            SvgExporter.export(node, svgFile, scale);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not write " + file, ex);
+        }
+    }
+
+    private static void runLaterAfterPulse(Runnable runnable) {
+        Platform.runLater(() -> Platform.runLater(runnable));
+    }
+
+    private static String toFileName(String name) {
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    private static boolean isOnClassPath(String className) {
+        try {
+            Class.forName(className, false, BatchExporter.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException ex) {
+            return false;
+        }
+    }
+
+    private static void setPropertyIfAbsent(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+
+    private static final class Export {
+
+        private final String name;
+        private final Supplier<Node> drawingSupplier;
+
+        private Export(String aName, Supplier<Node> aDrawingSupplier) {
+            name = aName;
+            drawingSupplier = aDrawingSupplier;
+        }
+    }
+}
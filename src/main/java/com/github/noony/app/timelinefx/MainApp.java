@@ -33,6 +33,8 @@ public class MainApp extends Application {
 
     private static final Logger LOG = Logger.getGlobal();
 
+    private ProjectViewController controller = null;
+
     static {
         var stream = MainApp.class.getClassLoader().getResourceAsStream("logging.properties");
         try {
@@ -47,7 +49,7 @@ public class MainApp extends Application {
     public void start(Stage stage) throws Exception {
         var loader = new FXMLLoader(ProjectViewController.class.getResource("ProjectView.fxml"));
         Parent root = loader.load();
-        var controller = loader.getController();
+        controller = loader.getController();
         LOG.log(Level.FINE, "ProjectViewController {0}", controller);
         //
         StageFactory.createScene(stage, root, "Timeline", StageFactory.DEFAULT_SCENE_WIDTH, StageFactory.DEFAULT_SCENE_HEIGHT);
@@ -62,6 +64,14 @@ public class MainApp extends Application {
         //
     }
 
+    @Override
+    public void stop() throws Exception {
+        if (controller != null) {
+            controller.close();
+        }
+        super.stop();
+    }
+
     /**
      * The main() method is ignored in correctly deployed JavaFX application.
      * main() serves only as fallback in case the application can not be
@@ -54,7 +54,7 @@ public abstract class AbstractPicture extends FriezeObject implements IPicture {
 
     protected AbstractPicture(long anID, String aName, String aFilePath, int aWidth, int aHeight, LocalDate aDate) {
         super(anID);
-        propertyChangeSupport = new PropertyChangeSupport(AbstractPicture.this);
+        propertyChangeSupport = new BatchedPropertyChangeSupport(AbstractPicture.this);
         persons = new LinkedList<>();
         places = new LinkedList<>();
         width = aWidth;
@@ -70,7 +70,7 @@ public abstract class AbstractPicture extends FriezeObject implements IPicture {
 
     protected AbstractPicture(long anID, String aName, String aFilePath, int aWidth, int aHeight, double aTimestamp) {
         super(anID);
-        propertyChangeSupport = new PropertyChangeSupport(AbstractPicture.this);
+        propertyChangeSupport = new BatchedPropertyChangeSupport(AbstractPicture.this);
         persons = new LinkedList<>();
         places = new LinkedList<>();
         width = aWidth;
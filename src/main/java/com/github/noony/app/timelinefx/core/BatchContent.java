@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.core;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Content added in one go to a {@link TimeLineProject} or a {@link Frieze}.
+ *
+ * Sent as the new value of the batch events instead of one event per place,
+ * person and stay.
+ *
+ * @author hamon
+ */
+public final class BatchContent {
+
+    private final List<Place> places;
+    private final List<Person> persons;
+    private final List<StayPeriod> stays;
+
+    BatchContent(List<Place> addedPlaces, List<Person> addedPersons, List<StayPeriod> addedStays) {
+        places = Collections.unmodifiableList(addedPlaces);
+        persons = Collections.unmodifiableList(addedPersons);
+        stays = Collections.unmodifiableList(addedStays);
+    }
+
+    /**
+     *
+     * @return the places added, parents before children
+     */
+    public List<Place> getPlaces() {
+        return places;
+    }
+
+    public List<Person> getPersons() {
+        return persons;
+    }
+
+    public List<StayPeriod> getStays() {
+        return stays;
+    }
+
+    public boolean isEmpty() {
+        return places.isEmpty() && persons.isEmpty() && stays.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchContent [places=" + places.size() + ", persons=" + persons.size() + ", stays=" + stays.size() + "]";
+    }
+}
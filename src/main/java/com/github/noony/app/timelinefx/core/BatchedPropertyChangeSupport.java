@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.core;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListenerProxy;
+import java.beans.PropertyChangeSupport;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * PropertyChangeSupport whose events are routed through a
+ * {@link ProjectEventBus}.
+ *
+ * A support scoped to the bus of its project only joins the batches of that
+ * project. The other ones join the innermost batch running on the current
+ * thread, if any.
+ *
+ * Outside of a batch, events are delivered synchronously as with a plain
+ * PropertyChangeSupport. Inside a batch they are queued and delivered when the
+ * batch commits. Properties declared with a {@link Coalescing} mode are merged
+ * per source and property; the other ones are all delivered, in order.
+ *
+ * @author hamon
+ */
+public class BatchedPropertyChangeSupport extends PropertyChangeSupport {
+
+    /**
+     * How several events of a same property are merged within a batch.
+     */
+    public enum Coalescing {
+        /**
+         * Only the last event is delivered (positions, sizes, selections...).
+         */
+        LATEST,
+        /**
+         * A single event is delivered, with the old value of the first event
+         * and the new value of the last one. Nothing is delivered if the values
+         * end up equal.
+         */
+        SPAN
+    }
+
+    private final Map<String, Coalescing> coalescingModes;
+    //
+    private ProjectEventBus eventBus = null;
+
+    public BatchedPropertyChangeSupport(Object sourceBean) {
+        super(sourceBean);
+        coalescingModes = new HashMap<>();
+    }
+
+    /**
+     *
+     * @param mode how to merge the events
+     * @param propertyNames the properties to be merged within a batch
+     * @return this support
+     */
+    public BatchedPropertyChangeSupport coalesce(Coalescing mode, String... propertyNames) {
+        for (String propertyName : propertyNames) {
+            coalescingModes.put(propertyName, mode);
+        }
+        return this;
+    }
+
+    /**
+     *
+     * @param projectBus the bus of the project of the source, null to join the
+     * batch active on the current thread
+     * @return this support
+     */
+    public BatchedPropertyChangeSupport scopedTo(ProjectEventBus projectBus) {
+        eventBus = projectBus;
+        return this;
+    }
+
+    @Override
+    public void firePropertyChange(PropertyChangeEvent event) {
+        var bus = eventBus != null ? eventBus : ProjectEventBus.getActiveBus();
+        if (bus == null) {
+            super.firePropertyChange(event);
+        } else if (!bus.enqueue(this, event)) {
+            bus.recordDelivery(countListeners(event.getPropertyName()));
+            super.firePropertyChange(event);
+        }
+    }
+
+    protected Coalescing getCoalescing(String propertyName) {
+        return coalescingModes.get(propertyName);
+    }
+
+    protected void deliver(PropertyChangeEvent event) {
+        super.firePropertyChange(event);
+    }
+
+    protected int countListeners(String propertyName) {
+        int nbListeners = getPropertyChangeListeners(propertyName).length;
+        for (var listener : getPropertyChangeListeners()) {
+            if (!(listener instanceof PropertyChangeListenerProxy)) {
+                nbListeners++;
+            }
+        }
+        return nbListeners;
+    }
+}
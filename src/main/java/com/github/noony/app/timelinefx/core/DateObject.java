@@ -39,7 +39,7 @@ public class DateObject implements IDateObject {
     private LocalDate date;
 
     public DateObject(LocalDate aDate) {
-        propertyChangeSupport = new PropertyChangeSupport(DateObject.this);
+        propertyChangeSupport = new BatchedPropertyChangeSupport(DateObject.this);
         //
         timeFormat = TimeFormat.LOCAL_TIME;
         date = aDate != null ? aDate : LocalDate.MIN;
@@ -47,7 +47,7 @@ public class DateObject implements IDateObject {
     }
 
     public DateObject(double aTimestamp) {
-        propertyChangeSupport = new PropertyChangeSupport(DateObject.this);
+        propertyChangeSupport = new BatchedPropertyChangeSupport(DateObject.this);
         //
         timeFormat = TimeFormat.TIME_MIN;
         timestamp = aTimestamp;
@@ -55,7 +55,7 @@ public class DateObject implements IDateObject {
     }
 
     public DateObject(IDateObject anotherDateObject) {
-        propertyChangeSupport = new PropertyChangeSupport(DateObject.this);
+        propertyChangeSupport = new BatchedPropertyChangeSupport(DateObject.this);
         //
         timeFormat = anotherDateObject.getTimeFormat();
         switch (timeFormat) {
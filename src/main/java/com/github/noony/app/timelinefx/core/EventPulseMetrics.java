@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.core;
+
+/**
+ * Delivery figures of one {@link ProjectEventBus} pulse.
+ *
+ * @author hamon
+ */
+public final class EventPulseMetrics {
+
+    private final long pulseNumber;
+    private final int nbQueuedEvents;
+    private final int nbDeliveredEvents;
+    private final int nbCascadedEvents;
+    private final long nbListenerCalls;
+    private final long durationNanos;
+
+    EventPulseMetrics(long aPulseNumber, int queuedEvents, int deliveredEvents, int cascadedEvents, long listenerCalls, long duration) {
+        pulseNumber = aPulseNumber;
+        nbQueuedEvents = queuedEvents;
+        nbDeliveredEvents = deliveredEvents;
+        nbCascadedEvents = cascadedEvents;
+        nbListenerCalls = listenerCalls;
+        durationNanos = duration;
+    }
+
+    public long getPulseNumber() {
+        return pulseNumber;
+    }
+
+    /**
+     *
+     * @return the number of events fired during the batch, before coalescing
+     */
+    public int getNbQueuedEvents() {
+        return nbQueuedEvents;
+    }
+
+    /**
+     *
+     * @return the number of queued events actually delivered, after coalescing
+     */
+    public int getNbDeliveredEvents() {
+        return nbDeliveredEvents;
+    }
+
+    /**
+     *
+     * @return the number of events fired by the listeners during the delivery
+     */
+    public int getNbCascadedEvents() {
+        return nbCascadedEvents;
+    }
+
+    /**
+     *
+     * @return the number of listener notifications, cascades included
+     */
+    public long getNbListenerCalls() {
+        return nbListenerCalls;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "EventPulseMetrics [pulse=" + pulseNumber + ", queued=" + nbQueuedEvents + ", delivered=" + nbDeliveredEvents
+                + ", cascaded=" + nbCascadedEvents + ", listenerCalls=" + nbListenerCalls + ", duration=" + durationNanos / 1_000 + "us]";
+    }
+}
@@ -18,15 +18,20 @@ package com.github.noony.app.timelinefx.core;
 
 import com.github.noony.app.timelinefx.core.freemap.FriezeFreeMap;
 import com.github.noony.app.timelinefx.core.freemap.FriezeFreeMapFactory;
+import com.github.noony.app.timelinefx.utils.SortedDoubleMultiset;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
 import static javafx.application.Platform.runLater;
 
 /**
@@ -39,6 +44,7 @@ public class Frieze extends FriezeObject {
     public static final String DATE_WINDOW_CHANGED = CLASS_NAME + "__dateWindowChanged";
     public static final String NAME_CHANGED = CLASS_NAME + "__nameChanged";
     public static final String STAY_ADDED = CLASS_NAME + "__stayAdded";
+    public static final String BATCH_ADDED = CLASS_NAME + "__batchAdded";
     public static final String STAY_REMOVED = CLASS_NAME + "__stayRemoved";
     public static final String STAY_UPDATED = CLASS_NAME + "__stayUpdated";
     public static final String PERSON_ADDED = CLASS_NAME + "__personAdded";
@@ -54,16 +60,17 @@ public class Frieze extends FriezeObject {
     private static final long DEFAULT_MAX_DATE = 500;
 
     private final TimeLineProject project;
-    private final List<StayPeriod> stayPeriods;
+    private final StayIndex stayIndex;
     private final List<Place> places;
     private final List<Person> persons;
-    private final Map<Place, List<Person>> personsAtPlaces;
+    private final Map<Place, Set<Person>> personsAtPlaces;
     private final PropertyChangeSupport propertyChangeSupport;
     private final List<FriezeFreeMap> friezeFreeMaps;
     //
-    private final List<Double> dates;
-    private final List<Double> startDates;
-    private final List<Double> endDates;
+    // reference counted: each stay counts once in startDates / endDates and twice in dates
+    private final SortedDoubleMultiset dates;
+    private final SortedDoubleMultiset startDates;
+    private final SortedDoubleMultiset endDates;
     //
     private final PropertyChangeListener stayChangesListener;
     //
@@ -79,24 +86,25 @@ public class Frieze extends FriezeObject {
         super(anID);
         project = aProject;
         name = friezeName;
-        stayPeriods = new LinkedList<>();
+        stayIndex = new StayIndex();
         places = new LinkedList<>();
         persons = new LinkedList<>();
         friezeFreeMaps = new LinkedList<>();
         personsAtPlaces = new HashMap<>();
         //
-        dates = new LinkedList<>();
-        startDates = new LinkedList<>();
-        endDates = new LinkedList<>();
+        dates = new SortedDoubleMultiset();
+        startDates = new SortedDoubleMultiset();
+        endDates = new SortedDoubleMultiset();
         //
         stayChangesListener = this::handleStayPeriodChanges;
         //
-        propertyChangeSupport = new PropertyChangeSupport(Frieze.this);
+        propertyChangeSupport = new BatchedPropertyChangeSupport(Frieze.this)
+                .scopedTo(project.getEventBus())
+                .coalesce(BatchedPropertyChangeSupport.Coalescing.LATEST, DATE_WINDOW_CHANGED, NAME_CHANGED);
         //
         project.addFrieze(Frieze.this);
         project.addListener(Frieze.this::handleTimeLineProjectChanges);
-        // TODO : optimize
-        staysToConsider.stream().forEachOrdered(Frieze.this::addStayPeriod);
+        addStayPeriods(staysToConsider);
     }
 
     public Frieze(long anID, TimeLineProject aProject, String friezeName) {
@@ -119,10 +127,10 @@ public class Frieze extends FriezeObject {
     public void addPerson(Person aPerson) {
         if (!persons.contains(aPerson)) {
             persons.add(aPerson);
-            var stays = project.getStays().stream().filter(s -> s.getPerson() == aPerson).toList();
+            var stays = project.getStays(aPerson);
             var tmpPlaces = stays.stream().map(StayPeriod::getPlace).distinct().toList();
             tmpPlaces.forEach(place -> {
-                var tempPersons = personsAtPlaces.computeIfAbsent(place, k -> new LinkedList<>());
+                var tempPersons = personsAtPlaces.computeIfAbsent(place, k -> new LinkedHashSet<>());
                 tempPersons.add(aPerson);
             });
             // notify place added
@@ -138,8 +146,7 @@ public class Frieze extends FriezeObject {
      * @param stay a stay to be represented in this Frieze
      */
     public void addStayPeriod(StayPeriod stay) {
-        if (!stayPeriods.contains(stay)) {
-            stayPeriods.add(stay);
+        if (stayIndex.add(stay)) {
             //
             stay.addListener(stayChangesListener);
             //
@@ -155,63 +162,39 @@ public class Frieze extends FriezeObject {
                 persons.add(person);
                 propertyChangeSupport.firePropertyChange(PERSON_ADDED, this, person);
             }
-            // add person at place
-            if (!personsAtPlaces.containsKey(stay.getPlace())) {
-                personsAtPlaces.put(stay.getPlace(), new LinkedList<>());
-                personsAtPlaces.get(stay.getPlace()).add(stay.getPerson());
-            } else if (!personsAtPlaces.get(stay.getPlace()).contains(stay.getPerson())) {
-                personsAtPlaces.get(stay.getPlace()).add(stay.getPerson());
-            }
-            // handle dates
-            if (!dates.contains(stay.getStartDate())) {
-                dates.add(stay.getStartDate());
-            }
-            if (!dates.contains(stay.getEndDate())) {
-                dates.add(stay.getEndDate());
-            }
-            if (!startDates.contains(stay.getStartDate())) {
-                startDates.add(stay.getStartDate());
-            }
-            if (!endDates.contains(stay.getEndDate())) {
-                endDates.add(stay.getEndDate());
-            }
-            minDate = stayPeriods.stream().mapToDouble(StayPeriod::getStartDate).min().orElse(DEFAULT_MIN_DATE);
-            maxDate = stayPeriods.stream().mapToDouble(StayPeriod::getEndDate).max().orElse(DEFAULT_MAX_DATE);
+            indexStayContent(stay);
+            minDate = stayIndex.getMinDate(DEFAULT_MIN_DATE);
+            maxDate = stayIndex.getMaxDate(DEFAULT_MAX_DATE);
             //
             propertyChangeSupport.firePropertyChange(STAY_ADDED, this, stay);
         }
     }
 
+    /**
+     * Adds several stays in one pass.
+     *
+     * No event is fired per place, person or stay: a single BATCH_ADDED event
+     * is fired with a {@link BatchContent} holding what was actually added.
+     *
+     * @param stays the stays to be represented in this Frieze
+     */
+    public void addStayPeriods(Collection<? extends StayPeriod> stays) {
+        addContent(Collections.emptyList(), stays);
+    }
+
     public void removeStay(StayPeriod stay) {
-        if (stayPeriods.contains(stay)) {
-            stayPeriods.remove(stay);
+        if (stayIndex.remove(stay)) {
             stay.removeListener(stayChangesListener);
             //TODO : check if person list and place list is unchanged
             //
-            minDate = stayPeriods.stream().mapToDouble(StayPeriod::getStartDate).min().orElse(DEFAULT_MIN_DATE);
-            maxDate = stayPeriods.stream().mapToDouble(StayPeriod::getEndDate).max().orElse(DEFAULT_MAX_DATE);
+            minDate = stayIndex.getMinDate(DEFAULT_MIN_DATE);
+            maxDate = stayIndex.getMaxDate(DEFAULT_MAX_DATE);
             //
-            var startDate = stay.getStartDate();
-            var endDate = stay.getEndDate();
-            var removeStart = stayPeriods.stream().mapToDouble(StayPeriod::getStartDate).noneMatch(d -> d == startDate);
-            var removeEnd = stayPeriods.stream().mapToDouble(StayPeriod::getEndDate).noneMatch(d -> d == endDate);
-            maxDate = stayPeriods.stream().mapToDouble(StayPeriod::getEndDate).max().orElse(DEFAULT_MAX_DATE);
-            if (removeStart) {
-                startDates.remove(startDate);
-                // TODO fire ?
-            }
-            if (removeEnd) {
-                endDates.remove(endDate);
-                // TODO fire ?
-            }
-            if (stayPeriods.stream().mapToDouble(StayPeriod::getStartDate).noneMatch(d -> d == startDate)
-                    && stayPeriods.stream().mapToDouble(StayPeriod::getEndDate).noneMatch(d -> d == startDate)) {
-                dates.remove(startDate);
-            }
-            if (stayPeriods.stream().mapToDouble(StayPeriod::getStartDate).noneMatch(d -> d == endDate)
-                    && stayPeriods.stream().mapToDouble(StayPeriod::getEndDate).noneMatch(d -> d == endDate)) {
-                dates.remove(endDate);
-            }
+            // TODO fire start / end dates removal ?
+            startDates.remove(stay.getStartDate());
+            endDates.remove(stay.getEndDate());
+            dates.remove(stay.getStartDate());
+            dates.remove(stay.getEndDate());
             //
             propertyChangeSupport.firePropertyChange(STAY_REMOVED, this, stay);
         }
@@ -223,7 +206,7 @@ public class Frieze extends FriezeObject {
                 places.add(aPlace);
                 propertyChangeSupport.firePropertyChange(PLACE_ADDED, this, aPlace);
             }
-            project.getStays().stream().filter(s -> s.getPlace() == aPlace & persons.contains(s.getPerson())).forEach(this::addStayPeriod);
+            project.getStays(aPlace).stream().filter(s -> persons.contains(s.getPerson())).forEach(this::addStayPeriod);
         } else {
             removePlace(aPlace);
         }
@@ -239,7 +222,7 @@ public class Frieze extends FriezeObject {
 
     public List<Person> getPersonsAtPlace(Place p) {
         if (personsAtPlaces.containsKey(p)) {
-            return Collections.unmodifiableList(personsAtPlaces.get(p));
+            return List.copyOf(personsAtPlaces.get(p));
         }
         return Collections.emptyList();
     }
@@ -248,16 +231,30 @@ public class Frieze extends FriezeObject {
         propertyChangeSupport.addPropertyChangeListener(listener);
     }
 
+    public void removeListener(PropertyChangeListener listener) {
+        propertyChangeSupport.removePropertyChangeListener(listener);
+    }
+
     public List<StayPeriod> getStayPeriods() {
-        return Collections.unmodifiableList(stayPeriods);
+        return stayIndex.getStays();
     }
 
     public List<StayPeriod> getStayPeriods(Person person) {
-        return stayPeriods.stream().filter(s -> s.getPerson().equals(person)).collect(Collectors.toList());
+        return stayIndex.getStays(person);
     }
 
     public List<StayPeriod> getStayPeriods(Place aPlace) {
-        return stayPeriods.stream().filter(s -> s.getPlace().equals(aPlace)).collect(Collectors.toList());
+        return stayIndex.getStays(aPlace);
+    }
+
+    /**
+     *
+     * @param fromDate lower bound of the time window
+     * @param toDate upper bound of the time window
+     * @return the stays overlapping [fromDate, toDate], sorted by start date
+     */
+    public List<StayPeriod> getStayPeriods(double fromDate, double toDate) {
+        return stayIndex.getStaysBetween(fromDate, toDate);
     }
 
     public int getStayIndex(StayPeriod stayPeriod) {
@@ -265,7 +262,7 @@ public class Frieze extends FriezeObject {
     }
 
     public int getNbStays() {
-        return stayPeriods.size();
+        return stayIndex.size();
     }
 
     public int getNbPersons() {
@@ -296,16 +293,22 @@ public class Frieze extends FriezeObject {
         return Collections.unmodifiableList(friezeFreeMaps);
     }
 
-    public List<Double> getDates() {
-        return Collections.unmodifiableList(dates);
+    /**
+     *
+     * @param min lower bound (included)
+     * @param max upper bound (included)
+     * @return the distinct start and end dates within [min, max], sorted
+     */
+    public double[] datesBetween(double min, double max) {
+        return dates.valuesBetween(min, max);
     }
 
-    public List<Double> getStartDates() {
-        return Collections.unmodifiableList(startDates);
+    public boolean isStartDate(double aDate) {
+        return startDates.contains(aDate);
     }
 
-    public List<Double> getEndDates() {
-        return Collections.unmodifiableList(endDates);
+    public boolean isEndDate(double aDate) {
+        return endDates.contains(aDate);
     }
 
     public double getMinDate() {
@@ -343,7 +346,7 @@ public class Frieze extends FriezeObject {
     }
 
     public TimeFormat getTimeFormat() {
-        return stayPeriods.isEmpty() ? TimeFormat.TIME_MIN : stayPeriods.get(0).getTimeFormat();
+        return stayIndex.isEmpty() ? TimeFormat.TIME_MIN : stayIndex.getFirstStay().getTimeFormat();
     }
 
     private void handleTimeLineProjectChanges(PropertyChangeEvent event) {
@@ -355,6 +358,10 @@ public class Frieze extends FriezeObject {
                 addPerson((Person) event.getNewValue());
             case TimeLineProject.STAY_ADDED ->
                 addStayPeriod((StayPeriod) event.getNewValue());
+            case TimeLineProject.BATCH_ADDED -> {
+                var content = (BatchContent) event.getNewValue();
+                addContent(content.getPersons(), content.getStays());
+            }
             case TimeLineProject.STAY_REMOVED ->
                 removeStay((StayPeriod) event.getNewValue());
             case TimeLineProject.PLACE_REMOVED -> {
@@ -374,16 +381,24 @@ public class Frieze extends FriezeObject {
         switch (event.getPropertyName()) {
             case StayPeriod.START_DATE_CHANGED -> {
                 var stay = (StayPeriod) event.getSource();
+                stayIndex.update(stay);
                 // First update the relevant dates before notifying of the stay change
-                updateDatesOnRemoval((long) event.getOldValue(), true);
-                updateDatesOnCreation((long) event.getNewValue(), true);
+                updateDatesOnRemoval(((Number) event.getOldValue()).doubleValue(), true);
+                updateDatesOnCreation(((Number) event.getNewValue()).doubleValue(), true);
                 propertyChangeSupport.firePropertyChange(STAY_UPDATED, this, stay);
             }
             case StayPeriod.END_DATE_CHANGED -> {
+                var stay = (StayPeriod) event.getSource();
+                stayIndex.update(stay);
                 // First update the relevant dates before notifying of the stay change
-                updateDatesOnRemoval((long) event.getOldValue(), false);
-                updateDatesOnCreation((long) event.getNewValue(), false);
+                updateDatesOnRemoval(((Number) event.getOldValue()).doubleValue(), false);
+                updateDatesOnCreation(((Number) event.getNewValue()).doubleValue(), false);
+                propertyChangeSupport.firePropertyChange(STAY_UPDATED, this, stay);
+            }
+            case StayPeriod.PERSON_CHANGED, StayPeriod.PLACE_CHANGED -> {
                 var stay = (StayPeriod) event.getSource();
+                stayIndex.update(stay);
+                addStayOwners(stay);
                 propertyChangeSupport.firePropertyChange(STAY_UPDATED, this, stay);
             }
             default ->
@@ -391,10 +406,74 @@ public class Frieze extends FriezeObject {
         }
     }
 
+    private void addContent(Collection<Person> newPersons, Collection<? extends StayPeriod> stays) {
+        Set<Place> knownPlaces = new HashSet<>(places);
+        Set<Person> knownPersons = new HashSet<>(persons);
+        List<Place> addedPlaces = new ArrayList<>();
+        List<Person> addedPersons = new ArrayList<>();
+        List<StayPeriod> addedStays = new ArrayList<>();
+        //
+        newPersons.stream().filter(knownPersons::add).forEachOrdered(addedPersons::add);
+        persons.addAll(addedPersons);
+        List<StayPeriod> staysToAdd = new ArrayList<>(stays);
+        if (!addedPersons.isEmpty()) {
+            // as in addPerson, the existing stays of the new persons are displayed too
+            addedPersons.forEach(p -> staysToAdd.addAll(project.getStays(p)));
+        }
+        //
+        for (StayPeriod stay : staysToAdd) {
+            if (stayIndex.add(stay)) {
+                stay.addListener(stayChangesListener);
+                if (knownPlaces.add(stay.getPlace())) {
+                    places.add(stay.getPlace());
+                    addedPlaces.add(stay.getPlace());
+                }
+                if (knownPersons.add(stay.getPerson())) {
+                    persons.add(stay.getPerson());
+                    addedPersons.add(stay.getPerson());
+                }
+                indexStayContent(stay);
+                addedStays.add(stay);
+            }
+        }
+        minDate = stayIndex.getMinDate(DEFAULT_MIN_DATE);
+        maxDate = stayIndex.getMaxDate(DEFAULT_MAX_DATE);
+        //
+        var content = new BatchContent(addedPlaces, addedPersons, addedStays);
+        if (!content.isEmpty()) {
+            propertyChangeSupport.firePropertyChange(BATCH_ADDED, this, content);
+        }
+    }
+
+    /**
+     * Displays the person and place a stay was moved to.
+     */
+    private void addStayOwners(StayPeriod stay) {
+        if (!places.contains(stay.getPlace())) {
+            places.add(stay.getPlace());
+            propertyChangeSupport.firePropertyChange(PLACE_ADDED, this, stay.getPlace());
+        }
+        if (!persons.contains(stay.getPerson())) {
+            persons.add(stay.getPerson());
+            propertyChangeSupport.firePropertyChange(PERSON_ADDED, this, stay.getPerson());
+        }
+        personsAtPlaces.computeIfAbsent(stay.getPlace(), k -> new LinkedHashSet<>()).add(stay.getPerson());
+    }
+
+    private void indexStayContent(StayPeriod stay) {
+        // add person at place
+        personsAtPlaces.computeIfAbsent(stay.getPlace(), k -> new LinkedHashSet<>()).add(stay.getPerson());
+        // handle dates
+        dates.add(stay.getStartDate());
+        dates.add(stay.getEndDate());
+        startDates.add(stay.getStartDate());
+        endDates.add(stay.getEndDate());
+    }
+
     private void removePlace(Place placeRemoved) {
         places.remove(placeRemoved);
         personsAtPlaces.remove(placeRemoved);
-        List<StayPeriod> impactedStays = stayPeriods.stream().filter(s -> s.getPlace() == placeRemoved).toList();
+        List<StayPeriod> impactedStays = stayIndex.getStays(placeRemoved);
         impactedStays.forEach(this::removeStay);
         propertyChangeSupport.firePropertyChange(PLACE_REMOVED, this, placeRemoved);
         //
@@ -404,25 +483,18 @@ public class Frieze extends FriezeObject {
     private void removePerson(Person personRemoved) {
         persons.remove(personRemoved);
         personsAtPlaces.forEach((place, list) -> list.remove(personRemoved));
-        List<StayPeriod> impactedStays = stayPeriods.stream().filter(s -> s.getPerson() == personRemoved).toList();
+        List<StayPeriod> impactedStays = stayIndex.getStays(personRemoved);
         impactedStays.forEach(this::removeStay);
         propertyChangeSupport.firePropertyChange(PERSON_REMOVED, this, personRemoved);
     }
 
     private void updateDatesOnRemoval(double dateRemoved, boolean isStartDate) {
-        var notInStartDates = stayPeriods.stream().mapToDouble(StayPeriod::getStartDate).noneMatch(d -> d == dateRemoved);
-        var notInEndDates = stayPeriods.stream().mapToDouble(StayPeriod::getEndDate).noneMatch(d -> d == dateRemoved);
-        if (isStartDate && notInStartDates) {
-            startDates.remove(dateRemoved);
+        dates.remove(dateRemoved);
+        if (isStartDate && startDates.remove(dateRemoved)) {
             propertyChangeSupport.firePropertyChange(START_DATE_REMOVED, this, dateRemoved);
-        } else if (!isStartDate && notInEndDates) {
-            endDates.remove(dateRemoved);
+        } else if (!isStartDate && endDates.remove(dateRemoved)) {
             propertyChangeSupport.firePropertyChange(END_DATE_REMOVED, this, dateRemoved);
         }
-        if (notInStartDates && notInEndDates) {
-            dates.remove(dateRemoved);
-        }
-
     }
 
     private void updateDatesOnCreation(double dateAdded, boolean isStartDate) {
@@ -431,17 +503,13 @@ public class Frieze extends FriezeObject {
         var maxWindowsAtMaxDate = maxDate == maxDateWindow;
         var oldMinDate = minDate;
         var oldMaxDate = maxDate;
-        minDate = stayPeriods.stream().mapToDouble(StayPeriod::getStartDate).min().orElse(DEFAULT_MIN_DATE);
-        maxDate = stayPeriods.stream().mapToDouble(StayPeriod::getEndDate).max().orElse(DEFAULT_MAX_DATE);
+        minDate = stayIndex.getMinDate(DEFAULT_MIN_DATE);
+        maxDate = stayIndex.getMaxDate(DEFAULT_MAX_DATE);
         //
-        if (!dates.contains(dateAdded)) {
-            dates.add(dateAdded);
-        }
-        if (isStartDate && !startDates.contains(dateAdded)) {
-            startDates.add(dateAdded);
+        dates.add(dateAdded);
+        if (isStartDate && startDates.add(dateAdded)) {
             propertyChangeSupport.firePropertyChange(START_DATE_ADDED, this, dateAdded);
-        } else if (!isStartDate && !endDates.contains(dateAdded)) {
-            endDates.add(dateAdded);
+        } else if (!isStartDate && endDates.add(dateAdded)) {
             propertyChangeSupport.firePropertyChange(END_DATE_ADDED, this, dateAdded);
         }
         if (minWindowsAtMinDate && oldMinDate != minDate) {
@@ -18,12 +18,8 @@ package com.github.noony.app.timelinefx.core;
 
 import static com.github.noony.app.timelinefx.core.FriezeObjectFactory.CREATION_LOGGING_LEVEL;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 /**
  *
@@ -33,48 +29,42 @@ public final class FriezeFactory {
 
     private static final Logger LOG = Logger.getGlobal();
 
-    private static final Map<Long, Frieze> FRIEZES = new HashMap<>();
-
     private FriezeFactory() {
         // private utility constructor
     }
 
-    public static void reset() {
-        FRIEZES.clear();
-    }
-
-    public static List<Frieze> getFriezes() {
-        return new ArrayList<>(FRIEZES.values());
+    public static List<Frieze> getFriezes(TimeLineProject aProject) {
+        return aProject.getRegistry().getAll(Frieze.class);
     }
 
-    public static Frieze getFrieze(long friezeID) {
-        return FRIEZES.get(friezeID);
+    public static Frieze getFrieze(TimeLineProject aProject, long friezeID) {
+        return aProject.getRegistry().get(friezeID, Frieze.class);
     }
 
     public static Frieze createFrieze(TimeLineProject aProject, String friezeName, List<StayPeriod> staysToConsider) {
         LOG.log(CREATION_LOGGING_LEVEL, "Creating a frieze with TimeLineProject={0} friezeName={1} staysToConsider={2} ", new Object[]{aProject, friezeName, staysToConsider});
-        var frieze = new Frieze(FriezeObjectFactory.getNextID(), aProject, friezeName, staysToConsider);
-        FRIEZES.put(frieze.getId(), frieze);
-        FriezeObjectFactory.addObject(frieze);
+        var registry = aProject.getRegistry();
+        var frieze = new Frieze(registry.nextId(), aProject, friezeName, staysToConsider);
+        registry.register(frieze, Frieze.class);
         return frieze;
     }
 
     public static Frieze createFrieze(long anID, TimeLineProject aProject, String friezeName, List<StayPeriod> staysToConsider) {
-        if (!FriezeObjectFactory.isIdAvailable(anID)) {
+        var registry = aProject.getRegistry();
+        if (!registry.isIdAvailable(anID)) {
             throw new IllegalArgumentException("trying to create a frieze " + friezeName + " with existing id=" + anID);
         }
         LOG.log(CREATION_LOGGING_LEVEL, "Creating a frieze (id={0} with TimeLineProject={1} friezeName={2} staysToConsider={3} ", new Object[]{anID, aProject, friezeName, staysToConsider});
         var frieze = new Frieze(anID, aProject, friezeName, staysToConsider);
-        FRIEZES.put(frieze.getId(), frieze);
-        FriezeObjectFactory.addObject(frieze);
+        registry.register(frieze, Frieze.class);
         return frieze;
     }
 
     public static Frieze createFrieze(TimeLineProject aProject, String friezeName) {
         LOG.log(CREATION_LOGGING_LEVEL, "Creating a frieze with TimeLineProject={0} friezeName={1}", new Object[]{aProject, friezeName});
-        var frieze = new Frieze(FriezeObjectFactory.getNextID(), aProject, friezeName);
-        FRIEZES.put(frieze.getId(), frieze);
-        FriezeObjectFactory.addObject(frieze);
+        var registry = aProject.getRegistry();
+        var frieze = new Frieze(registry.nextId(), aProject, friezeName);
+        registry.register(frieze, Frieze.class);
         return frieze;
     }
 
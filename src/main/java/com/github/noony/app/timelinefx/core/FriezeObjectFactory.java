@@ -16,12 +16,11 @@
  */
 package com.github.noony.app.timelinefx.core;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.logging.Level;
-import java.util.logging.Logger;
 
 /**
+ * Settings shared by the factories. The objects themselves are registered in
+ * the {@link ObjectRegistry} of their project.
  *
  * @author arnaud
  */
@@ -32,72 +31,7 @@ public class FriezeObjectFactory {
      */
     public static final Level CREATION_LOGGING_LEVEL = Level.FINE;
 
-    private static final Logger LOG = Logger.getGlobal();
-    private static final Map<Long, FriezeObject> OBJECTS = new HashMap<>();
-    //
-    private static long nextUniqueId = 0L;
-
     private FriezeObjectFactory() {
         // private utility constructor
     }
-
-    /**
-     * Resets all the factories and restarts the unique ID counter to 0.
-     */
-    public static final void reset() {
-        OBJECTS.clear();
-        nextUniqueId = 0L;
-        //
-        PlaceFactory.reset();
-        PersonFactory.reset();
-        StayFactory.reset();
-        PictureFactory.reset();
-        PortraitFactory.reset();
-    }
-
-    /**
-     * Checks that the object's id is not already used.
-     *
-     * @param object the object the be added
-     */
-    public static final void addObject(FriezeObject object) {
-        if (OBJECTS.containsKey(object.getId())) {
-            throw new IllegalStateException();
-        }
-        LOG.log(CREATION_LOGGING_LEVEL, "Creating object (id={0}) :: {1}", new Object[]{object.getId(), object});
-        OBJECTS.put(object.getId(), object);
-        nextUniqueId = Math.max(nextUniqueId, object.getId() + 1);
-    }
-
-    /**
-     *
-     * @return the next available unique id
-     */
-    public static final long getNextID() {
-        long result = nextUniqueId;
-        incrID();
-        return result;
-    }
-
-    /**
-     *
-     * @param id an id
-     * @return the corresponding FriezeObject if it exists, null otherwise.
-     */
-    public static final FriezeObject get(long id) {
-        return OBJECTS.get(id);
-    }
-
-    /**
-     *
-     * @param id an id
-     * @return whether the id is already used by an object.
-     */
-    public static final boolean isIdAvailable(long id) {
-        return !OBJECTS.containsKey(id);
-    }
-
-    private static void incrID() {
-        nextUniqueId++;
-    }
 }
@@ -51,17 +51,18 @@ public interface IPicture extends IDateObject, IFileObject, IDrawableObject {
     String PLACE_REMOVED = "picturePlaceRemoved";
 
     /**
-     * Searches the various factories to find the corresponding object
+     * Searches the factories for an object of the given project.
      *
+     * @param project the project the object belongs to
      * @param pictureID an object's id
      * @return the IPicture instance with the same id, null if none exists
      */
-    static IPicture getPicture(long pictureID) {
-        var picture = PictureFactory.getPicture(pictureID);
+    static IPicture getPicture(TimeLineProject project, long pictureID) {
+        var picture = PictureFactory.getPicture(project, pictureID);
         if (picture != null) {
             return picture;
         }
-        return PortraitFactory.getPortrait(pictureID);
+        return PortraitFactory.getPortrait(project, pictureID);
     }
 
     /**
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.core;
+
+import static com.github.noony.app.timelinefx.core.FriezeObjectFactory.CREATION_LOGGING_LEVEL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Unique ID allocation and lookup of the objects of one
+ * {@link TimeLineProject}.
+ *
+ * Each project owns its registry, so that several projects can be loaded,
+ * edited and saved concurrently from different threads. There is no global
+ * registry: the factories are always given the project (or an object of the
+ * project) the created or looked up object belongs to.
+ *
+ * @author hamon
+ */
+public final class ObjectRegistry {
+
+    private static final Logger LOG = Logger.getGlobal();
+
+    private final AtomicLong nextUniqueId;
+    private final Map<Long, FriezeObject> objects;
+    private final Map<Class<?>, Map<Long, FriezeObject>> objectsByType;
+
+    public ObjectRegistry() {
+        nextUniqueId = new AtomicLong(0L);
+        objects = new ConcurrentHashMap<>();
+        objectsByType = new ConcurrentHashMap<>();
+    }
+
+    /**
+     *
+     * @return the next available unique id
+     */
+    public long nextId() {
+        return nextUniqueId.getAndIncrement();
+    }
+
+    /**
+     * Registers the object, the ID allocation then continues after its id.
+     *
+     * @param object the object to register
+     * @param type the type the object can be retrieved with
+     */
+    public void register(FriezeObject object, Class<? extends FriezeObject> type) {
+        if (objects.putIfAbsent(object.getId(), object) != null) {
+            throw new IllegalStateException("An object is already registered with id=" + object.getId() + " :: " + objects.get(object.getId()));
+        }
+        LOG.log(CREATION_LOGGING_LEVEL, "Registering object (id={0}) :: {1}", new Object[]{object.getId(), object});
+        objectsByType.computeIfAbsent(type, t -> new ConcurrentHashMap<>()).put(object.getId(), object);
+        nextUniqueId.accumulateAndGet(object.getId() + 1, Math::max);
+    }
+
+    /**
+     *
+     * @param id an id
+     * @return the corresponding FriezeObject if it exists, null otherwise.
+     */
+    public FriezeObject get(long id) {
+        return objects.get(id);
+    }
+
+    /**
+     *
+     * @param <T> the type of the object
+     * @param id an id
+     * @param type the type the object was registered with
+     * @return the corresponding object if it exists with this type, null
+     * otherwise.
+     */
+    public <T extends FriezeObject> T get(long id, Class<T> type) {
+        var typedObjects = objectsByType.get(type);
+        if (typedObjects == null) {
+            return null;
+        }
+        return type.cast(typedObjects.get(id));
+    }
+
+    /**
+     *
+     * @param <T> the type of the objects
+     * @param type the type the objects were registered with
+     * @return a new list with all the objects registered with this type
+     */
+    public <T extends FriezeObject> List<T> getAll(Class<T> type) {
+        var typedObjects = objectsByType.get(type);
+        if (typedObjects == null) {
+            return new ArrayList<>();
+        }
+        var result = new ArrayList<T>(typedObjects.size());
+        typedObjects.values().forEach(object -> result.add(type.cast(object)));
+        return result;
+    }
+
+    /**
+     *
+     * @param id an id
+     * @return whether the id is already used by an object.
+     */
+    public boolean isIdAvailable(long id) {
+        return !objects.containsKey(id);
+    }
+
+    public int size() {
+        return objects.size();
+    }
+
+    /**
+     * Removes all the objects and restarts the unique ID counter to 0.
+     */
+    public void clear() {
+        objects.clear();
+        objectsByType.clear();
+        nextUniqueId.set(0L);
+    }
+}
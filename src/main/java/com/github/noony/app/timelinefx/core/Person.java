@@ -80,7 +80,9 @@ public class Person extends FriezeObject {
         dateOfBirth = aDoB;
         dateOfDeath = aDoD;
         timeFormat = TimeFormat.LOCAL_TIME;
-        propertyChangeSupport = new PropertyChangeSupport(Person.this);
+        propertyChangeSupport = new BatchedPropertyChangeSupport(Person.this)
+                .scopedTo(aProject != null ? aProject.getEventBus() : null)
+                .coalesce(BatchedPropertyChangeSupport.Coalescing.LATEST, SELECTION_CHANGED, NAME_CHANGED, PICTURE_CHANGED, COLOR_CHANGED, DEFAULT_PORTRAIT_CHANGED);
         selected = false;
         visible = true;
     }
@@ -94,7 +96,9 @@ public class Person extends FriezeObject {
         timeOfBirth = aToB;
         timeOfDeath = aToD;
         timeFormat = TimeFormat.TIME_MIN;
-        propertyChangeSupport = new PropertyChangeSupport(Person.this);
+        propertyChangeSupport = new BatchedPropertyChangeSupport(Person.this)
+                .scopedTo(aProject != null ? aProject.getEventBus() : null)
+                .coalesce(BatchedPropertyChangeSupport.Coalescing.LATEST, SELECTION_CHANGED, NAME_CHANGED, PICTURE_CHANGED, COLOR_CHANGED, DEFAULT_PORTRAIT_CHANGED);
         selected = false;
         visible = true;
     }
@@ -17,9 +17,7 @@
 package com.github.noony.app.timelinefx.core;
 
 import static com.github.noony.app.timelinefx.core.FriezeObjectFactory.CREATION_LOGGING_LEVEL;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.logging.Logger;
 import javafx.scene.paint.Color;
 
@@ -29,51 +27,49 @@ import javafx.scene.paint.Color;
  */
 public final class PersonFactory {
 
-    private static final Map<Long, Person> PERSONS = new HashMap<>();
-
     private static final Logger LOG = Logger.getGlobal();
 
     private PersonFactory() {
         // private utility constructor
     }
 
-    public static void reset() {
-        PERSONS.clear();
-    }
-
-    public static Person getPerson(long id) {
-        return PERSONS.get(id);
+    public static Person getPerson(TimeLineProject project, long id) {
+        return project.getRegistry().get(id, Person.class);
     }
 
     public static Person createPerson(TimeLineProject project, String personName) {
         LOG.log(CREATION_LOGGING_LEVEL, "Creating person with personName={0}  ", new Object[]{personName});
-        var person = new Person(project, FriezeObjectFactory.getNextID(), personName);
-        PERSONS.put(person.getId(), person);
-        FriezeObjectFactory.addObject(person);
+        var registry = project.getRegistry();
+        var person = new Person(project, registry.nextId(), personName);
+        registry.register(person, Person.class);
         return person;
     }
 
     public static Person createPerson(TimeLineProject project, String personName, Color color) {
         LOG.log(CREATION_LOGGING_LEVEL, "Creating person with personName={0} color={1} ", new Object[]{personName, color});
-        var person = new Person(project, FriezeObjectFactory.getNextID(), personName, color, null, null);
-        PERSONS.put(person.getId(), person);
-        FriezeObjectFactory.addObject(person);
+        var registry = project.getRegistry();
+        var person = new Person(project, registry.nextId(), personName, color, null, null);
+        registry.register(person, Person.class);
         return person;
     }
 
     public static Person createPerson(TimeLineProject project, long id, String personName, Color color) {
         LOG.log(CREATION_LOGGING_LEVEL, "Creating person with id={0} personName={1} color={2}", new Object[]{id, personName, color});
-        if (!FriezeObjectFactory.isIdAvailable(id)) {
-            throw new IllegalArgumentException("trying to create person " + personName + " with existing id=" + id + " (exists : " + PERSONS.get(id) + "[" + PERSONS.get(id).getId() + "])");
+        var registry = project.getRegistry();
+        if (!registry.isIdAvailable(id)) {
+            throw new IllegalArgumentException("trying to create person " + personName + " with existing id=" + id + " (exists : " + registry.get(id) + ")");
         }
         var person = new Person(project, id, personName, color, null, null);
-        PERSONS.put(person.getId(), person);
-        FriezeObjectFactory.addObject(person);
+        registry.register(person, Person.class);
         return person;
     }
 
-    public static List< Person> getPERSONS() {
-        return PERSONS.values().stream().sorted(Person.COMPARATOR).toList();
+    public static List<Person> getPersons(TimeLineProject project) {
+        return getPersons(project.getRegistry());
+    }
+
+    private static List<Person> getPersons(ObjectRegistry registry) {
+        return registry.getAll(Person.class).stream().sorted(Person.COMPARATOR).toList();
     }
 
 }
@@ -17,19 +17,16 @@
 package com.github.noony.app.timelinefx.core;
 
 import static com.github.noony.app.timelinefx.core.FriezeObjectFactory.CREATION_LOGGING_LEVEL;
+import com.github.noony.app.timelinefx.utils.ContentStore;
 import com.github.noony.app.timelinefx.utils.MetadataParser;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.io.File;
 import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import org.apache.commons.io.FileUtils;
 
 /**
  *
@@ -41,54 +38,48 @@ public final class PictureFactory {
 
     private static final Logger LOG = Logger.getGlobal();
 
-    private static final Map<Long, Picture> PICTURES = new HashMap<>();
-    private static final PropertyChangeSupport PROPERTY_CHANGE_SUPPORT = new PropertyChangeSupport(PICTURES);
+    private static final PropertyChangeSupport PROPERTY_CHANGE_SUPPORT = new PropertyChangeSupport(PictureFactory.class);
 
     private PictureFactory() {
         // private utility constructor
     }
 
-    public static void reset() {
-        PICTURES.clear();
+    public static List<Picture> getPictures(TimeLineProject project) {
+        return project.getRegistry().getAll(Picture.class);
     }
 
-    public static List<Picture> getPictures() {
-        return new ArrayList<>(PICTURES.values());
-    }
-
-    public static Picture getPicture(long pictureID) {
-        return PICTURES.get(pictureID);
+    public static Picture getPicture(TimeLineProject project, long pictureID) {
+        return project.getRegistry().get(pictureID, Picture.class);
     }
 
     public static Picture createPicture(TimeLineProject project, File originalPictureFile, String pictureName) {
         LOG.log(CREATION_LOGGING_LEVEL, "Creating picture with pictureName={0} file={1}", new Object[]{pictureName, originalPictureFile});
         File pictureFile;
-        pictureFile = new File(project.getPicturesFolder(), originalPictureFile.getName());
-        if (!pictureFile.exists()) {
-            try {
-                FileUtils.copyFile(originalPictureFile, pictureFile);
-                LOG.log(CREATION_LOGGING_LEVEL, "Copying picture file to: {0}", new Object[]{pictureFile});
-            } catch (IOException ex) {
-                LOG.log(Level.SEVERE, "Error while copying picture file to: {0} : {1}", new Object[]{pictureFile, ex});
-            }
+        try {
+            // identical pictures share the same file
+            pictureFile = ContentStore.store(originalPictureFile, project.getPicturesFolder());
+            LOG.log(CREATION_LOGGING_LEVEL, "Stored picture file as: {0}", new Object[]{pictureFile});
+        } catch (IOException ex) {
+            LOG.log(Level.SEVERE, "Error while storing picture file {0} : {1}", new Object[]{originalPictureFile, ex});
+            pictureFile = originalPictureFile;
         }
         var picInfo = MetadataParser.parseMetadata(project, pictureFile);
         assert picInfo != null;
-        var picture = new Picture(project, FriezeObjectFactory.getNextID(), pictureName, picInfo.getCreationDate().toLocalDate(), picInfo.getPath(), picInfo.getWidth(), picInfo.getHeight());
-        PICTURES.put(picture.getId(), picture);
-        FriezeObjectFactory.addObject(picture);
+        var registry = project.getRegistry();
+        var picture = new Picture(project, registry.nextId(), pictureName, picInfo.getCreationDate().toLocalDate(), picInfo.getPath(), picInfo.getWidth(), picInfo.getHeight());
+        registry.register(picture, Picture.class);
         PROPERTY_CHANGE_SUPPORT.firePropertyChange(PICTURE_ADDED, null, picture);
         return picture;
     }
 
     public static Picture createPicture(TimeLineProject project, long id, String pictureName, LocalDateTime pictureCreationDate, String picturePath, int pictureWidth, int pictureHeight) {
         LOG.log(CREATION_LOGGING_LEVEL, "Creating picture with id={0} pictureName={1}", new Object[]{id, pictureName});
-        if (!FriezeObjectFactory.isIdAvailable(id)) {
-            throw new IllegalArgumentException("Trying to create picture " + pictureName + " with existing id=" + id + " :: " + FriezeObjectFactory.get(id));
+        var registry = project.getRegistry();
+        if (!registry.isIdAvailable(id)) {
+            throw new IllegalArgumentException("Trying to create picture " + pictureName + " with existing id=" + id + " :: " + registry.get(id));
         }
         var picture = new Picture(project, id, pictureName, pictureCreationDate.toLocalDate(), picturePath, pictureWidth, pictureHeight);
-        PICTURES.put(picture.getId(), picture);
-        FriezeObjectFactory.addObject(picture);
+        registry.register(picture, Picture.class);
         PROPERTY_CHANGE_SUPPORT.firePropertyChange(PICTURE_ADDED, null, picture);
         return picture;
     }
@@ -0,0 +1,408 @@
+/*
+ * Copyright (C) 2020 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.core;
+
+import com.github.noony.app.timelinefx.utils.ContentStore;
+import com.github.noony.app.timelinefx.utils.CustomFileUtils;
+import com.github.noony.app.timelinefx.utils.ImageService;
+import com.github.noony.app.timelinefx.utils.MetadataParser;
+import com.github.noony.app.timelinefx.utils.PngExporter;
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Imports all the pictures of a folder and of its sub folders into a project.
+ *
+ * Each file is stored by content in the pictures folder of the project, see
+ * {@link ContentStore}, so that duplicates are imported once. Storing the
+ * file, probing its metadata and writing its miniature run on a pool of
+ * worker threads. At most
+ * twice as many files as workers are processed at once, the folder is walked
+ * no faster than the files are imported. Processed files are registered in
+ * batches on the executor of the thread modifying the project, like
+ * {@code Platform::runLater} for the application; all the events of the
+ * importer are fired on that executor.
+ *
+ * @author hamon
+ */
+public final class PictureImporter {
+
+    /**
+     * Fired with the list of the pictures registered in a batch.
+     */
+    public static final String PICTURES_IMPORTED = "picturesImported";
+    /**
+     * Fired with the number of processed files after each batch.
+     */
+    public static final String IMPORT_PROGRESS = "importProgress";
+    /**
+     * Fired with the file that could not be imported as old value and the
+     * exception as new value.
+     */
+    public static final String IMPORT_FAILED = "importFailed";
+    /**
+     * Fired once all the files are processed or the import is cancelled.
+     */
+    public static final String IMPORT_DONE = "importDone";
+
+    public static final int DEFAULT_BATCH_SIZE = 50;
+
+    private static final Logger LOG = Logger.getGlobal();
+
+    private static final Set<String> SUPPORTED_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "bmp", "tif", "tiff");
+
+    private final PropertyChangeSupport propertyChangeSupport = new PropertyChangeSupport(PictureImporter.this);
+
+    private final TimeLineProject project;
+    private final File sourceFolder;
+    private final Executor projectExecutor;
+    private final int nbWorkers;
+    private final int batchSize;
+
+    private final AtomicInteger nbProcessed = new AtomicInteger();
+    private final AtomicInteger nbImported = new AtomicInteger();
+    private final List<Failure> failures = Collections.synchronizedList(new ArrayList<>());
+
+    private volatile int nbFiles = 0;
+    private volatile boolean walkDone = false;
+    private volatile boolean cancelled = false;
+    private volatile boolean done = false;
+    private Thread importThread = null;
+    // only accessed on the project executor
+    private Set<String> importedPaths = null;
+
+    public PictureImporter(TimeLineProject aProject, File aSourceFolder, Executor aProjectExecutor) {
+        this(aProject, aSourceFolder, aProjectExecutor, Runtime.getRuntime().availableProcessors(), DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     *
+     * @param aProject the project to import the pictures into
+     * @param aSourceFolder the folder to import the pictures from
+     * @param aProjectExecutor the executor of the thread modifying the project
+     * @param aNbWorkers the number of files processed in parallel
+     * @param aBatchSize the number of files registered at once
+     */
+    public PictureImporter(TimeLineProject aProject, File aSourceFolder, Executor aProjectExecutor, int aNbWorkers, int aBatchSize) {
+        project = aProject;
+        sourceFolder = aSourceFolder;
+        projectExecutor = aProjectExecutor;
+        nbWorkers = Math.max(1, aNbWorkers);
+        batchSize = Math.max(1, aBatchSize);
+    }
+
+    public synchronized void start() {
+        if (importThread != null) {
+            return;
+        }
+        importThread = new Thread(this::runImport, "PictureImporter");
+        importThread.setDaemon(true);
+        importThread.start();
+    }
+
+    /**
+     * Stops the import. No new file is processed, the files already processed
+     * or being processed are still registered so that none of them is left
+     * in the pictures folder without its picture.
+     */
+    public void cancel() {
+        cancelled = true;
+        synchronized (this) {
+            if (importThread != null) {
+                importThread.interrupt();
+            }
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     *
+     * @return the number of files found so far, final once the folder is
+     * completely walked
+     */
+    public int getNbFiles() {
+        return nbFiles;
+    }
+
+    public boolean isWalkDone() {
+        return walkDone;
+    }
+
+    public int getNbProcessed() {
+        return nbProcessed.get();
+    }
+
+    public int getNbImported() {
+        return nbImported.get();
+    }
+
+    public List<Failure> getFailures() {
+        synchronized (failures) {
+            return List.copyOf(failures);
+        }
+    }
+
+    public void addListener(PropertyChangeListener listener) {
+        propertyChangeSupport.addPropertyChangeListener(listener);
+    }
+
+    public void removeListener(PropertyChangeListener listener) {
+        propertyChangeSupport.removePropertyChangeListener(listener);
+    }
+
+    private void runImport() {
+        var startTime = System.nanoTime();
+        ExecutorService workers = Executors.newFixedThreadPool(nbWorkers, runnable -> {
+            var thread = new Thread(runnable, "PictureImporter-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        var completionService = new ExecutorCompletionService<ImportedFile>(workers);
+        var maxInFlight = 2 * nbWorkers;
+        var inFlight = 0;
+        List<ImportedFile> batch = new ArrayList<>(batchSize);
+        try (var paths = Files.walk(sourceFolder.toPath())) {
+            var iterator = paths.filter(Files::isRegularFile).filter(PictureImporter::isSupported).iterator();
+            while (!cancelled && iterator.hasNext()) {
+                if (inFlight >= maxInFlight) {
+                    collect(completionService.take(), batch);
+                    inFlight--;
+                }
+                var file = iterator.next().toFile();
+                nbFiles++;
+                completionService.submit(() -> importFile(file));
+                inFlight++;
+            }
+            walkDone = !cancelled;
+            while (!cancelled && inFlight > 0) {
+                collect(completionService.take(), batch);
+                inFlight--;
+            }
+        } catch (IOException | RuntimeException ex) {
+            batch.add(new ImportedFile(sourceFolder, null, null, ex));
+        } catch (InterruptedException ex) {
+            // cancelled
+            Thread.currentThread().interrupt();
+        } finally {
+            workers.shutdown();
+            drain(completionService, inFlight, batch);
+            flush(batch);
+            // keeps the metadata read from the imported files for the next load
+            project.getMetadataCache().save();
+            projectExecutor.execute(() -> {
+                done = true;
+                propertyChangeSupport.firePropertyChange(IMPORT_DONE, null, this);
+            });
+            LOG.log(Level.INFO, "Processed {0} of {1} files from {2} in {3} ms", new Object[]{nbProcessed.get(), nbFiles, sourceFolder, (System.nanoTime() - startTime) / 1_000_000});
+        }
+    }
+
+    /**
+     * Waits for the files still being processed, their content is already
+     * stored or about to be.
+     */
+    private void drain(CompletionService<ImportedFile> completionService, int inFlight, List<ImportedFile> batch) {
+        var interrupted = Thread.interrupted();
+        var remaining = inFlight;
+        while (remaining > 0) {
+            try {
+                collect(completionService.take(), batch);
+                remaining--;
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void collect(Future<ImportedFile> result, List<ImportedFile> batch) throws InterruptedException {
+        try {
+            batch.add(result.get());
+        } catch (ExecutionException ex) {
+            // importFile catches its exceptions
+            LOG.log(Level.SEVERE, "Unexpected import failure :: {0}", new Object[]{ex});
+        }
+        nbProcessed.incrementAndGet();
+        if (batch.size() >= batchSize) {
+            flush(batch);
+        }
+    }
+
+    private void flush(List<ImportedFile> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        var batchContent = List.copyOf(batch);
+        var processed = nbProcessed.get();
+        batch.clear();
+        projectExecutor.execute(() -> register(batchContent, processed));
+    }
+
+    private ImportedFile importFile(File file) {
+        File pictureFile = null;
+        try {
+            // a picture already stored is neither copied nor decoded again
+            pictureFile = ContentStore.store(file, project.getPicturesFolder());
+            var pictureInfo = MetadataParser.parseMetadata(project, pictureFile);
+            if (pictureInfo == null) {
+                throw new IOException("Could not read the metadata of " + pictureFile);
+            }
+            // the thumbnail of the image service, which then never decodes the picture
+            var miniatureFile = ImageService.getMiniatureFile(project, pictureInfo.getPath(), ImageService.Resolution.THUMB);
+            if (!miniatureFile.exists() || miniatureFile.lastModified() < pictureFile.lastModified()) {
+                try {
+                    PngExporter.exportMiniature(pictureFile, miniatureFile, ImageService.Resolution.THUMB.getMaxSize());
+                } catch (IOException | RuntimeException ex) {
+                    // the picture is usable without its miniature
+                    LOG.log(Level.WARNING, "Could not write the miniature of {0} :: {1}", new Object[]{pictureFile, ex});
+                }
+            }
+            return new ImportedFile(file, pictureFile, pictureInfo, null);
+        } catch (IOException | RuntimeException ex) {
+            return new ImportedFile(file, pictureFile, null, ex);
+        }
+    }
+
+    private void register(List<ImportedFile> batch, int processed) {
+        if (importedPaths == null) {
+            importedPaths = PictureFactory.getPictures(project).stream()
+                    .map(Picture::getProjectRelativePath)
+                    .collect(Collectors.toCollection(HashSet::new));
+        }
+        List<Picture> pictures = new ArrayList<>(batch.size());
+        for (var importedFile : batch) {
+            if (importedFile.exception != null) {
+                fail(importedFile.file, importedFile.exception);
+                discard(importedFile);
+            } else if (!importedPaths.add(importedFile.info.getPath())) {
+                // the same content was already imported, under this name or another
+                fail(importedFile.file, new FileAlreadyExistsException(importedFile.info.getPath(), null, "already imported"));
+            } else {
+                // named after the imported file, as in the picture loader, not after its stored copy
+                var info = importedFile.info;
+                pictures.add(PictureFactory.createPicture(project, project.getRegistry().nextId(), importedFile.file.getName(), info.getCreationDate(), info.getPath(), info.getWidth(), info.getHeight()));
+            }
+        }
+        nbImported.addAndGet(pictures.size());
+        if (!pictures.isEmpty()) {
+            propertyChangeSupport.firePropertyChange(PICTURES_IMPORTED, null, pictures);
+        }
+        propertyChangeSupport.firePropertyChange(IMPORT_PROGRESS, null, processed);
+    }
+
+    /**
+     * Deletes the stored copy of a file that could not be imported, unless a
+     * picture uses it.
+     */
+    private void discard(ImportedFile importedFile) {
+        var storedFile = importedFile.storedFile;
+        if (storedFile == null || storedFile.equals(importedFile.file)
+                || importedPaths.contains(CustomFileUtils.fromAbsoluteToProjectRelative(project, storedFile))) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(storedFile.toPath());
+        } catch (IOException ex) {
+            LOG.log(Level.WARNING, "Could not delete {0} :: {1}", new Object[]{storedFile, ex});
+        }
+    }
+
+    private void fail(File file, Exception exception) {
+        LOG.log(Level.WARNING, "Could not import {0} :: {1}", new Object[]{file, exception});
+        failures.add(new Failure(file, exception));
+        propertyChangeSupport.firePropertyChange(IMPORT_FAILED, file, exception);
+    }
+
+    private static boolean isSupported(Path path) {
+        var name = path.getFileName().toString();
+        var extensionIndex = name.lastIndexOf('.');
+        return extensionIndex > 0 && SUPPORTED_EXTENSIONS.contains(name.substring(extensionIndex + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * A file that could not be imported.
+     */
+    public static final class Failure {
+
+        private final File file;
+        private final Exception exception;
+
+        private Failure(File aFile, Exception anException) {
+            file = aFile;
+            exception = anException;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public Exception getException() {
+            return exception;
+        }
+
+        @Override
+        public String toString() {
+            return file + " :: " + exception.getMessage();
+        }
+    }
+
+    private static final class ImportedFile {
+
+        private final File file;
+        private final File storedFile;
+        private final PictureInfo info;
+        private final Exception exception;
+
+        private ImportedFile(File aFile, File aStoredFile, PictureInfo anInfo, Exception anException) {
+            file = aFile;
+            storedFile = aStoredFile;
+            info = anInfo;
+            exception = anException;
+        }
+    }
+}
@@ -17,7 +17,6 @@
 package com.github.noony.app.timelinefx.core;
 
 import java.beans.PropertyChangeListener;
-import java.beans.PropertyChangeSupport;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedList;
@@ -47,7 +46,7 @@ public class Place extends FriezeObject {
     private PlaceLevel level;
     private boolean isRootPlace;
 
-    private final PropertyChangeSupport propertyChangeSupport;
+    private final BatchedPropertyChangeSupport propertyChangeSupport;
 
     // where to split into an HCI comp ?
     private Color color;
@@ -62,11 +61,13 @@ public class Place extends FriezeObject {
         places = new LinkedList<>();
         color = aColor;
         //
-        if (parentPlace != null) {
+        isRootPlace = parentPlace == null || PlaceFactory.PLACES_PLACE.equals(parentPlace);
+        // the shared PLACES_PLACE does not reference the root places of every project
+        if (!isRootPlace) {
             parentPlace.addPlace(Place.this);
         }
-        isRootPlace = parentPlace == null || PlaceFactory.PLACES_PLACE.equals(parentPlace);
-        propertyChangeSupport = new PropertyChangeSupport(Place.this);
+        propertyChangeSupport = new BatchedPropertyChangeSupport(Place.this)
+                .coalesce(BatchedPropertyChangeSupport.Coalescing.LATEST, SELECTION_CHANGED, CONTENT_CHANGED);
         selected = false;
         if (!isLowerThan(parent)) {
             throw new IllegalStateException("For place '" + name + "' (lvl " + level + ") is greater or equal than its parent place '" + (parent != null ? parent.name : "null") + "' (lvl " + (parent != null ? parent.level : "null") + ")");
@@ -81,6 +82,20 @@ public class Place extends FriezeObject {
         propertyChangeSupport.addPropertyChangeListener(listener);
     }
 
+    public void removePropertyChangeListener(PropertyChangeListener listener) {
+        propertyChangeSupport.removePropertyChangeListener(listener);
+    }
+
+    /**
+     * Scopes the events of the place to the batches of the project it is
+     * added to.
+     *
+     * @param projectBus the event bus of the project
+     */
+    protected void setEventBus(ProjectEventBus projectBus) {
+        propertyChangeSupport.scopedTo(projectBus);
+    }
+
     public void setSelected(boolean isSelected) {
         var update = selected != isSelected;
         selected = isSelected;
@@ -127,7 +142,7 @@ public class Place extends FriezeObject {
         isRootPlace = parent == null || PlaceFactory.PLACES_PLACE.equals(parent);
         if (oldParent != null & oldParent != parent) {
             oldParent.removePlace(this);
-            if (parent != null) {
+            if (!isRootPlace) {
                 parent.addPlace(this);
             }
         }
@@ -18,7 +18,7 @@ package com.github.noony.app.timelinefx.core;
 
 import static com.github.noony.app.timelinefx.core.FriezeObjectFactory.CREATION_LOGGING_LEVEL;
 
-import java.util.*;
+import java.util.List;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import javafx.scene.paint.Color;
@@ -33,72 +33,54 @@ public final class PlaceFactory {
 
     private static final Logger LOG = Logger.getGlobal();
 
-    private static final Map<Long, Place> PLACES = new HashMap<>();
-
-    private static final List<Place> ROOT_PLACES = new LinkedList<>();
-
     private PlaceFactory() {
         // private utility constructor
     }
 
-    public static void reset() {
-        PLACES.clear();
-        ROOT_PLACES.clear();
+    public static List<Place> getPlaces(TimeLineProject project) {
+        return getPlaces(project.getRegistry());
     }
 
-    public static List<Place> getPlaces() {
-        return PLACES.values().stream().sorted(Place.COMPARATOR).collect(Collectors.toList());
+    public static List<Place> getRootPlaces(TimeLineProject project) {
+        return getRootPlaces(project.getRegistry());
     }
 
-    public static List<Place> getRootPlaces() {
-        return new ArrayList<>(ROOT_PLACES);
+    public static Place getPlace(TimeLineProject project, long placeID) {
+        return project.getRegistry().get(placeID, Place.class);
     }
 
-    public static Place getPlace(long placeID) {
-        return PLACES.get(placeID);
+    public static Place createPlace(TimeLineProject project, String placeName, PlaceLevel placeLevel, Place parentPlace, Color color) {
+        return createPlace(project.getRegistry(), placeName, placeLevel, parentPlace, color);
     }
 
-    public static Place createPlace(String placeName, PlaceLevel placeLevel, Place parentPlace) {
-        LOG.log(CREATION_LOGGING_LEVEL, "Creating place with placeName={0} placeLevel={1} parentPlace={2} ", new Object[]{placeName, placeLevel, parentPlace});
-        var trueParentPlace = parentPlace != null ? parentPlace : PLACES_PLACE;
-        var place = new Place(FriezeObjectFactory.getNextID(), placeName, placeLevel, trueParentPlace);
-        PLACES.put(place.getId(), place);
-        if (place.isRootPlace()) {
-            addRootPlace(place);
-        }
-        FriezeObjectFactory.addObject(place);
-        return place;
+    public static Place createPlace(TimeLineProject project, long id, String placeName, PlaceLevel placeLevel, Place parentPlace, Color color) {
+        return createPlace(project.getRegistry(), id, placeName, placeLevel, parentPlace, color);
     }
 
-    public static Place createPlace(String placeName, PlaceLevel placeLevel, Place parentPlace, Color color) {
+    private static Place createPlace(ObjectRegistry registry, String placeName, PlaceLevel placeLevel, Place parentPlace, Color color) {
         LOG.log(CREATION_LOGGING_LEVEL, "Creating place with placeName={0} placeLevel={1} parentPlace={2} color={3} ", new Object[]{placeName, placeLevel, parentPlace, color});
         var trueParentPlace = parentPlace != null ? parentPlace : PLACES_PLACE;
-        var place = new Place(FriezeObjectFactory.getNextID(), placeName, placeLevel, trueParentPlace, color);
-        PLACES.put(place.getId(), place);
-        if (place.isRootPlace()) {
-            addRootPlace(place);
-        }
-        FriezeObjectFactory.addObject(place);
+        var place = new Place(registry.nextId(), placeName, placeLevel, trueParentPlace, color);
+        registry.register(place, Place.class);
         return place;
     }
 
-    public static Place createPlace(long id, String placeName, PlaceLevel placeLevel, Place parentPlace, Color color) {
-        if (!FriezeObjectFactory.isIdAvailable(id)) {
+    private static Place createPlace(ObjectRegistry registry, long id, String placeName, PlaceLevel placeLevel, Place parentPlace, Color color) {
+        if (!registry.isIdAvailable(id)) {
             throw new IllegalArgumentException("trying to create place " + placeName + " with existing id=" + id);
         }
         LOG.log(CREATION_LOGGING_LEVEL, "Creating place (id={0} with placeName={1} placeLevel={2} parentPlace={3} ", new Object[]{id, placeName, placeLevel, parentPlace});
         var trueParentPlace = parentPlace != null ? parentPlace : PLACES_PLACE;
         var place = new Place(id, placeName, placeLevel, trueParentPlace, color);
-        PLACES.put(place.getId(), place);
-        if (place.isRootPlace()) {
-            addRootPlace(place);
-        }
-        FriezeObjectFactory.addObject(place);
+        registry.register(place, Place.class);
         return place;
     }
 
-    private static void addRootPlace(Place aRootPlace) {
-        ROOT_PLACES.add(aRootPlace);
-        ROOT_PLACES.sort(Place.COMPARATOR);
+    private static List<Place> getPlaces(ObjectRegistry registry) {
+        return registry.getAll(Place.class).stream().sorted(Place.COMPARATOR).collect(Collectors.toList());
+    }
+
+    private static List<Place> getRootPlaces(ObjectRegistry registry) {
+        return registry.getAll(Place.class).stream().filter(Place::isRootPlace).sorted(Place.COMPARATOR).collect(Collectors.toList());
     }
 }
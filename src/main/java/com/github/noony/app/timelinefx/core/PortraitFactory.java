@@ -22,9 +22,7 @@ import com.github.noony.app.timelinefx.utils.MetadataParser;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.io.File;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.logging.Logger;
 
 /**
@@ -35,21 +33,15 @@ public final class PortraitFactory {
 
     public static final String PORTRAIT_ADDED = "portraitAdded";
 
-    private static final Map<Long, Portrait> PORTRAITS = new HashMap<>();
-
     private static final Logger LOG = Logger.getGlobal();
-    private static final PropertyChangeSupport PROPERTY_CHANGE_SUPPORT = new PropertyChangeSupport(PORTRAITS);
+    private static final PropertyChangeSupport PROPERTY_CHANGE_SUPPORT = new PropertyChangeSupport(PortraitFactory.class);
 
     private PortraitFactory() {
         // private utility constructor
     }
 
-    public static void reset() {
-        PORTRAITS.clear();
-    }
-
-    public static Portrait getPortrait(long id) {
-        return PORTRAITS.get(id);
+    public static Portrait getPortrait(TimeLineProject project, long id) {
+        return project.getRegistry().get(id, Portrait.class);
     }
 
     public static Portrait createPortrait(Person person, String filePath) {
@@ -57,30 +49,30 @@ public final class PortraitFactory {
         var file = new File(CustomFileUtils.fromProjectRelativeToAbsolute(person.getProject(), filePath));
         var picInfo = MetadataParser.parseMetadata(person.getProject(), file);
         assert picInfo != null;
-        var portrait = new Portrait(FriezeObjectFactory.getNextID(), person, filePath, picInfo.getWidth(), picInfo.getHeight());
-        PORTRAITS.put(portrait.getId(), portrait);
-        FriezeObjectFactory.addObject(portrait);
+        var registry = person.getProject().getRegistry();
+        var portrait = new Portrait(registry.nextId(), person, filePath, picInfo.getWidth(), picInfo.getHeight());
+        registry.register(portrait, Portrait.class);
         PROPERTY_CHANGE_SUPPORT.firePropertyChange(PORTRAIT_ADDED, null, portrait);
         return portrait;
     }
 
     public static Portrait createPortrait(long id, Person person, String filePath) {
         LOG.log(CREATION_LOGGING_LEVEL, "Creating portrait with id={0} person={1} filePath={2}.", new Object[]{id, person, filePath});
-        if (!FriezeObjectFactory.isIdAvailable(id)) {
-            throw new IllegalArgumentException("trying to create portrait " + filePath + " with existing id=" + id + " (exists : " + PORTRAITS.get(id) + "[" + PORTRAITS.get(id).getId() + "])");
+        var registry = person.getProject().getRegistry();
+        if (!registry.isIdAvailable(id)) {
+            throw new IllegalArgumentException("trying to create portrait " + filePath + " with existing id=" + id + " (exists : " + registry.get(id) + ")");
         }
         var file = new File(CustomFileUtils.fromProjectRelativeToAbsolute(person.getProject(), filePath));
         var picInfo = MetadataParser.parseMetadata(person.getProject(), file);
         assert picInfo != null;
         var portrait = new Portrait(id, person, filePath, picInfo.getWidth(), picInfo.getHeight());
-        PORTRAITS.put(portrait.getId(), portrait);
-        FriezeObjectFactory.addObject(portrait);
+        registry.register(portrait, Portrait.class);
         PROPERTY_CHANGE_SUPPORT.firePropertyChange(PORTRAIT_ADDED, null, portrait);
         return portrait;
     }
 
-    public static List<Portrait> getPortraits() {
-        return PORTRAITS.values().stream().sorted(Portrait.COMPARATOR).toList();
+    public static List<Portrait> getPortraits(TimeLineProject project) {
+        return project.getRegistry().getAll(Portrait.class).stream().sorted(Portrait.COMPARATOR).toList();
     }
 
     public static void addPropertyChangeListener(PropertyChangeListener listener) {
@@ -0,0 +1,266 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.core;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Project scoped transactions over the model change events.
+ *
+ * While {@link #batch(Runnable)} runs, the events fired on the batching thread
+ * by the {@link BatchedPropertyChangeSupport} instances scoped to this bus, or
+ * not scoped to any bus, are queued and coalesced. The batches of another
+ * project are independent: the events of its objects are not queued here.
+ * The queued events are delivered once, in order of first occurrence, when
+ * the outermost batch ends: this delivery is a pulse. The events fired by the
+ * listeners during a pulse are delivered synchronously and counted as
+ * cascaded. An exception thrown while an event is delivered is logged, and
+ * the rest of the pulse is still delivered.
+ *
+ * A PULSE_DELIVERED event is fired with the {@link EventPulseMetrics} of each
+ * pulse.
+ *
+ * @author hamon
+ */
+public class ProjectEventBus {
+
+    public static final String PULSE_DELIVERED = "ProjectEventBus__pulseDelivered";
+
+    private static final Logger LOG = Logger.getGlobal();
+
+    private static final ThreadLocal<ProjectEventBus> ACTIVE_BUS = new ThreadLocal<>();
+
+    private final PropertyChangeSupport propertyChangeSupport;
+    //
+    private final List<QueuedEvent> queue;
+    private final Map<CoalescingKey, QueuedEvent> coalescedEvents;
+    //
+    private int batchDepth = 0;
+    private Thread batchThread = null;
+    private boolean delivering = false;
+    private long pulseCount = 0;
+    // current pulse counters
+    private int nbQueued = 0;
+    private int nbCascaded = 0;
+    private long nbListenerCalls = 0;
+
+    public ProjectEventBus() {
+        propertyChangeSupport = new PropertyChangeSupport(ProjectEventBus.this);
+        queue = new ArrayList<>();
+        coalescedEvents = new HashMap<>();
+    }
+
+    public void addListener(PropertyChangeListener listener) {
+        propertyChangeSupport.addPropertyChangeListener(listener);
+    }
+
+    public void removeListener(PropertyChangeListener listener) {
+        propertyChangeSupport.removePropertyChangeListener(listener);
+    }
+
+    /**
+     * Runs the changes and delivers the resulting events once they are all
+     * done. Batches can be nested, the events are delivered at the end of the
+     * outermost one, even if the changes throw.
+     *
+     * @param changes the model changes to perform
+     */
+    public void batch(Runnable changes) {
+        if (batchDepth > 0 && batchThread != Thread.currentThread()) {
+            throw new IllegalStateException("The project is already batched by " + batchThread.getName());
+        }
+        // the objects not scoped to a project join the innermost batch
+        var previousBus = ACTIVE_BUS.get();
+        ACTIVE_BUS.set(this);
+        batchThread = Thread.currentThread();
+        batchDepth++;
+        try {
+            changes.run();
+        } finally {
+            batchDepth--;
+            try {
+                if (batchDepth == 0) {
+                    deliverPulse();
+                }
+            } finally {
+                if (batchDepth == 0) {
+                    batchThread = null;
+                }
+                if (previousBus == null) {
+                    ACTIVE_BUS.remove();
+                } else {
+                    ACTIVE_BUS.set(previousBus);
+                }
+            }
+        }
+    }
+
+    public boolean isBatching() {
+        return batchDepth > 0;
+    }
+
+    public long getPulseCount() {
+        return pulseCount;
+    }
+
+    static ProjectEventBus getActiveBus() {
+        return ACTIVE_BUS.get();
+    }
+
+    /**
+     *
+     * @param support the support the event was fired on
+     * @param event the event fired
+     * @return true if the event was queued, false if it must be delivered now
+     */
+    boolean enqueue(BatchedPropertyChangeSupport support, PropertyChangeEvent event) {
+        if (batchThread != Thread.currentThread()) {
+            // not batched, or batched by another thread
+            return false;
+        }
+        if (batchDepth == 0) {
+            if (delivering) {
+                nbCascaded++;
+            }
+            return false;
+        }
+        nbQueued++;
+        var coalescing = support.getCoalescing(event.getPropertyName());
+        if (coalescing == null) {
+            queue.add(new QueuedEvent(support, event));
+            return true;
+        }
+        var key = new CoalescingKey(support, event.getPropertyName());
+        var queuedEvent = coalescedEvents.get(key);
+        if (queuedEvent == null) {
+            queuedEvent = new QueuedEvent(support, event);
+            coalescedEvents.put(key, queuedEvent);
+            queue.add(queuedEvent);
+        } else if (coalescing == BatchedPropertyChangeSupport.Coalescing.SPAN) {
+            queuedEvent.event = new PropertyChangeEvent(event.getSource(), event.getPropertyName(),
+                    queuedEvent.event.getOldValue(), event.getNewValue());
+        } else {
+            queuedEvent.event = event;
+        }
+        return true;
+    }
+
+    void recordDelivery(int nbListeners) {
+        if (delivering && batchThread == Thread.currentThread()) {
+            nbListenerCalls += nbListeners;
+        }
+    }
+
+    private void deliverPulse() {
+        if (delivering) {
+            // batch opened by a listener: its events are delivered by the current pulse
+            return;
+        }
+        if (queue.isEmpty()) {
+            resetCounters();
+            return;
+        }
+        var startTime = System.nanoTime();
+        var nbDelivered = 0;
+        delivering = true;
+        try {
+            while (!queue.isEmpty()) {
+                var events = new ArrayList<>(queue);
+                queue.clear();
+                coalescedEvents.clear();
+                for (QueuedEvent queuedEvent : events) {
+                    // a failing listener must not drop the rest of the pulse
+                    try {
+                        if (deliver(queuedEvent)) {
+                            nbDelivered++;
+                        }
+                    } catch (RuntimeException ex) {
+                        LOG.log(Level.SEVERE, "Could not deliver {0} :: {1}", new Object[]{queuedEvent.event.getPropertyName(), ex});
+                    }
+                }
+            }
+        } finally {
+            delivering = false;
+            queue.clear();
+            coalescedEvents.clear();
+            pulseCount++;
+            var metrics = new EventPulseMetrics(pulseCount, nbQueued, nbDelivered, nbCascaded, nbListenerCalls, System.nanoTime() - startTime);
+            resetCounters();
+            LOG.log(Level.FINE, "Event pulse delivered :: {0}", metrics);
+            propertyChangeSupport.firePropertyChange(PULSE_DELIVERED, null, metrics);
+        }
+    }
+
+    private boolean deliver(QueuedEvent queuedEvent) {
+        var event = queuedEvent.event;
+        if (queuedEvent.support.getCoalescing(event.getPropertyName()) == BatchedPropertyChangeSupport.Coalescing.SPAN
+                && event.getOldValue() != null && Objects.equals(event.getOldValue(), event.getNewValue())) {
+            // the change was undone within the batch
+            return false;
+        }
+        nbListenerCalls += queuedEvent.support.countListeners(event.getPropertyName());
+        queuedEvent.support.deliver(event);
+        return true;
+    }
+
+    private void resetCounters() {
+        nbQueued = 0;
+        nbCascaded = 0;
+        nbListenerCalls = 0;
+    }
+
+    private static final class QueuedEvent {
+
+        private final BatchedPropertyChangeSupport support;
+        private PropertyChangeEvent event;
+
+        private QueuedEvent(BatchedPropertyChangeSupport aSupport, PropertyChangeEvent anEvent) {
+            support = aSupport;
+            event = anEvent;
+        }
+    }
+
+    private static final class CoalescingKey {
+
+        private final BatchedPropertyChangeSupport support;
+        private final String propertyName;
+
+        private CoalescingKey(BatchedPropertyChangeSupport aSupport, String aPropertyName) {
+            support = aSupport;
+            propertyName = aPropertyName;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof CoalescingKey other && support == other.support && propertyName.equals(other.propertyName);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(support) + propertyName.hashCode();
+        }
+    }
+}
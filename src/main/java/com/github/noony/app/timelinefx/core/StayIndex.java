@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Indexed storage of the stays displayed in a {@link Frieze}.
+ *
+ * Stays are kept in insertion order, in an interval tree by dates, and in
+ * secondary indexes by person and by place. The person and place used for the
+ * secondary indexes are the ones the stay had when it was added or last
+ * updated, so that a removal is always consistent even if the stay was edited
+ * in between.
+ *
+ * @author hamon
+ */
+final class StayIndex {
+
+    private final StayIntervalTree intervalTree;
+    private final Map<StayPeriod, Entry> entries;
+    private final Map<Person, Set<StayPeriod>> staysByPerson;
+    private final Map<Place, Set<StayPeriod>> staysByPlace;
+    //
+    private List<StayPeriod> staysView = null;
+
+    StayIndex() {
+        intervalTree = new StayIntervalTree();
+        entries = new LinkedHashMap<>();
+        staysByPerson = new HashMap<>();
+        staysByPlace = new HashMap<>();
+    }
+
+    /**
+     *
+     * @param stay the stay to add
+     * @return true if the stay was not already in the index
+     */
+    boolean add(StayPeriod stay) {
+        if (entries.containsKey(stay)) {
+            return false;
+        }
+        var entry = new Entry(intervalTree.insert(stay), stay.getPerson(), stay.getPlace());
+        entries.put(stay, entry);
+        staysByPerson.computeIfAbsent(entry.person, p -> new LinkedHashSet<>()).add(stay);
+        staysByPlace.computeIfAbsent(entry.place, p -> new LinkedHashSet<>()).add(stay);
+        staysView = null;
+        return true;
+    }
+
+    /**
+     *
+     * @param stay the stay to remove
+     * @return true if the stay was in the index
+     */
+    boolean remove(StayPeriod stay) {
+        var entry = entries.remove(stay);
+        if (entry == null) {
+            return false;
+        }
+        intervalTree.remove(entry.node);
+        removeFromSecondaryIndex(staysByPerson, entry.person, stay);
+        removeFromSecondaryIndex(staysByPlace, entry.place, stay);
+        staysView = null;
+        return true;
+    }
+
+    /**
+     * Re-indexes a stay after its dates, person or place changed, keeping its
+     * position in the insertion order.
+     *
+     * @param stay the stay to update
+     */
+    void update(StayPeriod stay) {
+        var entry = entries.get(stay);
+        if (entry == null) {
+            return;
+        }
+        intervalTree.remove(entry.node);
+        entry.node = intervalTree.insert(stay);
+        if (entry.person != stay.getPerson()) {
+            removeFromSecondaryIndex(staysByPerson, entry.person, stay);
+            entry.person = stay.getPerson();
+            staysByPerson.computeIfAbsent(entry.person, p -> new LinkedHashSet<>()).add(stay);
+        }
+        if (entry.place != stay.getPlace()) {
+            removeFromSecondaryIndex(staysByPlace, entry.place, stay);
+            entry.place = stay.getPlace();
+            staysByPlace.computeIfAbsent(entry.place, p -> new LinkedHashSet<>()).add(stay);
+        }
+    }
+
+    boolean contains(StayPeriod stay) {
+        return entries.containsKey(stay);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     *
+     * @return the stays, in insertion order
+     */
+    List<StayPeriod> getStays() {
+        if (staysView == null) {
+            staysView = Collections.unmodifiableList(new ArrayList<>(entries.keySet()));
+        }
+        return staysView;
+    }
+
+    StayPeriod getFirstStay() {
+        return entries.isEmpty() ? null : entries.keySet().iterator().next();
+    }
+
+    List<StayPeriod> getStays(Person person) {
+        var stays = staysByPerson.get(person);
+        return stays == null ? Collections.emptyList() : new ArrayList<>(stays);
+    }
+
+    List<StayPeriod> getStays(Place place) {
+        var stays = staysByPlace.get(place);
+        return stays == null ? Collections.emptyList() : new ArrayList<>(stays);
+    }
+
+    boolean hasStays(Place place) {
+        return staysByPlace.containsKey(place);
+    }
+
+    /**
+     *
+     * @param from lower bound of the time window
+     * @param to upper bound of the time window
+     * @return the stays overlapping [from, to], sorted by start date
+     */
+    List<StayPeriod> getStaysBetween(double from, double to) {
+        List<StayPeriod> result = new ArrayList<>();
+        intervalTree.forEachOverlapping(from, to, result::add);
+        return result;
+    }
+
+    /**
+     *
+     * @param defaultValue value returned if there is no stay
+     * @return the smallest start date
+     */
+    double getMinDate(double defaultValue) {
+        return intervalTree.isEmpty() ? defaultValue : intervalTree.getMinStart();
+    }
+
+    /**
+     *
+     * @param defaultValue value returned if there is no stay
+     * @return the greatest end date
+     */
+    double getMaxDate(double defaultValue) {
+        return intervalTree.isEmpty() ? defaultValue : intervalTree.getMaxEnd();
+    }
+
+    private static <K> void removeFromSecondaryIndex(Map<K, Set<StayPeriod>> index, K key, StayPeriod stay) {
+        var stays = index.get(key);
+        if (stays != null) {
+            stays.remove(stay);
+            if (stays.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private StayIntervalTree.Node node;
+        private Person person;
+        private Place place;
+
+        private Entry(StayIntervalTree.Node aNode, Person aPerson, Place aPlace) {
+            node = aNode;
+            person = aPerson;
+            place = aPlace;
+        }
+    }
+}
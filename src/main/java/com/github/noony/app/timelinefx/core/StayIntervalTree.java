@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.core;
+
+import java.util.function.Consumer;
+
+/**
+ * Augmented AVL tree storing stays by [start, end] interval.
+ *
+ * Nodes are ordered by start date then by stay id. Each node keeps the
+ * minimum start and maximum end of its subtree so that overlap queries can
+ * prune whole branches, and so that the global min / max dates are read from
+ * the root in constant time.
+ *
+ * The start / end dates are copied in the node when the stay is inserted: a
+ * stay whose dates changed must be removed with its node then re-inserted.
+ *
+ * @author hamon
+ */
+final class StayIntervalTree {
+
+    private Node root = null;
+    private int size = 0;
+
+    /**
+     * Inserts a stay with its current dates.
+     *
+     * @param stay the stay to insert
+     * @return the node holding the stay, to be used for removal
+     */
+    Node insert(StayPeriod stay) {
+        var node = new Node(stay, stay.getStartDate(), stay.getEndDate());
+        root = insert(root, node);
+        size++;
+        return node;
+    }
+
+    /**
+     * Removes a node previously returned by {@link #insert(StayPeriod)}.
+     *
+     * @param node the node to remove
+     */
+    void remove(Node node) {
+        root = remove(root, node);
+        size--;
+    }
+
+    void clear() {
+        root = null;
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     *
+     * @return the number of levels of the tree, 0 if empty
+     */
+    int height() {
+        return height(root);
+    }
+
+    /**
+     *
+     * @return the smallest start date, or NaN if empty
+     */
+    double getMinStart() {
+        return root == null ? Double.NaN : root.minStart;
+    }
+
+    /**
+     *
+     * @return the greatest end date, or NaN if empty
+     */
+    double getMaxEnd() {
+        return root == null ? Double.NaN : root.maxEnd;
+    }
+
+    /**
+     * Visits, in start date order, all the stays overlapping [from, to] (bounds included).
+     *
+     * @param from lower bound of the time window
+     * @param to upper bound of the time window
+     * @param consumer the consumer called on each overlapping stay
+     */
+    void forEachOverlapping(double from, double to, Consumer<StayPeriod> consumer) {
+        forEachOverlapping(root, from, to, consumer);
+    }
+
+    /**
+     * Visits all the stays in start date order.
+     *
+     * @param consumer the consumer called on each stay
+     */
+    void forEachInOrder(Consumer<StayPeriod> consumer) {
+        forEachInOrder(root, consumer);
+    }
+
+    private static void forEachOverlapping(Node node, double from, double to, Consumer<StayPeriod> consumer) {
+        if (node == null || node.maxEnd < from || node.minStart > to) {
+            return;
+        }
+        forEachOverlapping(node.left, from, to, consumer);
+        if (node.start <= to && node.end >= from) {
+            consumer.accept(node.stay);
+        }
+        if (node.start <= to) {
+            forEachOverlapping(node.right, from, to, consumer);
+        }
+    }
+
+    private static void forEachInOrder(Node node, Consumer<StayPeriod> consumer) {
+        if (node != null) {
+            forEachInOrder(node.left, consumer);
+            consumer.accept(node.stay);
+            forEachInOrder(node.right, consumer);
+        }
+    }
+
+    private static int compare(Node n1, Node n2) {
+        int result = Double.compare(n1.start, n2.start);
+        if (result == 0) {
+            result = Long.compare(n1.stay.getId(), n2.stay.getId());
+        }
+        return result;
+    }
+
+    private static Node insert(Node node, Node newNode) {
+        if (node == null) {
+            return newNode;
+        }
+        if (compare(newNode, node) < 0) {
+            node.left = insert(node.left, newNode);
+        } else {
+            node.right = insert(node.right, newNode);
+        }
+        return rebalance(node);
+    }
+
+    private static Node remove(Node node, Node toRemove) {
+        if (node == null) {
+            return null;
+        }
+        if (node == toRemove) {
+            if (node.left == null) {
+                return node.right;
+            } else if (node.right == null) {
+                return node.left;
+            }
+            var successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeMin(node.right);
+            successor.left = node.left;
+            return rebalance(successor);
+        }
+        if (compare(toRemove, node) < 0) {
+            node.left = remove(node.left, toRemove);
+        } else {
+            node.right = remove(node.right, toRemove);
+        }
+        return rebalance(node);
+    }
+
+    private static Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return rebalance(node);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.minStart = node.start;
+        node.maxEnd = node.end;
+        if (node.left != null) {
+            node.minStart = Math.min(node.minStart, node.left.minStart);
+            node.maxEnd = Math.max(node.maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            node.minStart = Math.min(node.minStart, node.right.minStart);
+            node.maxEnd = Math.max(node.maxEnd, node.right.maxEnd);
+        }
+    }
+
+    private static Node rebalance(Node node) {
+        update(node);
+        var balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        } else if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        var pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        var pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    static final class Node {
+
+        private final StayPeriod stay;
+        private final double start;
+        private final double end;
+        //
+        private Node left = null;
+        private Node right = null;
+        private int height = 1;
+        private double minStart;
+        private double maxEnd;
+
+        private Node(StayPeriod aStay, double aStart, double anEnd) {
+            stay = aStay;
+            start = aStart;
+            end = anEnd;
+            minStart = aStart;
+            maxEnd = anEnd;
+        }
+    }
+}
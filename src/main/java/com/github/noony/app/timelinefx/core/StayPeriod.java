@@ -38,7 +38,11 @@ public abstract class StayPeriod extends FriezeObject {
 
     public StayPeriod(long id, Person aPerson, Place aPlace) {
         super(id);
-        propertyChangeSupport = new PropertyChangeSupport(StayPeriod.this);
+        var project = aPerson != null ? aPerson.getProject() : null;
+        propertyChangeSupport = new BatchedPropertyChangeSupport(StayPeriod.this)
+                .scopedTo(project != null ? project.getEventBus() : null)
+                .coalesce(BatchedPropertyChangeSupport.Coalescing.SPAN, START_DATE_CHANGED, END_DATE_CHANGED)
+                .coalesce(BatchedPropertyChangeSupport.Coalescing.LATEST, PERSON_CHANGED, PLACE_CHANGED);
         person = aPerson;
         place = aPlace;
     }
@@ -18,6 +18,7 @@ package com.github.noony.app.timelinefx.core;
 
 import com.github.noony.app.timelinefx.Configuration;
 import com.github.noony.app.timelinefx.core.picturechronology.PictureChronology;
+import com.github.noony.app.timelinefx.utils.MetadataCache;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
@@ -28,11 +29,18 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -50,6 +58,7 @@ public class TimeLineProject {
     public static final String PERSON_REMOVED = "personRemoved";
     public static final String PLACE_REMOVED = "placeRemoved";
     public static final String STAY_REMOVED = "stayRemoved";
+    public static final String BATCH_ADDED = "batchAdded";
     //
     public static final String PROJECT_NAME_KEY = "projectNameKey";
     public static final String PROJECT_FOLDER_KEY = "projectFolderKey";
@@ -63,6 +72,9 @@ public class TimeLineProject {
     private static final Logger LOG = Logger.getGlobal();
 
     private final PropertyChangeSupport propertyChangeSupport;
+    private final ProjectEventBus eventBus;
+    private final ObjectRegistry registry;
+    private MetadataCache metadataCache = null;
 
     private final String name;
 
@@ -73,29 +85,54 @@ public class TimeLineProject {
     private File miniaturesFolder = null;
     private File projectFile = null;
 
+    // sorted views, membership is checked in the sets
     private final List<Place> highLevelPlaces;
+    private final Set<Place> highLevelPlacesSet;
     private final Map<String, Place> allPlaces;
 
     private final List<Person> persons;
-    private final List<StayPeriod> stays;
-    private final List<Frieze> friezes;
+    private final Set<Person> personsSet;
+    // the person and place each stay is indexed under
+    private final Map<StayPeriod, StayKeys> stays;
+    private final Map<Person, Set<StayPeriod>> staysByPerson;
+    private final Map<Place, Set<StayPeriod>> staysByPlace;
+    private final Set<Frieze> friezes;
     private final List<PictureChronology> pictureChronologies;
+    //
+    private final PropertyChangeListener stayChangesListener;
+    private final PropertyChangeListener personChangesListener;
+    private final PropertyChangeListener placeChangesListener;
+    //
+    private List<StayPeriod> staysView = null;
+    private List<Frieze> friezesView = null;
 
     protected TimeLineProject(String projectName, Map<String, String> configParams) {
         name = projectName;
         initFolders(configParams);
-        propertyChangeSupport = new PropertyChangeSupport(TimeLineProject.this);
-        highLevelPlaces = new LinkedList<>();
+        eventBus = new ProjectEventBus();
+        propertyChangeSupport = new BatchedPropertyChangeSupport(TimeLineProject.this).scopedTo(eventBus);
+        registry = new ObjectRegistry();
+        highLevelPlaces = new ArrayList<>();
+        highLevelPlacesSet = new HashSet<>();
         allPlaces = new HashMap<>();
-        persons = new LinkedList<>();
-        stays = new LinkedList<>();
-        friezes = new LinkedList<>();
+        persons = new ArrayList<>();
+        personsSet = new HashSet<>();
+        stays = new LinkedHashMap<>();
+        staysByPerson = new HashMap<>();
+        staysByPlace = new HashMap<>();
+        friezes = new LinkedHashSet<>();
         pictureChronologies = new LinkedList<>();
+        //
+        stayChangesListener = this::handleStayChange;
+        personChangesListener = this::handlePersonChange;
+        placeChangesListener = this::handleHighLevelPlaceChange;
     }
 
-
     private void initFolders(Map<String, String> configParams) {
-        var projectFolderLocation = configParams.getOrDefault(PROJECT_FOLDER_KEY, Configuration.getProjectsParentFolder() + File.separator + name);
+        // the preferences are only needed when the project location is not given
+        var projectFolderLocation = configParams.containsKey(PROJECT_FOLDER_KEY)
+                ? configParams.get(PROJECT_FOLDER_KEY)
+                : Configuration.getProjectsParentFolder() + File.separator + name;
         var portraitsFolderLocation = configParams.getOrDefault(PORTRAIT_FOLDER_KEY, DEFAULT_PORTRAIT_FOLDER);
         var picturesFolderLocation = configParams.getOrDefault(PICTURES_FOLDER_KEY, DEFAULT_PICTURES_FOLDER);
         var miniaturesFolderLocation = configParams.getOrDefault(MINIATURES_FOLDER_KEY, DEFAULT_MINIATURES_FOLDER);
@@ -202,6 +239,41 @@ public class TimeLineProject {
         return name;
     }
 
+    public ProjectEventBus getEventBus() {
+        return eventBus;
+    }
+
+    /**
+     *
+     * @return the registry of the objects of this project
+     */
+    public ObjectRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     *
+     * @return the cache of the image metadata of this project, stored beside
+     * the project file
+     */
+    public synchronized MetadataCache getMetadataCache() {
+        if (metadataCache == null) {
+            metadataCache = new MetadataCache(projectFile);
+        }
+        return metadataCache;
+    }
+
+    /**
+     * Performs changes on the project content as one transaction: the change
+     * events they fire are coalesced and delivered once all changes are done.
+     *
+     * @param changes the changes to perform
+     * @see ProjectEventBus#batch(Runnable)
+     */
+    public void batch(Runnable changes) {
+        eventBus.batch(changes);
+    }
+
     public boolean addPlace(Place aPlace) {
         if (aPlace == null) {
             return false;
@@ -212,6 +284,7 @@ public class TimeLineProject {
             addPlace(aPlace.getParent());
             if (!allPlaces.containsKey(aPlace.getName())) {
                 allPlaces.put(aPlace.getName(), aPlace);
+                aPlace.setEventBus(eventBus);
                 propertyChangeSupport.firePropertyChange(PLACE_ADDED, this, aPlace);
             }
             return true;
@@ -219,11 +292,12 @@ public class TimeLineProject {
     }
 
     public boolean addHighLevelPlace(Place aPlace) {
-        if (!highLevelPlaces.contains(aPlace)) {
-            highLevelPlaces.add(aPlace);
-            highLevelPlaces.sort(Place.COMPARATOR);
+        if (highLevelPlacesSet.add(aPlace)) {
+            insertSorted(highLevelPlaces, aPlace, Place.COMPARATOR);
+            aPlace.addPropertyChangeListener(placeChangesListener);
             if (!allPlaces.containsKey(aPlace.getName())) {
                 allPlaces.put(aPlace.getName(), aPlace);
+                aPlace.setEventBus(eventBus);
                 propertyChangeSupport.firePropertyChange(PLACE_ADDED, this, aPlace);
             }
             propertyChangeSupport.firePropertyChange(HIGH_LEVEL_PLACE_ADDED, this, aPlace);
@@ -234,7 +308,11 @@ public class TimeLineProject {
 
     public boolean removeHighLevelPlace(Place aPlace) {
         // TODO fire
-        return highLevelPlaces.remove(aPlace);
+        if (highLevelPlacesSet.remove(aPlace)) {
+            aPlace.removePropertyChangeListener(placeChangesListener);
+            return highLevelPlaces.remove(aPlace);
+        }
+        return false;
     }
 
     public List<Place> getHighLevelPlaces() {
@@ -246,30 +324,99 @@ public class TimeLineProject {
     }
 
     public void addStay(StayPeriod aStay) {
-        if (!stays.contains(aStay)) {
-            stays.add(aStay);
+        if (indexStay(aStay)) {
             propertyChangeSupport.firePropertyChange(STAY_ADDED, this, aStay);
         }
     }
 
     public void removeStay(StayPeriod aStay) {
-        if (stays.contains(aStay)) {
-            stays.remove(aStay);
+        var keys = stays.remove(aStay);
+        if (keys != null) {
+            staysView = null;
+            aStay.removeListener(stayChangesListener);
+            removeFromIndex(staysByPerson, keys.person, aStay);
+            removeFromIndex(staysByPlace, keys.place, aStay);
             propertyChangeSupport.firePropertyChange(STAY_REMOVED, this, aStay);
         }
     }
 
+    /**
+     *
+     * @return the stays, in insertion order
+     */
     public List<StayPeriod> getStays() {
-        return Collections.unmodifiableList(stays);
+        if (staysView == null) {
+            staysView = Collections.unmodifiableList(new ArrayList<>(stays.keySet()));
+        }
+        return staysView;
+    }
+
+    public List<StayPeriod> getStays(Person aPerson) {
+        var personStays = staysByPerson.get(aPerson);
+        return personStays == null ? Collections.emptyList() : new ArrayList<>(personStays);
+    }
+
+    public List<StayPeriod> getStays(Place aPlace) {
+        var placeStays = staysByPlace.get(aPlace);
+        return placeStays == null ? Collections.emptyList() : new ArrayList<>(placeStays);
+    }
+
+    /**
+     * Adds places, persons and stays in one pass.
+     *
+     * Sorting and duplicate checks are done once for the whole content, and a
+     * single BATCH_ADDED event is fired with a {@link BatchContent} holding what
+     * was actually added (nothing is fired if everything was already known).
+     *
+     * @param newPlaces places to add, their parents are added if needed
+     * @param newPersons persons to add
+     * @param newStays stays to add, their place and person are added if needed
+     * @return the content that was actually added
+     */
+    public BatchContent addAll(Collection<Place> newPlaces, Collection<Person> newPersons, Collection<? extends StayPeriod> newStays) {
+        List<Place> addedPlaces = new ArrayList<>();
+        List<Person> addedPersons = new ArrayList<>();
+        List<StayPeriod> addedStays = new ArrayList<>();
+        Set<Person> knownPersons = new HashSet<>(personsSet);
+        boolean highLevelPlacesAdded = false;
+        //
+        List<Place> placesToAdd = new ArrayList<>(newPlaces);
+        newStays.forEach(s -> placesToAdd.add(s.getPlace()));
+        for (Place place : placesToAdd) {
+            highLevelPlacesAdded |= addPlaceSilently(place, addedPlaces);
+        }
+        if (highLevelPlacesAdded) {
+            highLevelPlaces.sort(Place.COMPARATOR);
+        }
+        //
+        newPersons.stream().filter(knownPersons::add).forEachOrdered(addedPersons::add);
+        for (StayPeriod stay : newStays) {
+            if (indexStay(stay)) {
+                addedStays.add(stay);
+                if (knownPersons.add(stay.getPerson())) {
+                    addedPersons.add(stay.getPerson());
+                }
+            }
+        }
+        if (!addedPersons.isEmpty()) {
+            personsSet.addAll(addedPersons);
+            persons.addAll(addedPersons);
+            persons.sort(Person.COMPARATOR);
+            addedPersons.forEach(person -> person.addPropertyChangeListener(personChangesListener));
+        }
+        //
+        var content = new BatchContent(addedPlaces, addedPersons, addedStays);
+        if (!content.isEmpty()) {
+            propertyChangeSupport.firePropertyChange(BATCH_ADDED, this, content);
+        }
+        return content;
     }
 
     protected boolean addFrieze(Frieze frieze) {
-        if (!friezes.contains(frieze)) {
+        if (friezes.add(frieze)) {
+            friezesView = null;
             frieze.addListener(this::handleFriezeChange);
-            friezes.add(frieze);
-            frieze.getPersons().stream().filter(p -> !persons.contains(p)).forEach(persons::add);
-            frieze.getPlaces().stream().forEachOrdered(this::addPlace);
-            frieze.getStayPeriods().stream().forEachOrdered(this::addStay);
+            addAll(frieze.getPlaces(), frieze.getPersons(), frieze.getStayPeriods());
             return true;
         }
         return false;
@@ -285,7 +432,10 @@ public class TimeLineProject {
     }
 
     public List<Frieze> getFriezes() {
-        return Collections.unmodifiableList(friezes);
+        if (friezesView == null) {
+            friezesView = Collections.unmodifiableList(new ArrayList<>(friezes));
+        }
+        return friezesView;
     }
 
     public List<Person> getPersons() {
@@ -306,9 +456,9 @@ public class TimeLineProject {
     }
 
     public boolean addPerson(Person aPerson) {
-        if (!persons.contains(aPerson)) {
-            persons.add(aPerson);
-            persons.sort(Person.COMPARATOR);
+        if (personsSet.add(aPerson)) {
+            insertSorted(persons, aPerson, Person.COMPARATOR);
+            aPerson.addPropertyChangeListener(personChangesListener);
             propertyChangeSupport.firePropertyChange(PERSON_ADDED, this, aPerson);
             return true;
         }
@@ -323,6 +473,10 @@ public class TimeLineProject {
                 addPerson((Person) event.getNewValue());
             case Frieze.STAY_ADDED ->
                 addStay((StayPeriod) event.getNewValue());
+            case Frieze.BATCH_ADDED -> {
+                var content = (BatchContent) event.getNewValue();
+                addAll(content.getPlaces(), content.getPersons(), content.getStays());
+            }
             case Frieze.DATE_WINDOW_CHANGED,
                     Frieze.PERSON_REMOVED,
                     Frieze.PLACE_REMOVED,
@@ -342,6 +496,40 @@ public class TimeLineProject {
         }
     }
 
+    private void handleStayChange(PropertyChangeEvent event) {
+        switch (event.getPropertyName()) {
+            case StayPeriod.PERSON_CHANGED, StayPeriod.PLACE_CHANGED ->
+                reindexStay((StayPeriod) event.getSource());
+            case StayPeriod.START_DATE_CHANGED, StayPeriod.END_DATE_CHANGED -> {
+                // the stays are not indexed by date
+            }
+            default ->
+                throw new UnsupportedOperationException(this.getClass().getSimpleName() + " :: " + event);
+        }
+    }
+
+    private void handlePersonChange(PropertyChangeEvent event) {
+        switch (event.getPropertyName()) {
+            case Person.NAME_CHANGED ->
+                reposition(persons, (Person) event.getSource(), Person.COMPARATOR);
+            default -> {
+                // only the name orders the persons
+            }
+        }
+    }
+
+    private void handleHighLevelPlaceChange(PropertyChangeEvent event) {
+        switch (event.getPropertyName()) {
+            case Place.CONTENT_CHANGED ->
+                reposition(highLevelPlaces, (Place) event.getSource(), Place.COMPARATOR);
+            case Place.SELECTION_CHANGED -> {
+                // nothing to do
+            }
+            default ->
+                throw new UnsupportedOperationException(this.getClass().getSimpleName() + " :: " + event);
+        }
+    }
+
     private void handlePicturesChronologyChange(PropertyChangeEvent event) {
         switch (event.getPropertyName()) {
             case PictureChronology.PICTURE_ADDED,
@@ -359,7 +547,10 @@ public class TimeLineProject {
 
     public void removePlace(Place deletedPlace) {
         allPlaces.remove(deletedPlace.getName());
-        highLevelPlaces.remove(deletedPlace);
+        if (highLevelPlacesSet.remove(deletedPlace)) {
+            highLevelPlaces.remove(deletedPlace);
+            deletedPlace.removePropertyChangeListener(placeChangesListener);
+        }
         //
         if (deletedPlace.getParent() != null) {
             deletedPlace.getParent().removePlace(deletedPlace);
@@ -372,18 +563,44 @@ public class TimeLineProject {
     }
 
     public void removePerson(Person deletedPerson) {
-        if (persons.contains(deletedPerson)) {
+        if (personsSet.remove(deletedPerson)) {
             persons.remove(deletedPerson);
-            List<StayPeriod> staysToRemove = stays.stream().filter(s -> s.getPerson() == deletedPerson).toList();
-            staysToRemove.forEach(this::removeStay);
+            deletedPerson.removePropertyChangeListener(personChangesListener);
+            getStays(deletedPerson).forEach(this::removeStay);
             //
             propertyChangeSupport.firePropertyChange(PERSON_REMOVED, this, deletedPerson);
         }
     }
 
+    private boolean addPlaceSilently(Place aPlace, List<Place> addedPlaces) {
+        if (aPlace == null) {
+            return false;
+        } else if (aPlace.isRootPlace()) {
+            if (!highLevelPlacesSet.add(aPlace)) {
+                return false;
+            }
+            highLevelPlaces.add(aPlace);
+            aPlace.addPropertyChangeListener(placeChangesListener);
+            if (!allPlaces.containsKey(aPlace.getName())) {
+                allPlaces.put(aPlace.getName(), aPlace);
+                aPlace.setEventBus(eventBus);
+                addedPlaces.add(aPlace);
+            }
+            return true;
+        } else {
+            var highLevelPlaceAdded = addPlaceSilently(aPlace.getParent(), addedPlaces);
+            if (!allPlaces.containsKey(aPlace.getName())) {
+                allPlaces.put(aPlace.getName(), aPlace);
+                aPlace.setEventBus(eventBus);
+                addedPlaces.add(aPlace);
+            }
+            return highLevelPlaceAdded;
+        }
+    }
+
     private void removeChildrenPlaces(Place aParentPlace) {
-        List<Place> directChildren = allPlaces.values().stream()
-                .filter(place -> (place.getParent().equals(aParentPlace))).toList();
+        List<Place> directChildren = aParentPlace.getPlaces().stream()
+                .filter(place -> allPlaces.get(place.getName()) == place).toList();
         directChildren.forEach(child -> {
             allPlaces.remove(child.getName());
             removeStaysAt(child);
@@ -392,8 +609,72 @@ public class TimeLineProject {
     }
 
     private void removeStaysAt(Place aPlace) {
-        List<StayPeriod> staysToRemove = stays.stream().filter(s -> s.getPlace() == aPlace).toList();
-        staysToRemove.forEach(this::removeStay);
+        getStays(aPlace).forEach(this::removeStay);
+    }
+
+    private boolean indexStay(StayPeriod aStay) {
+        if (stays.containsKey(aStay)) {
+            return false;
+        }
+        stays.put(aStay, new StayKeys(aStay.getPerson(), aStay.getPlace()));
+        staysView = null;
+        staysByPerson.computeIfAbsent(aStay.getPerson(), p -> new LinkedHashSet<>()).add(aStay);
+        staysByPlace.computeIfAbsent(aStay.getPlace(), p -> new LinkedHashSet<>()).add(aStay);
+        aStay.addListener(stayChangesListener);
+        return true;
+    }
+
+    private void reindexStay(StayPeriod aStay) {
+        var keys = stays.get(aStay);
+        if (keys == null) {
+            return;
+        }
+        if (keys.person != aStay.getPerson()) {
+            removeFromIndex(staysByPerson, keys.person, aStay);
+            keys.person = aStay.getPerson();
+            staysByPerson.computeIfAbsent(keys.person, p -> new LinkedHashSet<>()).add(aStay);
+        }
+        if (keys.place != aStay.getPlace()) {
+            removeFromIndex(staysByPlace, keys.place, aStay);
+            keys.place = aStay.getPlace();
+            staysByPlace.computeIfAbsent(keys.place, p -> new LinkedHashSet<>()).add(aStay);
+        }
+    }
+
+    private static <K> void removeFromIndex(Map<K, Set<StayPeriod>> index, K key, StayPeriod aStay) {
+        var keyStays = index.get(key);
+        if (keyStays != null && keyStays.remove(aStay) && keyStays.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static <T> void insertSorted(List<T> sortedList, T element, Comparator<T> comparator) {
+        int index = Collections.binarySearch(sortedList, element, comparator);
+        sortedList.add(index < 0 ? -index - 1 : index, element);
+    }
+
+    private static <T> void reposition(List<T> sortedList, T element, Comparator<T> comparator) {
+        var index = sortedList.indexOf(element);
+        if (index < 0) {
+            return;
+        }
+        var inOrder = (index == 0 || comparator.compare(sortedList.get(index - 1), element) <= 0)
+                && (index == sortedList.size() - 1 || comparator.compare(element, sortedList.get(index + 1)) <= 0);
+        if (!inOrder) {
+            sortedList.remove(index);
+            insertSorted(sortedList, element, comparator);
+        }
+    }
+
+    private static final class StayKeys {
+
+        private Person person;
+        private Place place;
+
+        private StayKeys(Person aPerson, Place aPlace) {
+            person = aPerson;
+            place = aPlace;
+        }
     }
 
 }
@@ -38,7 +38,6 @@ public final class TimeLineProjectFactory {
 
     public static TimeLineProject createProject(String name, Map<String, String> configParams) {
         TimeLineProject timeLineProject = new TimeLineProject(name, configParams);
-        FriezeObjectFactory.reset();
         return timeLineProject;
     }
 
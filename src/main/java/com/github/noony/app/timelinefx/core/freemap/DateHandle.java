@@ -16,6 +16,7 @@
  */
 package com.github.noony.app.timelinefx.core.freemap;
 
+import com.github.noony.app.timelinefx.core.BatchedPropertyChangeSupport;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
@@ -48,7 +49,8 @@ public class DateHandle {
     private double yPos;
 
     public DateHandle(double aDate, TimeType aTimeType, Point2D aPosition) {
-        propertyChangeSupport = new PropertyChangeSupport(DateHandle.this);
+        propertyChangeSupport = new BatchedPropertyChangeSupport(DateHandle.this)
+                .coalesce(BatchedPropertyChangeSupport.Coalescing.LATEST, POSITION_CHANGED);
         propertyChangeListener = e -> DateHandle.this.handlePlotUpdate(e);
         date = aDate;
         timeType = aTimeType;
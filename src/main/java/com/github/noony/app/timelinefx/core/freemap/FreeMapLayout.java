@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.core.freemap;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.geometry.Point2D;
+
+/**
+ * Incremental layout of the places, date handles and portraits of a
+ * {@link FriezeFreeMap}.
+ *
+ * The free map records the positions it computes for its objects. Only the
+ * ones that differ from the current positions are kept as dirty, and
+ * {@link #layout()} pushes them all in a single pass, within one batch of the
+ * project event bus. The objects left in place, and their plots, fire no
+ * event, and the listeners of a moved plot are called once per pulse.
+ *
+ * @author hamon
+ */
+final class FreeMapLayout {
+
+    private static final Logger LOG = Logger.getGlobal();
+
+    private final FriezeFreeMap freeMap;
+    private final Map<FreeMapPlace, Double> placeYs;
+    private final Map<DateHandle, Double> handleXs;
+    private final Map<FreeMapPortrait, Point2D> portraitPositions;
+
+    FreeMapLayout(FriezeFreeMap aFreeMap) {
+        freeMap = aFreeMap;
+        placeYs = new LinkedHashMap<>();
+        handleXs = new LinkedHashMap<>();
+        portraitPositions = new LinkedHashMap<>();
+    }
+
+    void movePlace(FreeMapPlace place, double newY) {
+        if (Math.abs(place.getYPos() - newY) > GridPositionable.EPSILON) {
+            placeYs.put(place, newY);
+        } else {
+            placeYs.remove(place);
+        }
+    }
+
+    void moveHandle(DateHandle handle, double newX) {
+        if (Math.abs(handle.getXPos() - newX) > GridPositionable.EPSILON) {
+            handleXs.put(handle, newX);
+        } else {
+            handleXs.remove(handle);
+        }
+    }
+
+    void movePortrait(FreeMapPortrait portrait, double newX, double newY) {
+        if (Math.abs(portrait.getX() - newX) + Math.abs(portrait.getY() - newY) > GridPositionable.EPSILON) {
+            portraitPositions.put(portrait, new Point2D(newX, newY));
+        } else {
+            portraitPositions.remove(portrait);
+        }
+    }
+
+    boolean isDirty() {
+        return !placeYs.isEmpty() || !handleXs.isEmpty() || !portraitPositions.isEmpty();
+    }
+
+    /**
+     * Pushes the recorded positions to the free map objects.
+     */
+    void layout() {
+        if (!isDirty()) {
+            return;
+        }
+        var project = freeMap.getFrieze().getProject();
+        if (project != null) {
+            project.batch(this::applyPositions);
+        } else {
+            applyPositions();
+        }
+    }
+
+    private void applyPositions() {
+        // listeners called synchronously may record new positions
+        var places = new ArrayList<>(placeYs.entrySet());
+        var handles = new ArrayList<>(handleXs.entrySet());
+        var portraits = new ArrayList<>(portraitPositions.entrySet());
+        placeYs.clear();
+        handleXs.clear();
+        portraitPositions.clear();
+        //
+        handles.forEach(entry -> entry.getKey().setX(entry.getValue()));
+        places.forEach(entry -> entry.getKey().setY(entry.getValue()));
+        portraits.forEach(entry -> entry.getKey().setPosition(entry.getValue().getX(), entry.getValue().getY()));
+        LOG.log(Level.FINE, "Free map {0} laid out :: {1} places, {2} date handles and {3} portraits moved",
+                new Object[]{freeMap.getName(), places.size(), handles.size(), portraits.size()});
+    }
+}
@@ -18,8 +18,11 @@ package com.github.noony.app.timelinefx.core.freemap;
 
 import com.github.noony.app.timelinefx.core.Person;
 import com.github.noony.app.timelinefx.core.StayPeriod;
+import com.github.noony.app.timelinefx.core.BatchedPropertyChangeSupport;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -64,9 +67,10 @@ public class FreeMapPerson {
         person = aPerson;
         freeMap = aFreemap;
         //
-        propertyChangeSupport = new PropertyChangeSupport(FreeMapPerson.this);
+        propertyChangeSupport = new BatchedPropertyChangeSupport(FreeMapPerson.this)
+                .coalesce(BatchedPropertyChangeSupport.Coalescing.LATEST, FIRST_PLOT_CHANGED);
         //
-        stays = new LinkedList<>();
+        stays = new ArrayList<>();
         plots = new LinkedList<>();
         stayLinks = new HashMap<>();
         plotsByPeriod = new HashMap<>();
@@ -110,11 +114,35 @@ public class FreeMapPerson {
     }
 
     protected void addStay(StayPeriod stayPeriod) {
-        if (stays.contains(stayPeriod)) {
-            return;
+        if (addStayNoUpdate(stayPeriod)) {
+            stays.sort(StayPeriod.STAY_COMPARATOR);
+            updateFirstPlot();
+            recalculateTravelLinks();
+        }
+    }
+
+    /**
+     * Adds several stays, sorting them and recomputing the travel links only once.
+     *
+     * @param stayPeriods the stays to add
+     */
+    protected void addStays(Collection<StayPeriod> stayPeriods) {
+        var added = false;
+        for (StayPeriod stayPeriod : stayPeriods) {
+            added |= addStayNoUpdate(stayPeriod);
+        }
+        if (added) {
+            stays.sort(StayPeriod.STAY_COMPARATOR);
+            updateFirstPlot();
+            recalculateTravelLinks();
+        }
+    }
+
+    private boolean addStayNoUpdate(StayPeriod stayPeriod) {
+        if (plotsByPeriod.containsKey(stayPeriod)) {
+            return false;
         }
         stays.add(stayPeriod);
-        stays.sort(StayPeriod.STAY_COMPARATOR);
         var startPlot = new StartPlot(stayPeriod, freeMap.getPlotSize());
         var endPlot = new EndPlot(stayPeriod, freeMap.getPlotSize());
         var link = new StayLink(stayPeriod, startPlot, endPlot);
@@ -134,10 +162,7 @@ public class FreeMapPerson {
         freeMapPlace.addPlot(endPlot);
         //
         propertyChangeSupport.firePropertyChange(STAY_ADDED, this, stayPeriod);
-        //
-        updateFirstPlot();
-        recalculateTravelLinks();
-        //
+        return true;
     }
 
     protected void removeStay(StayPeriod stayPeriod) {
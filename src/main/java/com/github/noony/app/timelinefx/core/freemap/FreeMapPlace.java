@@ -18,12 +18,15 @@ package com.github.noony.app.timelinefx.core.freemap;
 
 import com.github.noony.app.timelinefx.core.Person;
 import com.github.noony.app.timelinefx.core.Place;
+import com.github.noony.app.timelinefx.core.BatchedPropertyChangeSupport;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 /**
  *
@@ -38,6 +41,7 @@ public class FreeMapPlace {
     public static final String NAME_WIDTH_CHANGED = "nameWidthChanged";
     public static final String FONT_SIZE_CHANGED = "fontSizeChanged";
     public static final String PLOT_SEPARATION_CHANGED = "plotSeparationChanged";
+    public static final String PLOTS_CHANGED = "plotsChanged";
 
     public static final double PLACE_NAME_HEIGHT = 18;
     public static final double DEFAULT_HEIGHT = 25;
@@ -51,6 +55,8 @@ public class FreeMapPlace {
     private final Place place;
     private final List<Person> persons;
     private final List<Plot> plots;
+    // abscissas of the plots when the bounds were last updated
+    private final Map<Plot, Double> plotXs;
     //
     private double yPos;
     private double fullWidth;
@@ -63,9 +69,11 @@ public class FreeMapPlace {
     private double maxX = DEFAULT_MAX_X;
 
     public FreeMapPlace(Place aPlace, double aPlotSeparation, double aNameWidth, double aFontSize) {
-        propertyChangeSupport = new PropertyChangeSupport(FreeMapPlace.this);
+        propertyChangeSupport = new BatchedPropertyChangeSupport(FreeMapPlace.this)
+                .coalesce(BatchedPropertyChangeSupport.Coalescing.LATEST, Y_POS_CHANGED, WIDTH_POS_CHANGED, HEIGHT_POS_CHANGED, MIN_MAX_X_CHANGED, NAME_WIDTH_CHANGED, FONT_SIZE_CHANGED, PLOT_SEPARATION_CHANGED, PLOTS_CHANGED);
         place = aPlace;
         plots = new LinkedList<>();
+        plotXs = new HashMap<>();
         persons = new LinkedList<>();
         plotSeparation = aPlotSeparation;
         placeNameWidth = aNameWidth;
@@ -115,9 +123,16 @@ public class FreeMapPlace {
         }
         var index = indexOf(person);
         plot.setY(yPos + (index + 1) * plotSeparation);
+        plotXs.put(plot, plot.getX());
         plot.addPropertyChangeListener(this::handlePlotChange);
-        updateMinMaxX();
+        if (plots.size() == 1) {
+            updateMinMaxX();
+        } else {
+            // a new plot can only extend the bounds, no need to go through all the plots
+            extendMinMaxX(plot.getX());
+        }
         setHeight(Math.max(PLACE_NAME_HEIGHT, plotSeparation * (persons.size() + 1)));
+        propertyChangeSupport.firePropertyChange(PLOTS_CHANGED, this, plots);
     }
 
     public double getMinX() {
@@ -145,6 +160,9 @@ public class FreeMapPlace {
     }
 
     public void setWidth(double newWidth) {
+        if (Math.abs(fullWidth - newWidth) <= GridPositionable.EPSILON) {
+            return;
+        }
         fullWidth = newWidth;
         propertyChangeSupport.firePropertyChange(WIDTH_POS_CHANGED, this, fullWidth);
     }
@@ -155,6 +173,9 @@ public class FreeMapPlace {
     }
 
     public void setY(double newY) {
+        if (Math.abs(yPos - newY) <= GridPositionable.EPSILON) {
+            return;
+        }
         var oldY = yPos;
         yPos = newY;
         plots.forEach(plot -> {
@@ -174,17 +195,28 @@ public class FreeMapPlace {
                 var personPlot = plot.getPerson();
                 var index = indexOf(personPlot);
                 plot.setY(yPos + (index + 1) * plotSeparation);
-                plot.addPropertyChangeListener(this::handlePlotChange);
             });
             updateMinMaxX();
             setHeight(Math.max(PLACE_NAME_HEIGHT, plotSeparation * (persons.size() + 1)));
+            propertyChangeSupport.firePropertyChange(PLOTS_CHANGED, this, plots);
         }
     }
 
     private void handlePlotChange(PropertyChangeEvent event) {
         switch (event.getPropertyName()) {
-            case Plot.POS_CHANGED, Plot.PLOT_DATE_CHANGED -> {
-                updateMinMaxX();
+            case Plot.POS_CHANGED -> {
+                var plot = (Plot) event.getSource();
+                var newX = plot.getX();
+                var oldX = plotXs.put(plot, newX);
+                // the bounds only depend on the abscissas, left unchanged by the moves of the place
+                if (oldX == null || Math.abs(oldX - newX) > GridPositionable.EPSILON) {
+                    moveMinMaxX(oldX, newX);
+                    propertyChangeSupport.firePropertyChange(PLOTS_CHANGED, this, plots);
+                }
+            }
+            case Plot.PLOT_DATE_CHANGED -> {
+                // the plot is moved by its new date handle
+                propertyChangeSupport.firePropertyChange(PLOTS_CHANGED, this, plots);
             }
             case Plot.PLOT_SIZE_CHANGED, Plot.PLOT_VISIBILITY_CHANGED -> {
                 // nothing to do
@@ -194,12 +226,45 @@ public class FreeMapPlace {
         }
     }
 
+    private void moveMinMaxX(Double oldX, double newX) {
+        if (oldX != null && (oldX - DEFAULT_PLACE_PADDING <= minX + GridPositionable.EPSILON && newX > oldX
+                || oldX + DEFAULT_PLACE_PADDING >= maxX - GridPositionable.EPSILON && newX < oldX)) {
+            // a plot on a bound moved inwards, the place may shrink
+            updateMinMaxX();
+        } else {
+            extendMinMaxX(newX);
+        }
+    }
+
+    private void extendMinMaxX(double plotX) {
+        var oldMin = minX;
+        var oldMax = maxX;
+        //
+        minX = Math.min(minX, plotX - DEFAULT_PLACE_PADDING);
+        maxX = Math.max(maxX, plotX + DEFAULT_PLACE_PADDING);
+        //
+        if (Math.abs(oldMax - maxX) + Math.abs(oldMin - minX) > GridPositionable.EPSILON) {
+            propertyChangeSupport.firePropertyChange(MIN_MAX_X_CHANGED, minX, maxX);
+        }
+    }
+
     private void updateMinMaxX() {
         var oldMin = minX;
         var oldMax = maxX;
         //
-        minX = plots.stream().mapToDouble(Plot::getX).min().orElse(DEFAULT_MIN_X) - DEFAULT_PLACE_PADDING;
-        maxX = plots.stream().mapToDouble(Plot::getX).max().orElse(DEFAULT_MAX_X) + DEFAULT_PLACE_PADDING;
+        if (plots.isEmpty()) {
+            minX = DEFAULT_MIN_X - DEFAULT_PLACE_PADDING;
+            maxX = DEFAULT_MAX_X + DEFAULT_PLACE_PADDING;
+        } else {
+            minX = Double.POSITIVE_INFINITY;
+            maxX = Double.NEGATIVE_INFINITY;
+            for (Plot plot : plots) {
+                var plotX = plot.getX();
+                plotXs.put(plot, plotX);
+                minX = Math.min(minX, plotX - DEFAULT_PLACE_PADDING);
+                maxX = Math.max(maxX, plotX + DEFAULT_PLACE_PADDING);
+            }
+        }
         //
         if (Math.abs(oldMax - maxX) + Math.abs(oldMin - minX) > GridPositionable.EPSILON) {
             propertyChangeSupport.firePropertyChange(MIN_MAX_X_CHANGED, minX, maxX);
@@ -18,6 +18,7 @@ package com.github.noony.app.timelinefx.core.freemap;
 
 import com.github.noony.app.timelinefx.core.Person;
 import com.github.noony.app.timelinefx.core.Portrait;
+import com.github.noony.app.timelinefx.core.BatchedPropertyChangeSupport;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 
@@ -38,7 +39,8 @@ public class FreeMapPortrait {
     private double radius;
 
     public FreeMapPortrait(Portrait aPortrait, double aRadius) {
-        propertyChangeSupport = new PropertyChangeSupport(FreeMapPortrait.this);
+        propertyChangeSupport = new BatchedPropertyChangeSupport(FreeMapPortrait.this)
+                .coalesce(BatchedPropertyChangeSupport.Coalescing.LATEST, POSITION_CHANGED, RADIUS_CHANGED);
         portrait = aPortrait;
         radius = aRadius;
         xPos = 0;
@@ -73,6 +75,14 @@ public class FreeMapPortrait {
         propertyChangeSupport.firePropertyChange(POSITION_CHANGED, xPos, yPos);
     }
 
+    public void setPosition(double x, double y) {
+        if (Math.abs(xPos - x) + Math.abs(yPos - y) > GridPositionable.EPSILON) {
+            xPos = x;
+            yPos = y;
+            propertyChangeSupport.firePropertyChange(POSITION_CHANGED, xPos, yPos);
+        }
+    }
+
     public void setRadius(double newRadius) {
         radius = newRadius;
         propertyChangeSupport.firePropertyChange(RADIUS_CHANGED, this, radius);
@@ -16,16 +16,20 @@
  */
 package com.github.noony.app.timelinefx.core.freemap;
 
+import com.github.noony.app.timelinefx.core.BatchContent;
 import com.github.noony.app.timelinefx.core.Frieze;
 import com.github.noony.app.timelinefx.core.FriezeObject;
 import com.github.noony.app.timelinefx.core.Person;
 import com.github.noony.app.timelinefx.core.Place;
 import com.github.noony.app.timelinefx.core.StayPeriod;
+import com.github.noony.app.timelinefx.core.BatchedPropertyChangeSupport;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -84,6 +88,7 @@ public final class FriezeFreeMap extends FriezeObject {
     private final List<PersonInitLink> personInitLinks;
     private final Map<Double, DateHandle> startDateHandles;
     private final Map<Double, DateHandle> endDateHandles;
+    private final FreeMapLayout layout;
     //
     private String name;
     //
@@ -110,7 +115,9 @@ public final class FriezeFreeMap extends FriezeObject {
 
     protected FriezeFreeMap(long anID, Frieze aFrieze, Dimension2D aFriezeDimension, double aPersonWidth, double aPlaceNameWidth, double aFontSize, double aPlotSeparation, boolean aPlotVisibilty, double aPlotSize) {
         super(anID);
-        propertyChangeSupport = new PropertyChangeSupport(FriezeFreeMap.this);
+        propertyChangeSupport = new BatchedPropertyChangeSupport(FriezeFreeMap.this)
+                .scopedTo(aFrieze.getProject().getEventBus())
+                .coalesce(BatchedPropertyChangeSupport.Coalescing.LATEST, LAYOUT_CHANGED, NAME_CHANGED);
         frieze = aFrieze;
         persons = new LinkedList<>();
         personInitLinks = new LinkedList<>();
@@ -119,6 +126,7 @@ public final class FriezeFreeMap extends FriezeObject {
         portraits = new HashMap<>();
         startDateHandles = new HashMap<>();
         endDateHandles = new HashMap<>();
+        layout = new FreeMapLayout(FriezeFreeMap.this);
         //
         name = DEFAULT_NAME;
         width = aFriezeDimension.getWidth();
@@ -142,15 +150,17 @@ public final class FriezeFreeMap extends FriezeObject {
         //
         frieze.getPlaces().stream().forEachOrdered(FriezeFreeMap.this::addFreeMapPlace);
         frieze.getPersons().stream().forEachOrdered(FriezeFreeMap.this::addFreeMapPerson);
+        createDateHandles();
         frieze.getStayPeriods().stream().forEachOrdered(FriezeFreeMap.this::addStay);
         //
         frieze.addListener(FriezeFreeMap.this::handleFriezeChanges);
         //
         updateLayout();
         //
-        distributePlaces();
-        distributePortraits();
-        displayTimeAsProportional();
+        computePlacePositions();
+        computePortraitPositions();
+        computeProportionalTime();
+        layout.layout();
     }
 
     protected FriezeFreeMap(long anID, Frieze aFrieze) {
@@ -383,17 +393,44 @@ public final class FriezeFreeMap extends FriezeObject {
 // </editor-fold>
     //
     public void distributePortraits() {
+        computePortraitPositions();
+        layout.layout();
+    }
+
+    public final void distributePlaces() {
+        computePlacePositions();
+        layout.layout();
+    }
+
+    public final void displayTimeAsProportional() {
+        computeProportionalTime();
+        layout.layout();
+    }
+
+    public void displayTimeAsEqualSplit() {
+        throw new UnsupportedOperationException("displayTimeAsEqualSplit :: TODO");
+    }
+
+    public double getDateX(long aDate) {
+        return (aDate - minDate) / timeRatio;
+    }
+
+    public void setPortraitRadius(double newPortraitRadius) {
+        portraitRadius = newPortraitRadius;
+        portraits.values().forEach(portrait -> portrait.setRadius(newPortraitRadius));
+    }
+
+    private void computePortraitPositions() {
         var nbPortraits = portraits.size();
         var separation = (getPersonHeight() - nbPortraits * portraitRadius * 2.0) / (1 + 2 * nbPortraits);
         var portraitList = portraits.values().stream().collect(Collectors.toList());
         for (var index = 0; index < nbPortraits; index++) {
             FreeMapPortrait portrait = portraitList.get(index);
-            portrait.setX(getPersonWidth() / 2.0);
-            portrait.setY(separation * (index + 1) + (index + 0.5) * portraitRadius * 2.0);
+            layout.movePortrait(portrait, getPersonWidth() / 2.0, separation * (index + 1) + (index + 0.5) * portraitRadius * 2.0);
         }
     }
 
-    public final void distributePlaces() {
+    private void computePlacePositions() {
         var nbPlaces = places.size();
         var freeMapPlaces = places.values().stream().sorted((p1, p2) -> Double.compare(p1.getYPos(), p2.getYPos())).collect(Collectors.toList());
         var placesHeight = freeMapPlaces.stream().mapToDouble(FreeMapPlace::getHeight).sum();
@@ -401,29 +438,16 @@ public final class FriezeFreeMap extends FriezeObject {
         var currentHeight = 0;
         for (var index = 0; index < nbPlaces; index++) {
             FreeMapPlace freeMapPlace = freeMapPlaces.get(index);
-            freeMapPlace.setY(separation * (index + 1) + currentHeight);
+            layout.movePlace(freeMapPlace, separation * (index + 1) + currentHeight);
             currentHeight += freeMapPlace.getHeight();
         }
     }
 
-    public final void displayTimeAsProportional() {
+    private void computeProportionalTime() {
         availableWidth = getPlaceDrawingWidth();
         timeRatio = (maxDate - minDate) / availableWidth;
-        startDateHandles.forEach((d, h) -> h.setX((d - minDate) / timeRatio));
-        endDateHandles.forEach((d, h) -> h.setX((d - minDate) / timeRatio));
-    }
-
-    public void displayTimeAsEqualSplit() {
-        throw new UnsupportedOperationException("displayTimeAsEqualSplit :: TODO");
-    }
-
-    public double getDateX(long aDate) {
-        return (aDate - minDate) / timeRatio;
-    }
-
-    public void setPortraitRadius(double newPortraitRadius) {
-        portraitRadius = newPortraitRadius;
-        portraits.values().forEach(portrait -> portrait.setRadius(newPortraitRadius));
+        startDateHandles.forEach((d, h) -> layout.moveHandle(h, (d - minDate) / timeRatio));
+        endDateHandles.forEach((d, h) -> layout.moveHandle(h, (d - minDate) / timeRatio));
     }
 
     private void addFreeMapPerson(Person person) {
@@ -450,6 +474,21 @@ public final class FriezeFreeMap extends FriezeObject {
         freeMapPerson.addStay(stayPeriod);
     }
 
+    private void addStays(List<StayPeriod> stayPeriods) {
+        Map<FreeMapPerson, List<StayPeriod>> staysByPerson = new LinkedHashMap<>();
+        for (StayPeriod stayPeriod : stayPeriods) {
+            var freeMapPerson = freeMapPersons.get(stayPeriod.getPerson());
+            if (freeMapPerson == null) {
+                LOG.log(Level.SEVERE, "Could not add stayDrawing ({0}) since corresponding freemapPerson ({1}) does not exits.", new Object[]{stayPeriod, stayPeriod.getPerson()});
+                continue;
+            }
+            createDateHandle(stayPeriod.getStartDate(), DateHandle.TimeType.START);
+            createDateHandle(stayPeriod.getEndDate(), DateHandle.TimeType.END);
+            staysByPerson.computeIfAbsent(freeMapPerson, p -> new ArrayList<>()).add(stayPeriod);
+        }
+        staysByPerson.forEach(FreeMapPerson::addStays);
+    }
+
     private void updateStay(StayPeriod stayPeriod) {
         var person = stayPeriod.getPerson();
         var freeMapPerson = freeMapPersons.get(person);
@@ -457,8 +496,9 @@ public final class FriezeFreeMap extends FriezeObject {
             LOG.log(Level.SEVERE, "Could not updated stayDrawing ({0}) since corresponding freemapPerson ({1}) does not exits.", new Object[]{stayPeriod, person});
             return;
         }
-        //
-        updateDateHandles(); // SHOULD HAVE BEEN TAKEN CARE BEFORE
+        // the frieze notified the date changes before the stay one
+        updateDateHandle(stayPeriod.getStartDate(), DateHandle.TimeType.START);
+        updateDateHandle(stayPeriod.getEndDate(), DateHandle.TimeType.END);
         //
         freeMapPerson.updateStay(stayPeriod);
     }
@@ -472,8 +512,9 @@ public final class FriezeFreeMap extends FriezeObject {
             return;
         }
         freeMapPerson.removeStay(stayPeriod);
-        //
-        updateDateHandles();
+        // the frieze fires no date event when a stay is removed
+        updateDateHandle(stayPeriod.getStartDate(), DateHandle.TimeType.START);
+        updateDateHandle(stayPeriod.getEndDate(), DateHandle.TimeType.END);
     }
 
     private void removePerson(Person person) {
@@ -527,6 +568,21 @@ public final class FriezeFreeMap extends FriezeObject {
         return null;
     }
 
+    /**
+     * Creates the handles of all the dates of the frieze, walking its sorted
+     * dates once instead of the two dates of every stay.
+     */
+    private void createDateHandles() {
+        for (var date : frieze.datesBetween(minDate, maxDate)) {
+            if (frieze.isStartDate(date)) {
+                createDateHandle(date, DateHandle.TimeType.START);
+            }
+            if (frieze.isEndDate(date)) {
+                createDateHandle(date, DateHandle.TimeType.END);
+            }
+        }
+    }
+
     private void removeFreeMapPlace(Place aPlace) {
         var freeMapPlace = places.remove(aPlace);
         if (freeMapPlace != null) {
@@ -536,11 +592,14 @@ public final class FriezeFreeMap extends FriezeObject {
 
     private void updateLayout() {
         var newDimension = new Dimension2D(width, height);
+        var oldPlaceDrawingWidth = placeDrawingWidth;
         placeDrawingWidth = width - personsWidth - placeNamesWidth;
         propertyChangeSupport.firePropertyChange(LAYOUT_CHANGED, this, newDimension);
-        places.values().forEach(p -> p.setWidth(getPlaceDrawingWidth()));
-        //
-        displayTimeAsProportional();
+        // a change of height keeps the places and date handles where they are
+        if (Math.abs(oldPlaceDrawingWidth - placeDrawingWidth) > GridPositionable.EPSILON) {
+            places.values().forEach(p -> p.setWidth(getPlaceDrawingWidth()));
+            displayTimeAsProportional();
+        }
     }
 
     private void updateDatePositions() {
@@ -548,57 +607,50 @@ public final class FriezeFreeMap extends FriezeObject {
         var oldMaxDate = maxDate;
         minDate = frieze.getMinDate();
         maxDate = frieze.getMaxDate();
+        if (minDate == oldMinDate && maxDate == oldMaxDate) {
+            // only the date window of the frieze moved, the handles span all its dates
+            return;
+        }
         //
         double windowChangedRadio = (double) (maxDate - minDate) / (double) (oldMaxDate - oldMinDate);
         //
-        startDateHandles.forEach((date, handle) -> {
-            var oldX = handle.getXPos();
-            var newX = oldX / windowChangedRadio;
-            handle.setX(newX);
-        });
-        endDateHandles.forEach((date, handle) -> {
-            var oldX = handle.getXPos();
-            var newX = oldX / windowChangedRadio;
-            handle.setX(newX);
-        });
-    }
-
-    private void updateDateHandles() {
-        List<Double> startDates = frieze.getStartDates();
-        List<Double> startDatesToBeRemoved = new LinkedList<>();
-        startDates.forEach(startDate -> {
-            if (!startDateHandles.containsKey(startDate)) {
-                var startDateHandle = createDateHandle(startDate, DateHandle.TimeType.START);
-                propertyChangeSupport.firePropertyChange(START_DATE_HANDLE_ADDED, this, startDateHandle);
-            }
-        });
-        startDateHandles.forEach((startDate, handle) -> {
-            if (!startDates.contains(startDate)) {
-                startDatesToBeRemoved.add(startDate);
-            }
-        });
-        startDatesToBeRemoved.forEach(startDateToRemove -> {
-            var startDateHandle = startDateHandles.remove(startDateToRemove);
-            propertyChangeSupport.firePropertyChange(START_DATE_HANDLE_REMOVED, this, startDateHandle);
-        });
-        //
-        List<Double> endDates = frieze.getEndDates();
-        List<Double> endDatesToBeRemoved = new LinkedList<>();
-        frieze.getEndDates().forEach(endDate -> {
-            if (!endDateHandles.containsKey(endDate)) {
-                var endDateHandle = createDateHandle(endDate, DateHandle.TimeType.END);
-                propertyChangeSupport.firePropertyChange(END_DATE_HANDLE_ADDED, this, endDateHandle);
+        startDateHandles.forEach((date, handle) -> layout.moveHandle(handle, handle.getXPos() / windowChangedRadio));
+        endDateHandles.forEach((date, handle) -> layout.moveHandle(handle, handle.getXPos() / windowChangedRadio));
+        layout.layout();
+    }
+
+    /**
+     * Creates or removes the handle of a single date, depending on whether it
+     * is still a start or end date of the frieze.
+     *
+     * @param date the date added to or removed from the frieze
+     * @param type the type of the date
+     */
+    private void updateDateHandle(double date, DateHandle.TimeType type) {
+        switch (type) {
+            case START -> {
+                if (frieze.isStartDate(date)) {
+                    createDateHandle(date, type);
+                } else {
+                    var startDateHandle = startDateHandles.remove(date);
+                    if (startDateHandle != null) {
+                        propertyChangeSupport.firePropertyChange(START_DATE_HANDLE_REMOVED, this, startDateHandle);
+                    }
+                }
             }
-        });
-        endDateHandles.forEach((endDate, handle) -> {
-            if (!endDates.contains(endDate)) {
-                endDatesToBeRemoved.add(endDate);
+            case END -> {
+                if (frieze.isEndDate(date)) {
+                    createDateHandle(date, type);
+                } else {
+                    var endDateHandle = endDateHandles.remove(date);
+                    if (endDateHandle != null) {
+                        propertyChangeSupport.firePropertyChange(END_DATE_HANDLE_REMOVED, this, endDateHandle);
+                    }
+                }
             }
-        });
-        endDatesToBeRemoved.forEach(endDateToRemove -> {
-            var endDateHandle = endDateHandles.remove(endDateToRemove);
-            propertyChangeSupport.firePropertyChange(END_DATE_HANDLE_REMOVED, this, endDateHandle);
-        });
+            default ->
+                throw new UnsupportedOperationException("Unknown TimeType: " + type);
+        }
     }
 
     private void handleFriezeChanges(PropertyChangeEvent event) {
@@ -625,6 +677,12 @@ public final class FriezeFreeMap extends FriezeObject {
                 var stayPeriodAdded = (StayPeriod) event.getNewValue();
                 addStay(stayPeriodAdded);
             }
+            case Frieze.BATCH_ADDED -> {
+                var content = (BatchContent) event.getNewValue();
+                content.getPlaces().forEach(this::addFreeMapPlace);
+                content.getPersons().forEach(this::addFreeMapPerson);
+                addStays(content.getStays());
+            }
             case Frieze.STAY_REMOVED -> {
                 var stayPeriodRemoved = (StayPeriod) event.getNewValue();
                 removeStay(stayPeriodRemoved);
@@ -633,17 +691,13 @@ public final class FriezeFreeMap extends FriezeObject {
                 var stayPeriodUpdated = (StayPeriod) event.getNewValue();
                 updateStay(stayPeriodUpdated);
             }
-            case Frieze.START_DATE_ADDED -> {
-                updateDateHandles();
-            }
-            case Frieze.START_DATE_REMOVED -> {
-                updateDateHandles();
-            }
-            case Frieze.END_DATE_ADDED -> {
-                updateDateHandles();
+            case Frieze.START_DATE_ADDED, Frieze.START_DATE_REMOVED -> {
+                var date = (Double) event.getNewValue();
+                updateDateHandle(date, DateHandle.TimeType.START);
             }
-            case Frieze.END_DATE_REMOVED -> {
-                updateDateHandles();
+            case Frieze.END_DATE_ADDED, Frieze.END_DATE_REMOVED -> {
+                var date = (Double) event.getNewValue();
+                updateDateHandle(date, DateHandle.TimeType.END);
             }
             case Frieze.NAME_CHANGED -> {
                 // Nothing to do
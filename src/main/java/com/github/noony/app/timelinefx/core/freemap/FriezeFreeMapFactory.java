@@ -18,11 +18,8 @@ package com.github.noony.app.timelinefx.core.freemap;
 
 import com.github.noony.app.timelinefx.core.*;
 import static com.github.noony.app.timelinefx.core.FriezeObjectFactory.CREATION_LOGGING_LEVEL;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 import javafx.geometry.Dimension2D;
 
 /**
@@ -33,59 +30,53 @@ public class FriezeFreeMapFactory {
 
     private static final Logger LOG = Logger.getGlobal();
 
-    private static final Map<Long, FriezeFreeMap> FREE_MAPS = new HashMap<>();
-
     private FriezeFreeMapFactory() {
         // private utility constructor
     }
 
-    public static final void reset() {
-        FREE_MAPS.clear();
-    }
-
-    public static List<FriezeFreeMap> getFriezeFreeMaps() {
-        return FREE_MAPS.values().stream().collect(Collectors.toList());
+    public static List<FriezeFreeMap> getFriezeFreeMaps(TimeLineProject aProject) {
+        return aProject.getRegistry().getAll(FriezeFreeMap.class);
     }
 
-    public static FriezeFreeMap getFriezeFreeMap(long friezeID) {
-        return FREE_MAPS.get(friezeID);
+    public static FriezeFreeMap getFriezeFreeMap(TimeLineProject aProject, long friezeID) {
+        return aProject.getRegistry().get(friezeID, FriezeFreeMap.class);
     }
 
     public static FriezeFreeMap createFriezeFreeMap(Frieze aFrieze, Dimension2D aFriezeDimension, double aPersonWidth, double aPlaceNameWidth, double aFontSize, double aPlotSeparation, boolean aPlotVisibilty, double aPlotSize) {
         LOG.log(CREATION_LOGGING_LEVEL, "Creating a friezeFreeMap with Frieze={0}", new Object[]{aFrieze});
-        var friezeFreeMap = new FriezeFreeMap(FriezeObjectFactory.getNextID(), aFrieze, aFriezeDimension, aPersonWidth, aPlaceNameWidth, aFontSize, aPlotSeparation, aPlotVisibilty, aPlotSize);
-        FREE_MAPS.put(friezeFreeMap.getId(), friezeFreeMap);
-        FriezeObjectFactory.addObject(friezeFreeMap);
+        var registry = aFrieze.getProject().getRegistry();
+        var friezeFreeMap = new FriezeFreeMap(registry.nextId(), aFrieze, aFriezeDimension, aPersonWidth, aPlaceNameWidth, aFontSize, aPlotSeparation, aPlotVisibilty, aPlotSize);
+        registry.register(friezeFreeMap, FriezeFreeMap.class);
         return friezeFreeMap;
     }
 
     public static FriezeFreeMap createFriezeFreeMap(long anID, Frieze aFrieze, Dimension2D aFriezeDimension, double aPersonWidth, double aPlaceNameWidth, double aFontSize, double aPlotSeparation, boolean aPlotVisibilty, double aPlotSize) {
-        if (!FriezeObjectFactory.isIdAvailable(anID)) {
+        var registry = aFrieze.getProject().getRegistry();
+        if (!registry.isIdAvailable(anID)) {
             throw new IllegalArgumentException("trying to create a friezeFreeMap with existing id=" + anID);
         }
         LOG.log(CREATION_LOGGING_LEVEL, "Creating a frieze (id={0} with Frieze={1}", new Object[]{anID, aFrieze});
-        var friezeFreeMap = new FriezeFreeMap(FriezeObjectFactory.getNextID(), aFrieze, aFriezeDimension, aPersonWidth, aPlaceNameWidth, aFontSize, aPlotSeparation, aPlotVisibilty, aPlotSize);
-        FREE_MAPS.put(friezeFreeMap.getId(), friezeFreeMap);
-        FriezeObjectFactory.addObject(friezeFreeMap);
+        var friezeFreeMap = new FriezeFreeMap(anID, aFrieze, aFriezeDimension, aPersonWidth, aPlaceNameWidth, aFontSize, aPlotSeparation, aPlotVisibilty, aPlotSize);
+        registry.register(friezeFreeMap, FriezeFreeMap.class);
         return friezeFreeMap;
     }
 
     public static FriezeFreeMap createFriezeFreeMap(Frieze aFrieze) {
         LOG.log(CREATION_LOGGING_LEVEL, "Creating a friezeFreeMap with Frieze={0} ", new Object[]{aFrieze});
-        var friezeFreeMap = new FriezeFreeMap(FriezeObjectFactory.getNextID(), aFrieze);
-        FREE_MAPS.put(friezeFreeMap.getId(), friezeFreeMap);
-        FriezeObjectFactory.addObject(friezeFreeMap);
+        var registry = aFrieze.getProject().getRegistry();
+        var friezeFreeMap = new FriezeFreeMap(registry.nextId(), aFrieze);
+        registry.register(friezeFreeMap, FriezeFreeMap.class);
         return friezeFreeMap;
     }
 
     public static FriezeFreeMap createFriezeFreeMap(long anID, Frieze aFrieze) {
-        if (!FriezeObjectFactory.isIdAvailable(anID)) {
+        var registry = aFrieze.getProject().getRegistry();
+        if (!registry.isIdAvailable(anID)) {
             throw new IllegalArgumentException("trying to create a friezeFreeMap with existing id=" + anID);
         }
         LOG.log(CREATION_LOGGING_LEVEL, "Creating a friezeFreeMap (id={0} with Frieze={1}", new Object[]{anID, aFrieze});
         var friezeFreeMap = new FriezeFreeMap(anID, aFrieze);
-        FREE_MAPS.put(friezeFreeMap.getId(), friezeFreeMap);
-        FriezeObjectFactory.addObject(friezeFreeMap);
+        registry.register(friezeFreeMap, FriezeFreeMap.class);
         return friezeFreeMap;
     }
 
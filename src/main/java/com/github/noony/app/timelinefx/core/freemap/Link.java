@@ -17,6 +17,7 @@
 package com.github.noony.app.timelinefx.core.freemap;
 
 import com.github.noony.app.timelinefx.hmi.freemap.LinkShape;
+import com.github.noony.app.timelinefx.core.BatchedPropertyChangeSupport;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import javafx.scene.paint.Color;
@@ -42,7 +43,7 @@ public class Link implements Selectable {
     private boolean isSelected = false;
 
     public Link(Plot aBeginPlot, Plot aEndPlot, LinkType type, Color aColor, LinkShape aLinkShape) {
-        propertyChangeSupport = new PropertyChangeSupport(Link.this);
+        propertyChangeSupport = new BatchedPropertyChangeSupport(Link.this);
         //
         beginPlot = aBeginPlot;
         endPlot = aEndPlot;
@@ -17,6 +17,7 @@
 package com.github.noony.app.timelinefx.core.freemap;
 
 import com.github.noony.app.timelinefx.core.Person;
+import com.github.noony.app.timelinefx.core.BatchedPropertyChangeSupport;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
@@ -42,7 +43,8 @@ public class PersonInitLink {
     private Plot firstPlot;
 
     public PersonInitLink(final FreeMapPerson aFreeMapPerson) {
-        propertyChangeSupport = new PropertyChangeSupport(PersonInitLink.this);
+        propertyChangeSupport = new BatchedPropertyChangeSupport(PersonInitLink.this)
+                .coalesce(BatchedPropertyChangeSupport.Coalescing.LATEST, FIRST_PLOT_CHANGED, FIRST_PLOT_POSITION_CHANGED);
         person = aFreeMapPerson.getPerson();
         firstPlot = aFreeMapPerson.getFirstPlot();
         aFreeMapPerson.addPropertyChangeListener(PersonInitLink.this::handleFreeMapPersonChanges);
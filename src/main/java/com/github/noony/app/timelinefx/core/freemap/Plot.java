@@ -18,6 +18,7 @@ package com.github.noony.app.timelinefx.core.freemap;
 
 import com.github.noony.app.timelinefx.core.Person;
 import com.github.noony.app.timelinefx.core.Place;
+import com.github.noony.app.timelinefx.core.BatchedPropertyChangeSupport;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import javafx.beans.property.DoubleProperty;
@@ -50,7 +51,8 @@ public class Plot implements GridPositionable, Selectable {
     private double plotSize;
 
     public Plot(Person aPerson, Place aPlace, double aDate, PlotType aType, long aPeriodID, double aPlotSize) {
-        propertyChangeSupport = new PropertyChangeSupport(Plot.this);
+        propertyChangeSupport = new BatchedPropertyChangeSupport(Plot.this)
+                .coalesce(BatchedPropertyChangeSupport.Coalescing.LATEST, POS_CHANGED, PLOT_SIZE_CHANGED, PLOT_VISIBILITY_CHANGED, PLOT_DATE_CHANGED, SELECTION_CHANGED);
         //
         person = aPerson;
         place = aPlace;
@@ -19,6 +19,7 @@ package com.github.noony.app.timelinefx.core.picturechronology;
 import com.github.noony.app.timelinefx.core.FriezeObject;
 import com.github.noony.app.timelinefx.core.Person;
 import static com.github.noony.app.timelinefx.core.picturechronology.PictureChronology.PERSON_CONTOUR_WIDTH;
+import com.github.noony.app.timelinefx.core.BatchedPropertyChangeSupport;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
@@ -58,7 +59,7 @@ public class ChronologyLink extends FriezeObject {
 
     protected ChronologyLink(long anId, Person aPerson, ChronologyPictureMiniature aStartMiniature, ChronologyPictureMiniature anEndMiniature, ChronologyLinkType aLinkType, double[] allLinkParameters) {
         super(anId);
-        propertyChangeSupport = new PropertyChangeSupport(ChronologyLink.this);
+        propertyChangeSupport = new BatchedPropertyChangeSupport(ChronologyLink.this);
         person = aPerson;
         startMiniature = aStartMiniature;
         endMiniature = anEndMiniature;
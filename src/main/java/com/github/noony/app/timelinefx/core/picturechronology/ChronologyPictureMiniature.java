@@ -21,6 +21,7 @@ import com.github.noony.app.timelinefx.core.FriezeObject;
 import com.github.noony.app.timelinefx.core.IDateObject;
 import com.github.noony.app.timelinefx.core.IPicture;
 import com.github.noony.app.timelinefx.core.Person;
+import com.github.noony.app.timelinefx.core.BatchedPropertyChangeSupport;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.util.Comparator;
@@ -49,7 +50,8 @@ public class ChronologyPictureMiniature extends FriezeObject {
 
     protected ChronologyPictureMiniature(long id, IPicture aPicture, Point2D aPosition, double aScale) {
         super(id);
-        propertyChangeSupport = new PropertyChangeSupport(ChronologyPictureMiniature.this);
+        propertyChangeSupport = new BatchedPropertyChangeSupport(ChronologyPictureMiniature.this)
+                .coalesce(BatchedPropertyChangeSupport.Coalescing.LATEST, POSITION_CHANGED, SCALE_CHANGED, TIME_CHANGED);
         picture = aPicture;
         position = aPosition;
         scale = aScale;
@@ -23,6 +23,7 @@ import com.github.noony.app.timelinefx.core.Person;
 import com.github.noony.app.timelinefx.core.PersonFactory;
 import com.github.noony.app.timelinefx.core.Picture;
 import com.github.noony.app.timelinefx.core.TimeLineProject;
+import com.github.noony.app.timelinefx.core.BatchedPropertyChangeSupport;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
@@ -70,8 +71,10 @@ public class PictureChronology extends FriezeObject implements IDrawableObject {
 
     protected PictureChronology(long anID, TimeLineProject aProject, String aName, List<ChronologyPictureMiniature> exisitingMiniatures, List<ChronologyLink> existingLinks) {
         super(anID);
-        propertyChangeSupport = new PropertyChangeSupport(PictureChronology.this);
         project = aProject;
+        propertyChangeSupport = new BatchedPropertyChangeSupport(PictureChronology.this)
+                .scopedTo(project.getEventBus())
+                .coalesce(BatchedPropertyChangeSupport.Coalescing.LATEST, LAYOUT_CHANGED, NAME_CHANGED);
         project.addPictureChronology(PictureChronology.this);
         chronologyPictures = new LinkedList<>();
         chronologyLinks = new HashMap<>();
@@ -202,7 +205,7 @@ public class PictureChronology extends FriezeObject implements IDrawableObject {
         linksNeeded.forEach((neededKey, miniatures) -> {
             if (!existingLinkKeys.contains(neededKey)) {
                 int personID = Integer.parseInt(neededKey.split("__")[0]);
-                var person = PersonFactory.getPerson(personID);
+                var person = PersonFactory.getPerson(project, personID);
                 var startMiniature = miniatures.getKey();
                 var endMiniature = miniatures.getValue();
                 var linkParameters = ChronologyLinkType.getDefaultParameters(chronologyLinkType, startMiniature, endMiniature, person);
@@ -20,11 +20,8 @@ import com.github.noony.app.timelinefx.core.FriezeObjectFactory;
 import com.github.noony.app.timelinefx.core.IPicture;
 import com.github.noony.app.timelinefx.core.Person;
 import com.github.noony.app.timelinefx.core.TimeLineProject;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 import javafx.geometry.Point2D;
 
 /**
@@ -35,111 +32,97 @@ public class PictureChronologyFactory {
 
     private static final Logger LOG = Logger.getGlobal();
 
-    private static final Map<Long, PictureChronology> PICTURES_CHRONOLOGIES = new HashMap<>();
-    private static final Map<Long, ChronologyPictureMiniature> CHRONOLOGY_PICTURES = new HashMap<>();
-    private static final Map<Long, ChronologyLink> CHRONOLOGY_LINKS = new HashMap<>();
-
     private PictureChronologyFactory() {
         // private utility constructor
     }
 
-    public static final void reset() {
-        PICTURES_CHRONOLOGIES.clear();
-        CHRONOLOGY_PICTURES.clear();
-        CHRONOLOGY_LINKS.clear();
-    }
-
-    public static List<PictureChronology> getPicturesChronologies() {
-        return PICTURES_CHRONOLOGIES.values().stream().collect(Collectors.toList());
+    public static List<PictureChronology> getPicturesChronologies(TimeLineProject aProject) {
+        return aProject.getRegistry().getAll(PictureChronology.class);
     }
 
-    public static PictureChronology getPictureChronology(long pictureChronologyID) {
-        return PICTURES_CHRONOLOGIES.get(pictureChronologyID);
+    public static PictureChronology getPictureChronology(TimeLineProject aProject, long pictureChronologyID) {
+        return aProject.getRegistry().get(pictureChronologyID, PictureChronology.class);
     }
 
     public static PictureChronology createPictureChronology(long id, TimeLineProject aProject, String pictureChronologyName) {
         LOG.log(FriezeObjectFactory.CREATION_LOGGING_LEVEL, "Creating createPictureChronology with id={0} pictureChronologyName={1}", new Object[]{id, pictureChronologyName});
-        if (!FriezeObjectFactory.isIdAvailable(id)) {
+        var registry = aProject.getRegistry();
+        if (!registry.isIdAvailable(id)) {
             throw new IllegalArgumentException("Trying to create createPictureChronology " + pictureChronologyName + " with existing id=" + id);
         }
         var pictureChronology = new PictureChronology(id, aProject, pictureChronologyName);
-        PICTURES_CHRONOLOGIES.put(pictureChronology.getId(), pictureChronology);
-        FriezeObjectFactory.addObject(pictureChronology);
+        registry.register(pictureChronology, PictureChronology.class);
         return pictureChronology;
     }
 
     public static PictureChronology createPictureChronology(long id, TimeLineProject aProject, String pictureChronologyName, List<ChronologyPictureMiniature> miniatures, List<ChronologyLink> links) {
         LOG.log(FriezeObjectFactory.CREATION_LOGGING_LEVEL, "Creating createPictureChronology with id={0} pictureChronologyName={1} nbMiniatures={2} nbLinks={3}", new Object[]{id, pictureChronologyName, miniatures.size(), links.size()});
-        if (!FriezeObjectFactory.isIdAvailable(id)) {
+        var registry = aProject.getRegistry();
+        if (!registry.isIdAvailable(id)) {
             throw new IllegalArgumentException("Trying to create createPictureChronology " + pictureChronologyName + " with existing id=" + id);
         }
         var pictureChronology = new PictureChronology(id, aProject, pictureChronologyName, miniatures, links);
-        PICTURES_CHRONOLOGIES.put(pictureChronology.getId(), pictureChronology);
-        FriezeObjectFactory.addObject(pictureChronology);
+        registry.register(pictureChronology, PictureChronology.class);
         return pictureChronology;
     }
 
     public static PictureChronology createPictureChronology(TimeLineProject aProject) {
         LOG.log(FriezeObjectFactory.CREATION_LOGGING_LEVEL, "Creating createPictureChronology with default parameters");
-        var pictureChronology = new PictureChronology(FriezeObjectFactory.getNextID(), aProject, PictureChronology.DEFAULT_NAME);
-        PICTURES_CHRONOLOGIES.put(pictureChronology.getId(), pictureChronology);
-        FriezeObjectFactory.addObject(pictureChronology);
+        var registry = aProject.getRegistry();
+        var pictureChronology = new PictureChronology(registry.nextId(), aProject, PictureChronology.DEFAULT_NAME);
+        registry.register(pictureChronology, PictureChronology.class);
         return pictureChronology;
     }
 
-    public static List<ChronologyPictureMiniature> getChronologyPictureMiniatures() {
-        return CHRONOLOGY_PICTURES.values().stream().collect(Collectors.toList());
+    public static List<ChronologyPictureMiniature> getChronologyPictureMiniatures(TimeLineProject aProject) {
+        return aProject.getRegistry().getAll(ChronologyPictureMiniature.class);
     }
 
-    public static ChronologyPictureMiniature getChronologyPictureMiniature(long chronologyPictureMiniatureID) {
-        return CHRONOLOGY_PICTURES.get(chronologyPictureMiniatureID);
+    public static ChronologyPictureMiniature getChronologyPictureMiniature(TimeLineProject aProject, long chronologyPictureMiniatureID) {
+        return aProject.getRegistry().get(chronologyPictureMiniatureID, ChronologyPictureMiniature.class);
     }
 
     public static ChronologyPictureMiniature createChronologyPictureMiniature(IPicture aPicture, Point2D aPosition, double aScale) {
         LOG.log(FriezeObjectFactory.CREATION_LOGGING_LEVEL, "Creating ChronologyPictureMiniature with picture={0} position={1} scale={2}", new Object[]{aPicture, aPosition, aScale});
-        var chronologyPictureMiniature = new ChronologyPictureMiniature(FriezeObjectFactory.getNextID(), aPicture, aPosition, aScale);
-        CHRONOLOGY_PICTURES.put(chronologyPictureMiniature.getId(), chronologyPictureMiniature);
-        FriezeObjectFactory.addObject(chronologyPictureMiniature);
+        var registry = aPicture.getProject().getRegistry();
+        var chronologyPictureMiniature = new ChronologyPictureMiniature(registry.nextId(), aPicture, aPosition, aScale);
+        registry.register(chronologyPictureMiniature, ChronologyPictureMiniature.class);
         return chronologyPictureMiniature;
     }
 
     public static ChronologyPictureMiniature createChronologyPictureMiniature(long anID, IPicture aPicture, Point2D aPosition, double aScale) {
         LOG.log(FriezeObjectFactory.CREATION_LOGGING_LEVEL, "Creating ChronologyPictureMiniature with picture={0} position={1} scale={2}", new Object[]{aPicture, aPosition, aScale});
-        if (!FriezeObjectFactory.isIdAvailable(anID)) {
-            var conflitingObject = FriezeObjectFactory.get(anID);
+        var registry = aPicture.getProject().getRegistry();
+        if (!registry.isIdAvailable(anID)) {
+            var conflitingObject = registry.get(anID);
             throw new IllegalArgumentException("Trying to create ChronologyPictureMiniature for " + aPicture.getName() + " with existing id=" + anID + " existing Object: " + conflitingObject);
         }
         var chronologyPictureMiniature = new ChronologyPictureMiniature(anID, aPicture, aPosition, aScale);
-        CHRONOLOGY_PICTURES.put(chronologyPictureMiniature.getId(), chronologyPictureMiniature);
-        FriezeObjectFactory.addObject(chronologyPictureMiniature);
+        registry.register(chronologyPictureMiniature, ChronologyPictureMiniature.class);
         return chronologyPictureMiniature;
     }
 
-    public static List<ChronologyLink> getChronologyLinks() {
-        return CHRONOLOGY_LINKS.values().stream().collect(Collectors.toList());
-    }
-
-    public static ChronologyLink getChronologyLink(long chronologyLinkID) {
-        return CHRONOLOGY_LINKS.get(chronologyLinkID);
+    public static List<ChronologyLink> getChronologyLinks(TimeLineProject aProject) {
+        return aProject.getRegistry().getAll(ChronologyLink.class);
     }
 
     public static ChronologyLink createChronologyLink(Person aPerson, ChronologyPictureMiniature aStartMiniature, ChronologyPictureMiniature anEndMiniature, ChronologyLinkType aLinkType, double[] linkParameters) {
         LOG.log(FriezeObjectFactory.CREATION_LOGGING_LEVEL, "Creating ChronologyLink with person={0} start={1} end={2}", new Object[]{aPerson, aStartMiniature, anEndMiniature});
-        var chronologyLink = new ChronologyLink(FriezeObjectFactory.getNextID(), aPerson, aStartMiniature, anEndMiniature, aLinkType, linkParameters);
-        CHRONOLOGY_LINKS.put(chronologyLink.getId(), chronologyLink);
-        FriezeObjectFactory.addObject(chronologyLink);
+        var registry = aPerson.getProject().getRegistry();
+        var chronologyLink = new ChronologyLink(registry.nextId(), aPerson, aStartMiniature, anEndMiniature, aLinkType, linkParameters);
+        registry.register(chronologyLink, ChronologyLink.class);
         return chronologyLink;
     }
 
     public static ChronologyLink createChronologyLink(long anID, Person aPerson, ChronologyPictureMiniature aStartMiniature, ChronologyPictureMiniature anEndMiniature, ChronologyLinkType aLinkType, double[] linkParameters) {
         LOG.log(FriezeObjectFactory.CREATION_LOGGING_LEVEL, "Creating ChronologyLink with id={0} person={1} start={2} end={3}", new Object[]{anID, aPerson, aStartMiniature, anEndMiniature});
-        if (!FriezeObjectFactory.isIdAvailable(anID)) {
-            var conflitingObject = FriezeObjectFactory.get(anID);
+        var registry = aPerson.getProject().getRegistry();
+        if (!registry.isIdAvailable(anID)) {
+            var conflitingObject = registry.get(anID);
             throw new IllegalArgumentException("Trying to create ChronologyLink for " + aPerson.getName() + " with existing id=" + anID + " existing Object: " + conflitingObject);
         }
         var chronologyLink = new ChronologyLink(anID, aPerson, aStartMiniature, anEndMiniature, aLinkType, linkParameters);
-        CHRONOLOGY_LINKS.put(chronologyLink.getId(), chronologyLink);
-        FriezeObjectFactory.addObject(chronologyLink);
+        registry.register(chronologyLink, ChronologyLink.class);
         return chronologyLink;
     }
 }
@@ -16,6 +16,7 @@
  */
 package com.github.noony.app.timelinefx.drawings;
 
+import javafx.geometry.Point2D;
 import javafx.scene.Group;
 import javafx.scene.Node;
 
@@ -58,6 +59,18 @@ public abstract class AbstractFxScalableNode implements IFxScalableNode {
         mainNode.setTranslateY(trY);
     }
 
+    /**
+     *
+     * @param sceneX the x coordinate of a point in the scene
+     * @param sceneY the y coordinate of a point in the scene
+     * @return the point in the coordinates the node is translated in, which
+     * may be scaled by a zoom transform
+     */
+    protected final Point2D sceneToParent(double sceneX, double sceneY) {
+        var parent = mainNode.getParent();
+        return parent != null ? parent.sceneToLocal(sceneX, sceneY) : new Point2D(sceneX, sceneY);
+    }
+
     @Override
     public double getScale() {
         return scale;
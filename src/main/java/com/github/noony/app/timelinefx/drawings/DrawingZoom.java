@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.drawings;
+
+import java.util.LinkedList;
+import java.util.List;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.transform.Scale;
+
+/**
+ * Applies the zoom level of a drawing, at most once per pulse.
+ *
+ * In {@link ZoomMode#TRANSFORM} the scaled nodes of the drawing get a single
+ * {@link Scale} transform, the drawing being only laid out again, at its
+ * {@link ZoomMode#getLayoutScale(double) layout scale}, when the zoom crosses
+ * a power of two. Stroke widths, text levels of detail and image resolutions
+ * thus follow the zoom by steps.
+ *
+ * @author hamon
+ */
+public final class DrawingZoom {
+
+    private final Runnable layoutUpdater;
+    private final Runnable sizeUpdater;
+    private final List<Scale> transforms;
+    //
+    private ZoomMode mode;
+    private double scale;
+    private double layoutScale;
+    private boolean updateRequested = false;
+
+    /**
+     *
+     * @param aMode the zoom mode
+     * @param aScale the initial zoom level
+     * @param aLayoutUpdater lays out the drawing at the layout scale, including
+     * what the size updater does
+     * @param aSizeUpdater updates the few nodes that are not scaled by the
+     * transform, such as the drawing size and background
+     */
+    public DrawingZoom(ZoomMode aMode, double aScale, Runnable aLayoutUpdater, Runnable aSizeUpdater) {
+        mode = aMode;
+        scale = aScale;
+        layoutScale = mode.getLayoutScale(scale);
+        layoutUpdater = aLayoutUpdater;
+        sizeUpdater = aSizeUpdater;
+        transforms = new LinkedList<>();
+    }
+
+    /**
+     *
+     * @param node a node scaled as a whole in {@link ZoomMode#TRANSFORM}
+     * @return the transform added to the node, its pivot being at the origin
+     */
+    public Scale addScaledNode(Node node) {
+        var ratio = getRatio();
+        var transform = new Scale(ratio, ratio);
+        node.getTransforms().add(transform);
+        transforms.add(transform);
+        return transform;
+    }
+
+    public ZoomMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Lays the drawing out again in the given mode.
+     *
+     * @param aMode the new zoom mode
+     */
+    public void setMode(ZoomMode aMode) {
+        if (mode != aMode) {
+            mode = aMode;
+            layoutScale = Double.NaN;
+            applyScale();
+        }
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    /**
+     *
+     * @return the scale the nodes of the drawing are currently laid out at
+     */
+    public double getLayoutScale() {
+        return layoutScale;
+    }
+
+    /**
+     *
+     * @return the ratio the scaled nodes are currently transformed with
+     */
+    public double getRatio() {
+        return scale / layoutScale;
+    }
+
+    /**
+     * Records the new zoom level, applied on the next pulse together with the
+     * other zoom changes received until then.
+     *
+     * @param newScale the new zoom level
+     */
+    public void requestScale(double newScale) {
+        scale = newScale;
+        if (!updateRequested) {
+            updateRequested = true;
+            Platform.runLater(this::applyScale);
+        }
+    }
+
+    /**
+     * Applies the last requested zoom level.
+     */
+    public void applyScale() {
+        updateRequested = false;
+        var newLayoutScale = mode.getLayoutScale(scale);
+        var layoutChanged = newLayoutScale != layoutScale;
+        layoutScale = newLayoutScale;
+        var ratio = getRatio();
+        transforms.forEach(transform -> {
+            transform.setX(ratio);
+            transform.setY(ratio);
+        });
+        if (layoutChanged) {
+            layoutUpdater.run();
+        } else {
+            sizeUpdater.run();
+        }
+    }
+}
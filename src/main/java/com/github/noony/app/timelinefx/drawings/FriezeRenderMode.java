@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.drawings;
+
+/**
+ * How a frieze view draws the stays of its frieze.
+ *
+ * @author hamon
+ */
+public enum FriezeRenderMode {
+    /**
+     * One node per stay, for small friezes.
+     */
+    SCENE_GRAPH,
+    /**
+     * All the stays painted on a single canvas, for large friezes.
+     */
+    CANVAS;
+
+    /**
+     * Number of stays from which a frieze is displayed on a canvas by default.
+     */
+    public static final int CANVAS_MIN_NB_STAYS = 2000;
+
+    /**
+     *
+     * @param nbStays the number of stays of a frieze
+     * @return the render mode a frieze with this number of stays is displayed
+     * with by default
+     */
+    public static FriezeRenderMode getDefault(int nbStays) {
+        return nbStays >= CANVAS_MIN_NB_STAYS ? CANVAS : SCENE_GRAPH;
+    }
+}
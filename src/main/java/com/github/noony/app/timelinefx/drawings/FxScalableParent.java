@@ -44,12 +44,15 @@ public class FxScalableParent implements IFxScalableNode {
 
     private final Pane mainNode;
     private final Group mainGroup;
+    // scaled as a whole by the zoom in ZoomMode.TRANSFORM
+    private final Group scaledGroup;
     //
     private final Rectangle background;
     //
     private final List<IFxScalableNode> scalableNodes;
     //
     private final IDrawableObject drawableObject;
+    private final DrawingZoom zoom;
     //
     private double drawingWidth;
     private double drawingHeight;
@@ -68,10 +71,14 @@ public class FxScalableParent implements IFxScalableNode {
         //
         mainNode = new Pane();
         mainGroup = new Group();
+        scaledGroup = new Group();
         //
         background = new Rectangle(500, 500);
         background.setFill(Color.BLACK);
         //
+        zoom = new DrawingZoom(ZoomMode.LAYOUT, viewingScale, FxScalableParent.this::updateLayout, FxScalableParent.this::updateSize);
+        zoom.addScaledNode(scaledGroup);
+        //
         initFx();
     }
 
@@ -85,16 +92,16 @@ public class FxScalableParent implements IFxScalableNode {
 
     protected final void addNode(Object anObject) {
         if (anObject instanceof Node node) {
-            mainGroup.getChildren().add(node);
+            scaledGroup.getChildren().add(node);
         } else if (anObject instanceof IFxScalableNode scalableNode) {
             registerScalableNode(scalableNode);
-            mainGroup.getChildren().add(scalableNode.getNode());
+            scaledGroup.getChildren().add(scalableNode.getNode());
         }
     }
 
     protected void registerScalableNode(IFxScalableNode scalableNode) {
         scalableNodes.add(scalableNode);
-        scalableNode.updateScale(viewingScale);
+        scalableNode.updateScale(getLayoutScale());
     }
 
     protected void unregisterScalableNode(IFxScalableNode scalableNode) {
@@ -115,6 +122,23 @@ public class FxScalableParent implements IFxScalableNode {
         return viewingScale;
     }
 
+    /**
+     *
+     * @return the scale the scalable nodes are currently laid out at, equal to
+     * the zoom level in {@link ZoomMode#LAYOUT}
+     */
+    public double getLayoutScale() {
+        return zoom.getLayoutScale();
+    }
+
+    public ZoomMode getZoomMode() {
+        return zoom.getMode();
+    }
+
+    public void setZoomMode(ZoomMode aZoomMode) {
+        zoom.setMode(aZoomMode);
+    }
+
     @Override
     public void updateScale(double newScale) {
         if (newScale > MAX_SCALE) {
@@ -123,19 +147,20 @@ public class FxScalableParent implements IFxScalableNode {
             viewingScale = Math.max(newScale, MIN_SCALE);
         }
         propertyChangeSupport.firePropertyChange(ZOOM_LEVEL_CHANGED, this, viewingScale);
-        updateLayout();
+        // consecutive zoom steps, e.g. from the mouse wheel, are laid out once per pulse
+        zoom.requestScale(viewingScale);
     }
 
     public void zoomIn() {
         viewingScale = Math.min(MAX_SCALE, viewingScale + SCALE_STEP);
         propertyChangeSupport.firePropertyChange(ZOOM_LEVEL_CHANGED, this, viewingScale);
-        updateLayout();
+        zoom.requestScale(viewingScale);
     }
 
     public void zoomOut() {
         viewingScale = Math.max(MIN_SCALE, viewingScale - SCALE_STEP);
         propertyChangeSupport.firePropertyChange(ZOOM_LEVEL_CHANGED, this, viewingScale);
-        updateLayout();
+        zoom.requestScale(viewingScale);
     }
 
     protected double getDrawingWidth() {
@@ -148,12 +173,12 @@ public class FxScalableParent implements IFxScalableNode {
 
     private void updateWidth() {
         drawingWidth = (drawableObject.getWidth() + 2 * (PADDING)) * viewingScale;
-        background.setWidth(drawingWidth);
+        background.setWidth((drawableObject.getWidth() + 2 * (PADDING)) * getLayoutScale());
     }
 
     private void updateHeight() {
         drawingHeight = (drawableObject.getHeight() + 2 * (PADDING)) * viewingScale;
-        background.setHeight(drawingHeight);
+        background.setHeight((drawableObject.getHeight() + 2 * (PADDING)) * getLayoutScale());
     }
 
     public double getWidth() {
@@ -170,15 +195,21 @@ public class FxScalableParent implements IFxScalableNode {
         background.setArcHeight(PADDING);
         //
         mainNode.getChildren().addAll(mainGroup);
-        mainGroup.getChildren().addAll(background);
+        mainGroup.getChildren().addAll(scaledGroup);
+        scaledGroup.getChildren().addAll(background);
         //
 //        updateLayout();
     }
 
     public void updateLayout() {
+        var layoutScale = getLayoutScale();
+        scalableNodes.forEach(node -> node.updateScale(layoutScale));
+        updateSize();
+    }
+
+    private void updateSize() {
         updateWidth();
         updateHeight();
-        scalableNodes.forEach(node -> node.updateScale(viewingScale));
         //
         mainGroup.setTranslateX(BORDER * viewingScale);
         mainGroup.setTranslateY(BORDER * viewingScale);
@@ -18,24 +18,17 @@ package com.github.noony.app.timelinefx.drawings;
 
 import com.github.noony.app.timelinefx.MainApp;
 import com.github.noony.app.timelinefx.core.IFileObject;
-import com.github.noony.app.timelinefx.utils.PngExporter;
+import com.github.noony.app.timelinefx.utils.ImageService;
 import eu.hansolo.tilesfx.Tile;
 import eu.hansolo.tilesfx.Tile.SkinType;
 import eu.hansolo.tilesfx.TileBuilder;
 import eu.hansolo.tilesfx.tools.FlowGridPane;
-import java.awt.Dimension;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.InputStream;
-import java.net.MalformedURLException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.logging.Level;
 import java.util.logging.Logger;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -63,10 +56,6 @@ public class GalleryTiles implements IFxNode {
     private static final Logger LOG = Logger.getGlobal();
 
     private static final int DEFAULT_NUMBER_OF_TILES = 6;
-    private static final double IMAGE_RATIO = 0.9;
-    private static final double IMAGE_WIDTH = TILE_WIDTH * IMAGE_RATIO;
-    private static final double IMAGE_HEIGHT = TILE_HEIGHT * IMAGE_RATIO;
-    private static final Dimension IMAGE_DIMENSION = new Dimension((int) IMAGE_WIDTH, (int) IMAGE_HEIGHT);
 
     private FlowGridPane tilesPane;
 
@@ -138,38 +127,10 @@ public class GalleryTiles implements IFxNode {
     }
 
     private Tile createSetTile(IFileObject fileObject) {
-        String smallImageFilePath = fileObject.getProject().getMiniaturesFolder() + File.separator + fileObject.getId() + "_small.jpg";
-        File imageFile = new File(smallImageFilePath);
-        InputStream imageStream;
-        Image smallImage = null;
-        if (imageFile.exists()) {
-            try {
-                imageStream = new FileInputStream(smallImageFilePath);
-                smallImage = new Image(imageStream);
-            } catch (FileNotFoundException ex) {
-                LOG.log(Level.SEVERE, null, ex);
-            }
-        } else {
-            String largeImagePath = fileObject.getAbsolutePath();
-            File pictureFile = new File(largeImagePath);
-            // TODO nice exception handling
-            String localUrl = "";
-            try {
-                localUrl = pictureFile.toURI().toURL().toString();
-            } catch (MalformedURLException ex) {
-                LOG.log(Level.SEVERE, null, ex);
-            }
-            Image largeImage = new Image(localUrl);
-            Dimension largeDimension = new Dimension((int) largeImage.getWidth(), (int) largeImage.getHeight());
-            Dimension d = PngExporter.getScaledDimension(largeDimension, IMAGE_DIMENSION);
-            smallImage = PngExporter.resize(largeImage, d);
-            PngExporter.saveImage(smallImage, smallImageFilePath);
-        }
-
         Tile result = TileBuilder.create()
                 .skinType(SkinType.IMAGE)
                 .title(fileObject.getName())
-                .image(smallImage != null ? smallImage : new Image(MainApp.class.getResourceAsStream("LegoHead.png")))
+                .image(new Image(MainApp.class.getResourceAsStream("LegoHead.png")))
                 .prefSize(TILE_WIDTH, TILE_HEIGHT)
                 .imageMask(Tile.ImageMask.RECTANGULAR)
                 .text(fileObject.getName())
@@ -191,6 +152,8 @@ public class GalleryTiles implements IFxNode {
                 handleTileClickedOnce(result, fileObject);
             }
         });
+        // the placeholder is replaced once the thumbnail is loaded
+        ImageService.getInstance().load(fileObject, ImageService.Resolution.THUMB, result::setImage);
         return result;
     }
 
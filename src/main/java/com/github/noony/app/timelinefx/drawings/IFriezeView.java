@@ -35,4 +35,18 @@ public interface IFriezeView {
      * @return the frieze displayed
      */
     Frieze getFrieze();
+
+    /**
+     * Changes how the stays are drawn, keeping the current date window and
+     * layout.
+     *
+     * @param renderMode the new render mode
+     */
+    void setRenderMode(FriezeRenderMode renderMode);
+
+    /**
+     *
+     * @return how the stays are drawn
+     */
+    FriezeRenderMode getRenderMode();
 }
@@ -0,0 +1,313 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.drawings;
+
+import com.github.noony.app.timelinefx.core.StayPeriod;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import static javafx.application.Platform.runLater;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * Paints the stays of a frieze as rectangles on a single canvas, instead of
+ * one node per stay.
+ *
+ * Stays are organized in {@link StayLane}s provided by the frieze view. The
+ * visible lanes are found by a binary search on the lanes, sorted by
+ * position, and only the stays overlapping the date window of a visible lane
+ * are painted. Consecutive stays of a lane with the same color that touch
+ * once converted to pixels are merged in a single rectangle, and the stays
+ * lying in the pixel painted by a stay shorter than a pixel are skipped, so
+ * that the cost of a frame depends on the size of the canvas rather than on
+ * the number of stays. The lanes also serve as spatial index to find the
+ * stay under the mouse.
+ *
+ * The canvas only covers the visible band of the view it is displayed in,
+ * so that its size, and the size of its texture, does not grow with the
+ * number of lanes.
+ *
+ * Changes are painted once at the next run of the JavaFX thread, however many
+ * were requested.
+ *
+ * @author hamon
+ */
+public final class StayCanvasLayer implements IFxNode {
+
+    public static final double MIN_STAY_WIDTH = 1;
+
+    private static final Comparator<StayLane> LANE_COMPARATOR = Comparator.comparingDouble(StayLane::getY);
+    // stays this close, in pixels, are painted as one
+    private static final double MERGE_DISTANCE = 0.5;
+
+    private final Canvas canvas;
+    private final Supplier<List<StayLane>> laneSupplier;
+    private final Function<StayPeriod, Color> colorProvider;
+    //
+    private final List<StayLane> lanes = new ArrayList<>();
+    private double maxLaneHeight = 0;
+    private boolean lanesValid = false;
+    private boolean redrawRequested = false;
+    //
+    private Predicate<StayPeriod> highlightPredicate = stay -> false;
+    private double highlightMargin = 0;
+    private BiConsumer<StayPeriod, Boolean> hoverHandler = (stay, hovered) -> {
+    };
+    private StayPeriod hoveredStay = null;
+    //
+    private double minDate = 0;
+    private double dateRatio = 1;
+    //
+    private double width = 0;
+    private double height = 0;
+    private double visibleMinY = Double.NEGATIVE_INFINITY;
+    private double visibleMaxY = Double.POSITIVE_INFINITY;
+
+    /**
+     *
+     * @param aLaneSupplier provides the lanes, with their bounds, whenever the
+     * lanes are invalidated
+     * @param aColorProvider gives the color a stay is painted with
+     */
+    public StayCanvasLayer(Supplier<List<StayLane>> aLaneSupplier, Function<StayPeriod, Color> aColorProvider) {
+        laneSupplier = aLaneSupplier;
+        colorProvider = aColorProvider;
+        canvas = new Canvas();
+        canvas.setOnMouseMoved(event -> setHoveredStay(getStayAt(event.getX(), canvas.getLayoutY() + event.getY())));
+        canvas.setOnMouseExited(event -> setHoveredStay(null));
+    }
+
+    @Override
+    public Node getNode() {
+        return canvas;
+    }
+
+    /**
+     *
+     * @param aWidth the width of the layer
+     * @param aHeight the height of all the lanes of the layer
+     */
+    public void setSize(double aWidth, double aHeight) {
+        width = Math.max(0, aWidth);
+        height = Math.max(0, aHeight);
+        updateCanvasBounds();
+    }
+
+    /**
+     *
+     * @param minY the top of the part of the layer that can be seen
+     * @param maxY the bottom of the part of the layer that can be seen
+     */
+    public void setVisibleBand(double minY, double maxY) {
+        visibleMinY = minY;
+        visibleMaxY = maxY;
+        updateCanvasBounds();
+    }
+
+    /**
+     *
+     * @param aMinDate the date at the left of the canvas
+     * @param aDateRatio the number of pixels per time unit
+     */
+    public void setDateWindow(double aMinDate, double aDateRatio) {
+        minDate = aMinDate;
+        dateRatio = aDateRatio;
+        requestRedraw();
+    }
+
+    /**
+     *
+     * @param aHighlightPredicate tells which stays are highlighted
+     * @param aHighlightMargin the height highlighted stays grow by on each
+     * side
+     */
+    public void setHighlight(Predicate<StayPeriod> aHighlightPredicate, double aHighlightMargin) {
+        highlightPredicate = aHighlightPredicate;
+        highlightMargin = aHighlightMargin;
+        requestRedraw();
+    }
+
+    /**
+     *
+     * @param aHoverHandler called with true when the mouse enters a stay, and
+     * with false when it leaves it
+     */
+    public void setOnStayHovered(BiConsumer<StayPeriod, Boolean> aHoverHandler) {
+        hoverHandler = aHoverHandler;
+    }
+
+    /**
+     * Asks the lanes again to the lane supplier before the next frame.
+     */
+    public void invalidateLanes() {
+        lanesValid = false;
+        requestRedraw();
+    }
+
+    public void requestRedraw() {
+        if (!redrawRequested) {
+            redrawRequested = true;
+            runLater(this::redraw);
+        }
+    }
+
+    /**
+     *
+     * @param x the x coordinate in the layer
+     * @param y the y coordinate in the layer
+     * @return the stay drawn at the given position, null if none
+     */
+    public StayPeriod getStayAt(double x, double y) {
+        validateLanes();
+        int low = 0;
+        int high = lanes.size();
+        // finds the last lane starting above y
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (lanes.get(middle).getY() <= y) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        if (low == 0) {
+            return null;
+        }
+        var lane = lanes.get(low - 1);
+        if (y > lane.getY() + lane.getHeight()) {
+            return null;
+        }
+        return lane.getStayAt(minDate + x / dateRatio, MIN_STAY_WIDTH / dateRatio);
+    }
+
+    private void setHoveredStay(StayPeriod stay) {
+        if (stay != hoveredStay) {
+            if (hoveredStay != null) {
+                hoverHandler.accept(hoveredStay, false);
+            }
+            hoveredStay = stay;
+            if (hoveredStay != null) {
+                hoverHandler.accept(hoveredStay, true);
+            }
+        }
+    }
+
+    private void updateCanvasBounds() {
+        var top = Math.max(0, Math.floor(visibleMinY));
+        var bottom = Math.min(height, Math.ceil(visibleMaxY));
+        var canvasHeight = Math.max(0, bottom - top);
+        if (canvas.getLayoutY() != top || canvas.getWidth() != width || canvas.getHeight() != canvasHeight) {
+            canvas.setLayoutY(top);
+            canvas.setWidth(width);
+            canvas.setHeight(canvasHeight);
+            requestRedraw();
+        }
+    }
+
+    private void validateLanes() {
+        if (!lanesValid) {
+            lanes.clear();
+            lanes.addAll(laneSupplier.get());
+            lanes.sort(LANE_COMPARATOR);
+            maxLaneHeight = lanes.stream().mapToDouble(StayLane::getHeight).max().orElse(0);
+            lanesValid = true;
+        }
+    }
+
+    private void redraw() {
+        redrawRequested = false;
+        validateLanes();
+        var gc = canvas.getGraphicsContext2D();
+        var top = canvas.getLayoutY();
+        var bottom = top + canvas.getHeight();
+        gc.setTransform(1, 0, 0, 1, 0, 0);
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        // lanes are drawn in the coordinates of the layer
+        gc.translate(0, -top);
+        var maxDate = minDate + width / dateRatio;
+        // no lane starting above this one reaches the top of the canvas
+        for (int i = getFirstLaneStartingFrom(top - highlightMargin - maxLaneHeight); i < lanes.size() && lanes.get(i).getY() - highlightMargin <= bottom; i++) {
+            var lane = lanes.get(i);
+            if (lane.getY() + lane.getHeight() + highlightMargin >= top) {
+                drawLane(gc, lane, maxDate);
+            }
+        }
+    }
+
+    private int getFirstLaneStartingFrom(double y) {
+        int low = 0;
+        int high = lanes.size();
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (lanes.get(middle).getY() < y) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void drawLane(GraphicsContext gc, StayLane lane, double maxDate) {
+        Color runColor = null;
+        var runHighlighted = false;
+        var runStartX = 0.0;
+        var runEndX = 0.0;
+        var i = lane.getFirstIndexEndingAfter(minDate);
+        while (i < lane.getNbStays() && lane.getStartDate(i) <= maxDate) {
+            var stay = lane.getStay(i);
+            var color = colorProvider.apply(stay);
+            var highlighted = highlightPredicate.test(stay);
+            // clamped so that the rectangles stay in a range the canvas handles well
+            var startX = Math.max(-1, (lane.getStartDate(i) - minDate) * dateRatio);
+            var endX = Math.min(width + 1, Math.max(startX + MIN_STAY_WIDTH, (lane.getEndDate(i) - minDate) * dateRatio));
+            if (runColor != null && color.equals(runColor) && highlighted == runHighlighted && startX <= runEndX + MERGE_DISTANCE) {
+                runEndX = Math.max(runEndX, endX);
+            } else {
+                if (runColor != null) {
+                    fillRun(gc, lane, runColor, runHighlighted, runStartX, runEndX);
+                }
+                runColor = color;
+                runHighlighted = highlighted;
+                runStartX = startX;
+                runEndX = endX;
+            }
+            if ((lane.getEndDate(i) - minDate) * dateRatio < endX) {
+                // the stays lying in the pixel painted by this shorter stay would not show
+                i = lane.getFirstIndexReaching(i + 1, minDate + endX / dateRatio);
+            } else {
+                i++;
+            }
+        }
+        if (runColor != null) {
+            fillRun(gc, lane, runColor, runHighlighted, runStartX, runEndX);
+        }
+    }
+
+    private void fillRun(GraphicsContext gc, StayLane lane, Color color, boolean highlighted, double startX, double endX) {
+        var margin = highlighted ? highlightMargin : 0;
+        gc.setFill(color);
+        gc.fillRect(startX, lane.getY() - margin, endX - startX, lane.getHeight() + 2 * margin);
+    }
+}
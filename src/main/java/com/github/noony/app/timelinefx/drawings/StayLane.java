@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.drawings;
+
+import com.github.noony.app.timelinefx.core.StayPeriod;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * A horizontal band of a {@link StayCanvasLayer}, holding stays sorted by
+ * start date.
+ *
+ * Along with the start and end dates of the stays, the lane keeps the greatest
+ * end date of each prefix of the stays, so that the first stay overlapping a
+ * date is found by a binary search.
+ *
+ * @author hamon
+ */
+public final class StayLane {
+
+    private static final Comparator<StayPeriod> START_DATE_COMPARATOR = Comparator.comparingDouble(StayPeriod::getStartDate);
+
+    private final StayPeriod[] stays;
+    private final double[] startDates;
+    private final double[] endDates;
+    private final double[] maxEndDates;
+    //
+    private double y = 0;
+    private double height = 0;
+
+    /**
+     *
+     * @param laneStays the stays drawn in the lane
+     */
+    public StayLane(Collection<StayPeriod> laneStays) {
+        stays = laneStays.toArray(StayPeriod[]::new);
+        Arrays.sort(stays, START_DATE_COMPARATOR);
+        startDates = new double[stays.length];
+        endDates = new double[stays.length];
+        maxEndDates = new double[stays.length];
+        var maxEndDate = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < stays.length; i++) {
+            startDates[i] = stays[i].getStartDate();
+            endDates[i] = stays[i].getEndDate();
+            maxEndDate = Math.max(maxEndDate, endDates[i]);
+            maxEndDates[i] = maxEndDate;
+        }
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getHeight() {
+        return height;
+    }
+
+    public int getNbStays() {
+        return stays.length;
+    }
+
+    /**
+     *
+     * @param aY the top of the lane in the canvas
+     * @param aHeight the height of the stays of the lane
+     */
+    public void setBounds(double aY, double aHeight) {
+        y = aY;
+        height = aHeight;
+    }
+
+    /**
+     *
+     * @param date a date
+     * @param minDuration the duration under which stays are considered to
+     * last minDuration
+     * @return the last stay of the lane covering the date, null if none
+     */
+    public StayPeriod getStayAt(double date, double minDuration) {
+        StayPeriod result = null;
+        for (int i = getFirstIndexEndingAfter(date - minDuration); i < stays.length && startDates[i] <= date; i++) {
+            if (Math.max(endDates[i], startDates[i] + minDuration) >= date) {
+                result = stays[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     *
+     * @param date a date
+     * @return the index of the first stay that may end after the date, all the
+     * stays before it ending before the date
+     */
+    int getFirstIndexEndingAfter(double date) {
+        int low = 0;
+        int high = stays.length;
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (maxEndDates[middle] < date) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     *
+     * @param from the index to search from
+     * @param date a date
+     * @return the first index from the given one of a stay starting after the
+     * date or that may end after it, the stays in between lying before the
+     * date
+     */
+    int getFirstIndexReaching(int from, double date) {
+        int low = from;
+        int high = stays.length;
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (startDates[middle] < date && maxEndDates[middle] < date) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    StayPeriod getStay(int index) {
+        return stays[index];
+    }
+
+    double getStartDate(int index) {
+        return startDates[index];
+    }
+
+    double getEndDate(int index) {
+        return endDates[index];
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.drawings;
+
+import com.github.noony.app.timelinefx.core.StayPeriod;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import javafx.scene.Group;
+import javafx.scene.Node;
+
+/**
+ * Keeps attached to a group only the nodes of the stays that can be seen:
+ * stays overlapping the date window of the frieze, in a row intersecting the
+ * visible part of the view.
+ *
+ * The drawings of the other stays are kept, detached, so that they are
+ * attached again as they are when the window or the view moves. The stays
+ * overlapping a new date window are given by the frieze view, from the
+ * interval index of the frieze, and kept up to date as stays change, so that
+ * the stays of the drawing are never all iterated, neither when the window
+ * moves nor when the row comes back in the visible part of the view.
+ *
+ * @author hamon
+ * @param <D> the type of the stay drawings
+ */
+public final class StayNodeCulling<D> {
+
+    private final Group group;
+    private final Map<StayPeriod, D> drawings;
+    private final Function<D, Node> nodeGetter;
+    private final Predicate<StayPeriod> filter;
+    private final Set<StayPeriod> attachedStays = new HashSet<>();
+    // the stays of the drawing overlapping the date window, kept while out of the visible band
+    private final Set<StayPeriod> windowStays = new HashSet<>();
+    private boolean windowSet = false;
+    //
+    private double minDate = Double.NEGATIVE_INFINITY;
+    private double maxDate = Double.POSITIVE_INFINITY;
+    private boolean inVisibleBand = true;
+
+    /**
+     *
+     * @param aGroup the group the nodes are attached to
+     * @param someDrawings the drawings of the stays, owned by the caller
+     * @param aNodeGetter gives the node of a stay drawing
+     * @param aFilter tells which stays can be displayed at all
+     */
+    public StayNodeCulling(Group aGroup, Map<StayPeriod, D> someDrawings, Function<D, Node> aNodeGetter, Predicate<StayPeriod> aFilter) {
+        group = aGroup;
+        drawings = someDrawings;
+        nodeGetter = aNodeGetter;
+        filter = aFilter;
+    }
+
+    /**
+     *
+     * @return the stays whose node is attached
+     */
+    public Set<StayPeriod> getAttachedStays() {
+        return Collections.unmodifiableSet(attachedStays);
+    }
+
+    public boolean isInVisibleBand() {
+        return inVisibleBand;
+    }
+
+    /**
+     *
+     * @param stay a stay of the drawing
+     * @return true if the stay can be seen
+     */
+    public boolean isVisible(StayPeriod stay) {
+        return inVisibleBand && stay.getEndDate() >= minDate && stay.getStartDate() <= maxDate && filter.test(stay);
+    }
+
+    /**
+     *
+     * @param aMinDate the lower bound of the date window
+     * @param aMaxDate the upper bound of the date window
+     * @param someWindowStays the stays overlapping the window, which may
+     * contain stays of other drawings
+     */
+    public void setDateWindow(double aMinDate, double aMaxDate, Collection<StayPeriod> someWindowStays) {
+        minDate = aMinDate;
+        maxDate = aMaxDate;
+        windowSet = true;
+        windowStays.clear();
+        for (var stay : someWindowStays) {
+            if (drawings.containsKey(stay)) {
+                windowStays.add(stay);
+            }
+        }
+        if (!inVisibleBand) {
+            return;
+        }
+        Set<StayPeriod> visibleStays = new HashSet<>();
+        for (var stay : windowStays) {
+            if (filter.test(stay)) {
+                visibleStays.add(stay);
+            }
+        }
+        // nodes are detached and attached in bulk, removing them one by one being linear
+        Set<Node> nodesToDetach = new HashSet<>();
+        var iterator = attachedStays.iterator();
+        while (iterator.hasNext()) {
+            var stay = iterator.next();
+            if (!visibleStays.remove(stay)) {
+                nodesToDetach.add(nodeGetter.apply(drawings.get(stay)));
+                iterator.remove();
+            }
+        }
+        group.getChildren().removeAll(nodesToDetach);
+        attachAll(visibleStays);
+    }
+
+    /**
+     *
+     * @param visible whether the row of the drawing intersects the visible
+     * part of the view
+     */
+    public void setInVisibleBand(boolean visible) {
+        if (inVisibleBand == visible) {
+            return;
+        }
+        inVisibleBand = visible;
+        if (inVisibleBand) {
+            // the whole drawing until a date window is given
+            var candidates = windowSet ? windowStays : drawings.keySet();
+            attachAll(candidates.stream().filter(this::isVisible).toList());
+        } else {
+            detachAll();
+        }
+    }
+
+    /**
+     * Attaches or detaches the node of a stay after it was added or modified.
+     *
+     * @param stay the stay
+     * @return true if the node of the stay is attached
+     */
+    public boolean update(StayPeriod stay) {
+        if (drawings.containsKey(stay) && stay.getEndDate() >= minDate && stay.getStartDate() <= maxDate) {
+            windowStays.add(stay);
+        } else {
+            windowStays.remove(stay);
+        }
+        if (drawings.containsKey(stay) && isVisible(stay)) {
+            if (!attachedStays.contains(stay)) {
+                attach(stay);
+            }
+            return true;
+        }
+        detach(stay);
+        return false;
+    }
+
+    /**
+     * Detaches the node of a stay, before its drawing is discarded.
+     *
+     * @param stay the stay
+     */
+    public void remove(StayPeriod stay) {
+        windowStays.remove(stay);
+        detach(stay);
+    }
+
+    /**
+     * Detaches all the nodes, before the drawings are discarded.
+     */
+    public void clear() {
+        detachAll();
+        windowStays.clear();
+    }
+
+    private void detachAll() {
+        Set<Node> nodesToDetach = new HashSet<>();
+        attachedStays.forEach(stay -> nodesToDetach.add(nodeGetter.apply(drawings.get(stay))));
+        group.getChildren().removeAll(nodesToDetach);
+        attachedStays.clear();
+    }
+
+    private void detach(StayPeriod stay) {
+        if (attachedStays.remove(stay)) {
+            group.getChildren().remove(nodeGetter.apply(drawings.get(stay)));
+        }
+    }
+
+    private void attach(StayPeriod stay) {
+        attachedStays.add(stay);
+        group.getChildren().add(nodeGetter.apply(drawings.get(stay)));
+    }
+
+    private void attachAll(Collection<StayPeriod> stays) {
+        List<Node> nodesToAttach = new ArrayList<>(stays.size());
+        for (var stay : stays) {
+            if (attachedStays.add(stay)) {
+                nodesToAttach.add(nodeGetter.apply(drawings.get(stay)));
+            }
+        }
+        group.getChildren().addAll(nodesToAttach);
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright (C) 2019 PtitNoOny and Co.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.drawings;
+
+import com.github.noony.app.timelinefx.MainApp;
+import com.github.noony.app.timelinefx.core.IFileObject;
+import com.github.noony.app.timelinefx.utils.ImageService;
+import eu.hansolo.tilesfx.Tile;
+import eu.hansolo.tilesfx.Tile.SkinType;
+import eu.hansolo.tilesfx.TileBuilder;
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.geometry.Insets;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.image.Image;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.CornerRadii;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Gallery of file objects that only creates the tiles of the visible rows.
+ *
+ * Unlike {@link GalleryTiles}, the tiles are laid out by the gallery in a
+ * viewport with its own scroll bar: only the visible rows, plus
+ * {@link #PREFETCH_ROWS} rows above and below, have a tile. Tiles of rows
+ * leaving the viewport are reused for the rows entering it, and thumbnails are
+ * loaded by the {@link ImageService} while a placeholder is displayed. The
+ * gallery fires the same events as {@link GalleryTiles}.
+ *
+ * The node is meant to fill its container, for instance a scroll pane fitting
+ * its content to its width and height.
+ *
+ * @author hamon
+ */
+public class VirtualGalleryTiles implements IFxNode {
+
+    public static final double TILE_WIDTH = GalleryTiles.TILE_WIDTH;
+    public static final double TILE_HEIGHT = GalleryTiles.TILE_HEIGHT;
+    public static final int PREFETCH_ROWS = 2;
+
+    private static final Logger LOG = Logger.getGlobal();
+
+    private static final double GAP = 16;
+    private static final double SCROLL_UNIT = TILE_HEIGHT / 4.0;
+
+    private final PropertyChangeSupport propertyChangeSupport;
+    //
+    private final List<IFileObject> items;
+    private final Set<IFileObject> content;
+    // index of the item of each materialized tile
+    private final Map<Integer, Tile> visibleTiles;
+    private final Map<Tile, IFileObject> tileObjects;
+    private final Deque<Tile> recycledTiles;
+    //
+    private final BorderPane mainPane;
+    private final Pane viewport;
+    private final Rectangle viewportClip;
+    private final ScrollBar scrollBar;
+    //
+    private Image placeholder = null;
+    private IFileObject selectedObject = null;
+    private int nbColumns = 1;
+
+    public VirtualGalleryTiles(List<IFileObject> objectList) {
+        propertyChangeSupport = new PropertyChangeSupport(VirtualGalleryTiles.this);
+        items = new ArrayList<>(objectList);
+        items.sort(IFileObject::compareTo);
+        content = new HashSet<>(items);
+        visibleTiles = new HashMap<>();
+        tileObjects = new HashMap<>();
+        recycledTiles = new ArrayDeque<>();
+        //
+        viewport = new Pane();
+        viewport.setBackground(new Background(new BackgroundFill(Color.LIGHTGREY, CornerRadii.EMPTY, Insets.EMPTY)));
+        viewport.setPrefSize(TILE_WIDTH * 2.5, TILE_HEIGHT * 2.5);
+        viewportClip = new Rectangle();
+        viewportClip.widthProperty().bind(viewport.widthProperty());
+        viewportClip.heightProperty().bind(viewport.heightProperty());
+        viewport.setClip(viewportClip);
+        scrollBar = new ScrollBar();
+        scrollBar.setOrientation(Orientation.VERTICAL);
+        scrollBar.setUnitIncrement(SCROLL_UNIT);
+        mainPane = new BorderPane(viewport);
+        mainPane.setRight(scrollBar);
+        //
+        viewport.widthProperty().addListener((observable, oldValue, newValue) -> updateViewport());
+        viewport.heightProperty().addListener((observable, oldValue, newValue) -> updateViewport());
+        scrollBar.valueProperty().addListener((observable, oldValue, newValue) -> updateVisibleTiles());
+        viewport.setOnScroll(event -> {
+            scrollBar.setValue(Math.max(scrollBar.getMin(), Math.min(scrollBar.getMax(), scrollBar.getValue() - event.getDeltaY())));
+            event.consume();
+        });
+    }
+
+    public VirtualGalleryTiles() {
+        this(Collections.emptyList());
+    }
+
+    @Override
+    public Node getNode() {
+        return mainPane;
+    }
+
+    public void addFileObject(IFileObject iFileObject) {
+        if (content.add(iFileObject)) {
+            var index = Collections.binarySearch(items, iFileObject, IFileObject::compareTo);
+            items.add(index < 0 ? -index - 1 : index, iFileObject);
+            // the items after the inserted one moved
+            releaseAllTiles();
+            updateViewport();
+        }
+    }
+
+    public boolean removeFileObject(IFileObject iFileObject) {
+        if (content.remove(iFileObject)) {
+            items.remove(iFileObject);
+            if (iFileObject == selectedObject) {
+                selectedObject = null;
+            }
+            releaseAllTiles();
+            updateViewport();
+            return true;
+        }
+        return false;
+    }
+
+    public void removeAllFileObjects() {
+        content.clear();
+        items.clear();
+        selectedObject = null;
+        releaseAllTiles();
+        updateViewport();
+    }
+
+    public void addPropertyChangeListener(PropertyChangeListener listener) {
+        propertyChangeSupport.addPropertyChangeListener(listener);
+    }
+
+    public void removePropertyChangeListener(PropertyChangeListener listener) {
+        propertyChangeSupport.removePropertyChangeListener(listener);
+    }
+
+    /**
+     *
+     * @return the number of tiles created so far, visible or kept for reuse
+     */
+    public int getNbTiles() {
+        return tileObjects.size() + recycledTiles.size();
+    }
+
+    private void updateViewport() {
+        var width = viewport.getWidth();
+        var height = viewport.getHeight();
+        var newNbColumns = Math.max(1, (int) ((width - GAP) / (TILE_WIDTH + GAP)));
+        if (newNbColumns != nbColumns) {
+            nbColumns = newNbColumns;
+            releaseAllTiles();
+        }
+        var nbRows = (items.size() + nbColumns - 1) / nbColumns;
+        var contentHeight = 2 * GAP + nbRows * (TILE_HEIGHT + GAP) - GAP;
+        var maxScroll = Math.max(0, contentHeight - height);
+        scrollBar.setMax(maxScroll);
+        scrollBar.setVisibleAmount(contentHeight > 0 ? height * maxScroll / contentHeight : 0);
+        scrollBar.setBlockIncrement(Math.max(SCROLL_UNIT, height - SCROLL_UNIT));
+        scrollBar.setDisable(maxScroll == 0);
+        if (scrollBar.getValue() > maxScroll) {
+            // triggers the update of the tiles
+            scrollBar.setValue(maxScroll);
+        } else {
+            updateVisibleTiles();
+        }
+    }
+
+    private void updateVisibleTiles() {
+        var offset = scrollBar.getValue();
+        var rowHeight = TILE_HEIGHT + GAP;
+        var firstRow = Math.max(0, (int) Math.floor((offset - GAP) / rowHeight) - PREFETCH_ROWS);
+        var lastRow = (int) Math.floor((offset + viewport.getHeight() - GAP) / rowHeight) + PREFETCH_ROWS;
+        var firstIndex = firstRow * nbColumns;
+        var lastIndex = Math.min(items.size() - 1, (lastRow + 1) * nbColumns - 1);
+        // releases first, so that the entering rows reuse the tiles
+        var iterator = visibleTiles.entrySet().iterator();
+        while (iterator.hasNext()) {
+            var visibleTile = iterator.next();
+            if (visibleTile.getKey() < firstIndex || visibleTile.getKey() > lastIndex) {
+                releaseTile(visibleTile.getValue());
+                iterator.remove();
+            }
+        }
+        var xOffset = Math.max(GAP, (viewport.getWidth() - nbColumns * (TILE_WIDTH + GAP) + GAP) / 2.0);
+        for (int index = firstIndex; index <= lastIndex; index++) {
+            var tile = visibleTiles.get(index);
+            if (tile == null) {
+                tile = bindTile(items.get(index));
+                visibleTiles.put(index, tile);
+            }
+            tile.relocate(xOffset + (index % nbColumns) * (TILE_WIDTH + GAP), GAP + (index / nbColumns) * rowHeight - offset);
+        }
+        LOG.log(Level.FINEST, "Gallery displays items {0} to {1} with {2} tiles", new Object[]{firstIndex, lastIndex, getNbTiles()});
+    }
+
+    private Tile bindTile(IFileObject fileObject) {
+        var tile = recycledTiles.poll();
+        if (tile == null) {
+            tile = createTile();
+            viewport.getChildren().add(tile);
+        }
+        tileObjects.put(tile, fileObject);
+        tile.setTitle(fileObject.getName());
+        tile.setText(fileObject.getName());
+        tile.setTextColor(fileObject == selectedObject ? Color.DEEPSKYBLUE : Color.BLACK);
+        tile.setVisible(true);
+        var cachedImage = ImageService.getInstance().getCachedImage(fileObject, ImageService.Resolution.THUMB);
+        if (cachedImage != null) {
+            tile.setImage(cachedImage);
+        } else {
+            // the placeholder is replaced once the thumbnail is loaded
+            tile.setImage(getPlaceholder());
+            var boundTile = tile;
+            ImageService.getInstance().load(fileObject, ImageService.Resolution.THUMB, loadedImage -> {
+                // the tile may have been reused while the thumbnail was loading
+                if (tileObjects.get(boundTile) == fileObject) {
+                    boundTile.setImage(loadedImage);
+                }
+            }, false);
+        }
+        return tile;
+    }
+
+    private void releaseTile(Tile tile) {
+        tileObjects.remove(tile);
+        tile.setVisible(false);
+        recycledTiles.push(tile);
+    }
+
+    private void releaseAllTiles() {
+        visibleTiles.values().forEach(this::releaseTile);
+        visibleTiles.clear();
+    }
+
+    private Tile createTile() {
+        Tile result = TileBuilder.create()
+                .skinType(SkinType.IMAGE)
+                .image(getPlaceholder())
+                .prefSize(TILE_WIDTH, TILE_HEIGHT)
+                .imageMask(Tile.ImageMask.RECTANGULAR)
+                .backgroundColor(Color.DARKGREY)
+                .foregroundBaseColor(Color.BLACK)
+                .foregroundColor(Color.BLACK)
+                .activeColor(Color.BLACK)
+                .textAlignment(TextAlignment.CENTER)
+                .textColor(Color.BLACK)
+                .borderColor(Color.DARKGRAY)
+                .borderWidth(2.0)
+                .build();
+        result.resize(TILE_WIDTH, TILE_HEIGHT);
+        result.setManaged(false);
+        result.setOnMouseClicked(e -> {
+            var fileObject = tileObjects.get(result);
+            if (fileObject == null) {
+                return;
+            }
+            if (e.getButton() == MouseButton.SECONDARY) {
+                propertyChangeSupport.firePropertyChange(GalleryTiles.TILE_CLICKED, e, fileObject);
+            } else if (e.getClickCount() == 2) {
+                propertyChangeSupport.firePropertyChange(GalleryTiles.TILE_CLICKED, e, fileObject);
+            } else if (e.getClickCount() == 1) {
+                handleTileClickedOnce(result, fileObject);
+            }
+        });
+        return result;
+    }
+
+    private void handleTileClickedOnce(Tile aTile, IFileObject fileObject) {
+        selectedObject = fileObject == selectedObject ? null : fileObject;
+        tileObjects.forEach((tile, tileObject) -> tile.setTextColor(tileObject == selectedObject ? Color.DEEPSKYBLUE : Color.BLACK));
+        propertyChangeSupport.firePropertyChange(GalleryTiles.TILE_SELECTED, fileObject, selectedObject != null ? aTile : null);
+    }
+
+    private Image getPlaceholder() {
+        if (placeholder == null) {
+            placeholder = new Image(MainApp.class.getResourceAsStream("LegoHead.png"));
+        }
+        return placeholder;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.drawings;
+
+/**
+ * How a drawing applies its zoom level to its nodes.
+ *
+ * @author hamon
+ */
+public enum ZoomMode {
+    /**
+     * Every scalable node is laid out again at each zoom step.
+     */
+    LAYOUT,
+    /**
+     * The drawing is scaled as a whole by a single transform, its nodes being
+     * only laid out again when the zoom crosses a power of two.
+     */
+    TRANSFORM;
+
+    /**
+     *
+     * @param scale the zoom level of a drawing
+     * @return the scale the nodes of the drawing are laid out at for this zoom
+     * level
+     */
+    public double getLayoutScale(double scale) {
+        switch (this) {
+            case LAYOUT -> {
+                return scale;
+            }
+            case TRANSFORM -> {
+                // the nodes are laid out at the power of two above, the transform shrinking them
+                var lowerPowerOfTwo = Math.scalb(1.0, Math.getExponent(scale));
+                return lowerPowerOfTwo == scale ? scale : 2 * lowerPowerOfTwo;
+            }
+            default ->
+                throw new UnsupportedOperationException(this.toString());
+        }
+    }
+}
@@ -70,15 +70,15 @@ public class StarWars {
             }
         }
         //
-        Place galaxy = PlaceFactory.createPlace("Galaxy", PlaceLevel.GALAXY, null, Color.WHEAT);
-        Place spaceTravel = PlaceFactory.createPlace("Space travel", PlaceLevel.INTER_SYSTEM_SPACE, galaxy, Color.LIGHTSTEELBLUE);
-        Place nabooSystem = PlaceFactory.createPlace("Naboo System", PlaceLevel.SYSTEM, galaxy, Color.LIGHTGREEN);
-        Place nabooOrbit = PlaceFactory.createPlace("Naboo Orbit", PlaceLevel.ORBIT, nabooSystem, Color.GREEN);
-        Place naboo = PlaceFactory.createPlace("Naboo", PlaceLevel.PLANET, nabooSystem, Color.CHARTREUSE);
-        Place tatooine = PlaceFactory.createPlace("Tatooine", PlaceLevel.PLANET, galaxy, Color.GOLD);
-        Place coruscant = PlaceFactory.createPlace("Coruscant", PlaceLevel.PLANET, galaxy, Color.SLATEGRAY);
-        Place kamino = PlaceFactory.createPlace("Kamino", PlaceLevel.PLANET, galaxy, Color.AQUAMARINE);
-        Place geonosis = PlaceFactory.createPlace("Geonosis", PlaceLevel.PLANET, galaxy, Color.CHOCOLATE);
+        Place galaxy = PlaceFactory.createPlace(timeLineProject, "Galaxy", PlaceLevel.GALAXY, null, Color.WHEAT);
+        Place spaceTravel = PlaceFactory.createPlace(timeLineProject, "Space travel", PlaceLevel.INTER_SYSTEM_SPACE, galaxy, Color.LIGHTSTEELBLUE);
+        Place nabooSystem = PlaceFactory.createPlace(timeLineProject, "Naboo System", PlaceLevel.SYSTEM, galaxy, Color.LIGHTGREEN);
+        Place nabooOrbit = PlaceFactory.createPlace(timeLineProject, "Naboo Orbit", PlaceLevel.ORBIT, nabooSystem, Color.GREEN);
+        Place naboo = PlaceFactory.createPlace(timeLineProject, "Naboo", PlaceLevel.PLANET, nabooSystem, Color.CHARTREUSE);
+        Place tatooine = PlaceFactory.createPlace(timeLineProject, "Tatooine", PlaceLevel.PLANET, galaxy, Color.GOLD);
+        Place coruscant = PlaceFactory.createPlace(timeLineProject, "Coruscant", PlaceLevel.PLANET, galaxy, Color.SLATEGRAY);
+        Place kamino = PlaceFactory.createPlace(timeLineProject, "Kamino", PlaceLevel.PLANET, galaxy, Color.AQUAMARINE);
+        Place geonosis = PlaceFactory.createPlace(timeLineProject, "Geonosis", PlaceLevel.PLANET, galaxy, Color.CHOCOLATE);
         //
         var portraitFolder = Configuration.getPortraitsFolder() + File.separator;
         var obiWanKenobi = PersonFactory.createPerson(timeLineProject, "Obi Wan Kenobi", Color.AQUAMARINE);
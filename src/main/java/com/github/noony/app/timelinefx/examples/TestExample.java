@@ -45,9 +45,9 @@ public class TestExample {
         );
         TimeLineProject timeLineProject = TimeLineProjectFactory.createProject("Test Project", configParams);
         //
-        Place galaxy = PlaceFactory.createPlace("Galaxy", PlaceLevel.GALAXY, null, Color.WHEAT);
-        Place placeA = PlaceFactory.createPlace("PLACE_A", PlaceLevel.INTER_SYSTEM_SPACE, galaxy, Color.LIGHTSTEELBLUE);
-        Place placeB = PlaceFactory.createPlace("PLACE_B", PlaceLevel.SYSTEM, galaxy, Color.LIGHTGREEN);
+        Place galaxy = PlaceFactory.createPlace(timeLineProject, "Galaxy", PlaceLevel.GALAXY, null, Color.WHEAT);
+        Place placeA = PlaceFactory.createPlace(timeLineProject, "PLACE_A", PlaceLevel.INTER_SYSTEM_SPACE, galaxy, Color.LIGHTSTEELBLUE);
+        Place placeB = PlaceFactory.createPlace(timeLineProject, "PLACE_B", PlaceLevel.SYSTEM, galaxy, Color.LIGHTGREEN);
         //
         Person personA = PersonFactory.createPerson(timeLineProject, "PERSON_A", Color.RED);
         Person personB = PersonFactory.createPerson(timeLineProject, "PERSON_B", Color.AQUA);
@@ -16,6 +16,7 @@
  */
 package com.github.noony.app.timelinefx.hmi;
 
+import com.github.noony.app.timelinefx.core.BatchContent;
 import com.github.noony.app.timelinefx.core.Person;
 import com.github.noony.app.timelinefx.core.Place;
 import com.github.noony.app.timelinefx.core.PlaceFactory;
@@ -188,6 +189,9 @@ public final class ContentEditionViewController implements Initializable {
         if (personCreationController != null) {
             personCreationController.setTimelineProject(aTimeLineProject);
         }
+        if (placeCreationController != null) {
+            placeCreationController.setTimelineProject(aTimeLineProject);
+        }
         //
         updatePersonTab();
         updatePlacesTab();
@@ -322,6 +326,9 @@ public final class ContentEditionViewController implements Initializable {
         }
         placeCreationController = loader.getController();
         placeCreationController.addPropertyChangeListener(this::handlePlaceCreationControllerChanges);
+        if (timeLineProject != null) {
+            placeCreationController.setTimelineProject(timeLineProject);
+        }
     }
 
     private void loadPersonCreationView() {
@@ -379,6 +386,15 @@ public final class ContentEditionViewController implements Initializable {
             case TimeLineProject.STAY_ADDED, TimeLineProject.STAY_REMOVED -> {
                 // TODO : see if ignoring is OK
             }
+            case TimeLineProject.BATCH_ADDED -> {
+                var content = (BatchContent) event.getNewValue();
+                if (!content.getPlaces().isEmpty()) {
+                    runLater(this::updatePlacesTab);
+                }
+                if (!content.getPersons().isEmpty()) {
+                    runLater(this::updatePersonTab);
+                }
+            }
             default ->
                 throw new UnsupportedOperationException(this.getClass().getSimpleName() + " :: " + event);
         }
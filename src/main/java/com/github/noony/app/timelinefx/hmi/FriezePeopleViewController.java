@@ -17,6 +17,7 @@
 package com.github.noony.app.timelinefx.hmi;
 
 import com.github.noony.app.timelinefx.core.Frieze;
+import com.github.noony.app.timelinefx.drawings.FriezeRenderMode;
 import com.github.noony.app.timelinefx.hmi.byperson.FriezePeopleLinearDrawing;
 import com.github.noony.app.timelinefx.utils.TimeFormatToString;
 import java.net.URL;
@@ -31,6 +32,7 @@ import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.geometry.Orientation;
 import javafx.scene.Node;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ScrollBar;
 import javafx.scene.control.ScrollPane;
@@ -55,6 +57,8 @@ public class FriezePeopleViewController implements Initializable {
     private RangeSlider peopleViewTimeSlider;
     @FXML
     private Label peopleViewMinDateLabel, peopleViewMaxDateLabel;
+    @FXML
+    private CheckBox peopleViewCanvasCB;
 
     /// DOUBLONS !!
     private final double barPadding = 15;
@@ -82,6 +86,8 @@ public class FriezePeopleViewController implements Initializable {
                 friezePeopleLinearDrawing.setHeight(friezePaneHeight);
             }
         });
+        // only the rows in the viewport keep their stays in the scene
+        peopleViewScrollPane.viewportBoundsProperty().addListener(o -> updateVisibleBand());
         // !! TODO fix since not working
         Set<Node> scrollBars = peopleViewScrollPane.lookupAll(".scroll-bar");
         Optional<Node> horizontalScrollBar = scrollBars.stream()
@@ -111,6 +117,20 @@ public class FriezePeopleViewController implements Initializable {
         });
         peopleViewMinDateLabel.setText("");
         peopleViewMaxDateLabel.setText("");
+        //
+        peopleViewCanvasCB.selectedProperty().addListener((ObservableValue<? extends Boolean> ov, Boolean t, Boolean t1) -> {
+            if (friezePeopleLinearDrawing != null) {
+                friezePeopleLinearDrawing.setRenderMode(t1 ? FriezeRenderMode.CANVAS : FriezeRenderMode.SCENE_GRAPH);
+            }
+        });
+    }
+
+    private void updateVisibleBand() {
+        if (friezePeopleLinearDrawing != null) {
+            // the viewport bounds are offset by the scroll position
+            var viewportBounds = peopleViewScrollPane.getViewportBounds();
+            friezePeopleLinearDrawing.setVisibleBand(-viewportBounds.getMinY(), -viewportBounds.getMinY() + viewportBounds.getHeight());
+        }
     }
 
     private void updateFriezeWidth() {
@@ -125,10 +145,12 @@ public class FriezePeopleViewController implements Initializable {
 
     public void setFrieze(Frieze f) {
         frieze = f;
-        friezePeopleLinearDrawing = new FriezePeopleLinearDrawing(frieze);
+        friezePeopleLinearDrawing = new FriezePeopleLinearDrawing(frieze, FriezeRenderMode.getDefault(frieze.getNbStays()));
+        peopleViewCanvasCB.setSelected(friezePeopleLinearDrawing.getRenderMode() == FriezeRenderMode.CANVAS);
         peopleViewPane.getChildren().setAll(friezePeopleLinearDrawing.getNode());
         friezePeopleLinearDrawing.setWidth(friezePaneWidth);
         friezePeopleLinearDrawing.setHeight(friezePaneHeight);
+        updateVisibleBand();
         peopleViewTimeSlider.setMin(frieze.getMinDate());
         peopleViewTimeSlider.setMax(frieze.getMaxDate());
         peopleViewTimeSlider.setLowValue(frieze.getMinDate());
@@ -16,6 +16,7 @@
  */
 package com.github.noony.app.timelinefx.hmi;
 
+import com.github.noony.app.timelinefx.core.BatchContent;
 import com.github.noony.app.timelinefx.core.Frieze;
 import com.github.noony.app.timelinefx.core.Person;
 import com.github.noony.app.timelinefx.core.PersonFactory;
@@ -182,7 +183,7 @@ public class FriezeViewController implements Initializable {
     private void updatePersonTab() {
         List<Person> persons = frieze.getPersons();
         //TODO remove old listeners
-        personCheckListView.getItems().setAll(PersonFactory.getPERSONS());
+        personCheckListView.getItems().setAll(PersonFactory.getPersons(project));
         // Not Optimal...
         persons.forEach(p -> personCheckListView.getCheckModel().check(p));
         personCheckListView.getCheckModel().getCheckedItems().addListener((ListChangeListener.Change<? extends Person> change) -> {
@@ -197,7 +198,7 @@ public class FriezeViewController implements Initializable {
         // TODO remove listeners
         allTreeItems = new LinkedList<>();
         var rootPlaceItem = createRootPlaceItem();
-        PlaceFactory.getRootPlaces().forEach(p -> {
+        PlaceFactory.getRootPlaces(project).forEach(p -> {
             rootPlaceItem.getChildren().add(createTreeItemPlace(p));
             allTreeItems.add(rootPlaceItem);
         });
@@ -209,7 +210,7 @@ public class FriezeViewController implements Initializable {
     }
 
     private CheckBoxTreeItem<Place> createRootPlaceItem() {
-        var rootPlace = PlaceFactory.createPlace("Universe", PlaceLevel.UNIVERSE, null);
+        var rootPlace = PlaceFactory.createPlace(project, "Universe", PlaceLevel.UNIVERSE, null, Place.DEFAULT_COLOR);
         var rootPlaceItem = new CheckBoxTreeItem<>(rootPlace);
         rootPlaceItem.setIndependent(true);
         allTreeItems.add(rootPlaceItem);
@@ -293,6 +294,15 @@ public class FriezeViewController implements Initializable {
             case TimeLineProject.STAY_ADDED, TimeLineProject.STAY_REMOVED -> {
                 // ignored
             }
+            case TimeLineProject.BATCH_ADDED -> {
+                var content = (BatchContent) event.getNewValue();
+                if (!content.getPersons().isEmpty()) {
+                    updatePersonTab();
+                }
+                if (!content.getPlaces().isEmpty()) {
+                    updatePlacesTab();
+                }
+            }
             default ->
                 throw new UnsupportedOperationException(this.getClass().getSimpleName() + " :: " + event);
         }
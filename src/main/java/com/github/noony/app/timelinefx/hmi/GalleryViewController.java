@@ -19,6 +19,7 @@ package com.github.noony.app.timelinefx.hmi;
 import com.github.noony.app.timelinefx.core.Person;
 import com.github.noony.app.timelinefx.core.Picture;
 import com.github.noony.app.timelinefx.core.PictureFactory;
+import com.github.noony.app.timelinefx.core.PictureImporter;
 import com.github.noony.app.timelinefx.core.Place;
 import com.github.noony.app.timelinefx.core.TimeLineProject;
 import com.github.noony.app.timelinefx.utils.CustomFileUtils;
@@ -33,6 +34,7 @@ import java.util.ResourceBundle;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
+import javafx.application.Platform;
 import static javafx.application.Platform.runLater;
 import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.beans.value.ObservableValue;
@@ -44,13 +46,18 @@ import javafx.fxml.Initializable;
 import javafx.scene.Parent;
 import javafx.scene.control.Button;
 import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.SelectionMode;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
+import javafx.scene.control.Tooltip;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.AnchorPane;
+import javafx.scene.layout.HBox;
+import javafx.stage.DirectoryChooser;
 
 /**
  *
@@ -87,8 +94,17 @@ public class GalleryViewController implements Initializable, ViewController {
     private Button personUpButton, personDownButton;
     @FXML
     private ListView<Person> picturePersonsList;
+    @FXML
+    private Button importButton;
+    @FXML
+    private HBox importBox;
+    @FXML
+    private ProgressBar importProgressBar;
+    @FXML
+    private Label importLabel;
 
     private Picture currentPicture;
+    private PictureImporter pictureImporter = null;
 
     @Override
     public void initialize(URL url, ResourceBundle rb) {
@@ -109,6 +125,37 @@ public class GalleryViewController implements Initializable, ViewController {
         displayPictureLoaderView(EditionMode.EDITION);
     }
 
+    @FXML
+    protected void handleImportPictures(ActionEvent event) {
+        LOG.log(Level.INFO, "handleImportPictures on event {0}", new Object[]{event});
+        if (project == null || pictureImporter != null) {
+            return;
+        }
+        var directoryChooser = new DirectoryChooser();
+        directoryChooser.setTitle("Import pictures from folder");
+        var folder = directoryChooser.showDialog(picturesTableView.getScene().getWindow());
+        if (folder == null) {
+            return;
+        }
+        pictureImporter = new PictureImporter(project, folder, Platform::runLater);
+        pictureImporter.addListener(this::handlePictureImporterChanges);
+        importButton.setDisable(true);
+        importProgressBar.setProgress(ProgressBar.INDETERMINATE_PROGRESS);
+        importLabel.setText("");
+        importLabel.setTooltip(null);
+        importBox.setManaged(true);
+        importBox.setVisible(true);
+        pictureImporter.start();
+    }
+
+    @FXML
+    protected void handleCancelImport(ActionEvent event) {
+        LOG.log(Level.INFO, "handleCancelImport on event {0}", new Object[]{event});
+        if (pictureImporter != null) {
+            pictureImporter.cancel();
+        }
+    }
+
     @FXML
     protected void handleUpPerson(ActionEvent event) {
         LOG.log(Level.INFO, "handleUpPerson on event {0}", new Object[]{event});
@@ -131,6 +178,7 @@ public class GalleryViewController implements Initializable, ViewController {
     protected void setProject(TimeLineProject aProject) {
         project = aProject;
         pictureLoaderController.setProject(project);
+        picturesTableView.getItems().setAll(PictureFactory.getPictures(project));
     }
 
     protected void reset() {
@@ -173,8 +221,6 @@ public class GalleryViewController implements Initializable, ViewController {
             imageView.setFitHeight(t1.intValue() - 2 * MARGN);
         });
         //
-        picturesTableView.getItems().addAll(PictureFactory.getPictures());
-        //
         picturePersonsList.getSelectionModel().setSelectionMode(SelectionMode.SINGLE);
         picturePersonsList.getSelectionModel().selectedItemProperty().addListener((ObservableValue<? extends Person> ov, Person t, Person t1) -> {
             personUpButton.setDisable(t1 == null);
@@ -237,6 +283,42 @@ public class GalleryViewController implements Initializable, ViewController {
         picturePersonsList.setItems(FXCollections.observableArrayList(picture.getPersons()));
     }
 
+    private void handlePictureImporterChanges(PropertyChangeEvent event) {
+        switch (event.getPropertyName()) {
+            case PictureImporter.PICTURES_IMPORTED -> {
+                // the pictures are added to the table on their creation
+            }
+            case PictureImporter.IMPORT_PROGRESS, PictureImporter.IMPORT_FAILED ->
+                updateImportProgress();
+            case PictureImporter.IMPORT_DONE -> {
+                updateImportProgress();
+                var failures = pictureImporter.getFailures();
+                if (failures.isEmpty()) {
+                    importBox.setManaged(false);
+                    importBox.setVisible(false);
+                } else {
+                    // keeps the failures displayed until the next import
+                    importProgressBar.setProgress(1.0);
+                    importLabel.setTooltip(new Tooltip(failures.stream().map(PictureImporter.Failure::toString).collect(Collectors.joining("\n"))));
+                }
+                pictureImporter = null;
+                importButton.setDisable(false);
+            }
+            default ->
+                throw new UnsupportedOperationException("Unsupported property changed :: " + event.getPropertyName());
+        }
+    }
+
+    private void updateImportProgress() {
+        var nbFiles = pictureImporter.getNbFiles();
+        var nbProcessed = pictureImporter.getNbProcessed();
+        if (pictureImporter.isWalkDone() && nbFiles > 0) {
+            importProgressBar.setProgress((double) nbProcessed / nbFiles);
+        }
+        var nbFailures = pictureImporter.getFailures().size();
+        importLabel.setText(pictureImporter.getNbImported() + " imported" + (nbFailures > 0 ? ", " + nbFailures + " failed" : "") + " (" + nbProcessed + "/" + nbFiles + ")");
+    }
+
     private void handlePictureFactoryChanges(PropertyChangeEvent event) {
         switch (event.getPropertyName()) {
             case PictureFactory.PICTURE_ADDED -> {
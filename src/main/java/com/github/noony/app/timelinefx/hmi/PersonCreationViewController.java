@@ -24,6 +24,7 @@ import com.github.noony.app.timelinefx.core.PortraitFactory;
 import com.github.noony.app.timelinefx.core.TimeFormat;
 import com.github.noony.app.timelinefx.core.TimeLineProject;
 import com.github.noony.app.timelinefx.drawings.GalleryTiles;
+import com.github.noony.app.timelinefx.utils.ContentStore;
 import com.github.noony.app.timelinefx.utils.CustomFileUtils;
 import com.github.noony.app.timelinefx.utils.MathUtils;
 import java.beans.PropertyChangeEvent;
@@ -32,6 +33,7 @@ import java.beans.PropertyChangeSupport;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.net.URL;
 import java.nio.file.Files;
 import java.time.LocalDate;
@@ -185,7 +187,15 @@ public class PersonCreationViewController implements Initializable {
         fileChooser.setInitialDirectory(initialDirectory);
         File selectedFile = fileChooser.showOpenDialog(nameField.getScene().getWindow());
         if (selectedFile != null) {
-            var newPortrait = PortraitFactory.createPortrait(currentEditedPerson, CustomFileUtils.fromAbsoluteToProjectRelative(currentProject, selectedFile));
+            File portraitFile;
+            try {
+                // identical portraits share the same file
+                portraitFile = ContentStore.store(selectedFile, currentProject.getPortraitsFolder());
+            } catch (IOException ex) {
+                LOG.log(Level.SEVERE, "Error while storing portrait file {0} : {1}", new Object[]{selectedFile, ex});
+                portraitFile = selectedFile;
+            }
+            var newPortrait = PortraitFactory.createPortrait(currentEditedPerson, CustomFileUtils.fromAbsoluteToProjectRelative(currentProject, portraitFile));
             currentPortaitsList.add(newPortrait);
             updatePortraitCB();
             galleryTiles.addFileObject(newPortrait);
@@ -103,18 +103,19 @@ public class PictureLoaderViewController implements Initializable, ViewControlle
 
     public void reset() {
         // TODO manage order and selection
-        PersonFactory.getPERSONS().stream()
-                .filter(p -> !peopleCheckListView.getItems().contains(p))
-                .forEach(p -> peopleCheckListView.getItems().add(p));
-        //
-        PlaceFactory.getPlaces().stream()
-                .filter(p -> !placesCheckListView.getItems().contains(p))
-                .forEach(p -> placesCheckListView.getItems().add(p));
+        if (project != null) {
+            PersonFactory.getPersons(project).stream()
+                    .filter(p -> !peopleCheckListView.getItems().contains(p))
+                    .forEach(p -> peopleCheckListView.getItems().add(p));
+            //
+            PlaceFactory.getPlaces(project).stream()
+                    .filter(p -> !placesCheckListView.getItems().contains(p))
+                    .forEach(p -> placesCheckListView.getItems().add(p));
+        }
         //
         peopleCheckListView.getCheckModel().clearChecks();
         placesCheckListView.getCheckModel().clearChecks();
         // Todo; create a dummy Picture
-        project = null;
         pictureFile = null;
         pictureName = null;
         picture = null;
@@ -157,13 +158,18 @@ public class PictureLoaderViewController implements Initializable, ViewControlle
     }
 
     protected void setProject(TimeLineProject aProject) {
+        if (project != aProject) {
+            peopleCheckListView.getItems().clear();
+            placesCheckListView.getItems().clear();
+        }
         project = aProject;
+        reset();
     }
 
     protected void setPicture(Picture aPicture) {
+        project = aPicture.getProject();
         reset();
         picture = aPicture;
-        project = aPicture.getProject();
         picture.getPersons().forEach(person -> peopleCheckListView.getCheckModel().check(person));
         picture.getPlaces().forEach(place -> placesCheckListView.getCheckModel().check(place));
         pictureFile = new File(picture.getProjectRelativePath());
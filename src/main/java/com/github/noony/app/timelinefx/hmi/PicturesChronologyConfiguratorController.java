@@ -124,7 +124,7 @@ public class PicturesChronologyConfiguratorController implements Initializable {
             fileChooser.setSelectedExtensionFilter(new FileChooser.ExtensionFilter("PNG files (*.png)", "*.png"));
             File pngFile = fileChooser.showSaveDialog(configuratorRoot.getScene().getWindow());
             if (pngFile != null) {
-                PngExporter.exportToPNG(pictureChronologyDrawing.getNode(), pngFile);
+                PngExporter.exportTiledPNGInBackground(pictureChronologyDrawing.getNode(), pngFile, 1.0);
             }
         }
 
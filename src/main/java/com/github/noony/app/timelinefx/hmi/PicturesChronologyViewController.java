@@ -27,6 +27,7 @@ import com.github.noony.app.timelinefx.core.picturechronology.ChronologyPictureM
 import com.github.noony.app.timelinefx.core.picturechronology.PictureChronology;
 import com.github.noony.app.timelinefx.core.picturechronology.PictureChronologyFactory;
 import com.github.noony.app.timelinefx.drawings.GalleryTiles;
+import com.github.noony.app.timelinefx.drawings.VirtualGalleryTiles;
 import com.github.noony.app.timelinefx.drawings.IFxScalableNode;
 import com.github.noony.app.timelinefx.hmi.picturechronology.PictureChronologyDrawing;
 import java.beans.PropertyChangeEvent;
@@ -63,8 +64,8 @@ public class PicturesChronologyViewController implements Initializable {
     private final PropertyChangeListener portraitTilesListener = PicturesChronologyViewController.this::handlePortraitTilesChanges;
 
     private TimeLineProject project;
-    private GalleryTiles picturesGalleryTiles = null;
-    private GalleryTiles portraitGalleryTiles = null;
+    private VirtualGalleryTiles picturesGalleryTiles = null;
+    private VirtualGalleryTiles portraitGalleryTiles = null;
     private PictureChronology currentPictureChronology = null;
     private PictureChronologyDrawing pictureChronologyDrawing = null;
     //
@@ -111,6 +112,11 @@ public class PicturesChronologyViewController implements Initializable {
         });
         updateChronologiesTab();
         chronologyNameField.setText("");
+        // the galleries scroll their tiles themselves
+        picturesPane.setFitToWidth(true);
+        picturesPane.setFitToHeight(true);
+        portraitsPane.setFitToWidth(true);
+        portraitsPane.setFitToHeight(true);
     }
 
     @FXML
@@ -136,8 +142,8 @@ public class PicturesChronologyViewController implements Initializable {
             picturesGalleryTiles.removePropertyChangeListener(galleryTilesListener);
         }
         List<IFileObject> pictures = new LinkedList<>();
-        pictures.addAll(PictureFactory.getPictures());
-        picturesGalleryTiles = new GalleryTiles(pictures);
+        pictures.addAll(PictureFactory.getPictures(project));
+        picturesGalleryTiles = new VirtualGalleryTiles(pictures);
         picturesGalleryTiles.addPropertyChangeListener(galleryTilesListener);
         picturesPane.setContent(picturesGalleryTiles.getNode());
         //
@@ -145,10 +151,12 @@ public class PicturesChronologyViewController implements Initializable {
             portraitGalleryTiles.removePropertyChangeListener(portraitTilesListener);
         }
         List<IFileObject> portraits = new LinkedList<>();
-        portraits.addAll(PortraitFactory.getPortraits());
-        portraitGalleryTiles = new GalleryTiles(portraits);
+        portraits.addAll(PortraitFactory.getPortraits(project));
+        portraitGalleryTiles = new VirtualGalleryTiles(portraits);
         portraitGalleryTiles.addPropertyChangeListener(portraitTilesListener);
         portraitsPane.setContent(portraitGalleryTiles.getNode());
+        //
+        updateChronologiesTab();
     }
 
     protected void addPropertyChangeListener(PropertyChangeListener listener) {
@@ -185,7 +193,8 @@ public class PicturesChronologyViewController implements Initializable {
         switch (event.getPropertyName()) {
             case TimeLineProject.PERSON_ADDED, TimeLineProject.PERSON_REMOVED,
                     TimeLineProject.PLACE_ADDED, TimeLineProject.PLACE_REMOVED,
-                    TimeLineProject.STAY_ADDED, TimeLineProject.STAY_REMOVED -> {
+                    TimeLineProject.STAY_ADDED, TimeLineProject.STAY_REMOVED,
+                    TimeLineProject.BATCH_ADDED -> {
             }
             default ->
                 throw new UnsupportedOperationException(this.getClass().getSimpleName() + " :: " + event);
@@ -194,7 +203,11 @@ public class PicturesChronologyViewController implements Initializable {
     }
 
     private void updateChronologiesTab() {
-        chronologiesListView.getItems().setAll(PictureChronologyFactory.getPicturesChronologies());
+        if (project == null) {
+            chronologiesListView.getItems().clear();
+            return;
+        }
+        chronologiesListView.getItems().setAll(PictureChronologyFactory.getPicturesChronologies(project));
         if (currentPictureChronology != null) {
             chronologiesListView.getSelectionModel().select(currentPictureChronology);
         }
@@ -19,6 +19,7 @@ package com.github.noony.app.timelinefx.hmi;
 import com.github.noony.app.timelinefx.core.Place;
 import com.github.noony.app.timelinefx.core.PlaceFactory;
 import com.github.noony.app.timelinefx.core.PlaceLevel;
+import com.github.noony.app.timelinefx.core.TimeLineProject;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.net.URL;
@@ -57,6 +58,7 @@ public class PlaceCreationViewController implements Initializable {
 
     private final PropertyChangeSupport propertyChangeSupport = new PropertyChangeSupport(PlaceCreationViewController.this);
     //
+    private TimeLineProject currentProject = null;
     private Place currentEditedPlace = null;
     //
     private String placeName = null;
@@ -100,7 +102,7 @@ public class PlaceCreationViewController implements Initializable {
     protected void handleCreateAction(ActionEvent event) {
         switch (editionMode) {
             case CREATION ->
-                propertyChangeSupport.firePropertyChange(PLACE_CREATED, null, PlaceFactory.createPlace(placeName, placeLevel, parentPlace, placeColor));
+                propertyChangeSupport.firePropertyChange(PLACE_CREATED, null, PlaceFactory.createPlace(currentProject, placeName, placeLevel, parentPlace, placeColor));
             case EDITION -> {
                 currentEditedPlace.setName(placeName);
                 currentEditedPlace.setParent(parentPlace);
@@ -119,6 +121,11 @@ public class PlaceCreationViewController implements Initializable {
         propertyChangeSupport.firePropertyChange(CANCEL_PLACE_CREATION, null, null);
     }
 
+    protected void setTimelineProject(TimeLineProject aProject) {
+        currentProject = aProject;
+        updateAvailablePlaces();
+    }
+
     protected void addPropertyChangeListener(PropertyChangeListener listener) {
         propertyChangeSupport.addPropertyChangeListener(listener);
     }
@@ -166,7 +173,11 @@ public class PlaceCreationViewController implements Initializable {
     }
 
     private void updateAvailablePlaces() {
-        parentPlaceCB.getItems().setAll(PlaceFactory.getPlaces());
+        if (currentProject == null) {
+            parentPlaceCB.getItems().clear();
+        } else {
+            parentPlaceCB.getItems().setAll(PlaceFactory.getPlaces(currentProject));
+        }
     }
 
     private void updatePlaceName(String name) {
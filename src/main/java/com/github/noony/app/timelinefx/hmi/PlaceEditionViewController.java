@@ -19,6 +19,7 @@ package com.github.noony.app.timelinefx.hmi;
 import com.github.noony.app.timelinefx.core.Place;
 import com.github.noony.app.timelinefx.core.PlaceFactory;
 import com.github.noony.app.timelinefx.core.PlaceLevel;
+import com.github.noony.app.timelinefx.core.TimeLineProject;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.net.URL;
@@ -60,6 +61,7 @@ public class PlaceEditionViewController implements Initializable {
     private final PropertyChangeSupport propertyChangeSupport = new PropertyChangeSupport(PlaceEditionViewController.this);
 
     //
+    private TimeLineProject currentProject = null;
     private Place currentPlace = null;
     private String placeName = null;
     private PlaceLevel placeLevel = null;
@@ -108,6 +110,11 @@ public class PlaceEditionViewController implements Initializable {
         propertyChangeSupport.firePropertyChange(CANCEL_PLACE_EDITION, null, null);
     }
 
+    protected void setTimelineProject(TimeLineProject aProject) {
+        currentProject = aProject;
+        updateAvailablePlaces();
+    }
+
     protected void setPlace(Place aPlace) {
         currentPlace = aPlace;
         updateStatus();
@@ -127,7 +134,11 @@ public class PlaceEditionViewController implements Initializable {
     }
 
     private void updateAvailablePlaces() {
-        parentPlaceCB.getItems().setAll(PlaceFactory.getPlaces());
+        if (currentProject == null) {
+            parentPlaceCB.getItems().clear();
+        } else {
+            parentPlaceCB.getItems().setAll(PlaceFactory.getPlaces(currentProject));
+        }
     }
 
 }
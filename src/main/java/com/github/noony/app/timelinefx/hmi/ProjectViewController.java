@@ -23,6 +23,8 @@ import com.github.noony.app.timelinefx.core.TimeLineProjectFactory;
 import com.github.noony.app.timelinefx.examples.StarWars;
 import com.github.noony.app.timelinefx.examples.TestExample;
 import com.github.noony.app.timelinefx.save.XMLHandler;
+import com.github.noony.app.timelinefx.save.journal.JournalCompactor;
+import com.github.noony.app.timelinefx.save.journal.ProjectJournal;
 import java.beans.PropertyChangeEvent;
 import java.io.File;
 import java.io.IOException;
@@ -106,6 +108,8 @@ public final class ProjectViewController implements Initializable {
     private PicturesChronologyViewController pictureChronologyViewController = null;
     //
     private SaveWindow saveWindow = null;
+    private ProjectJournal projectJournal = null;
+    private JournalCompactor journalCompactor = null;
     // toolbarToggleGroup does not seem to work : TODO: fix
     private ToggleGroup toolbarToggleGroup;
     private ToggleGroup viewToggleGroup;
@@ -192,7 +196,14 @@ public final class ProjectViewController implements Initializable {
         var targetFile = timeLineProject.getTimelineFile();
         if (targetFile != null) {
             LOG.log(Level.INFO, "> Saving to file {0}", targetFile);
-            XMLHandler.save(timeLineProject, timeLineProject.getTimelineFile());
+            if (projectJournal == null) {
+                XMLHandler.save(timeLineProject, targetFile);
+                return;
+            }
+            // layouts, pictures and person dates are only saved with the whole project
+            if (!projectJournal.save()) {
+                LOG.log(Level.SEVERE, "> Could not save file {0}", targetFile);
+            }
         } else {
             LOG.log(Level.SEVERE, "> Could not save file : project file not set");
         }
@@ -237,7 +248,13 @@ public final class ProjectViewController implements Initializable {
     }
 
     public void loadProject(TimeLineProject aTimeLineProject) {
+        closeJournal();
         timeLineProject = aTimeLineProject;
+        if (timeLineProject != null && timeLineProject.getTimelineFile() != null) {
+            projectJournal = new ProjectJournal(timeLineProject);
+            journalCompactor = new JournalCompactor(projectJournal);
+            journalCompactor.start();
+        }
         if (timeLineProject == null) {
             contentEditionView.setDisable(true);
             timelineView.setDisable(true);
@@ -257,6 +274,26 @@ public final class ProjectViewController implements Initializable {
         timeLineProject.getFriezes().forEach(timelineController::loadFreize);
     }
 
+    /**
+     * Stops journaling the current project before the application exits. The
+     * changes committed to its journal are replayed when it is loaded again,
+     * the ones that were not saved are dropped.
+     */
+    public void close() {
+        closeJournal();
+    }
+
+    private void closeJournal() {
+        if (journalCompactor != null) {
+            journalCompactor.stop();
+            journalCompactor = null;
+        }
+        if (projectJournal != null) {
+            projectJournal.close();
+            projectJournal = null;
+        }
+    }
+
     private void executeActionOnHold() {
         switch (actionOnHold) {
             case NEW_PROJECT -> {
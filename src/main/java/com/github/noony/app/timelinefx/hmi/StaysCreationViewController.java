@@ -16,6 +16,7 @@
  */
 package com.github.noony.app.timelinefx.hmi;
 
+import com.github.noony.app.timelinefx.core.BatchContent;
 import com.github.noony.app.timelinefx.core.Person;
 import com.github.noony.app.timelinefx.core.Place;
 import com.github.noony.app.timelinefx.core.PlaceFactory;
@@ -228,6 +229,16 @@ public class StaysCreationViewController implements Initializable {
 
     @FXML
     protected void handleUpdateAction(ActionEvent event) {
+        // the friezes and their drawings are updated once for all the edited fields
+        if (timeline != null) {
+            timeline.batch(this::updateSelectedStay);
+        } else {
+            updateSelectedStay();
+        }
+        chronologyListView.refresh();
+    }
+
+    private void updateSelectedStay() {
         selectedStayPeriod.setPerson(personCB.getValue());
         selectedStayPeriod.setPlace(placesSearchCB.getValue());
         switch (timeFormat) {
@@ -244,7 +255,6 @@ public class StaysCreationViewController implements Initializable {
             default ->
                 throw new UnsupportedOperationException("Trying to create a Stay of unsupported type :: " + timeFormat);
         }
-        chronologyListView.refresh();
     }
 
     @FXML
@@ -280,7 +290,7 @@ public class StaysCreationViewController implements Initializable {
             runLater(() -> {
                 personCB.getItems().setAll(timeline.getPersons());
                 chronologyListView.getItems().setAll(timeline.getStays());
-                ObservableList<Place> myPlaces = FXCollections.observableList(PlaceFactory.getPlaces());
+                ObservableList<Place> myPlaces = FXCollections.observableList(PlaceFactory.getPlaces(timeline));
                 placesSearchCB.setItems(myPlaces);
                 placesSearchCB.getItems().sorted(Place.COMPARATOR);
             });
@@ -329,6 +339,16 @@ public class StaysCreationViewController implements Initializable {
                 personCB.getItems().setAll(timeline.getPersons());
             case TimeLineProject.STAY_ADDED ->
                 chronologyListView.getItems().add((StayPeriod) event.getNewValue());
+            case TimeLineProject.BATCH_ADDED -> {
+                var content = (BatchContent) event.getNewValue();
+                if (!content.getPlaces().isEmpty()) {
+                    placesSearchCB.getItems().setAll(timeline.getAllPlaces());
+                }
+                if (!content.getPersons().isEmpty()) {
+                    personCB.getItems().setAll(timeline.getPersons());
+                }
+                chronologyListView.getItems().addAll(content.getStays());
+            }
             case TimeLineProject.STAY_REMOVED ->
                 chronologyListView.getItems().remove((StayPeriod) event.getNewValue());
             default ->
@@ -16,15 +16,25 @@
  */
 package com.github.noony.app.timelinefx.hmi.byperson;
 
+import com.github.noony.app.timelinefx.core.BatchContent;
 import com.github.noony.app.timelinefx.core.Frieze;
 import com.github.noony.app.timelinefx.core.Person;
+import com.github.noony.app.timelinefx.core.Place;
 import com.github.noony.app.timelinefx.core.StayPeriod;
+import com.github.noony.app.timelinefx.drawings.FriezeRenderMode;
 import com.github.noony.app.timelinefx.drawings.IFriezeView;
+import com.github.noony.app.timelinefx.drawings.StayCanvasLayer;
+import com.github.noony.app.timelinefx.drawings.StayLane;
 import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import static javafx.application.Platform.runLater;
 import javafx.scene.Group;
 import javafx.scene.Node;
@@ -49,6 +59,13 @@ public class FriezePeopleLinearDrawing implements IFriezeView {
     private final Map<Person, PersonDrawing> personsAndDrawings;
     private final List<Person> visiblePersons;
     //
+    private final Map<Person, StayLane> lanesByPerson;
+    private final PropertyChangeListener placeListener;
+    // places listened to by the canvas, listened once even if PLACE_ADDED follows showStayCanvasLayer
+    private final Set<Place> listenedPlaces = Collections.newSetFromMap(new IdentityHashMap<>());
+    private FriezeRenderMode renderMode;
+    private StayCanvasLayer stayCanvasLayer = null;
+    //
     private double width = 800;
     private double height = 600;
     private double placeWith;
@@ -57,13 +74,28 @@ public class FriezePeopleLinearDrawing implements IFriezeView {
     private double timeWindowX;
 
     private double previewsPersonsHeight = 0;
+    // part of the drawing visible in its scroll pane
+    private double visibleMinY = Double.NEGATIVE_INFINITY;
+    private double visibleMaxY = Double.POSITIVE_INFINITY;
 
     public FriezePeopleLinearDrawing(Frieze aFrieze) {
+        this(aFrieze, FriezeRenderMode.SCENE_GRAPH);
+    }
+
+    /**
+     *
+     * @param aFrieze the frieze to draw
+     * @param aRenderMode how the stays are drawn
+     */
+    public FriezePeopleLinearDrawing(Frieze aFrieze, FriezeRenderMode aRenderMode) {
         frieze = aFrieze;
+        renderMode = aRenderMode;
         frieze.addListener(FriezePeopleLinearDrawing.this::handleFriezeChange);
         //
         personsAndDrawings = new HashMap<>();
         visiblePersons = new LinkedList<>();
+        lanesByPerson = new HashMap<>();
+        placeListener = FriezePeopleLinearDrawing.this::handlePlaceChange;
         //
         mainNode = new Group();
         personsGroup = new Group();
@@ -75,7 +107,10 @@ public class FriezePeopleLinearDrawing implements IFriezeView {
 
         mainNode.getChildren().addAll(background, personsGroup, stayGroup);
         //
-        frieze.getPersons().stream().forEachOrdered(p -> addPersonDrawing(p));
+        frieze.getPersons().stream().forEachOrdered(this::createPersonDrawing);
+        if (renderMode == FriezeRenderMode.CANVAS) {
+            showStayCanvasLayer();
+        }
         //
         runLater(() -> {
             setWidth(width);
@@ -84,6 +119,11 @@ public class FriezePeopleLinearDrawing implements IFriezeView {
     }
 
     private void addPersonDrawing(final Person person) {
+        createPersonDrawing(person);
+        updateLayout();
+    }
+
+    private void createPersonDrawing(final Person person) {
         PersonDrawing personDrawing = new PersonDrawing(this, person);
         person.addPropertyChangeListener(this::handlePersonChange);
         if (person.isVisible()) {
@@ -93,6 +133,21 @@ public class FriezePeopleLinearDrawing implements IFriezeView {
             personDrawing.setY(PersonDrawing.DEFAULT_SEPARATION + (visiblePersons.size()) * (PersonDrawing.DEFAULT_HEIGHT + PersonDrawing.DEFAULT_SEPARATION));
         }
         personsAndDrawings.put(person, personDrawing);
+    }
+
+    private void addContent(BatchContent content) {
+        // person drawings already display the stays of the frieze at creation
+        content.getPersons().forEach(this::createPersonDrawing);
+        content.getStays().forEach(this::addStayPeriod);
+        if (renderMode == FriezeRenderMode.CANVAS) {
+            content.getPlaces().forEach(this::listenToPlace);
+        }
+        if (!content.getPersons().isEmpty()) {
+            updateLayout();
+        }
+    }
+
+    private void updateLayout() {
         updateStaysWidth();
         updateStaysHeight();
         setWidth(width);
@@ -101,6 +156,7 @@ public class FriezePeopleLinearDrawing implements IFriezeView {
 
     private void removePersonDrawing(final Person person) {
         visiblePersons.remove(person);
+        lanesByPerson.remove(person);
         PersonDrawing personDrawing = personsAndDrawings.get(person);
         person.removePropertyChangeListener(this::handlePersonChange);
         if (personDrawing != null) {
@@ -109,10 +165,7 @@ public class FriezePeopleLinearDrawing implements IFriezeView {
             }
             personsAndDrawings.remove(person);
         }
-        updateStaysWidth();
-        updateStaysHeight();
-        setWidth(width);
-        setHeight(height);
+        updateLayout();
     }
 
     public Node getNode() {
@@ -131,14 +184,27 @@ public class FriezePeopleLinearDrawing implements IFriezeView {
         stayGroupClip.setWidth(timeWindowWidth);
         //
         updateStaysWidth();
+        updateCanvasSize();
     }
 
     public final void setHeight(double h) {
         height = h;
-        stayGroupClip.setHeight(previewsPersonsHeight + 2 * PersonDrawing.DEFAULT_SEPARATION);
         updateStaysHeight();
     }
 
+    /**
+     * Only the stays of the persons intersecting the visible band are kept in
+     * the scene.
+     *
+     * @param minY the top of the visible part of the drawing
+     * @param maxY the bottom of the visible part of the drawing
+     */
+    public void setVisibleBand(double minY, double maxY) {
+        visibleMinY = minY;
+        visibleMaxY = maxY;
+        updateVisibleBand();
+    }
+
     @Override
     public void setFrieze(Frieze f) {
         throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
@@ -149,26 +215,137 @@ public class FriezePeopleLinearDrawing implements IFriezeView {
         return frieze;
     }
 
+    @Override
+    public void setRenderMode(FriezeRenderMode aRenderMode) {
+        if (renderMode == aRenderMode) {
+            return;
+        }
+        renderMode = aRenderMode;
+        switch (renderMode) {
+            case SCENE_GRAPH -> {
+                stayGroup.getChildren().remove(stayCanvasLayer.getNode());
+                List.copyOf(listenedPlaces).forEach(this::stopListeningToPlace);
+                lanesByPerson.clear();
+            }
+            case CANVAS ->
+                showStayCanvasLayer();
+            default ->
+                throw new UnsupportedOperationException("Unsupported render mode: " + renderMode);
+        }
+        personsAndDrawings.values().forEach(d -> d.setStaysDrawn(renderMode == FriezeRenderMode.SCENE_GRAPH));
+        updateStaysWidth();
+        updateVisibleBand();
+    }
+
+    @Override
+    public FriezeRenderMode getRenderMode() {
+        return renderMode;
+    }
+
+    private void showStayCanvasLayer() {
+        if (stayCanvasLayer == null) {
+            createStayCanvasLayer();
+        }
+        stayGroup.getChildren().add(stayCanvasLayer.getNode());
+        // the canvas paints the stays with the color and selection of their place
+        frieze.getPlaces().forEach(this::listenToPlace);
+        stayCanvasLayer.invalidateLanes();
+        stayCanvasLayer.setVisibleBand(visibleMinY, visibleMaxY);
+        updateCanvasSize();
+    }
+
+    private void listenToPlace(Place place) {
+        if (listenedPlaces.add(place)) {
+            place.addPropertyChangeListener(placeListener);
+        }
+    }
+
+    private void stopListeningToPlace(Place place) {
+        if (listenedPlaces.remove(place)) {
+            place.removePropertyChangeListener(placeListener);
+        }
+    }
+
+    private void createStayCanvasLayer() {
+        stayCanvasLayer = new StayCanvasLayer(this::createLanes, stay -> stay.getPlace().getColor());
+        stayCanvasLayer.setHighlight(stay -> stay.getPlace().isSelected(), (PlaceStayDrawing.SELECTED_STROKE_WIDTH - PlaceStayDrawing.STROKE_WIDTH) / 2.0);
+        stayCanvasLayer.setOnStayHovered((stay, hovered) -> stay.getPlace().setSelected(hovered));
+    }
+
+    private List<StayLane> createLanes() {
+        List<StayLane> lanes = new ArrayList<>(visiblePersons.size());
+        for (int i = 0; i < visiblePersons.size(); i++) {
+            var lane = lanesByPerson.computeIfAbsent(visiblePersons.get(i), p -> new StayLane(frieze.getStayPeriods(p)));
+            lane.setBounds(getPersonY(i) + PersonDrawing.DEFAULT_INNER_SEPARATION, PlaceStayDrawing.PLACE_HEIGHT);
+            lanes.add(lane);
+        }
+        return lanes;
+    }
+
+    private void updateCanvasSize() {
+        if (renderMode == FriezeRenderMode.CANVAS) {
+            stayCanvasLayer.setSize(timeWindowWidth, previewsPersonsHeight);
+        }
+    }
+
+    private void invalidateLane(Person person) {
+        if (renderMode == FriezeRenderMode.CANVAS) {
+            lanesByPerson.remove(person);
+            stayCanvasLayer.invalidateLanes();
+        }
+    }
+
     private void updateStaysWidth() {
         // simple for now
         double ratio = timeWindowWidth / (frieze.getMaxDateWindow() - frieze.getMinDateWindow());
-        personsAndDrawings.values().forEach(personDrawing -> personDrawing.updateDateRatio(frieze.getMinDateWindow(), ratio));
+        if (renderMode == FriezeRenderMode.CANVAS) {
+            stayCanvasLayer.setDateWindow(frieze.getMinDateWindow(), ratio);
+        } else {
+            var minDate = frieze.getMinDateWindow();
+            var maxDate = frieze.getMaxDateWindow();
+            // only the stays in the window are attached, as given by the interval index of the frieze
+            Map<Person, List<StayPeriod>> windowStaysByPerson = new HashMap<>();
+            frieze.getStayPeriods(minDate, maxDate).forEach(stay -> windowStaysByPerson.computeIfAbsent(stay.getPerson(), p -> new ArrayList<>()).add(stay));
+            personsAndDrawings.forEach((person, personDrawing)
+                    -> personDrawing.updateDateWindow(minDate, maxDate, ratio, windowStaysByPerson.getOrDefault(person, List.of())));
+        }
+    }
+
+    private void updateVisibleBand() {
+        if (renderMode == FriezeRenderMode.CANVAS) {
+            stayCanvasLayer.setVisibleBand(visibleMinY, visibleMaxY);
+        } else {
+            for (var person : visiblePersons) {
+                var personDrawing = personsAndDrawings.get(person);
+                personDrawing.setInVisibleBand(personDrawing.getY() + PersonDrawing.DEFAULT_HEIGHT >= visibleMinY && personDrawing.getY() <= visibleMaxY);
+            }
+        }
     }
 
     private void updateStaysHeight() {
-        previewsPersonsHeight = PersonDrawing.DEFAULT_SEPARATION;
-        //
         visiblePersons.sort(Person.COMPARATOR);
         for (int i = 0; i < visiblePersons.size(); i++) {
             PersonDrawing drawing = personsAndDrawings.get(visiblePersons.get(i));
-            drawing.setY(PersonDrawing.DEFAULT_SEPARATION + i * (PersonDrawing.DEFAULT_HEIGHT + PersonDrawing.DEFAULT_SEPARATION));
+            drawing.setY(getPersonY(i));
         }
+        previewsPersonsHeight = getPersonY(visiblePersons.size());
+        stayGroupClip.setHeight(previewsPersonsHeight + 2 * PersonDrawing.DEFAULT_SEPARATION);
+        if (renderMode == FriezeRenderMode.CANVAS) {
+            stayCanvasLayer.invalidateLanes();
+            updateCanvasSize();
+        }
+        updateVisibleBand();
+    }
+
+    private static double getPersonY(int personIndex) {
+        return PersonDrawing.DEFAULT_SEPARATION + personIndex * (PersonDrawing.DEFAULT_HEIGHT + PersonDrawing.DEFAULT_SEPARATION);
     }
 
     private void addStayPeriod(StayPeriod aStayPeriod) {
         PersonDrawing personDrawing = personsAndDrawings.get(aStayPeriod.getPerson());
         if (personDrawing != null) {
             personDrawing.addStay(aStayPeriod);
+            invalidateLane(aStayPeriod.getPerson());
         }
     }
 
@@ -176,6 +353,11 @@ public class FriezePeopleLinearDrawing implements IFriezeView {
         PersonDrawing personDrawing = personsAndDrawings.get(aStayPeriod.getPerson());
         if (personDrawing != null) {
             personDrawing.updateStay(aStayPeriod);
+            // the stay may also come from another person
+            if (renderMode == FriezeRenderMode.CANVAS) {
+                lanesByPerson.clear();
+                stayCanvasLayer.invalidateLanes();
+            }
         }
     }
 
@@ -183,6 +365,7 @@ public class FriezePeopleLinearDrawing implements IFriezeView {
         PersonDrawing personDrawing = personsAndDrawings.get(aStayPeriod.getPerson());
         if (personDrawing != null) {
             personDrawing.removeStay(aStayPeriod);
+            invalidateLane(aStayPeriod.getPerson());
         }
     }
 
@@ -196,9 +379,16 @@ public class FriezePeopleLinearDrawing implements IFriezeView {
             }
             case Frieze.PERSON_ADDED ->
                 addPersonDrawing((Person) event.getNewValue());
-            case Frieze.PLACE_ADDED,Frieze.PLACE_REMOVED -> {
-                // nothing to do, frieze handles stay add/remove
+            case Frieze.BATCH_ADDED ->
+                addContent((BatchContent) event.getNewValue());
+            case Frieze.PLACE_ADDED -> {
+                // the frieze handles stay add/remove
+                if (renderMode == FriezeRenderMode.CANVAS) {
+                    listenToPlace((Place) event.getNewValue());
+                }
             }
+            case Frieze.PLACE_REMOVED ->
+                stopListeningToPlace((Place) event.getNewValue());
             case Frieze.STAY_REMOVED -> {
                 StayPeriod stayToRemove = (StayPeriod) event.getNewValue();
                 removeStayPeriod(stayToRemove);
@@ -221,6 +411,15 @@ public class FriezePeopleLinearDrawing implements IFriezeView {
         }
     }
 
+    private void handlePlaceChange(PropertyChangeEvent event) {
+        switch (event.getPropertyName()) {
+            case Place.CONTENT_CHANGED, Place.SELECTION_CHANGED ->
+                stayCanvasLayer.requestRedraw();
+            default ->
+                throw new UnsupportedOperationException(event.getPropertyName());
+        }
+    }
+
     private void handlePersonChange(PropertyChangeEvent event) {
         switch (event.getPropertyName()) {
             case Person.VISIBILITY_CHANGED -> {
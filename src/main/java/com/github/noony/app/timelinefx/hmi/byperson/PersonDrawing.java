@@ -19,8 +19,11 @@ package com.github.noony.app.timelinefx.hmi.byperson;
 import com.github.noony.app.timelinefx.core.Person;
 import com.github.noony.app.timelinefx.core.StayPeriod;
 import com.github.noony.app.timelinefx.drawings.FXDrawing;
+import com.github.noony.app.timelinefx.drawings.FriezeRenderMode;
 import com.github.noony.app.timelinefx.drawings.IFriezeView;
+import com.github.noony.app.timelinefx.drawings.StayNodeCulling;
 import java.beans.PropertyChangeEvent;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import javafx.geometry.Pos;
@@ -49,6 +52,7 @@ public class PersonDrawing extends FXDrawing {
     private final Person person;
     private final IFriezeView friezeView;
     private final Map<StayPeriod, PlaceStayDrawing> staysAndDrawings;
+    private final StayNodeCulling<PlaceStayDrawing> stayCulling;
 
     //
     private final Label nameLabel;
@@ -58,11 +62,14 @@ public class PersonDrawing extends FXDrawing {
     //
     private double currentMinDate = 0L;
     private double currentRatio = 1;
+    // false when the stays are painted by the frieze view
+    private boolean staysDrawn;
 
     public PersonDrawing(IFriezeView aFriezeView, Person aPerson) {
         super();
         person = aPerson;
         friezeView = aFriezeView;
+        staysDrawn = friezeView.getRenderMode() == FriezeRenderMode.SCENE_GRAPH;
         staysAndDrawings = new HashMap<>();
         //
         nameLabel = new Label(person.getName());
@@ -70,6 +77,7 @@ public class PersonDrawing extends FXDrawing {
         placesGroup = new Group();
         placesGroupClip = new Rectangle();
         placesGroup.setClip(placesGroupClip);
+        stayCulling = new StayNodeCulling<>(placesGroup, staysAndDrawings, PlaceStayDrawing::getNode, stay -> true);
         addNode(nameLabel);
         addNode(nameSeparationLine);
         addNode(placesGroup);
@@ -123,30 +131,80 @@ public class PersonDrawing extends FXDrawing {
         person.addPropertyChangeListener(this::handlePersonEvents);
     }
 
+    /**
+     * Attaches the stays overlapping the date window only, and positions
+     * them.
+     *
+     * @param minDate the lower bound of the date window
+     * @param maxDate the upper bound of the date window
+     * @param ratio the number of pixels per time unit
+     * @param windowStays the stays of the person overlapping the window
+     */
+    protected void updateDateWindow(double minDate, double maxDate, double ratio, Collection<StayPeriod> windowStays) {
+        stayCulling.setDateWindow(minDate, maxDate, windowStays);
+        updateDateRatio(minDate, ratio);
+    }
+
+    /**
+     *
+     * @param visible whether the drawing intersects the visible part of the
+     * view, its stays being detached otherwise
+     */
+    protected void setInVisibleBand(boolean visible) {
+        if (stayCulling.isInVisibleBand() != visible) {
+            stayCulling.setInVisibleBand(visible);
+            updateDateRatio(currentMinDate, currentRatio);
+        }
+    }
+
     protected void updateDateRatio(double minDate, double ratio) {
         currentMinDate = minDate;
         currentRatio = ratio;
-        staysAndDrawings.values().forEach(s -> s.updateDateRatio(currentMinDate, currentRatio));
+        // detached stays are positioned when attached again
+        stayCulling.getAttachedStays().forEach(s -> staysAndDrawings.get(s).updateDateRatio(currentMinDate, currentRatio));
+    }
+
+    /**
+     *
+     * @param drawn whether the drawing creates one node per stay
+     */
+    protected void setStaysDrawn(boolean drawn) {
+        if (staysDrawn == drawn) {
+            return;
+        }
+        staysDrawn = drawn;
+        if (staysDrawn) {
+            friezeView.getFrieze().getStayPeriods(person).forEach(this::addStay);
+        } else {
+            stayCulling.clear();
+            staysAndDrawings.values().forEach(PlaceStayDrawing::dispose);
+            staysAndDrawings.clear();
+        }
     }
 
     protected void addStay(StayPeriod stay) {
+        if (!staysDrawn || staysAndDrawings.containsKey(stay)) {
+            return;
+        }
         PlaceStayDrawing stayDrawing = new PlaceStayDrawing(stay);
         staysAndDrawings.put(stay, stayDrawing);
-        stayDrawing.updateDateRatio(currentMinDate, currentRatio);
-        placesGroup.getChildren().add(stayDrawing.getNode());
+        if (stayCulling.update(stay)) {
+            stayDrawing.updateDateRatio(currentMinDate, currentRatio);
+        }
     }
 
     protected void updateStay(StayPeriod stay) {
         PlaceStayDrawing stayDrawing = staysAndDrawings.get(stay);
-        if (stayDrawing != null) {
+        if (stayDrawing != null && stayCulling.update(stay)) {
             stayDrawing.updateDateRatio(currentMinDate, currentRatio);
         }
     }
 
     protected void removeStay(StayPeriod stay) {
+        stayCulling.remove(stay);
         PlaceStayDrawing stayDrawing = staysAndDrawings.remove(stay);
         if (stayDrawing != null) {
-            placesGroup.getChildren().remove(stayDrawing.getNode());
+            stayDrawing.dispose();
         }
     }
 
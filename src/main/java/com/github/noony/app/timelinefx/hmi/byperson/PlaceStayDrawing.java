@@ -19,6 +19,7 @@ package com.github.noony.app.timelinefx.hmi.byperson;
 import com.github.noony.app.timelinefx.core.Place;
 import com.github.noony.app.timelinefx.core.StayPeriod;
 import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import javafx.scene.Node;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.shape.Rectangle;
@@ -37,6 +38,7 @@ public class PlaceStayDrawing {
     private final StayPeriod stayPeriod;
 
     private final Rectangle rectangle;
+    private final PropertyChangeListener placeListener;
     private final double yPos = PersonDrawing.DEFAULT_INNER_SEPARATION;
 
     public PlaceStayDrawing(StayPeriod stay) {
@@ -47,7 +49,8 @@ public class PlaceStayDrawing {
         rectangle.setHeight(PLACE_HEIGHT);
         rectangle.setY(yPos);
         //
-        stayPeriod.getPlace().addPropertyChangeListener(PlaceStayDrawing.this::handlePlaceChanged);
+        placeListener = PlaceStayDrawing.this::handlePlaceChanged;
+        stayPeriod.getPlace().addPropertyChangeListener(placeListener);
         //
         rectangle.setOnMouseEntered(event -> stayPeriod.getPlace().setSelected(true));
         rectangle.setOnMouseExited(this::handle);
@@ -61,6 +64,14 @@ public class PlaceStayDrawing {
         return stayPeriod;
     }
 
+    /**
+     * Stops listening to the place of the stay, once the drawing is no longer
+     * displayed.
+     */
+    protected void dispose() {
+        stayPeriod.getPlace().removePropertyChangeListener(placeListener);
+    }
+
     protected void updateDateRatio(double minDate, double ratio) {
         double startX = (stayPeriod.getStartDate() - minDate) * ratio;
         double endX = (stayPeriod.getEndDate() - minDate) * ratio;
@@ -17,6 +17,7 @@
 package com.github.noony.app.timelinefx.hmi.byplace;
 
 import com.github.noony.app.timelinefx.core.Frieze;
+import com.github.noony.app.timelinefx.drawings.FriezeRenderMode;
 import com.github.noony.app.timelinefx.utils.TimeFormatToString;
 import java.net.URL;
 import java.util.Optional;
@@ -27,6 +28,7 @@ import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.geometry.Orientation;
 import javafx.scene.Node;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ScrollBar;
 import javafx.scene.control.ScrollPane;
@@ -55,6 +57,8 @@ public class FriezePlaceViewController implements Initializable {
     private RangeSlider timeSlider;
     @FXML
     private Label minDateLabel, maxDateLabel;
+    @FXML
+    private CheckBox canvasCB;
 
     private double friezePaneWidth = 100;
     private double friezePaneHeight = 100;
@@ -76,6 +80,8 @@ public class FriezePlaceViewController implements Initializable {
                 friezeSpaceLinearDrawing.setHeight(friezePaneHeight);
             }
         });
+        // only the rows in the viewport keep their stays in the scene
+        scrollPane.viewportBoundsProperty().addListener(o -> updateVisibleBand());
         // !! TOD fix since not working
         Set<Node> scrollBars = scrollPane.lookupAll(".scroll-bar");
         Optional<Node> horizontalScrollBar = scrollBars.stream()
@@ -106,6 +112,20 @@ public class FriezePlaceViewController implements Initializable {
         });
         minDateLabel.setText("");
         maxDateLabel.setText("");
+        //
+        canvasCB.selectedProperty().addListener((ObservableValue<? extends Boolean> ov, Boolean t, Boolean t1) -> {
+            if (friezeSpaceLinearDrawing != null) {
+                friezeSpaceLinearDrawing.setRenderMode(t1 ? FriezeRenderMode.CANVAS : FriezeRenderMode.SCENE_GRAPH);
+            }
+        });
+    }
+
+    private void updateVisibleBand() {
+        if (friezeSpaceLinearDrawing != null) {
+            // the viewport bounds are offset by the scroll position
+            var viewportBounds = scrollPane.getViewportBounds();
+            friezeSpaceLinearDrawing.setVisibleBand(-viewportBounds.getMinY(), -viewportBounds.getMinY() + viewportBounds.getHeight());
+        }
     }
 
     private void updateFriezeWidth() {
@@ -121,10 +141,12 @@ public class FriezePlaceViewController implements Initializable {
     //TODO protect ?
     public void setFrieze(Frieze f) {
         frieze = f;
-        friezeSpaceLinearDrawing = new FriezeSpaceLinearDrawing(frieze);
+        friezeSpaceLinearDrawing = new FriezeSpaceLinearDrawing(frieze, FriezeRenderMode.getDefault(frieze.getNbStays()));
+        canvasCB.setSelected(friezeSpaceLinearDrawing.getRenderMode() == FriezeRenderMode.CANVAS);
         friezePane.getChildren().setAll(friezeSpaceLinearDrawing.getNode());
         friezeSpaceLinearDrawing.setWidth(friezePaneWidth);
         friezeSpaceLinearDrawing.setHeight(friezePaneHeight);
+        updateVisibleBand();
         timeSlider.setMin(frieze.getMinDate());
         timeSlider.setMax(frieze.getMaxDate());
         timeSlider.setLowValue(frieze.getMinDate());
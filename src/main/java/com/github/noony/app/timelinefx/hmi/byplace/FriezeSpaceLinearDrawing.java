@@ -16,13 +16,25 @@
  */
 package com.github.noony.app.timelinefx.hmi.byplace;
 
+import com.github.noony.app.timelinefx.core.BatchContent;
 import com.github.noony.app.timelinefx.core.Frieze;
+import com.github.noony.app.timelinefx.core.Person;
 import com.github.noony.app.timelinefx.core.Place;
 import com.github.noony.app.timelinefx.core.StayPeriod;
+import com.github.noony.app.timelinefx.drawings.FriezeRenderMode;
+import com.github.noony.app.timelinefx.drawings.IFriezeView;
+import com.github.noony.app.timelinefx.drawings.StayCanvasLayer;
+import com.github.noony.app.timelinefx.drawings.StayLane;
 
 import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -38,11 +50,11 @@ import javafx.scene.shape.Rectangle;
 /**
  * @author hamon
  */
-public class FriezeSpaceLinearDrawing {
+public class FriezeSpaceLinearDrawing implements IFriezeView {
 
     private static final Logger LOG = Logger.getGlobal();
 
-    private final Frieze frieze;
+    private Frieze frieze;
 
     private final Group mainNode;
     private final VBox placesGroup;
@@ -52,6 +64,12 @@ public class FriezeSpaceLinearDrawing {
 
     private final Map<Place, PlaceDrawing> placesAndDrawings;
     //
+    private final Map<PlaceDrawing, List<StayLane>> lanesByPlace;
+    private final PropertyChangeListener friezeListener;
+    private final PropertyChangeListener personListener;
+    private FriezeRenderMode renderMode;
+    private StayCanvasLayer stayCanvasLayer = null;
+    //
     private double width = 800;
     private double height = 600;
     private double placeWith;
@@ -59,12 +77,28 @@ public class FriezeSpaceLinearDrawing {
     private double timeWindowWidth;
     //
     private double timeRatio = 1;
+    // part of the drawing visible in its scroll pane
+    private double visibleMinY = Double.NEGATIVE_INFINITY;
+    private double visibleMaxY = Double.POSITIVE_INFINITY;
 
     public FriezeSpaceLinearDrawing(Frieze aFrieze) {
+        this(aFrieze, FriezeRenderMode.SCENE_GRAPH);
+    }
+
+    /**
+     *
+     * @param aFrieze the frieze to draw
+     * @param aRenderMode how the stays are drawn
+     */
+    public FriezeSpaceLinearDrawing(Frieze aFrieze, FriezeRenderMode aRenderMode) {
         frieze = aFrieze;
-        frieze.addListener(FriezeSpaceLinearDrawing.this::handleFriezeChange);
+        renderMode = aRenderMode;
+        friezeListener = FriezeSpaceLinearDrawing.this::handleFriezeChange;
+        frieze.addListener(friezeListener);
         //
         placesAndDrawings = new HashMap<>();
+        lanesByPlace = new HashMap<>();
+        personListener = FriezeSpaceLinearDrawing.this::handlePersonChange;
         //
         mainNode = new Group();
         placesGroup = new VBox();
@@ -75,8 +109,13 @@ public class FriezeSpaceLinearDrawing {
         background.setFill(Color.DARKGREY);
 
         mainNode.getChildren().addAll(background, placesGroup, stayGroup);
+        // the place drawings move when places are added or change height
+        placesGroup.heightProperty().addListener(o -> updateVisibleBand());
         //
         frieze.getPlaces().forEach(this::addPlaceDrawing);
+        if (renderMode == FriezeRenderMode.CANVAS) {
+            showStayCanvasLayer();
+        }
         //
         runLater(() -> {
             setWidth(width);
@@ -86,7 +125,7 @@ public class FriezeSpaceLinearDrawing {
 
     private PlaceDrawing addPlaceDrawing(Place place) {
         if (!frieze.getStayPeriods(place).isEmpty()) {
-            var placeDrawing = new PlaceDrawing(place, frieze);
+            var placeDrawing = new PlaceDrawing(place, frieze, renderMode == FriezeRenderMode.SCENE_GRAPH);
             placesGroup.getChildren().add(placeDrawing.getNode());
             placesAndDrawings.put(place, placeDrawing);
             runLater(() -> {
@@ -104,6 +143,8 @@ public class FriezeSpaceLinearDrawing {
         if (placeDrawing != null) {
             placesGroup.getChildren().remove(placeDrawing.getNode());
             placesAndDrawings.remove(deletedPlace);
+            lanesByPlace.remove(placeDrawing);
+            placeDrawing.dispose();
             runLater(() -> {
                 updateStaysWidth();
                 updateStaysHeight();
@@ -119,17 +160,46 @@ public class FriezeSpaceLinearDrawing {
         }
         if (placeDrawing != null) {
             placeDrawing.addStay(stayAdded);
+            invalidateLanes(placeDrawing);
             updateStaysHeight();
         } else {
             LOG.log(Level.SEVERE, "Could not add stay drawing: {0} to frieze {1}", new Object[]{stayAdded, this});
         }
     }
 
+    private void addContent(BatchContent content) {
+        // new place drawings already display the stays of the frieze at creation
+        Set<Place> newPlaces = new HashSet<>();
+        content.getPlaces().stream().filter(p -> addPlaceDrawing(p) != null).forEach(newPlaces::add);
+        Map<PlaceDrawing, List<StayPeriod>> staysByDrawing = new HashMap<>();
+        for (StayPeriod stay : content.getStays()) {
+            var place = stay.getPlace();
+            var placeDrawing = placesAndDrawings.get(place);
+            if (placeDrawing == null) {
+                placeDrawing = addPlaceDrawing(place);
+                if (placeDrawing != null) {
+                    newPlaces.add(place);
+                }
+            }
+            if (placeDrawing != null) {
+                if (!newPlaces.contains(place)) {
+                    staysByDrawing.computeIfAbsent(placeDrawing, d -> new LinkedList<>()).add(stay);
+                }
+            } else {
+                LOG.log(Level.SEVERE, "Could not add stay drawing: {0} to frieze {1}", new Object[]{stay, this});
+            }
+        }
+        staysByDrawing.forEach(PlaceDrawing::addStays);
+        staysByDrawing.keySet().forEach(this::invalidateLanes);
+        updateStaysHeight();
+    }
+
     private void updateStayDrawing(StayPeriod stayUpdated) {
         Place place = stayUpdated.getPlace();
         PlaceDrawing placeDrawing = placesAndDrawings.get(place);
         if (placeDrawing != null) {
             placeDrawing.updateStay(stayUpdated);
+            invalidateLanes(placeDrawing);
         }
     }
 
@@ -138,6 +208,7 @@ public class FriezeSpaceLinearDrawing {
         PlaceDrawing placeDrawing = placesAndDrawings.get(place);
         if (placeDrawing != null) {
             placeDrawing.removeStay(stayRemoved);
+            invalidateLanes(placeDrawing);
         }
     }
 
@@ -145,6 +216,139 @@ public class FriezeSpaceLinearDrawing {
         return mainNode;
     }
 
+    /**
+     * Only the stays of the places intersecting the visible band are kept in
+     * the scene.
+     *
+     * @param minY the top of the visible part of the drawing
+     * @param maxY the bottom of the visible part of the drawing
+     */
+    public void setVisibleBand(double minY, double maxY) {
+        visibleMinY = minY;
+        visibleMaxY = maxY;
+        updateVisibleBand();
+    }
+
+    /**
+     * Draws another frieze in place of the current one, keeping the render
+     * mode, size and visible band of the drawing.
+     *
+     * @param f the frieze to be displayed
+     */
+    @Override
+    public void setFrieze(Frieze f) {
+        if (f == frieze) {
+            return;
+        }
+        frieze.removeListener(friezeListener);
+        if (renderMode == FriezeRenderMode.CANVAS) {
+            frieze.getPersons().forEach(person -> person.removePropertyChangeListener(personListener));
+        }
+        placesGroup.getChildren().clear();
+        placesAndDrawings.values().forEach(PlaceDrawing::dispose);
+        placesAndDrawings.clear();
+        lanesByPlace.clear();
+        //
+        frieze = f;
+        frieze.addListener(friezeListener);
+        frieze.getPlaces().forEach(this::addPlaceDrawing);
+        if (renderMode == FriezeRenderMode.CANVAS) {
+            frieze.getPersons().forEach(person -> person.addPropertyChangeListener(personListener));
+        }
+        updateStaysWidth();
+        updateStaysHeight();
+        updateVisibleBand();
+    }
+
+    @Override
+    public Frieze getFrieze() {
+        return frieze;
+    }
+
+    @Override
+    public void setRenderMode(FriezeRenderMode aRenderMode) {
+        if (renderMode == aRenderMode) {
+            return;
+        }
+        renderMode = aRenderMode;
+        switch (renderMode) {
+            case SCENE_GRAPH -> {
+                mainNode.getChildren().remove(stayCanvasLayer.getNode());
+                frieze.getPersons().forEach(person -> person.removePropertyChangeListener(personListener));
+                lanesByPlace.clear();
+            }
+            case CANVAS ->
+                showStayCanvasLayer();
+            default ->
+                throw new UnsupportedOperationException("Unsupported render mode: " + renderMode);
+        }
+        placesAndDrawings.values().forEach(d -> d.setStaysDrawn(renderMode == FriezeRenderMode.SCENE_GRAPH));
+        updateStaysWidth();
+        updateStaysHeight();
+        updateVisibleBand();
+    }
+
+    @Override
+    public FriezeRenderMode getRenderMode() {
+        return renderMode;
+    }
+
+    private void showStayCanvasLayer() {
+        if (stayCanvasLayer == null) {
+            createStayCanvasLayer();
+        }
+        mainNode.getChildren().add(stayCanvasLayer.getNode());
+        // the canvas paints the stays with the color and selection of their person
+        frieze.getPersons().forEach(person -> person.addPropertyChangeListener(personListener));
+        stayCanvasLayer.invalidateLanes();
+        stayCanvasLayer.setVisibleBand(visibleMinY, visibleMaxY);
+    }
+
+    private void createStayCanvasLayer() {
+        stayCanvasLayer = new StayCanvasLayer(this::createLanes, stay -> stay.getPerson().getColor());
+        stayCanvasLayer.setHighlight(stay -> stay.getPerson().isSelected(), (StayDrawing.SELECTED_STROKE_WIDTH - StayDrawing.STROKE_WIDTH) / 2.0);
+        stayCanvasLayer.setOnStayHovered((stay, hovered) -> stay.getPerson().setSelected(hovered));
+        // aligned with the stays of the place drawings
+        stayCanvasLayer.getNode().setLayoutX(placesGroup.getPadding().getLeft() + PlaceDrawing.DEFAULT_NAME_WIDTH + PlaceDrawing.DEFAULT_SEPARATION);
+    }
+
+    /**
+     * Places the lanes of each place drawing where the places box lays it
+     * out.
+     */
+    private List<StayLane> createLanes() {
+        Map<Node, PlaceDrawing> drawingsByNode = new HashMap<>();
+        placesAndDrawings.values().forEach(placeDrawing -> drawingsByNode.put(placeDrawing.getNode(), placeDrawing));
+        List<StayLane> lanes = new ArrayList<>();
+        var top = placesGroup.getPadding().getTop();
+        for (var child : placesGroup.getChildren()) {
+            var bounds = child.getLayoutBounds();
+            var originY = Math.round(top) - bounds.getMinY();
+            top += bounds.getHeight() + placesGroup.getSpacing();
+            var placeDrawing = drawingsByNode.get(child);
+            if (placeDrawing != null) {
+                var placeLanes = lanesByPlace.computeIfAbsent(placeDrawing, this::createPlaceLanes);
+                for (int i = 0; i < placeLanes.size(); i++) {
+                    placeLanes.get(i).setBounds(originY + PlaceDrawing.getPersonLineY(i) - StayDrawing.STROKE_WIDTH / 2.0, StayDrawing.STROKE_WIDTH);
+                }
+                lanes.addAll(placeLanes);
+            }
+        }
+        stayCanvasLayer.setSize(timeWindowWidth, top);
+        return lanes;
+    }
+
+    private List<StayLane> createPlaceLanes(PlaceDrawing placeDrawing) {
+        return placeDrawing.getVisiblePersons().stream().map(person -> new StayLane(placeDrawing.getStays(person))).toList();
+    }
+
+    private void invalidateLanes(PlaceDrawing placeDrawing) {
+        if (renderMode == FriezeRenderMode.CANVAS) {
+            lanesByPlace.remove(placeDrawing);
+            stayCanvasLayer.invalidateLanes();
+        }
+    }
+
     public final void setWidth(double w) {
         width = w;
         placeWith = width - 2 * PlaceDrawing.DEFAULT_SEPARATION;
@@ -165,10 +369,53 @@ public class FriezeSpaceLinearDrawing {
     private void updateStaysWidth() {
         // simple for now
         timeRatio = timeWindowWidth / (frieze.getMaxDateWindow() - frieze.getMinDateWindow());
-        placesAndDrawings.values().forEach(p -> p.updateDateRatio(frieze.getMinDateWindow(), timeRatio));
+        if (renderMode == FriezeRenderMode.CANVAS) {
+            stayCanvasLayer.setDateWindow(frieze.getMinDateWindow(), timeRatio);
+        } else {
+            var minDate = frieze.getMinDateWindow();
+            var maxDate = frieze.getMaxDateWindow();
+            // only the stays in the window are attached, as given by the interval index of the frieze
+            Map<Place, List<StayPeriod>> windowStaysByPlace = new HashMap<>();
+            frieze.getStayPeriods(minDate, maxDate).forEach(stay -> windowStaysByPlace.computeIfAbsent(stay.getPlace(), p -> new ArrayList<>()).add(stay));
+            placesAndDrawings.forEach((place, placeDrawing)
+                    -> placeDrawing.updateDateWindow(minDate, maxDate, timeRatio, windowStaysByPlace.getOrDefault(place, List.of())));
+        }
+    }
+
+    private void updateVisibleBand() {
+        if (renderMode == FriezeRenderMode.CANVAS) {
+            stayCanvasLayer.setVisibleBand(visibleMinY, visibleMaxY);
+        } else {
+            for (var placeDrawing : placesAndDrawings.values()) {
+                var bounds = placeDrawing.getNode().getBoundsInParent();
+                placeDrawing.setInVisibleBand(bounds.getMaxY() >= visibleMinY && bounds.getMinY() <= visibleMaxY);
+            }
+        }
     }
 
     private void updateStaysHeight() {
+        if (renderMode == FriezeRenderMode.CANVAS) {
+            // the place drawings may have changed height
+            stayCanvasLayer.invalidateLanes();
+        }
+    }
+
+    private void handlePersonChange(PropertyChangeEvent event) {
+        switch (event.getPropertyName()) {
+            case Person.VISIBILITY_CHANGED -> {
+                // the place drawings update their lines later on
+                lanesByPlace.clear();
+                runLater(stayCanvasLayer::invalidateLanes);
+            }
+            case Person.SELECTION_CHANGED, Person.COLOR_CHANGED ->
+                stayCanvasLayer.requestRedraw();
+            case Person.NAME_CHANGED, Person.PICTURE_CHANGED, Person.DATE_OF_BIRTH_CHANGED, Person.DATE_OF_DEATH_CHANGED,
+                    Person.DEFAULT_PORTRAIT_CHANGED, Person.PORTRAIT_ADDED, Person.PORTRAIT_REMOVED -> {
+                // nothing to do
+            }
+            default ->
+                throw new UnsupportedOperationException(event.getPropertyName());
+        }
     }
 
     private void handleFriezeChange(PropertyChangeEvent event) {
@@ -178,9 +425,12 @@ public class FriezeSpaceLinearDrawing {
                 StayPeriod stayAdded = (StayPeriod) event.getNewValue();
                 addStayDrawing(stayAdded);
             }
+            case Frieze.BATCH_ADDED -> addContent((BatchContent) event.getNewValue());
             case Frieze.PERSON_ADDED -> {
-                // nothing to do
                 // the frieze is in charge of adding itself the stays
+                if (renderMode == FriezeRenderMode.CANVAS) {
+                    ((Person) event.getNewValue()).addPropertyChangeListener(personListener);
+                }
             }
             case Frieze.PLACE_ADDED -> {
                 Place newPlace = (Place) event.getNewValue();
@@ -190,8 +440,9 @@ public class FriezeSpaceLinearDrawing {
                 StayPeriod stayRemoved = (StayPeriod) event.getNewValue();
                 removeStayDrawing(stayRemoved);
             }
-            case Frieze.PERSON_REMOVED,
-                    Frieze.NAME_CHANGED -> {
+            case Frieze.PERSON_REMOVED ->
+                ((Person) event.getNewValue()).removePropertyChangeListener(personListener);
+            case Frieze.NAME_CHANGED -> {
                 // Nothing to do
             }
             case Frieze.PLACE_REMOVED -> {
@@ -21,16 +21,20 @@ import com.github.noony.app.timelinefx.core.Person;
 import com.github.noony.app.timelinefx.core.Place;
 import com.github.noony.app.timelinefx.core.StayPeriod;
 import com.github.noony.app.timelinefx.drawings.FXDrawing;
+import com.github.noony.app.timelinefx.drawings.StayNodeCulling;
 import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
 import static javafx.application.Platform.runLater;
 import javafx.geometry.Pos;
 import javafx.scene.Group;
-import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Line;
@@ -53,10 +57,12 @@ public final class PlaceDrawing extends FXDrawing {
 
     private final Place place;
     private final Frieze frieze;
+    private final PropertyChangeListener personListener = this::handlePersonChange;
     //
     private final List<Person> visiblePersons;
     private final Map<StayPeriod, StayDrawing> staysAndDrawings;
-    private final Map<Person, List<StayDrawing>> personsAndDrawings;
+    private final Map<Person, Set<StayPeriod>> personsAndStays;
+    private final StayNodeCulling<StayDrawing> stayCulling;
     //
     private final Label nameLabel;
     private final Line nameSeparationLine;
@@ -65,18 +71,32 @@ public final class PlaceDrawing extends FXDrawing {
     //
     private double currentMinDate = 0L;
     private double currentRatio = 1;
+    // false when the stays are painted by the frieze view
+    private boolean staysDrawn;
 
     public PlaceDrawing(Place aPlace, Frieze aFrieze) {
+        this(aPlace, aFrieze, true);
+    }
+
+    /**
+     *
+     * @param aPlace the place drawn
+     * @param aFrieze the frieze the stays of the place come from
+     * @param drawStays whether the drawing creates one node per stay
+     */
+    public PlaceDrawing(Place aPlace, Frieze aFrieze, boolean drawStays) {
         super();
+        staysDrawn = drawStays;
         visiblePersons = new LinkedList<>();
         staysAndDrawings = new HashMap<>();
-        personsAndDrawings = new HashMap<>();
+        personsAndStays = new HashMap<>();
         stayGroupClip = new Rectangle();
         place = aPlace;
         frieze = aFrieze;
         nameLabel = new Label(place.getName());
         nameSeparationLine = new Line();
         stayGroup = new Group();
+        stayCulling = new StayNodeCulling<>(stayGroup, staysAndDrawings, StayDrawing::getLine, stay -> stay.getPerson().isVisible());
         addNode(nameLabel);
         addNode(nameSeparationLine);
         addNode(stayGroup);
@@ -95,17 +115,70 @@ public final class PlaceDrawing extends FXDrawing {
         return place;
     }
 
+    /**
+     *
+     * @return the visible persons having stays in the place, in the order of
+     * their lines
+     */
+    public List<Person> getVisiblePersons() {
+        return Collections.unmodifiableList(visiblePersons);
+    }
+
+    /**
+     *
+     * @param person a person
+     * @return the stays of the person in the place
+     */
+    public Set<StayPeriod> getStays(Person person) {
+        return Collections.unmodifiableSet(personsAndStays.getOrDefault(person, Collections.emptySet()));
+    }
+
+    /**
+     *
+     * @param personIndex the index of a visible person
+     * @return the y coordinate of the line of the person's stays
+     */
+    public static double getPersonLineY(int personIndex) {
+        return StayDrawing.DEFAULT_SEPARATION + personIndex * (StayDrawing.STROKE_WIDTH + StayDrawing.DEFAULT_SEPARATION);
+    }
+
+    /**
+     *
+     * @param drawn whether the drawing creates one node per stay
+     */
+    protected void setStaysDrawn(boolean drawn) {
+        if (staysDrawn == drawn) {
+            return;
+        }
+        staysDrawn = drawn;
+        if (staysDrawn) {
+            personsAndStays.values().forEach(stays -> stays.forEach(this::addStayDrawing));
+            updateLayout();
+        } else {
+            stayCulling.clear();
+            staysAndDrawings.values().forEach(StayDrawing::dispose);
+            staysAndDrawings.clear();
+        }
+    }
+
+    /**
+     * Stops listening to the persons of the place and releases the stay
+     * drawings, once the drawing is removed from its view.
+     */
+    protected void dispose() {
+        personsAndStays.keySet().forEach(p -> p.removePropertyChangeListener(personListener));
+        stayCulling.clear();
+        staysAndDrawings.values().forEach(StayDrawing::dispose);
+        staysAndDrawings.clear();
+    }
+
     private void initLayout() {
-        List<StayPeriod> stayPeriods = frieze.getStayPeriods().stream()
-                .filter(s -> s.getPlace().equals(place)).toList();
+        List<StayPeriod> stayPeriods = frieze.getStayPeriods(place);
         List<Person> persons = stayPeriods.stream()
                 .map(StayPeriod::getPerson).distinct().toList();
         visiblePersons.addAll(persons.stream().filter(Person::isVisible).sorted(Person.COMPARATOR).toList());
         //
-        persons.forEach(p -> {
-            p.addPropertyChangeListener(this::handlePersonChange);
-            personsAndDrawings.put(p, new LinkedList<>());
-        });
+        persons.forEach(p -> p.addPropertyChangeListener(personListener));
         //
         stayPeriods.forEach(this::addStayNoUpdate);
         //
@@ -119,37 +192,65 @@ public final class PlaceDrawing extends FXDrawing {
         updateLayout();
     }
 
+    protected void addStays(Collection<StayPeriod> staysAdded) {
+        staysAdded.forEach(this::addStayNoUpdate);
+        updateLayout();
+    }
+
     protected void updateStay(StayPeriod stayUpdated) {
-        StayDrawing stayUpdatedDrawing = staysAndDrawings.get(stayUpdated);
-        if (stayUpdatedDrawing != null) {
-            stayUpdatedDrawing.updateDateRatio(currentMinDate, currentRatio);
+        if (staysAndDrawings.containsKey(stayUpdated)) {
+            stayCulling.update(stayUpdated);
             updateLayout();
         }
     }
 
     protected void removeStay(StayPeriod stayRemoved) {
-        StayDrawing stayRemovedDrawing = staysAndDrawings.get(stayRemoved);
-        if (stayRemovedDrawing != null) {
-            stayGroup.getChildren().remove(stayRemovedDrawing.getLine());
-            staysAndDrawings.remove(stayRemoved);
-            Person person = stayRemoved.getPerson();
-            var associatedDrawings = personsAndDrawings.get(person);
-            if (associatedDrawings != null) {
-                // redundant check ?
-                associatedDrawings.remove(stayRemovedDrawing);
-                if (associatedDrawings.isEmpty()) {
-                    personsAndDrawings.remove(person);
-                    visiblePersons.remove(person);
-                }
+        Person person = stayRemoved.getPerson();
+        var staysForPerson = personsAndStays.get(person);
+        if (staysForPerson != null && staysForPerson.remove(stayRemoved)) {
+            if (staysForPerson.isEmpty()) {
+                personsAndStays.remove(person);
+                visiblePersons.remove(person);
+            }
+            stayCulling.remove(stayRemoved);
+            StayDrawing stayRemovedDrawing = staysAndDrawings.remove(stayRemoved);
+            if (stayRemovedDrawing != null) {
+                stayRemovedDrawing.dispose();
             }
             updateLayout();
         }
     }
 
+    /**
+     * Attaches the stays overlapping the date window only, and positions
+     * them.
+     *
+     * @param minDate the lower bound of the date window
+     * @param maxDate the upper bound of the date window
+     * @param ratio the number of pixels per time unit
+     * @param windowStays the stays of the place overlapping the window
+     */
+    protected void updateDateWindow(double minDate, double maxDate, double ratio, Collection<StayPeriod> windowStays) {
+        stayCulling.setDateWindow(minDate, maxDate, windowStays);
+        updateDateRatio(minDate, ratio);
+    }
+
+    /**
+     *
+     * @param visible whether the drawing intersects the visible part of the
+     * view, its stays being detached otherwise
+     */
+    protected void setInVisibleBand(boolean visible) {
+        if (stayCulling.isInVisibleBand() != visible) {
+            stayCulling.setInVisibleBand(visible);
+            positionAttachedStays();
+        }
+    }
+
     protected void updateDateRatio(double minDate, double ratio) {
         currentMinDate = minDate;
         currentRatio = ratio;
-        staysAndDrawings.values().forEach(s -> s.updateDateRatio(currentMinDate, currentRatio));
+        positionAttachedStays();
     }
 
     private void handlePersonChange(PropertyChangeEvent event) {
@@ -157,15 +258,12 @@ public final class PlaceDrawing extends FXDrawing {
         switch (event.getPropertyName()) {
             case Person.VISIBILITY_CHANGED -> {
                 Person p = (Person) event.getOldValue();
-                List<StayDrawing> drawings = personsAndDrawings.get(p);
-                List<Node> nodes = drawings.stream().map(StayDrawing::getLine).collect(Collectors.toList());
                 if (p.isVisible()) {
                     visiblePersons.add(p);
-                    stayGroup.getChildren().addAll(nodes);
                 } else {
                     visiblePersons.remove(p);
-                    stayGroup.getChildren().removeAll(nodes);
                 }
+                getStays(p).forEach(stayCulling::update);
                 runLater(this::updateLayout);
             }
             case Person.SELECTION_CHANGED ->
@@ -185,26 +283,23 @@ public final class PlaceDrawing extends FXDrawing {
     }
 
     private void addStayNoUpdate(StayPeriod stay) {
-        if (staysAndDrawings.get(stay) == null) {
-            StayDrawing stayDrawing = new StayDrawing(stay);
-            stayDrawing.updateDateRatio(currentMinDate, currentRatio);
-            staysAndDrawings.put(stay, stayDrawing);
-            var stayPerson = stay.getPerson();
-            var staysForPerson = personsAndDrawings.get(stayPerson);
-            if (staysForPerson == null) {
-                staysForPerson = new LinkedList<>();
-                personsAndDrawings.put(stay.getPerson(), staysForPerson);
+        var stayPerson = stay.getPerson();
+        if (personsAndStays.computeIfAbsent(stayPerson, p -> new LinkedHashSet<>()).add(stay)) {
+            if (stayPerson.isVisible() && !visiblePersons.contains(stayPerson)) {
+                visiblePersons.add(stayPerson);
             }
-            staysForPerson.add(stayDrawing);
-            if (stay.getPerson().isVisible()) {
-                stayGroup.getChildren().add(stayDrawing.getLine());
-                if (!visiblePersons.contains(stay.getPerson())) {
-                    visiblePersons.add(stay.getPerson());
-                }
+            if (staysDrawn) {
+                addStayDrawing(stay);
             }
         }
     }
 
+    private void addStayDrawing(StayPeriod stay) {
+        staysAndDrawings.put(stay, new StayDrawing(stay));
+        // positioned with the layout
+        stayCulling.update(stay);
+    }
+
     private void updateLayout() {
         visiblePersons.sort(Person.COMPARATOR);
         //
@@ -235,10 +330,19 @@ public final class PlaceDrawing extends FXDrawing {
         stayGroupClip.setWidth(getWidth() - DEFAULT_NAME_WIDTH - DEFAULT_SEPARATION);
         stayGroupClip.setHeight(newHeight);
         //
-        staysAndDrawings.forEach((s, sD) -> {
-            int index = visiblePersons.indexOf(s.getPerson());
-            double y = StayDrawing.DEFAULT_SEPARATION + index * (StayDrawing.STROKE_WIDTH + StayDrawing.DEFAULT_SEPARATION);
-            sD.setY(y);
+        positionAttachedStays();
+    }
+
+    private void positionAttachedStays() {
+        Map<Person, Integer> personIndexes = new HashMap<>();
+        for (int i = 0; i < visiblePersons.size(); i++) {
+            personIndexes.put(visiblePersons.get(i), i);
+        }
+        // detached stays are positioned when attached again
+        stayCulling.getAttachedStays().forEach(stay -> {
+            var stayDrawing = staysAndDrawings.get(stay);
+            stayDrawing.updateDateRatio(currentMinDate, currentRatio);
+            stayDrawing.setY(getPersonLineY(personIndexes.getOrDefault(stay.getPerson(), -1)));
         });
     }
 
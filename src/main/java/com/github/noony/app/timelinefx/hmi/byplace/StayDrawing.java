@@ -18,6 +18,7 @@ package com.github.noony.app.timelinefx.hmi.byplace;
 
 import com.github.noony.app.timelinefx.core.StayPeriod;
 import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import javafx.scene.shape.Line;
 import javafx.scene.shape.StrokeLineCap;
 import javafx.scene.shape.StrokeType;
@@ -35,6 +36,7 @@ public class StayDrawing {
     private final StayPeriod stayPeriod;
 
     private final Line line;
+    private final PropertyChangeListener personListener;
 
     public StayDrawing(StayPeriod stay) {
         stayPeriod = stay;
@@ -44,7 +46,8 @@ public class StayDrawing {
         line.setStrokeType(StrokeType.CENTERED);
         line.setStrokeLineCap(StrokeLineCap.BUTT);
         //
-        stayPeriod.getPerson().addPropertyChangeListener(StayDrawing.this::handlePersonChanged);
+        personListener = StayDrawing.this::handlePersonChanged;
+        stayPeriod.getPerson().addPropertyChangeListener(personListener);
         //
         line.setOnMouseEntered(event -> stayPeriod.getPerson().setSelected(true));
         line.setOnMouseExited(event -> stayPeriod.getPerson().setSelected(false));
@@ -58,6 +61,14 @@ public class StayDrawing {
         return stayPeriod;
     }
 
+    /**
+     * Stops listening to the person of the stay, once the drawing is no longer
+     * displayed.
+     */
+    public void dispose() {
+        stayPeriod.getPerson().removePropertyChangeListener(personListener);
+    }
+
     public void updateDateRatio(double minDate, double ratio) {
         double startX = (stayPeriod.getStartDate() - minDate) * ratio;
         line.setStartX(startX);
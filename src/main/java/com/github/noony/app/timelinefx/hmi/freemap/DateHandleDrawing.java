@@ -112,9 +112,9 @@ public class DateHandleDrawing extends AbstractFxScalableNode {
     }
 
     private void initInteractivity() {
-        handle.setOnMousePressed(e -> lastMouseX = e.getSceneX());
+        handle.setOnMousePressed(e -> lastMouseX = sceneToParent(e.getSceneX(), e.getSceneY()).getX());
         handle.setOnMouseDragged(e -> {
-            currentMouseX = e.getSceneX();
+            currentMouseX = sceneToParent(e.getSceneX(), e.getSceneY()).getX();
             dateHandle.setX((getNode().getTranslateX() + currentMouseX - lastMouseX) / getScale());
             //
             lastMouseX = currentMouseX;
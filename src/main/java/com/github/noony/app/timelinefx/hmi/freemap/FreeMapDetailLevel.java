@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.hmi.freemap;
+
+/**
+ * How detailed the free map is drawn, depending on its zoom level.
+ *
+ * @author hamon
+ */
+public enum FreeMapDetailLevel {
+    /**
+     * Plots shown as density bars per place, travel links merged in a
+     * polyline per person and portraits drawn as flat circles.
+     */
+    LOW,
+    /**
+     * Every plot, link and portrait picture drawn.
+     */
+    FULL;
+
+    /**
+     * Scale from which the free map is drawn with all its details.
+     */
+    public static final double FULL_MIN_SCALE = 0.75;
+
+    /**
+     *
+     * @param scale the scale the free map is laid out at
+     * @return the detail level the free map is drawn with at this scale
+     */
+    public static FreeMapDetailLevel forScale(double scale) {
+        return scale >= FULL_MIN_SCALE ? FULL : LOW;
+    }
+}
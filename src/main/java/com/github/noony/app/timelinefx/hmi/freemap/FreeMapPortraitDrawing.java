@@ -19,14 +19,11 @@ package com.github.noony.app.timelinefx.hmi.freemap;
 import com.github.noony.app.timelinefx.core.Person;
 import com.github.noony.app.timelinefx.core.freemap.FreeMapPortrait;
 import com.github.noony.app.timelinefx.drawings.AbstractFxScalableNode;
+import com.github.noony.app.timelinefx.utils.ImageService;
 import java.beans.PropertyChangeEvent;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javafx.geometry.Point2D;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
@@ -45,13 +42,13 @@ public class FreeMapPortraitDrawing extends AbstractFxScalableNode {
     private final Circle imageClip;
     private final ImageView imageView;
     //
-    private Image image;
-    //
     private double xPos;
     private double yPos;
+    private ImageService.Resolution imageResolution = null;
+    private FreeMapDetailLevel detailLevel = FreeMapDetailLevel.FULL;
     //
-    private double oldScreenX;
-    private double oldScreenY;
+    private double oldMouseX;
+    private double oldMouseY;
     private double oldTranslateX;
     private double oldTranslateY;
 
@@ -82,6 +79,17 @@ public class FreeMapPortraitDrawing extends AbstractFxScalableNode {
         return freeMapPortrait;
     }
 
+    /**
+     * The portrait is drawn as a flat circle of the color of the person in
+     * {@link FreeMapDetailLevel#LOW}, without loading its picture. Applied at
+     * the next layout of the drawing.
+     *
+     * @param aDetailLevel the detail level to draw the portrait with
+     */
+    void setDetailLevel(FreeMapDetailLevel aDetailLevel) {
+        detailLevel = aDetailLevel;
+    }
+
     private void initLayout() {
         updateX(freeMapPortrait.getX());
         updateY(freeMapPortrait.getY());
@@ -99,18 +107,21 @@ public class FreeMapPortraitDrawing extends AbstractFxScalableNode {
 
     private void initInteractivity() {
         imageView.setOnMousePressed(event -> {
-            oldScreenX = event.getScreenX();
-            oldScreenY = event.getScreenY();
+            var mousePosition = sceneToParent(event.getSceneX(), event.getSceneY());
+            oldMouseX = mousePosition.getX();
+            oldMouseY = mousePosition.getY();
             oldTranslateX = getNode().getTranslateX();
             oldTranslateY = getNode().getTranslateY();
         });
         imageView.setOnMouseDragged(event -> {
-            getNode().setTranslateX(oldTranslateX + event.getScreenX() - oldScreenX);
-            getNode().setTranslateY(oldTranslateY + event.getScreenY() - oldScreenY);
+            var mousePosition = sceneToParent(event.getSceneX(), event.getSceneY());
+            getNode().setTranslateX(oldTranslateX + mousePosition.getX() - oldMouseX);
+            getNode().setTranslateY(oldTranslateY + mousePosition.getY() - oldMouseY);
         });
         imageView.setOnMouseReleased(event -> {
-            var translateXScaled = oldTranslateX + event.getScreenX() - oldScreenX;
-            var translateYScaled = oldTranslateY + event.getScreenY() - oldScreenY;
+            var mousePosition = sceneToParent(event.getSceneX(), event.getSceneY());
+            var translateXScaled = oldTranslateX + mousePosition.getX() - oldMouseX;
+            var translateYScaled = oldTranslateY + mousePosition.getY() - oldMouseY;
             //
             freeMapPortrait.setX(translateXScaled / getScale());
             freeMapPortrait.setY(translateYScaled / getScale());
@@ -146,19 +157,28 @@ public class FreeMapPortraitDrawing extends AbstractFxScalableNode {
     }
 
     private void updateImage() {
-        try {
-            // the file path shall always be relative to the project Folder
-            var portrait = freeMapPortrait.getPortrait();
-            var project = portrait.getPerson().getProject();
-            var filePathS = project.getProjectFolder().getAbsolutePath() + File.separatorChar + portrait.getProjectRelativePath();
-            LOG.log(Level.FINE, "Trying to load file {0}", new Object[]{filePathS});
-            FileInputStream inputstream = new FileInputStream(filePathS);
-            image = new Image(inputstream);
-            imageView.setImage(image);
-        } catch (FileNotFoundException ex) {
-            LOG.log(Level.SEVERE, " Ex :: {0}", new Object[]{ex});
-            throw new IllegalStateException();
+        imageResolution = null;
+        updateImageResolution();
+    }
+
+    private void updateImageResolution() {
+        if (detailLevel == FreeMapDetailLevel.LOW) {
+            // loaded when the picture is displayed again
+            return;
+        }
+        var resolution = ImageService.Resolution.forDisplaySize(freeMapPortrait.getRadius() * 2.0 * getScale(), imageResolution);
+        if (resolution == imageResolution) {
+            return;
         }
+        imageResolution = resolution;
+        var portrait = freeMapPortrait.getPortrait();
+        LOG.log(Level.FINE, "Loading portrait {0} at {1}", new Object[]{portrait.getProjectRelativePath(), resolution});
+        ImageService.getInstance().load(portrait, resolution, loadedImage -> {
+            // the portrait or the zoom may have changed while its image was loading
+            if (freeMapPortrait.getPortrait() == portrait && imageResolution == resolution) {
+                imageView.setImage(loadedImage);
+            }
+        }, imageView.getImage() == null);
     }
 
     @Override
@@ -179,5 +199,10 @@ public class FreeMapPortraitDrawing extends AbstractFxScalableNode {
         imageView.setFitHeight(freeMapPortrait.getRadius() * 2.0 * getScale());
         //
         imageClip.setRadius(freeMapPortrait.getRadius() * getScale());
+        //
+        imageView.setVisible(detailLevel == FreeMapDetailLevel.FULL);
+        smallerCircle.setVisible(detailLevel == FreeMapDetailLevel.FULL);
+        circle.setFill(detailLevel == FreeMapDetailLevel.FULL ? null : freeMapPortrait.getPerson().getColor());
+        updateImageResolution();
     }
 }
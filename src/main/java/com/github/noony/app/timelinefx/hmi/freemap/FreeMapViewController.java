@@ -19,10 +19,14 @@ package com.github.noony.app.timelinefx.hmi.freemap;
 import com.github.noony.app.timelinefx.Configuration;
 import com.github.noony.app.timelinefx.core.freemap.FriezeFreeMap;
 import com.github.noony.app.timelinefx.core.freemap.Selectable;
+import com.github.noony.app.timelinefx.drawings.IFxScalableNode;
 import com.github.noony.app.timelinefx.utils.PngExporter;
+import com.github.noony.app.timelinefx.utils.SvgExporter;
 import java.beans.PropertyChangeEvent;
 import java.io.File;
+import java.io.IOException;
 import java.net.URL;
+import java.util.Locale;
 import java.util.ResourceBundle;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -48,6 +52,9 @@ public class FreeMapViewController implements Initializable {
 
     private static final Logger LOG = Logger.getGlobal();
 
+    private static final FileChooser.ExtensionFilter PNG_FILTER = new FileChooser.ExtensionFilter("PNG files (*.png)", "*.png");
+    private static final FileChooser.ExtensionFilter SVG_FILTER = new FileChooser.ExtensionFilter("SVG files (*.svg)", "*" + SvgExporter.SVG_EXTENSION);
+
     @FXML
     private ScrollPane viewScrollPane;
     @FXML
@@ -154,6 +161,8 @@ public class FreeMapViewController implements Initializable {
             friezeFreeFormDrawing.setDateHandlesColor(handleColorPicker.getValue());
         });
         fileChooser = new FileChooser();
+        fileChooser.getExtensionFilters().setAll(PNG_FILTER, SVG_FILTER);
+        fileChooser.setSelectedExtensionFilter(PNG_FILTER);
         zoomField.textProperty().addListener((ObservableValue<? extends String> ov, String t, String t1) -> {
             try {
                 var newScale = Double.parseDouble(t1);
@@ -211,14 +220,26 @@ public class FreeMapViewController implements Initializable {
                 initFolder = new File(Configuration.getProjectsParentFolder());
             }
             fileChooser.setInitialDirectory(initFolder);
-            fileChooser.setSelectedExtensionFilter(new FileChooser.ExtensionFilter("PNG files (*.png)", "*.png"));
             File pngFile = fileChooser.showSaveDialog(linearTimeButton.getScene().getWindow());
-            if (pngFile != null) {
-                PngExporter.exportToPNG(friezeFreeFormDrawing.getNode(), pngFile);
+            if (pngFile != null && isSvgFile(pngFile)) {
+                try {
+                    SvgExporter.export(friezeFreeFormDrawing.getNode(), pngFile);
+                } catch (IOException ex) {
+                    LOG.log(Level.SEVERE, "Could not save {0} :: {1}", new Object[]{pngFile, ex});
+                }
+            } else if (pngFile != null) {
+                PngExporter.exportTiledPNGInBackground(friezeFreeFormDrawing.getNode(), pngFile, 1.0);
             }
         }
     }
 
+    private boolean isSvgFile(File file) {
+        var name = file.getName().toLowerCase(Locale.ROOT);
+        // a name without extension follows the selected filter
+        return name.endsWith(SvgExporter.SVG_EXTENSION)
+                || fileChooser.getSelectedExtensionFilter() == SVG_FILTER && !name.contains(".");
+    }
+
     @FXML
     protected void handleZoomInAction(ActionEvent event) {
         LOG.log(Level.FINE, "handleZoomInAction with event {0}", new Object[]{event});
@@ -245,13 +266,26 @@ public class FreeMapViewController implements Initializable {
         zoomField.setText(Double.toString(friezeFreeFormDrawing.getScale()));
     }
 
+    private void handleFreeFormDrawingChange(PropertyChangeEvent event) {
+        switch (event.getPropertyName()) {
+            case IFxScalableNode.ZOOM_LEVEL_CHANGED -> {
+                // the zoom field may be the one that changed the zoom level
+                if (!Double.toString(friezeFreeFormDrawing.getScale()).equals(zoomField.getText()) && !zoomField.isFocused()) {
+                    zoomField.setText(Double.toString(friezeFreeFormDrawing.getScale()));
+                }
+            }
+            default ->
+                handleSelectedItemChange(event);
+        }
+    }
+
     private void handleSelectedItemChange(PropertyChangeEvent event) {
         Selectable selectable = (Selectable) event.getOldValue();
     }
 
     private void createDrawing() {
         friezeFreeFormDrawing = new FriezeFreeFormDrawing(friezeFreeMap);
-        friezeFreeFormDrawing.addPropertyChangeListener(this::handleSelectedItemChange);
+        friezeFreeFormDrawing.addPropertyChangeListener(this::handleFreeFormDrawingChange);
         viewScrollPane.setContent(friezeFreeFormDrawing.getNode());
     }
 
@@ -23,8 +23,10 @@ import com.github.noony.app.timelinefx.core.freemap.FreeMapPlace;
 import com.github.noony.app.timelinefx.core.freemap.FreeMapPortrait;
 import com.github.noony.app.timelinefx.core.freemap.FriezeFreeMap;
 import static com.github.noony.app.timelinefx.core.freemap.FriezeFreeMap.DEFAULT_TIME_HEIGHT;
+import com.github.noony.app.timelinefx.drawings.DrawingZoom;
 import com.github.noony.app.timelinefx.drawings.FxScalableParent;
 import com.github.noony.app.timelinefx.drawings.IFxScalableNode;
+import com.github.noony.app.timelinefx.drawings.ZoomMode;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
@@ -78,7 +80,9 @@ public class FriezeFreeFormDrawing {
     private final Map<Double, DateHandleDrawing> endDatesHandles;
     //
     private final List<IFxScalableNode> scalableNodes;
+    private final DrawingZoom zoom;
     //
+    private FreeMapDetailLevel detailLevel = FreeMapDetailLevel.FULL;
     private double drawingWidth;
     private double drawingHeight;
     //
@@ -119,6 +123,12 @@ public class FriezeFreeFormDrawing {
         startDatesPane = new Pane();
         endDatesPane = new Pane();
         //
+        zoom = new DrawingZoom(ZoomMode.TRANSFORM, scale, FriezeFreeFormDrawing.this::updateLayout, FriezeFreeFormDrawing.this::updateSize);
+        zoom.addScaledNode(freeMapInnerGroup);
+        // the handles stay centered in the date panes, whose height does not depend on the zoom
+        zoom.addScaledNode(startDateHandleGroup).setPivotY(DEFAULT_TIME_HEIGHT / 2.0);
+        zoom.addScaledNode(endDateHandleGroup).setPivotY(DEFAULT_TIME_HEIGHT / 2.0);
+        //
         initFx();
         //
         friezeFreeMap.addPropertyChangeListener(FriezeFreeFormDrawing.this::handleFreeMapChange);
@@ -137,50 +147,75 @@ public class FriezeFreeFormDrawing {
     }
 
     public void zoomIn() {
-        scale = Math.max(FxScalableParent.MIN_SCALE, scale - FxScalableParent.SCALE_STEP);
-        updateLayout();
+        setScale(Math.max(FxScalableParent.MIN_SCALE, scale - FxScalableParent.SCALE_STEP));
     }
 
     public void zoomOut() {
-        scale = Math.min(FxScalableParent.MAX_SCALE, scale + FxScalableParent.SCALE_STEP);
-        updateLayout();
+        setScale(Math.min(FxScalableParent.MAX_SCALE, scale + FxScalableParent.SCALE_STEP));
     }
 
     public void setZoomLevel(double newScale) {
         if (newScale > FxScalableParent.MAX_SCALE) {
-            scale = FxScalableParent.MAX_SCALE;
+            setScale(FxScalableParent.MAX_SCALE);
         } else {
-            scale = Math.max(newScale, FxScalableParent.MIN_SCALE);
+            setScale(Math.max(newScale, FxScalableParent.MIN_SCALE));
         }
-        updateLayout();
     }
 
     public double getScale() {
         return scale;
     }
 
+    public FreeMapDetailLevel getDetailLevel() {
+        return detailLevel;
+    }
+
+    public ZoomMode getZoomMode() {
+        return zoom.getMode();
+    }
+
+    public void setZoomMode(ZoomMode aZoomMode) {
+        zoom.setMode(aZoomMode);
+    }
+
+    private void setScale(double newScale) {
+        var oldScale = scale;
+        scale = newScale;
+        propertyChangeSupport.firePropertyChange(IFxScalableNode.ZOOM_LEVEL_CHANGED, oldScale, scale);
+        // consecutive zoom steps, e.g. from the mouse wheel, are laid out once per pulse
+        zoom.requestScale(scale);
+    }
+
     private void updateWidth() {
+        var layoutScale = zoom.getLayoutScale();
+        innerBackground.setWidth(friezeFreeMap.getFreeMapWidth() * layoutScale);
+        personsBackground.setWidth(friezeFreeMap.getPersonWidth() * layoutScale);
+        placesBackground.setWidth(friezeFreeMap.getPlaceDrawingWidth() * layoutScale);
+    }
+
+    private void updateHeight() {
+        var layoutScale = zoom.getLayoutScale();
+        innerBackground.setHeight(friezeFreeMap.getFreeMapHeight() * layoutScale);
+        personsBackground.setHeight(friezeFreeMap.getPersonHeight() * layoutScale);
+        placesBackground.setHeight(friezeFreeMap.getPlaceDrawingHeight() * layoutScale);
+    }
+
+    private void updateSize() {
+        freeMapGroup.setTranslateX(MAP_PADDING * scale);
+        freeMapGroup.setTranslateY(MAP_PADDING * scale);
+        //
         drawingWidth = friezeFreeMap.getFreeMapWidth() * scale;
         mainNode.setMaxWidth(drawingWidth);
         background.setWidth(drawingWidth);
-        //
-        innerBackground.setWidth(friezeFreeMap.getFreeMapWidth() * scale);
-        personsBackground.setWidth(friezeFreeMap.getPersonWidth() * scale);
-        placesBackground.setWidth(friezeFreeMap.getPlaceDrawingWidth() * scale);
         startDatesPane.setMinWidth(drawingWidth);
         endDatesPane.setMinWidth(drawingWidth);
         //
         startDateHandleGroup.setTranslateX(friezeFreeMap.getPersonWidth() * scale);
         endDateHandleGroup.setTranslateX(friezeFreeMap.getPersonWidth() * scale);
-    }
-
-    private void updateHeight() {
+        //
         drawingHeight = (friezeFreeMap.getFreeMapHeight()) * scale + 2 * (MAP_PADDING + DEFAULT_TIME_HEIGHT);
         mainNode.setMaxHeight(drawingHeight);
         background.setHeight(drawingHeight);
-        innerBackground.setHeight(friezeFreeMap.getFreeMapHeight() * scale);
-        personsBackground.setHeight(friezeFreeMap.getPersonHeight() * scale);
-        placesBackground.setHeight(friezeFreeMap.getPlaceDrawingHeight() * scale);
     }
 
     public double getWidth() {
@@ -197,7 +232,7 @@ public class FriezeFreeFormDrawing {
 
     private void addStartDateHandleDrawing(DateHandle date) {
         if (!startDatesHandles.containsKey(date.getDate())) {
-            var handle = new DateHandleDrawing(date, scale);
+            var handle = new DateHandleDrawing(date, zoom.getLayoutScale());
             startDateHandleGroup.getChildren().add(handle.getNode());
             startDatesHandles.put(date.getDate(), handle);
             scalableNodes.add(handle);
@@ -206,16 +241,16 @@ public class FriezeFreeFormDrawing {
 
     private void addEndDateHandleDrawing(DateHandle date) {
         if (!endDatesHandles.containsKey(date.getDate())) {
-            final var handle = new DateHandleDrawing(date, scale);
+            final var handle = new DateHandleDrawing(date, zoom.getLayoutScale());
             endDateHandleGroup.getChildren().add(handle.getNode());
             endDatesHandles.put(date.getDate(), handle);
             scalableNodes.add(handle);
-            handle.updateScale(scale);
         }
     }
 
     private void addPlaceDrawing(FreeMapPlace place) {
         var placeDrawing = new PlaceDrawing(place, friezeFreeMap);
+        placeDrawing.setDetailLevel(detailLevel);
         placesGroup.getChildren().add(placeDrawing.getNode());
         placeDrawings.put(place, placeDrawing);
         scalableNodes.add(placeDrawing);
@@ -236,6 +271,7 @@ public class FriezeFreeFormDrawing {
         // next improvement. merge classes ?
         createPortraitDrawing(friezeFreeMap.getPortrait(person.getPerson()));
         var personDrawing = new PersonDrawing(person, friezeFreeMap, this);
+        personDrawing.setDetailLevel(detailLevel);
         personsGroup.getChildren().add(personDrawing.getNode());
         personDrawings.put(person, personDrawing);
         scalableNodes.add(personDrawing);
@@ -253,6 +289,7 @@ public class FriezeFreeFormDrawing {
 
     private void createPortraitDrawing(FreeMapPortrait portrait) {
         var portraitDrawing = new FreeMapPortraitDrawing(portrait);
+        portraitDrawing.setDetailLevel(detailLevel);
         portraitDrawings.put(portrait.getPerson(), portraitDrawing);
         portraitsGroup.getChildren().add(portraitDrawing.getNode());
         scalableNodes.add(portraitDrawing);
@@ -303,6 +340,13 @@ public class FriezeFreeFormDrawing {
         personsBackground.setVisible(false);
         placesBackground.setVisible(false);
         //
+        mainNode.setOnScroll(event -> {
+            if (event.isAltDown()) {
+                setZoomLevel(scale + Math.signum(event.getDeltaY()) * FxScalableParent.SCALE_STEP);
+                event.consume();
+            }
+        });
+        //
         updateLayout();
     }
 
@@ -317,19 +361,29 @@ public class FriezeFreeFormDrawing {
     }
 
     public void updateLayout() {
+        var layoutScale = zoom.getLayoutScale();
         //
-        freeMapGroup.setTranslateX(MAP_PADDING * scale);
-        freeMapGroup.setTranslateY(MAP_PADDING * scale);
-        //
+        updateSize();
         updateWidth();
         updateHeight();
-        scalableNodes.forEach(node -> node.updateScale(scale));
+        updateDetailLevel(FreeMapDetailLevel.forScale(layoutScale));
+        scalableNodes.forEach(node -> node.updateScale(layoutScale));
         //
-        personsGroup.setTranslateX(friezeFreeMap.getPersonsDrawingX() * scale);
-        personsGroup.setTranslateY(friezeFreeMap.getPersonsDrawingY() * scale);
+        personsGroup.setTranslateX(friezeFreeMap.getPersonsDrawingX() * layoutScale);
+        personsGroup.setTranslateY(friezeFreeMap.getPersonsDrawingY() * layoutScale);
         //
-        placesGroup.setTranslateX(friezeFreeMap.getPlaceDrawingX() * scale);
-        placesGroup.setTranslateY(friezeFreeMap.getPlaceDrawingY() * scale);
+        placesGroup.setTranslateX(friezeFreeMap.getPlaceDrawingX() * layoutScale);
+        placesGroup.setTranslateY(friezeFreeMap.getPlaceDrawingY() * layoutScale);
+    }
+
+    private void updateDetailLevel(FreeMapDetailLevel newDetailLevel) {
+        if (detailLevel != newDetailLevel) {
+            // the nodes of both levels are kept, the drawings only swap them at their next layout
+            detailLevel = newDetailLevel;
+            placeDrawings.values().forEach(placeDrawing -> placeDrawing.setDetailLevel(detailLevel));
+            personDrawings.values().forEach(personDrawing -> personDrawing.setDetailLevel(detailLevel));
+            portraitDrawings.values().forEach(portraitDrawing -> portraitDrawing.setDetailLevel(detailLevel));
+        }
     }
 
     private void handleFreeMapChange(PropertyChangeEvent event) {
@@ -122,6 +122,10 @@ public class LinkDrawing implements Selectable, IFxScalableNode {
         updateLayout();
     }
 
+    public Link getLink() {
+        return link;
+    }
+
     public Plot getBeginPlot() {
         return beginPlot;
     }
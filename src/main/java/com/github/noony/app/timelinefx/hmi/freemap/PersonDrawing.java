@@ -19,15 +19,22 @@ package com.github.noony.app.timelinefx.hmi.freemap;
 import com.github.noony.app.timelinefx.core.freemap.FreeMapPerson;
 import com.github.noony.app.timelinefx.core.freemap.FriezeFreeMap;
 import com.github.noony.app.timelinefx.core.freemap.Link;
+import com.github.noony.app.timelinefx.core.freemap.LinkType;
 import com.github.noony.app.timelinefx.core.freemap.Plot;
 import com.github.noony.app.timelinefx.drawings.AbstractFxScalableNode;
 import com.github.noony.app.timelinefx.drawings.IFxScalableNode;
 import java.beans.PropertyChangeEvent;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
 import javafx.scene.Group;
+import javafx.scene.shape.Polyline;
+import javafx.scene.shape.StrokeLineJoin;
 import javafx.util.Pair;
 
 /**
@@ -36,17 +43,28 @@ import javafx.util.Pair;
  */
 public class PersonDrawing extends AbstractFxScalableNode {
 
+    private static final double TRAVEL_PATH_WIDTH = 1.5;
+
     private final FreeMapPerson freeMapPerson;
     private final FriezeFreeMap freeMap;
     private final PersonInitLinkDrawing personInitLink;
     //
     private final List<IFxScalableNode> scalableNodes;
+    // only laid out when displayed, in FreeMapDetailLevel.FULL
+    private final List<LinkDrawing> travelLinkDrawings;
     private final Map<Link, LinkDrawing> linkDrawings;
     // TODO : use interface
     private final Map<Plot, RectanglePlot> plotDrawings;
     //
     private final Group linkGroup;
+    private final Group travelLinkGroup;
     private final Group plotGroup;
+    // the travel links merged in a single node, in FreeMapDetailLevel.LOW
+    private final Polyline travelPath;
+    private final InvalidationListener travelPlotListener;
+    //
+    private FreeMapDetailLevel detailLevel = FreeMapDetailLevel.FULL;
+    private boolean travelPathUpdateRequested = false;
 
     // todo remove FriezeFreeMap
     public PersonDrawing(FreeMapPerson aFreeMapPerson, FriezeFreeMap aFriezeFreeMap, FriezeFreeFormDrawing freeFormDrawing) {
@@ -55,11 +73,18 @@ public class PersonDrawing extends AbstractFxScalableNode {
         freeMapPerson = aFreeMapPerson;
         //
         scalableNodes = new LinkedList<>();
+        travelLinkDrawings = new LinkedList<>();
         linkDrawings = new HashMap<>();
         plotDrawings = new HashMap<>();
         //
         linkGroup = new Group();
+        travelLinkGroup = new Group();
         plotGroup = new Group();
+        travelPath = new Polyline();
+        travelPath.setStroke(freeMapPerson.getPerson().getColor());
+        travelPath.setStrokeLineJoin(StrokeLineJoin.ROUND);
+        travelPath.setVisible(false);
+        travelPlotListener = observable -> requestTravelPathUpdate();
         //
         personInitLink = new PersonInitLinkDrawing(freeMapPerson.getPersonInitLink(), freeFormDrawing, PersonDrawing.this);
         scalableNodes.add(personInitLink);
@@ -78,8 +103,32 @@ public class PersonDrawing extends AbstractFxScalableNode {
     @Override
     protected void updateLayout() {
         scalableNodes.forEach(node -> node.updateScale(getScale()));
+        switch (detailLevel) {
+            case FULL ->
+                travelLinkDrawings.forEach(node -> node.updateScale(getScale()));
+            case LOW ->
+                updateTravelPath();
+            default ->
+                throw new UnsupportedOperationException(detailLevel.toString());
+        }
+        travelLinkGroup.setVisible(detailLevel == FreeMapDetailLevel.FULL);
+        plotGroup.setVisible(detailLevel == FreeMapDetailLevel.FULL);
+        travelPath.setVisible(detailLevel == FreeMapDetailLevel.LOW);
         linkGroup.setTranslateX(freeMap.getPersonWidth() * getScale());
+        travelLinkGroup.setTranslateX(freeMap.getPersonWidth() * getScale());
         plotGroup.setTranslateX(freeMap.getPersonWidth() * getScale());
+        travelPath.setTranslateX(freeMap.getPersonWidth() * getScale());
+    }
+
+    /**
+     * The plots and the travel links are only drawn in
+     * {@link FreeMapDetailLevel#FULL}. Applied at the next layout of the
+     * drawing.
+     *
+     * @param aDetailLevel the detail level to draw the person with
+     */
+    void setDetailLevel(FreeMapDetailLevel aDetailLevel) {
+        detailLevel = aDetailLevel;
     }
 
     @Override
@@ -96,25 +145,83 @@ public class PersonDrawing extends AbstractFxScalableNode {
         addNode(personInitLink.getNode());
         addNode(linkGroup);
         linkGroup.setTranslateX(freeMap.getPersonWidth() * getScale());
+        addNode(travelLinkGroup);
+        travelLinkGroup.setTranslateX(freeMap.getPersonWidth() * getScale());
+        addNode(travelPath);
         addNode(plotGroup);
         plotGroup.setTranslateX(freeMap.getPersonWidth() * getScale());
     }
 
     private void createLink(Link link) {
         var linkDrawing = new LinkDrawing(link);
-        scalableNodes.add(linkDrawing);
         linkDrawings.put(link, linkDrawing);
-        linkGroup.getChildren().add(linkDrawing.getNode());
+        if (link.getType() == LinkType.TRAVEL) {
+            linkDrawing.updateScale(getScale());
+            travelLinkDrawings.add(linkDrawing);
+            travelLinkGroup.getChildren().add(linkDrawing.getNode());
+            addTravelPlotListener(link.getBeginPlot());
+            addTravelPlotListener(link.getEndPlot());
+            requestTravelPathUpdate();
+        } else {
+            scalableNodes.add(linkDrawing);
+            linkGroup.getChildren().add(linkDrawing.getNode());
+        }
     }
 
     private void removeLink(Link link) {
         var linkDrawing = linkDrawings.remove(link);
-        if (linkDrawing != null) {
+        if (linkDrawing != null && link.getType() == LinkType.TRAVEL) {
+            travelLinkDrawings.remove(linkDrawing);
+            travelLinkGroup.getChildren().remove(linkDrawing.getNode());
+            removeTravelPlotListener(link.getBeginPlot());
+            removeTravelPlotListener(link.getEndPlot());
+            requestTravelPathUpdate();
+        } else if (linkDrawing != null) {
             scalableNodes.remove(linkDrawing);
             linkGroup.getChildren().remove(linkDrawing.getNode());
         }
     }
 
+    private void addTravelPlotListener(Plot plot) {
+        plot.getXProperty().addListener(travelPlotListener);
+        plot.getYProperty().addListener(travelPlotListener);
+    }
+
+    private void removeTravelPlotListener(Plot plot) {
+        plot.getXProperty().removeListener(travelPlotListener);
+        plot.getYProperty().removeListener(travelPlotListener);
+    }
+
+    private void requestTravelPathUpdate() {
+        // the path is rebuilt once per pulse, and only when displayed
+        if (detailLevel == FreeMapDetailLevel.LOW && !travelPathUpdateRequested) {
+            travelPathUpdateRequested = true;
+            Platform.runLater(() -> {
+                travelPathUpdateRequested = false;
+                if (detailLevel == FreeMapDetailLevel.LOW) {
+                    updateTravelPath();
+                }
+            });
+        }
+    }
+
+    private void updateTravelPath() {
+        List<Link> travelLinks = new ArrayList<>(travelLinkDrawings.size());
+        travelLinkDrawings.forEach(linkDrawing -> travelLinks.add(linkDrawing.getLink()));
+        travelLinks.sort(Comparator.comparingDouble(link -> link.getBeginPlot().getDate()));
+        // each travel ends where the stay before the next travel starts
+        var points = new Double[4 * travelLinks.size()];
+        var index = 0;
+        for (Link link : travelLinks) {
+            points[index++] = link.getBeginPlot().getX() * getScale();
+            points[index++] = link.getBeginPlot().getY() * getScale();
+            points[index++] = link.getEndPlot().getX() * getScale();
+            points[index++] = link.getEndPlot().getY() * getScale();
+        }
+        travelPath.getPoints().setAll(points);
+        travelPath.setStrokeWidth(TRAVEL_PATH_WIDTH * getScale());
+    }
+
     private void createPlot(Plot plot) {
         var rectanglePlot = new RectanglePlot(plot);
         plotDrawings.put(plot, rectanglePlot);
@@ -132,6 +239,8 @@ public class PersonDrawing extends AbstractFxScalableNode {
 
     protected void updateTimeXOffset(double offset) {
         linkGroup.setTranslateX(offset);
+        travelLinkGroup.setTranslateX(offset);
+        travelPath.setTranslateX(offset);
     }
 
     private void handleFreeMapPersonChanges(PropertyChangeEvent event) {
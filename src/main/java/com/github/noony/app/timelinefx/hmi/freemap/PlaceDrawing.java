@@ -18,13 +18,23 @@ package com.github.noony.app.timelinefx.hmi.freemap;
 
 import com.github.noony.app.timelinefx.core.freemap.FreeMapPlace;
 import com.github.noony.app.timelinefx.core.freemap.FriezeFreeMap;
+import com.github.noony.app.timelinefx.core.freemap.Plot;
 import com.github.noony.app.timelinefx.drawings.AbstractFxScalableNode;
 import java.beans.PropertyChangeEvent;
+import java.util.ArrayList;
+import java.util.List;
+import javafx.application.Platform;
 import javafx.geometry.Pos;
 import javafx.scene.Group;
 import javafx.scene.control.Label;
 import javafx.scene.paint.Color;
+import javafx.scene.shape.ClosePath;
+import javafx.scene.shape.HLineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.Path;
+import javafx.scene.shape.PathElement;
 import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.VLineTo;
 import javafx.scene.text.Font;
 import javafx.scene.text.TextAlignment;
 
@@ -34,6 +44,19 @@ import javafx.scene.text.TextAlignment;
  */
 public final class PlaceDrawing extends AbstractFxScalableNode {
 
+    /**
+     * Scale below which the place names are hidden, their text no longer
+     * fitting in the name column.
+     */
+    public static final double NAME_MIN_SCALE = 0.5;
+
+    /**
+     * Width of the time slices the plots are counted in for the density bars.
+     */
+    public static final double DENSITY_BIN_WIDTH = 10;
+
+    private static final Color DENSITY_COLOR = Color.gray(0.1, 0.8);
+
     private final FreeMapPlace place;
     private final FriezeFreeMap friezeFreeMap;
     //
@@ -43,13 +66,22 @@ public final class PlaceDrawing extends AbstractFxScalableNode {
     private final Group placePlotsGroup;
     private final Group nameGroup;
     private final Label nameLabel;
+    // the plots of the place in FreeMapDetailLevel.LOW
+    private final Path densityBars;
     //
     private PlaceDrawingMode drawingMode;
+    private FreeMapDetailLevel detailLevel = FreeMapDetailLevel.FULL;
+    //
+    private int[] densityCounts = new int[0];
+    private int densityFirstBin = 0;
+    private int densityMaxCount = 0;
+    private boolean densityDirty = true;
+    private boolean densityUpdateRequested = false;
     //
     private double minX;
     private double maxX;
     //
-    private double oldScreenY;
+    private double oldMouseY;
     private double oldTranslateY;
 
     public PlaceDrawing(FreeMapPlace aPlace, FriezeFreeMap aFriezeFreeMap) {
@@ -82,9 +114,15 @@ public final class PlaceDrawing extends AbstractFxScalableNode {
         nameLabel.setFont(new Font(16));
         nameLabel.setWrapText(true);
         //
+        densityBars = new Path();
+        densityBars.setFill(DENSITY_COLOR);
+        densityBars.setStroke(null);
+        densityBars.setVisible(false);
+        densityBars.setMouseTransparent(true);
+        //
         place.addListener(PlaceDrawing.this::handlePropertyChange);
         //
-        placePlotsGroup.getChildren().add(background);
+        placePlotsGroup.getChildren().addAll(background, densityBars);
         addNode(placePlotsGroup);
         addNode(nameGroup);
         nameGroup.getChildren().add(nameLabel);
@@ -104,11 +142,26 @@ public final class PlaceDrawing extends AbstractFxScalableNode {
         return place;
     }
 
+    /**
+     * The plots of the place are drawn as density bars in
+     * {@link FreeMapDetailLevel#LOW}. Applied at the next layout of the
+     * drawing.
+     *
+     * @param aDetailLevel the detail level to draw the place with
+     */
+    void setDetailLevel(FreeMapDetailLevel aDetailLevel) {
+        detailLevel = aDetailLevel;
+    }
+
     @Override
     protected void updateLayout() {
         updateY(place.getYPos());
         updateWidth();
         updateHeight();
+        densityBars.setVisible(detailLevel == FreeMapDetailLevel.LOW);
+        if (detailLevel == FreeMapDetailLevel.LOW) {
+            updateDensityBars();
+        }
     }
 
     private void initInteractivity() {
@@ -120,14 +173,14 @@ public final class PlaceDrawing extends AbstractFxScalableNode {
         });
 
         background.setOnMousePressed(event -> {
-            oldScreenY = event.getScreenY();
+            oldMouseY = sceneToParent(event.getSceneX(), event.getSceneY()).getY();
             oldTranslateY = getNode().getTranslateY();
         });
         background.setOnMouseDragged(event -> {
-            getNode().setTranslateY(oldTranslateY + event.getScreenY() - oldScreenY);
+            getNode().setTranslateY(oldTranslateY + sceneToParent(event.getSceneX(), event.getSceneY()).getY() - oldMouseY);
         });
         background.setOnMouseReleased(event -> {
-            var translateYScaled = oldTranslateY + event.getScreenY() - oldScreenY;
+            var translateYScaled = oldTranslateY + sceneToParent(event.getSceneX(), event.getSceneY()).getY() - oldMouseY;
             place.setY(translateYScaled / getScale());
         });
     }
@@ -138,8 +191,14 @@ public final class PlaceDrawing extends AbstractFxScalableNode {
                 updateY((double) event.getNewValue());
             case FreeMapPlace.WIDTH_POS_CHANGED ->
                 updateWidth();
-            case FreeMapPlace.HEIGHT_POS_CHANGED ->
+            case FreeMapPlace.HEIGHT_POS_CHANGED -> {
                 updateHeight();
+                requestDensityUpdate();
+            }
+            case FreeMapPlace.PLOTS_CHANGED -> {
+                densityDirty = true;
+                requestDensityUpdate();
+            }
             case FreeMapPlace.MIN_MAX_X_CHANGED -> {
                 minX = (double) event.getOldValue();
                 maxX = (double) event.getNewValue();
@@ -182,6 +241,7 @@ public final class PlaceDrawing extends AbstractFxScalableNode {
         nameLabel.setTranslateX(placePlotsWidth);
         nameLabel.setMinWidth(friezeFreeMap.getPlaceNamesWidth() * getScale());
         nameLabel.setMaxWidth(friezeFreeMap.getPlaceNamesWidth() * getScale());
+        nameLabel.setVisible(getScale() >= NAME_MIN_SCALE);
     }
 
     private void updateHeight() {
@@ -191,4 +251,62 @@ public final class PlaceDrawing extends AbstractFxScalableNode {
         nameLabel.setMinHeight(height);
         nameLabel.setMaxHeight(height);
     }
+
+    private void requestDensityUpdate() {
+        // the bars are rebuilt once per pulse, and only when displayed
+        if (detailLevel == FreeMapDetailLevel.LOW && !densityUpdateRequested) {
+            densityUpdateRequested = true;
+            Platform.runLater(() -> {
+                densityUpdateRequested = false;
+                if (detailLevel == FreeMapDetailLevel.LOW) {
+                    updateDensityBars();
+                }
+            });
+        }
+    }
+
+    private void countPlots() {
+        var plots = place.getPlots();
+        densityMaxCount = 0;
+        if (plots.isEmpty()) {
+            densityCounts = new int[0];
+            return;
+        }
+        var firstBin = Integer.MAX_VALUE;
+        var lastBin = Integer.MIN_VALUE;
+        for (Plot plot : plots) {
+            var bin = (int) Math.floor(plot.getX() / DENSITY_BIN_WIDTH);
+            firstBin = Math.min(firstBin, bin);
+            lastBin = Math.max(lastBin, bin);
+        }
+        densityFirstBin = firstBin;
+        densityCounts = new int[lastBin - firstBin + 1];
+        for (Plot plot : plots) {
+            var index = (int) Math.floor(plot.getX() / DENSITY_BIN_WIDTH) - densityFirstBin;
+            densityCounts[index]++;
+            densityMaxCount = Math.max(densityMaxCount, densityCounts[index]);
+        }
+    }
+
+    private void updateDensityBars() {
+        if (densityDirty) {
+            countPlots();
+            densityDirty = false;
+        }
+        var height = place.getHeight() * getScale();
+        var binWidth = DENSITY_BIN_WIDTH * getScale();
+        List<PathElement> elements = new ArrayList<>();
+        for (int i = 0; i < densityCounts.length; i++) {
+            if (densityCounts[i] > 0) {
+                var x = (densityFirstBin + i) * binWidth;
+                var barHeight = height * densityCounts[i] / densityMaxCount;
+                elements.add(new MoveTo(x, height - barHeight));
+                elements.add(new HLineTo(x + binWidth));
+                elements.add(new VLineTo(height));
+                elements.add(new HLineTo(x));
+                elements.add(new ClosePath());
+            }
+        }
+        densityBars.getElements().setAll(elements);
+    }
 }
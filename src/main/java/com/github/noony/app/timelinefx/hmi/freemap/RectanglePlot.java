@@ -59,17 +59,17 @@ public class RectanglePlot extends AbstractFxScalableNode {
     private void initInteractivity() {
         double gridSpace = 1; //TODO use a grid
         plotRectangle.setOnMousePressed(event -> {
-            oldScene = new Point2D(event.getScreenX(), event.getScreenY());
+            oldScene = sceneToParent(event.getSceneX(), event.getSceneY());
             oldMainNodeTranslateX = getNode().getTranslateX();
             oldMainNodeTranslateY = getNode().getTranslateY();
         });
         plotRectangle.setOnMouseDragged(event -> {
-            currentScene = new Point2D(event.getScreenX(), event.getScreenY());
+            currentScene = sceneToParent(event.getSceneX(), event.getSceneY());
             setNodeTranslateX(oldMainNodeTranslateX + currentScene.getX() - oldScene.getX());
             setNodeTranslateY(oldMainNodeTranslateY + currentScene.getY() - oldScene.getY());
         });
         plotRectangle.setOnMouseReleased(event -> {
-            currentScene = new Point2D(event.getScreenX(), event.getScreenY());
+            currentScene = sceneToParent(event.getSceneX(), event.getSceneY());
             var deltaXScaled = currentScene.getX() - oldScene.getX();
             var deltaYScaled = currentScene.getY() - oldScene.getY();
             var deltaX = deltaXScaled / getScale();
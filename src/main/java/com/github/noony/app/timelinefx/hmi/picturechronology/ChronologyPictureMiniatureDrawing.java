@@ -18,20 +18,16 @@ package com.github.noony.app.timelinefx.hmi.picturechronology;
 
 import com.github.noony.app.timelinefx.core.picturechronology.ChronologyPictureMiniature;
 import com.github.noony.app.timelinefx.drawings.IFxScalableNode;
+import com.github.noony.app.timelinefx.utils.ImageService;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.InputStream;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.logging.Level;
 import java.util.logging.Logger;
 import javafx.geometry.Point2D;
 import javafx.scene.Group;
 import javafx.scene.Node;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseButton;
 import javafx.scene.paint.Color;
@@ -61,7 +57,6 @@ public class ChronologyPictureMiniatureDrawing implements IFxScalableNode {
     private final Group contoursNode;
     private final Rectangle clipRectangle;
     private final Rectangle frontGlass;
-    private final Image image;
     private final ImageView imageView;
     //
     private double scale;
@@ -69,6 +64,7 @@ public class ChronologyPictureMiniatureDrawing implements IFxScalableNode {
     private double renderingScale;
     private double width;
     private double height;
+    private ImageService.Resolution imageResolution = null;
     //
     private double oldScreenX;
     private double oldScreenY;
@@ -93,17 +89,7 @@ public class ChronologyPictureMiniatureDrawing implements IFxScalableNode {
             contoursNode.getChildren().add(personContour.getNode());
         }
         //
-        String imagePath = chronologyPictureMiniature.getPicture().getAbsolutePath();
-        InputStream imageStream;
-        try {
-            imageStream = new FileInputStream(imagePath);
-        } catch (FileNotFoundException ex) {
-            LOG.log(Level.SEVERE, null, ex);
-            // Ugly... but will do for now
-            imageStream = null;
-        }
-        image = new Image(imageStream);
-        imageView = new ImageView(image);
+        imageView = new ImageView();
         imageView.setClip(clipRectangle);
         //
         frontGlass = new Rectangle();
@@ -220,6 +206,22 @@ public class ChronologyPictureMiniatureDrawing implements IFxScalableNode {
         mainNode.setTranslateY(chronologyPictureMiniature.getPosition().getY() * viewingScale);
         //
         contours.forEach(contour -> contour.updateScale(viewingScale));
+        //
+        updateImageResolution(Math.max(width, height));
+    }
+
+    private void updateImageResolution(double displaySize) {
+        var resolution = ImageService.Resolution.forDisplaySize(displaySize, imageResolution);
+        if (resolution == imageResolution) {
+            return;
+        }
+        imageResolution = resolution;
+        // the image being replaced is kept until the new one is loaded
+        ImageService.getInstance().load(chronologyPictureMiniature.getPicture(), resolution, loadedImage -> {
+            if (imageResolution == resolution) {
+                imageView.setImage(loadedImage);
+            }
+        }, imageView.getImage() == null);
     }
 
     private void handleChronologyPictureMiniatureChanges(PropertyChangeEvent event) {
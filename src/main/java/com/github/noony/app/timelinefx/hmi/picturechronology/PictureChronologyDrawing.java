@@ -131,10 +131,10 @@ public class PictureChronologyDrawing extends FxScalableParent {
     @Override
     public void updateLayout() {
         super.updateLayout();
-        drawingBackground.setWidth(pictureChronology.getWidth() * getScale());
-        drawingBackground.setHeight(pictureChronology.getHeight() * getScale());
-        drawingGroup.setTranslateX(PADDING * getScale());
-        drawingGroup.setTranslateY(PADDING * getScale());
+        drawingBackground.setWidth(pictureChronology.getWidth() * getLayoutScale());
+        drawingBackground.setHeight(pictureChronology.getHeight() * getLayoutScale());
+        drawingGroup.setTranslateX(PADDING * getLayoutScale());
+        drawingGroup.setTranslateY(PADDING * getLayoutScale());
     }
 
     public void setPicturesVisibility(boolean visibility) {
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.save;
+
+import com.github.noony.app.timelinefx.core.ObjectRegistry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Defers the loading steps that reference objects not loaded yet.
+ *
+ * A step is run as soon as all the ids it references are registered. The
+ * loader notifies each object it loads with {@link #objectLoaded(long)}, which
+ * runs the steps waiting for it.
+ *
+ * @author hamon
+ */
+public final class ForwardReferences {
+
+    private final ObjectRegistry registry;
+    private final Map<Long, List<PendingStep>> waitingSteps;
+    private int nbDeferredSteps = 0;
+
+    public ForwardReferences(ObjectRegistry aRegistry) {
+        registry = aRegistry;
+        waitingSteps = new HashMap<>();
+    }
+
+    /**
+     * Runs the step now if all the ids are registered, otherwise once the
+     * missing ones are loaded.
+     *
+     * @param step the loading step
+     * @param ids the ids referenced by the step
+     */
+    public void whenLoaded(Runnable step, long... ids) {
+        var pendingStep = new PendingStep(step);
+        for (long id : ids) {
+            if (registry.isIdAvailable(id)) {
+                var steps = waitingSteps.computeIfAbsent(id, k -> new ArrayList<>(1));
+                // an id repeated in the references is only counted once
+                if (steps.isEmpty() || steps.get(steps.size() - 1) != pendingStep) {
+                    steps.add(pendingStep);
+                    pendingStep.nbMissing++;
+                }
+            }
+        }
+        if (pendingStep.nbMissing == 0) {
+            step.run();
+        } else {
+            nbDeferredSteps++;
+        }
+    }
+
+    /**
+     * Runs the steps that were only waiting for this object.
+     *
+     * @param id the id of an object just loaded
+     */
+    public void objectLoaded(long id) {
+        var steps = waitingSteps.remove(id);
+        if (steps == null) {
+            return;
+        }
+        for (PendingStep pendingStep : steps) {
+            pendingStep.nbMissing--;
+            if (pendingStep.nbMissing == 0) {
+                pendingStep.step.run();
+            }
+        }
+    }
+
+    /**
+     *
+     * @return the number of steps that could not be run immediately
+     */
+    public int getNbDeferredSteps() {
+        return nbDeferredSteps;
+    }
+
+    /**
+     * Checks that every step could be run.
+     *
+     * @throws IllegalStateException if some ids were never loaded
+     */
+    public void checkResolved() {
+        if (!waitingSteps.isEmpty()) {
+            throw new IllegalStateException("Unresolved references to ids " + waitingSteps.keySet());
+        }
+    }
+
+    private static final class PendingStep {
+
+        private final Runnable step;
+        private int nbMissing = 0;
+
+        private PendingStep(Runnable aStep) {
+            step = aStep;
+        }
+    }
+}
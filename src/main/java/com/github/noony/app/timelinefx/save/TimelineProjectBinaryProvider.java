@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.save;
+
+import com.github.noony.app.timelinefx.core.TimeLineProject;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Reads and writes the binary sidecar of a project file. The XML file stays
+ * the reference: the sidecar is only loaded by the {@link XMLHandler} while
+ * it matches the current content of the XML file.
+ *
+ * @author hamon
+ */
+public interface TimelineProjectBinaryProvider {
+
+    String BINARY_FILE_EXTENSION = ".tlfxb";
+
+    List<String> getSupportedVersions();
+
+    /**
+     *
+     * @param projectFile the XML project file
+     * @param binaryFile its binary sidecar
+     * @return true if the sidecar can be loaded by this provider and was
+     * written from the current content of the project file
+     */
+    boolean isUpToDate(File projectFile, File binaryFile);
+
+    /**
+     *
+     * @param projectFile the XML project file, giving the project folder
+     * @param binaryFile the binary file to load
+     * @return the loaded project
+     * @throws IOException if the binary file cannot be read
+     */
+    TimeLineProject load(File projectFile, File binaryFile) throws IOException;
+
+    /**
+     *
+     * @param project the project to save
+     * @param projectFile the XML project file the sidecar is written for
+     * @param binaryFile the destination binary file
+     * @throws IOException if the binary file cannot be written
+     */
+    void save(TimeLineProject project, File projectFile, File binaryFile) throws IOException;
+}
@@ -34,4 +34,15 @@ public interface TimelineProjectProvider {
     TimeLineProject load(File projectFile, Element e);
 
     boolean save(TimeLineProject project, File file);
+
+    /**
+     *
+     * @param project the project to save
+     * @param file the destination file
+     * @param prettyPrint whether to indent the saved file
+     * @return true if the project was saved
+     */
+    default boolean save(TimeLineProject project, File file, boolean prettyPrint) {
+        return save(project, file);
+    }
 }
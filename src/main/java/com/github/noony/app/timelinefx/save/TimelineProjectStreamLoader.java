@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.save;
+
+import com.github.noony.app.timelinefx.core.TimeLineProject;
+import java.io.File;
+import java.util.List;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Loads a project directly from the XML event stream, without building a DOM.
+ * Preferred by the {@link XMLHandler} over the {@link TimelineProjectProvider}
+ * supporting the same version.
+ *
+ * @author hamon
+ */
+public interface TimelineProjectStreamLoader {
+
+    List<String> getSupportedVersions();
+
+    /**
+     *
+     * @param projectFile the file being loaded
+     * @param reader a reader positioned on the root element start
+     * @return the loaded project
+     * @throws XMLStreamException if the file cannot be read
+     */
+    TimeLineProject load(File projectFile, XMLStreamReader reader) throws XMLStreamException;
+}
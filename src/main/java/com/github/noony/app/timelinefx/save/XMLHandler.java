@@ -16,10 +16,14 @@
  */
 package com.github.noony.app.timelinefx.save;
 
-import com.github.noony.app.timelinefx.core.FriezeObjectFactory;
 import com.github.noony.app.timelinefx.core.TimeLineProject;
+import com.github.noony.app.timelinefx.save.journal.ProjectJournal;
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.logging.Level;
@@ -27,6 +31,9 @@ import java.util.logging.Logger;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.openide.util.Lookup;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -46,12 +53,20 @@ public final class XMLHandler {
     private static final XMLHandler INSTANCE = new XMLHandler();
 
     private final List<TimelineProjectProvider> providers;
+    private final List<TimelineProjectStreamLoader> streamLoaders;
+    private final List<TimelineProjectBinaryProvider> binaryProviders;
+    private final TimelineProjectBinaryProvider binarySaveProvider;
     private TimelineProjectProvider saveProvider = null;
     private String saveVersion = "-1";
 
     private XMLHandler() {
         //private utility constructor
         providers = new LinkedList<>(Lookup.getDefault().lookupAll(TimelineProjectProvider.class));
+        streamLoaders = new LinkedList<>(Lookup.getDefault().lookupAll(TimelineProjectStreamLoader.class));
+        binaryProviders = new LinkedList<>(Lookup.getDefault().lookupAll(TimelineProjectBinaryProvider.class));
+        binarySaveProvider = binaryProviders.stream()
+                .max(Comparator.comparingInt(provider -> provider.getSupportedVersions().stream().mapToInt(Integer::parseInt).max().orElse(0)))
+                .orElse(null);
         saveProvider = providers.get(0);
         saveVersion = saveProvider.getSupportedVersions().get(0);
         providers.forEach(candidateparser -> {
@@ -66,11 +81,108 @@ public final class XMLHandler {
         });
     }
 
+    /**
+     * Loads the project from its binary sidecar if it is up to date, from the
+     * XML file otherwise, then replays the changes journaled since the file
+     * was saved. A missing or stale sidecar is written from the XML file so
+     * that the next load reads it.
+     *
+     * @param file the project file
+     * @return the loaded project, null if it could not be loaded
+     */
     public static TimeLineProject loadFile(File file) {
+        if (file == null) {
+            return null;
+        }
+        var project = loadBinaryFile(file);
+        if (project == null) {
+            project = loadXMLFile(file);
+            if (project != null) {
+                saveBinaryFile(project, file);
+            }
+        }
+        if (project != null) {
+            ProjectJournal.replay(project, file);
+            // keeps the metadata read while loading for the next load
+            project.getMetadataCache().save();
+        }
+        return project;
+    }
+
+    /**
+     * Loads the project as it was last saved in the file, without replaying
+     * its journal.
+     *
+     * @param file the project file
+     * @return the saved project, null if it could not be loaded
+     */
+    public static TimeLineProject loadSavedFile(File file) {
+        var project = loadBinaryFile(file);
+        return project != null ? project : loadXMLFile(file);
+    }
+
+    /**
+     * Loads the project from its binary sidecar.
+     *
+     * @param file the project file
+     * @return the loaded project, null if there is no up to date sidecar or if
+     * it could not be loaded
+     */
+    public static TimeLineProject loadBinaryFile(File file) {
+        var binaryFile = getBinaryFile(file);
+        for (TimelineProjectBinaryProvider candidateProvider : INSTANCE.binaryProviders) {
+            if (candidateProvider.isUpToDate(file, binaryFile)) {
+                try {
+                    return candidateProvider.load(file, binaryFile);
+                } catch (IOException | RuntimeException ex) {
+                    LOG.log(Level.WARNING, "Exception while loading binary file {0}, loading the XML file instead :: {1}", new Object[]{binaryFile, ex});
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Loads the project from the XML file, with the stream loader supporting
+     * its version if any, with the DOM provider otherwise.
+     *
+     * @param file the project file
+     * @return the loaded project, null if it could not be loaded
+     */
+    public static TimeLineProject loadXMLFile(File file) {
+        if (file == null) {
+            return null;
+        }
+        try (var inputStream = new BufferedInputStream(new FileInputStream(file))) {
+            XMLStreamReader reader = createInputFactory().createXMLStreamReader(inputStream);
+            try {
+                reader.nextTag();
+                String version = getVersion(reader);
+                for (TimelineProjectStreamLoader candidateLoader : INSTANCE.streamLoaders) {
+                    if (candidateLoader.getSupportedVersions().contains(version)) {
+                        return candidateLoader.load(file, reader);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException | XMLStreamException ex) {
+            LOG.log(Level.SEVERE, "Exception while streaming file {0} :: {1}", new Object[]{file, ex});
+            return null;
+        }
+        return loadFileWithDom(file);
+    }
+
+    /**
+     * Loads the project with the DOM provider supporting its version.
+     *
+     * @param file the project file
+     * @return the loaded project, null if it could not be loaded
+     */
+    public static TimeLineProject loadFileWithDom(File file) {
         TimeLineProject project = null;
         if (file != null) {
-            FriezeObjectFactory.reset();
-            //
             Document document;
             DocumentBuilderFactory builderFactory;
             builderFactory = DocumentBuilderFactory.newInstance();
@@ -97,8 +209,77 @@ public final class XMLHandler {
     }
 
     public static boolean save(TimeLineProject project, File file) {
+        return save(project, file, true);
+    }
+
+    /**
+     * Saves the project with the most recent provider. The saved file holds
+     * every change of the project, so its journal is dropped. The binary
+     * sidecar is left stale and written again on the next load.
+     *
+     * @param project the project to save
+     * @param file the destination file
+     * @param prettyPrint whether to indent the saved file
+     * @return true if the project was saved
+     */
+    public static boolean save(TimeLineProject project, File file, boolean prettyPrint) {
         LOG.log(Level.INFO, "Using saveProvider {0}", new Object[]{INSTANCE.saveProvider});
-        return INSTANCE.saveProvider.save(project, file);
+        if (!INSTANCE.saveProvider.save(project, file, prettyPrint)) {
+            return false;
+        }
+        try {
+            Files.deleteIfExists(ProjectJournal.getJournalFile(file).toPath());
+        } catch (IOException ex) {
+            LOG.log(Level.WARNING, "Exception while deleting the journal of {0} :: {1}", new Object[]{file, ex});
+        }
+        return true;
+    }
+
+    /**
+     * Writes the binary sidecar of the project file, from the project as it
+     * is saved in that file.
+     *
+     * @param project the project loaded from the file
+     * @param file the project file
+     * @return true if the sidecar was written
+     */
+    public static boolean saveBinaryFile(TimeLineProject project, File file) {
+        if (INSTANCE.binarySaveProvider == null) {
+            return false;
+        }
+        // a sidecar that cannot be written is only ignored, the XML file is loaded instead
+        try {
+            INSTANCE.binarySaveProvider.save(project, file, getBinaryFile(file));
+            return true;
+        } catch (IOException | RuntimeException ex) {
+            LOG.log(Level.WARNING, "Exception while saving binary file of {0} :: {1}", new Object[]{file, ex});
+            return false;
+        }
+    }
+
+    /**
+     * Writes the project with the most recent provider, leaving the sidecar,
+     * the metadata cache and the journal of the file untouched.
+     *
+     * @param project the project to write
+     * @param file the destination file
+     * @param prettyPrint whether to indent the written file
+     * @return true if the project was written
+     */
+    public static boolean write(TimeLineProject project, File file, boolean prettyPrint) {
+        return INSTANCE.saveProvider.save(project, file, prettyPrint);
+    }
+
+    /**
+     *
+     * @param file the project file
+     * @return the binary sidecar of the project file, which may not exist
+     */
+    public static File getBinaryFile(File file) {
+        var name = file.getName();
+        var extensionIndex = name.lastIndexOf('.');
+        var baseName = extensionIndex > 0 ? name.substring(0, extensionIndex) : name;
+        return new File(file.getAbsoluteFile().getParentFile(), baseName + TimelineProjectBinaryProvider.BINARY_FILE_EXTENSION);
     }
 
     private static String getVersion(Element rootElement) {
@@ -108,6 +289,18 @@ public final class XMLHandler {
         return "1";
     }
 
+    private static String getVersion(XMLStreamReader rootReader) {
+        var version = rootReader.getAttributeValue(null, TimelineProjectProvider.PROJECT_VERSION_ATR);
+        return version != null ? version : "1";
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        var inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return inputFactory;
+    }
+
     public static int compareVersions(String v1, String v2) {
         if (v1.equals(v2)) {
             return 0;
@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.save.binary;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Layout of the version 1 binary project format.
+ *
+ * The file starts with a header holding the magic number, the format version,
+ * the length and modification time of the XML file it was written from, the
+ * string indexes of the project properties and a directory giving the offset
+ * and number of records of each {@link Section}.
+ *
+ * The sections follow in their declaration order. All of them hold fixed
+ * width records, except {@link Section#DATA} which holds the variable length
+ * content: the UTF-8 bytes of the strings and the varint encoded lists of
+ * references. Strings are stored once and referenced by their index in
+ * {@link Section#STRINGS}, -1 standing for null.
+ *
+ * @author hamon
+ */
+final class BinaryFormatV1 {
+
+    static final int MAGIC = 0x544C4642; // TLFB
+    static final int FORMAT_VERSION = 1;
+
+    static final int NO_STRING = -1;
+    static final int NO_PARENT = -1;
+
+    static final int HAS_BIRTH_FLAG = 1;
+    static final int HAS_DEATH_FLAG = 1 << 1;
+    static final int HAS_DEFAULT_PORTRAIT_FLAG = 1 << 2;
+
+    /**
+     * Time block shared by the records of date objects: time format string
+     * (int), has date flag (byte), value (long, epoch day for LOCAL_TIME,
+     * double bits for TIME_MIN).
+     */
+    static final int TIME_SIZE = 13;
+
+    enum Section {
+        /**
+         * offset of the string in the data section (int).
+         */
+        STRINGS(4),
+        /**
+         * id (long), name (int), level (int), color (int), parent place
+         * record index (int). Parents are written before their children.
+         */
+        PLACES(24),
+        /**
+         * id (long), name (int), color (int), time format (int), flags (byte),
+         * birth (long), death (long), default portrait id (long), first
+         * portrait record (int), number of portraits (int).
+         */
+        PERSONS(53),
+        /**
+         * id (long), path (int), time.
+         */
+        PORTRAITS(12 + TIME_SIZE),
+        /**
+         * id (long), name (int), path (int), width (int), height (int), time,
+         * person and place id lists offset in the data section (int).
+         */
+        PICTURES(24 + TIME_SIZE + 4),
+        /**
+         * id (long), person id (long), place id (long), time format (int),
+         * start (double), end (double).
+         */
+        STAYS(44),
+        /**
+         * id (long), name (int), stay id list offset in the data section
+         * (int), first free map record (int), number of free maps (int).
+         */
+        FRIEZES(24),
+        /**
+         * id (long), name (int), width, height, person width, place name
+         * width, font size, plot separation, plot size (double), plot
+         * visibility (byte), then first record and number of records (int,
+         * int) of its portraits, places and plots.
+         */
+        FREEMAPS(93),
+        /**
+         * person id (long), x, y, radius (double).
+         */
+        FREEMAP_PORTRAITS(32),
+        /**
+         * place id (long), y, height (double).
+         */
+        FREEMAP_PLACES(24),
+        /**
+         * stay id (long), type (int), x, y (double).
+         */
+        PLOTS(28),
+        /**
+         * id (long), name (int), width, height (double), first miniature
+         * record (int), number of miniatures (int), first link record (int),
+         * number of links (int).
+         */
+        CHRONOLOGIES(44),
+        /**
+         * id (long), picture id (long), x, y, scale (double), time.
+         */
+        MINIATURES(40 + TIME_SIZE),
+        /**
+         * id (long), type (int), from miniature id (long), to miniature id
+         * (long), person id (long), parameters offset in the data section
+         * (int).
+         */
+        CHRONOLOGY_LINKS(40),
+        /**
+         * variable length content, its count is its size in bytes.
+         */
+        DATA(1);
+
+        private final int recordSize;
+
+        Section(int aRecordSize) {
+            recordSize = aRecordSize;
+        }
+
+        int getRecordSize() {
+            return recordSize;
+        }
+    }
+
+    /**
+     * magic, version, source length, source modification time, 4 project
+     * strings, then an offset and a count per section.
+     */
+    static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4 * 4 + Section.values().length * 8;
+
+    private BinaryFormatV1() {
+        // private utility constructor
+    }
+
+    static void writeVarint(DataOutputStream out, long value) throws IOException {
+        var remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            out.writeByte((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        out.writeByte((int) remaining);
+    }
+
+    static long readVarint(ByteBuffer buffer) {
+        long value = 0;
+        var shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * Writes the ids as a count followed by the zigzag encoded differences
+     * between consecutive ids, which keeps runs of close ids on one or two
+     * bytes each.
+     */
+    static void writeIds(DataOutputStream out, long[] ids) throws IOException {
+        writeVarint(out, ids.length);
+        var previous = 0L;
+        for (long id : ids) {
+            var delta = id - previous;
+            writeVarint(out, (delta << 1) ^ (delta >> 63));
+            previous = id;
+        }
+    }
+
+    static long[] readIds(ByteBuffer buffer) {
+        var ids = new long[(int) readVarint(buffer)];
+        var previous = 0L;
+        for (int i = 0; i < ids.length; i++) {
+            var zigzag = readVarint(buffer);
+            previous += (zigzag >>> 1) ^ -(zigzag & 1);
+            ids[i] = previous;
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.save.binary;
+
+import com.github.noony.app.timelinefx.Configuration;
+import com.github.noony.app.timelinefx.save.XMLHandler;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Converts a project between its XML file and the binary format.
+ *
+ * Usage: {@code BinaryProjectConverter --to-binary <project.xml> [binaryFile]}
+ * writes the binary sidecar of an XML project, and
+ * {@code BinaryProjectConverter --to-xml <binaryFile> <project.xml>} writes
+ * back the XML project of a binary file.
+ *
+ * @author hamon
+ */
+public final class BinaryProjectConverter {
+
+    private BinaryProjectConverter() {
+        // private utility constructor
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: BinaryProjectConverter --to-binary <project.xml> [binaryFile] | --to-xml <binaryFile> <project.xml>");
+            return;
+        }
+        Configuration.loadPreferences();
+        var provider = new BinaryProjectProviderV1();
+        switch (args[0]) {
+            case "--to-binary" -> {
+                var projectFile = new File(args[1]);
+                var binaryFile = args.length > 2 ? new File(args[2]) : XMLHandler.getBinaryFile(projectFile);
+                var project = XMLHandler.loadXMLFile(projectFile);
+                if (project == null) {
+                    throw new IOException("Could not load " + projectFile);
+                }
+                provider.save(project, projectFile, binaryFile);
+                System.out.println("Wrote " + binaryFile + " (" + binaryFile.length() / 1024 + " KB)");
+            }
+            case "--to-xml" -> {
+                if (args.length < 3) {
+                    throw new IllegalArgumentException("Missing destination project file");
+                }
+                var binaryFile = new File(args[1]);
+                var projectFile = new File(args[2]);
+                var project = provider.load(projectFile, binaryFile);
+                if (!XMLHandler.save(project, projectFile)) {
+                    throw new IOException("Could not save " + projectFile);
+                }
+                System.out.println("Wrote " + projectFile + " (" + projectFile.length() / 1024 + " KB)");
+            }
+            default ->
+                throw new IllegalArgumentException("Unknown conversion : " + args[0]);
+        }
+    }
+}
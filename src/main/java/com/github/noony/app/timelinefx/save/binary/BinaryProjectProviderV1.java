@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.save.binary;
+
+import com.github.noony.app.timelinefx.core.TimeLineProject;
+import com.github.noony.app.timelinefx.save.TimelineProjectBinaryProvider;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import org.openide.util.lookup.ServiceProvider;
+
+/**
+ * Provider of the version 1 binary format, see {@link BinaryFormatV1}.
+ *
+ * @author hamon
+ */
+@ServiceProvider(service = TimelineProjectBinaryProvider.class)
+public class BinaryProjectProviderV1 implements TimelineProjectBinaryProvider {
+
+    @Override
+    public List<String> getSupportedVersions() {
+        return Arrays.asList(Integer.toString(BinaryFormatV1.FORMAT_VERSION));
+    }
+
+    @Override
+    public boolean isUpToDate(File projectFile, File binaryFile) {
+        if (!binaryFile.isFile()) {
+            return false;
+        }
+        var sourceStamp = BinaryProjectReaderV1.readSourceStamp(binaryFile);
+        return sourceStamp != null
+                && sourceStamp[0] == projectFile.length()
+                && sourceStamp[1] == projectFile.lastModified();
+    }
+
+    @Override
+    public TimeLineProject load(File projectFile, File binaryFile) throws IOException {
+        return BinaryProjectReaderV1.read(projectFile, binaryFile);
+    }
+
+    @Override
+    public void save(TimeLineProject project, File projectFile, File binaryFile) throws IOException {
+        new BinaryProjectWriterV1().write(project, projectFile, binaryFile);
+    }
+
+    @Override
+    public String toString() {
+        return "BinaryProjectProviderV1 [version=" + BinaryFormatV1.FORMAT_VERSION + "]";
+    }
+}
@@ -0,0 +1,475 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.save.binary;
+
+import com.github.noony.app.timelinefx.core.Frieze;
+import com.github.noony.app.timelinefx.core.FriezeFactory;
+import com.github.noony.app.timelinefx.core.IDateObject;
+import com.github.noony.app.timelinefx.core.IPicture;
+import com.github.noony.app.timelinefx.core.Person;
+import com.github.noony.app.timelinefx.core.PersonFactory;
+import com.github.noony.app.timelinefx.core.PictureFactory;
+import com.github.noony.app.timelinefx.core.Place;
+import com.github.noony.app.timelinefx.core.PlaceFactory;
+import com.github.noony.app.timelinefx.core.PlaceLevel;
+import com.github.noony.app.timelinefx.core.PortraitFactory;
+import com.github.noony.app.timelinefx.core.StayFactory;
+import com.github.noony.app.timelinefx.core.StayPeriod;
+import com.github.noony.app.timelinefx.core.TimeFormat;
+import com.github.noony.app.timelinefx.core.TimeLineProject;
+import com.github.noony.app.timelinefx.core.TimeLineProjectFactory;
+import com.github.noony.app.timelinefx.core.freemap.FriezeFreeMapFactory;
+import com.github.noony.app.timelinefx.core.freemap.Plot;
+import com.github.noony.app.timelinefx.core.freemap.PlotType;
+import com.github.noony.app.timelinefx.core.picturechronology.ChronologyLink;
+import com.github.noony.app.timelinefx.core.picturechronology.ChronologyLinkType;
+import com.github.noony.app.timelinefx.core.picturechronology.ChronologyPictureMiniature;
+import com.github.noony.app.timelinefx.core.picturechronology.PictureChronologyFactory;
+import static com.github.noony.app.timelinefx.save.binary.BinaryFormatV1.*;
+import com.github.noony.app.timelinefx.save.binary.BinaryFormatV1.Section;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javafx.geometry.Point2D;
+import javafx.scene.paint.Color;
+
+/**
+ * Reads a project in the version 1 binary format described in
+ * {@link BinaryFormatV1}.
+ *
+ * The file is memory mapped and its records are only decoded when they are
+ * read: strings are decoded once, on their first use, and places are decoded
+ * through their record index so that a parent is created when its first child
+ * is.
+ *
+ * @author hamon
+ */
+final class BinaryProjectReaderV1 {
+
+    private final ByteBuffer records;
+    private final ByteBuffer data;
+    private final Map<Section, Integer> sectionOffsets = new EnumMap<>(Section.class);
+    private final Map<Section, Integer> sectionCounts = new EnumMap<>(Section.class);
+    private final String[] strings;
+    private final Place[] places;
+
+    private BinaryProjectReaderV1(ByteBuffer buffer) throws IOException {
+        records = buffer.duplicate();
+        data = buffer.duplicate();
+        checkHeader(records);
+        records.position(HEADER_SIZE - Section.values().length * 8);
+        for (Section section : Section.values()) {
+            sectionOffsets.put(section, records.getInt());
+            sectionCounts.put(section, records.getInt());
+        }
+        strings = new String[count(Section.STRINGS)];
+        places = new Place[count(Section.PLACES)];
+    }
+
+    /**
+     *
+     * @param binaryFile a binary project file
+     * @return the length and modification time of the XML file it was
+     * written from, null if it is not a version 1 binary file
+     */
+    static long[] readSourceStamp(File binaryFile) {
+        try (var channel = FileChannel.open(binaryFile.toPath(), StandardOpenOption.READ)) {
+            var header = ByteBuffer.allocate(24);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read the whole stamp
+            }
+            header.flip();
+            if (header.remaining() < 24 || header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+                return null;
+            }
+            return new long[]{header.getLong(), header.getLong()};
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    static TimeLineProject read(File projectFile, File binaryFile) throws IOException {
+        ByteBuffer buffer;
+        try (var channel = FileChannel.open(binaryFile.toPath(), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        return new BinaryProjectReaderV1(buffer).readProject(projectFile);
+    }
+
+    private static void checkHeader(ByteBuffer buffer) throws IOException {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a binary project file");
+        }
+        var version = buffer.getInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported binary project version " + version);
+        }
+    }
+
+    private TimeLineProject readProject(File projectFile) {
+        records.position(24);
+        var projectName = string(records.getInt());
+        var portraitsFolder = string(records.getInt());
+        var picturesFolder = string(records.getInt());
+        var miniaturesFolder = string(records.getInt());
+        Map<String, String> configParams = Map.of(
+                TimeLineProject.PROJECT_FOLDER_KEY, projectFile.getAbsoluteFile().getParent(),
+                TimeLineProject.PORTRAIT_FOLDER_KEY, portraitsFolder,
+                TimeLineProject.PICTURES_FOLDER_KEY, picturesFolder,
+                TimeLineProject.MINIATURES_FOLDER_KEY, miniaturesFolder
+        );
+        var project = TimeLineProjectFactory.createProject(projectName, configParams);
+        // as with the XML providers, the high level places are added with the stays
+        for (int i = 0; i < places.length; i++) {
+            place(project, i);
+        }
+        readPersons(project);
+        readPictures(project);
+        readStays(project);
+        readFriezes(project);
+        readPictureChronologies(project);
+        return project;
+    }
+
+    private Place place(TimeLineProject project, int index) {
+        if (places[index] == null) {
+            seek(Section.PLACES, index);
+            var id = records.getLong();
+            var name = string(records.getInt());
+            var level = PlaceLevel.valueOf(string(records.getInt()));
+            var color = color(records.getInt());
+            var parentIndex = records.getInt();
+            var parent = parentIndex == NO_PARENT ? null : place(project, parentIndex);
+            places[index] = PlaceFactory.createPlace(project, id, name, level, parent, color);
+        }
+        return places[index];
+    }
+
+    private void readPersons(TimeLineProject project) {
+        var nbPersons = count(Section.PERSONS);
+        List<Person> persons = new ArrayList<>(nbPersons);
+        for (int i = 0; i < nbPersons; i++) {
+            seek(Section.PERSONS, i);
+            var id = records.getLong();
+            var name = string(records.getInt());
+            var color = color(records.getInt());
+            var timeFormat = TimeFormat.valueOf(string(records.getInt()));
+            var flags = records.get();
+            var birth = records.getLong();
+            var death = records.getLong();
+            var defaultPortraitID = records.getLong();
+            var defaultPortraitRef = (flags & HAS_DEFAULT_PORTRAIT_FLAG) != 0 ? defaultPortraitID : Long.MIN_VALUE;
+            var firstPortrait = records.getInt();
+            var nbPortraits = records.getInt();
+            //
+            var person = PersonFactory.createPerson(project, id, name, color);
+            for (int p = firstPortrait; p < firstPortrait + nbPortraits; p++) {
+                seek(Section.PORTRAITS, p);
+                var portraitID = records.getLong();
+                var portraitPath = string(records.getInt());
+                var portrait = PortraitFactory.createPortrait(portraitID, person, portraitPath);
+                if (portrait.getId() == defaultPortraitRef) {
+                    person.setDefaultPortrait(portrait);
+                } else {
+                    person.addPortrait(portrait);
+                }
+                readTime(portrait);
+            }
+            person.setTimeFormat(timeFormat);
+            switch (timeFormat) {
+                case LOCAL_TIME -> {
+                    if ((flags & HAS_BIRTH_FLAG) != 0) {
+                        person.setDateOfBirth(LocalDate.ofEpochDay(birth));
+                    }
+                    if ((flags & HAS_DEATH_FLAG) != 0) {
+                        person.setDateOfDeath(LocalDate.ofEpochDay(death));
+                    }
+                }
+                case TIME_MIN -> {
+                    if ((flags & HAS_BIRTH_FLAG) != 0) {
+                        person.setTimeOfBirth(birth);
+                    }
+                    if ((flags & HAS_DEATH_FLAG) != 0) {
+                        person.setTimeOfDeath(death);
+                    }
+                }
+                default ->
+                    throw new UnsupportedOperationException("Unsupported timefomat : " + timeFormat);
+            }
+            persons.add(person);
+        }
+        project.addAll(Collections.emptyList(), persons, Collections.emptyList());
+    }
+
+    /**
+     * Reads the time block at the current record position.
+     */
+    private void readTime(IDateObject aDateObject) {
+        var timeFormatIndex = records.getInt();
+        var hasDate = records.get() != 0;
+        var value = records.getLong();
+        if (timeFormatIndex == NO_STRING) {
+            return;
+        }
+        var timeFormat = TimeFormat.valueOf(string(timeFormatIndex));
+        aDateObject.setTimeFormat(timeFormat);
+        if (!hasDate) {
+            return;
+        }
+        switch (timeFormat) {
+            case LOCAL_TIME ->
+                aDateObject.setDate(LocalDate.ofEpochDay(value));
+            case TIME_MIN ->
+                aDateObject.setTimestamp(Double.longBitsToDouble(value));
+            default ->
+                throw new UnsupportedOperationException("Unsupported timefomat : " + timeFormat);
+        }
+    }
+
+    private void readPictures(TimeLineProject project) {
+        var nbPictures = count(Section.PICTURES);
+        for (int i = 0; i < nbPictures; i++) {
+            seek(Section.PICTURES, i);
+            var id = records.getLong();
+            var name = string(records.getInt());
+            var path = string(records.getInt());
+            var width = records.getInt();
+            var height = records.getInt();
+            var picture = PictureFactory.createPicture(project, id, name, LocalDateTime.MIN, path, width, height);
+            readTime(picture);
+            seekData(records.getInt());
+            for (long personID : readIds(data)) {
+                picture.addPerson(PersonFactory.getPerson(project, personID));
+            }
+            for (long placeID : readIds(data)) {
+                picture.addPlace(PlaceFactory.getPlace(project, placeID));
+            }
+        }
+    }
+
+    private void readStays(TimeLineProject project) {
+        var nbStays = count(Section.STAYS);
+        List<StayPeriod> stays = new ArrayList<>(nbStays);
+        for (int i = 0; i < nbStays; i++) {
+            seek(Section.STAYS, i);
+            var id = records.getLong();
+            var person = PersonFactory.getPerson(project, records.getLong());
+            var place = PlaceFactory.getPlace(project, records.getLong());
+            var timeFormat = TimeFormat.valueOf(string(records.getInt()));
+            var start = records.getDouble();
+            var end = records.getDouble();
+            switch (timeFormat) {
+                case LOCAL_TIME ->
+                    stays.add(StayFactory.createStayPeriodLocalDate(id, person, LocalDate.ofEpochDay((long) start), LocalDate.ofEpochDay((long) end), place));
+                case TIME_MIN ->
+                    stays.add(StayFactory.createStayPeriodSimpleTime(id, person, start, end, place));
+                default ->
+                    throw new UnsupportedOperationException("Time format not recognized: " + timeFormat);
+            }
+        }
+        project.addAll(Collections.emptyList(), Collections.emptyList(), stays);
+    }
+
+    private void readFriezes(TimeLineProject project) {
+        var nbFriezes = count(Section.FRIEZES);
+        for (int i = 0; i < nbFriezes; i++) {
+            seek(Section.FRIEZES, i);
+            var id = records.getLong();
+            var name = string(records.getInt());
+            var stayRefsOffset = records.getInt();
+            var firstFreeMap = records.getInt();
+            var nbFreeMaps = records.getInt();
+            seekData(stayRefsOffset);
+            var stayIDs = readIds(data);
+            List<StayPeriod> stays = new ArrayList<>(stayIDs.length);
+            for (long stayID : stayIDs) {
+                var stay = StayFactory.getStay(project, stayID);
+                if (stay == null) {
+                    throw new UnsupportedOperationException("StayPerido reference does not exist " + stayID);
+                }
+                stays.add(stay);
+            }
+            var frieze = FriezeFactory.createFrieze(id, project, name, stays);
+            for (int f = firstFreeMap; f < firstFreeMap + nbFreeMaps; f++) {
+                readFreeMap(frieze, f);
+            }
+        }
+    }
+
+    private void readFreeMap(Frieze frieze, int index) {
+        seek(Section.FREEMAPS, index);
+        var freeMap = FriezeFreeMapFactory.createFriezeFreeMap(records.getLong(), frieze);
+        var name = string(records.getInt());
+        if (name != null) {
+            freeMap.setName(name);
+        }
+        // !! IMPORTANT : set all the properties before updating plots, places...
+        freeMap.setWidth(records.getDouble());
+        freeMap.setHeight(records.getDouble());
+        freeMap.setPersonWidth(records.getDouble());
+        freeMap.setPlaceNameWidth(records.getDouble());
+        freeMap.setFontSize(records.getDouble());
+        freeMap.setPlotSeparation(records.getDouble());
+        var plotSize = records.getDouble();
+        freeMap.setPlotVisibility(records.get() != 0);
+        freeMap.setPlotSize(plotSize);
+        var firstPortrait = records.getInt();
+        var nbPortraits = records.getInt();
+        var firstPlace = records.getInt();
+        var nbPlaces = records.getInt();
+        var firstPlot = records.getInt();
+        var nbPlots = records.getInt();
+        //
+        for (int p = firstPortrait; p < firstPortrait + nbPortraits; p++) {
+            seek(Section.FREEMAP_PORTRAITS, p);
+            var personID = records.getLong();
+            var portrait = freeMap.getPortrait(personID);
+            if (portrait == null) {
+                throw new IllegalStateException("Cannot find portrait with personID=" + personID);
+            }
+            portrait.setX(records.getDouble());
+            portrait.setY(records.getDouble());
+            portrait.setRadius(records.getDouble());
+        }
+        //
+        for (int p = firstPlace; p < firstPlace + nbPlaces; p++) {
+            seek(Section.FREEMAP_PLACES, p);
+            var placeID = records.getLong();
+            var freeMapPlace = freeMap.getFreeMapPlace(placeID);
+            if (freeMapPlace == null) {
+                throw new IllegalStateException("Cannot find freeMapPlace with placeID=" + placeID);
+            }
+            var yPos = records.getDouble();
+            freeMapPlace.setHeight(records.getDouble());
+            freeMapPlace.setY(yPos);
+        }
+        //
+        Map<Long, Plot> startPlots = new HashMap<>();
+        Map<Long, Plot> endPlots = new HashMap<>();
+        freeMap.getPlots().forEach(plot -> (plot.getType() == PlotType.START ? startPlots : endPlots).put(plot.getParentPeriodID(), plot));
+        for (int p = firstPlot; p < firstPlot + nbPlots; p++) {
+            seek(Section.PLOTS, p);
+            var stayID = records.getLong();
+            var type = PlotType.valueOf(string(records.getInt()));
+            var plot = switch (type) {
+                case START ->
+                    startPlots.get(stayID);
+                case END ->
+                    endPlots.get(stayID);
+                default ->
+                    throw new UnsupportedOperationException("Unsupported plot type : " + type);
+            };
+            if (plot == null) {
+                throw new IllegalStateException("Cannot find plot with stayID=" + stayID + " and of type " + type);
+            }
+            plot.setX(records.getDouble());
+            plot.setY(records.getDouble());
+        }
+        //
+        frieze.addFriezeFreeMap(freeMap);
+    }
+
+    private void readPictureChronologies(TimeLineProject project) {
+        var nbChronologies = count(Section.CHRONOLOGIES);
+        for (int i = 0; i < nbChronologies; i++) {
+            seek(Section.CHRONOLOGIES, i);
+            var id = records.getLong();
+            var name = string(records.getInt());
+            var width = records.getDouble();
+            var height = records.getDouble();
+            var firstMiniature = records.getInt();
+            var nbMiniatures = records.getInt();
+            var firstLink = records.getInt();
+            var nbLinks = records.getInt();
+            //
+            List<ChronologyPictureMiniature> miniatures = new ArrayList<>(nbMiniatures);
+            for (int m = firstMiniature; m < firstMiniature + nbMiniatures; m++) {
+                seek(Section.MINIATURES, m);
+                var miniatureID = records.getLong();
+                var picture = IPicture.getPicture(project, records.getLong());
+                var position = new Point2D(records.getDouble(), records.getDouble());
+                var scale = records.getDouble();
+                var miniature = PictureChronologyFactory.createChronologyPictureMiniature(miniatureID, picture, position, scale);
+                readTime(miniature.getDateObject());
+                miniature.setUseCustomTime(!miniature.isInSyncWithPicture());
+                miniatures.add(miniature);
+            }
+            List<ChronologyLink> links = new ArrayList<>(nbLinks);
+            for (int l = firstLink; l < firstLink + nbLinks; l++) {
+                seek(Section.CHRONOLOGY_LINKS, l);
+                var linkID = records.getLong();
+                var type = ChronologyLinkType.valueOf(string(records.getInt()));
+                var from = PictureChronologyFactory.getChronologyPictureMiniature(project, records.getLong());
+                var to = PictureChronologyFactory.getChronologyPictureMiniature(project, records.getLong());
+                var person = PersonFactory.getPerson(project, records.getLong());
+                seekData(records.getInt());
+                var parameters = new double[(int) readVarint(data)];
+                for (int p = 0; p < parameters.length; p++) {
+                    parameters[p] = data.getDouble();
+                }
+                links.add(PictureChronologyFactory.createChronologyLink(linkID, person, from, to, type, parameters));
+            }
+            var pictureChronology = PictureChronologyFactory.createPictureChronology(id, project, name, miniatures, links);
+            pictureChronology.setWidth(width);
+            pictureChronology.setHeight(height);
+        }
+    }
+
+    //
+    // buffer helpers
+    //
+    private int count(Section section) {
+        return sectionCounts.get(section);
+    }
+
+    private void seek(Section section, int index) {
+        records.position(sectionOffsets.get(section) + index * section.getRecordSize());
+    }
+
+    private void seekData(int offset) {
+        data.position(sectionOffsets.get(Section.DATA) + offset);
+    }
+
+    private String string(int index) {
+        if (index == NO_STRING) {
+            return null;
+        }
+        if (strings[index] == null) {
+            var stringOffset = records.getInt(sectionOffsets.get(Section.STRINGS) + index * Section.STRINGS.getRecordSize());
+            seekData(stringOffset);
+            var bytes = new byte[(int) readVarint(data)];
+            data.get(bytes);
+            strings[index] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return strings[index];
+    }
+
+    private static Color color(int rgba) {
+        return Color.rgb(rgba >>> 24, (rgba >>> 16) & 0xFF, (rgba >>> 8) & 0xFF, (rgba & 0xFF) / 255.0);
+    }
+}
@@ -0,0 +1,398 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.save.binary;
+
+import com.github.noony.app.timelinefx.core.Frieze;
+import com.github.noony.app.timelinefx.core.IDateObject;
+import com.github.noony.app.timelinefx.core.Person;
+import com.github.noony.app.timelinefx.core.Picture;
+import com.github.noony.app.timelinefx.core.PictureFactory;
+import com.github.noony.app.timelinefx.core.Place;
+import com.github.noony.app.timelinefx.core.StayPeriod;
+import com.github.noony.app.timelinefx.core.TimeLineProject;
+import com.github.noony.app.timelinefx.core.freemap.FreeMapPlace;
+import com.github.noony.app.timelinefx.core.freemap.FreeMapPortrait;
+import com.github.noony.app.timelinefx.core.freemap.FriezeFreeMap;
+import com.github.noony.app.timelinefx.core.freemap.Plot;
+import com.github.noony.app.timelinefx.core.picturechronology.ChronologyLink;
+import com.github.noony.app.timelinefx.core.picturechronology.ChronologyPictureMiniature;
+import com.github.noony.app.timelinefx.core.picturechronology.PictureChronology;
+import static com.github.noony.app.timelinefx.save.binary.BinaryFormatV1.*;
+import com.github.noony.app.timelinefx.save.binary.BinaryFormatV1.Section;
+import com.github.noony.app.timelinefx.utils.CustomFileUtils;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javafx.scene.paint.Color;
+
+/**
+ * Writes a project in the version 1 binary format described in
+ * {@link BinaryFormatV1}.
+ *
+ * Each section is first written in memory, then the header and the sections
+ * are written to a temporary file which replaces the destination file.
+ *
+ * @author hamon
+ */
+final class BinaryProjectWriterV1 {
+
+    private final Map<Section, SectionBuffer> sections = new EnumMap<>(Section.class);
+    private final Map<String, Integer> stringIndexes = new HashMap<>();
+
+    BinaryProjectWriterV1() {
+        for (Section section : Section.values()) {
+            sections.put(section, new SectionBuffer());
+        }
+    }
+
+    void write(TimeLineProject project, File projectFile, File binaryFile) throws IOException {
+        var projectName = string(project.getName());
+        var portraitsFolder = string(CustomFileUtils.fromAbsoluteToProjectRelative(project, project.getPortraitsFolder()));
+        var picturesFolder = string(CustomFileUtils.fromAbsoluteToProjectRelative(project, project.getPicturesFolder()));
+        var miniaturesFolder = string(CustomFileUtils.fromAbsoluteToProjectRelative(project, project.getMiniaturesFolder()));
+        //
+        for (Place place : project.getHighLevelPlaces()) {
+            writePlace(place, NO_PARENT);
+        }
+        for (Person person : project.getPersons()) {
+            writePerson(person);
+        }
+        for (Picture picture : PictureFactory.getPictures(project)) {
+            writePicture(picture);
+        }
+        for (StayPeriod stay : project.getStays()) {
+            writeStay(stay);
+        }
+        for (Frieze frieze : project.getFriezes()) {
+            writeFrieze(frieze);
+        }
+        for (PictureChronology pictureChronology : project.getPictureChronologies()) {
+            writePictureChronology(pictureChronology);
+        }
+        //
+        var header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC);
+        header.putInt(FORMAT_VERSION);
+        header.putLong(projectFile.length());
+        header.putLong(projectFile.lastModified());
+        header.putInt(projectName);
+        header.putInt(portraitsFolder);
+        header.putInt(picturesFolder);
+        header.putInt(miniaturesFolder);
+        var sectionOffset = HEADER_SIZE;
+        for (Section section : Section.values()) {
+            var sectionBuffer = sections.get(section);
+            header.putInt(sectionOffset);
+            header.putInt(section == Section.DATA ? sectionBuffer.size() : sectionBuffer.count);
+            sectionOffset += sectionBuffer.size();
+        }
+        header.flip();
+        //
+        var tmpFile = File.createTempFile(binaryFile.getName(), ".tmp", binaryFile.getAbsoluteFile().getParentFile());
+        try {
+            try (var channel = FileChannel.open(tmpFile.toPath(), StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                channel.write(header);
+                for (Section section : Section.values()) {
+                    var content = ByteBuffer.wrap(sections.get(section).bytes.toByteArray());
+                    while (content.hasRemaining()) {
+                        channel.write(content);
+                    }
+                }
+            }
+            Files.move(tmpFile.toPath(), binaryFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmpFile.toPath());
+        }
+    }
+
+    private void writePlace(Place place, int parentIndex) throws IOException {
+        var index = sections.get(Section.PLACES).count;
+        var out = record(Section.PLACES);
+        out.writeLong(place.getId());
+        out.writeInt(string(place.getName()));
+        out.writeInt(string(place.getLevel().name()));
+        out.writeInt(rgba(place.getColor()));
+        out.writeInt(parentIndex);
+        for (Place subPlace : place.getPlaces()) {
+            writePlace(subPlace, index);
+        }
+    }
+
+    private void writePerson(Person person) throws IOException {
+        var firstPortrait = sections.get(Section.PORTRAITS).count;
+        for (var portrait : person.getPortraits()) {
+            var out = record(Section.PORTRAITS);
+            out.writeLong(portrait.getId());
+            out.writeInt(string(portrait.getProjectRelativePath()));
+            writeTime(out, portrait);
+        }
+        //
+        var flags = 0;
+        long birth = 0;
+        long death = 0;
+        switch (person.getTimeFormat()) {
+            case LOCAL_TIME -> {
+                if (person.getDateOfBirth() != null) {
+                    flags |= HAS_BIRTH_FLAG;
+                    birth = person.getDateOfBirth().toEpochDay();
+                }
+                if (person.getDateOfDeath() != null) {
+                    flags |= HAS_DEATH_FLAG;
+                    death = person.getDateOfDeath().toEpochDay();
+                }
+            }
+            case TIME_MIN -> {
+                flags |= HAS_BIRTH_FLAG | HAS_DEATH_FLAG;
+                birth = person.getTimeOfBirth();
+                death = person.getTimeOfDeath();
+            }
+            default ->
+                throw new UnsupportedOperationException("Unsupported timefomat : " + person.getTimeFormat());
+        }
+        if (person.getDefaultPortrait() != null) {
+            flags |= HAS_DEFAULT_PORTRAIT_FLAG;
+        }
+        var out = record(Section.PERSONS);
+        out.writeLong(person.getId());
+        out.writeInt(string(person.getName()));
+        out.writeInt(rgba(person.getColor()));
+        out.writeInt(string(person.getTimeFormat().name()));
+        out.writeByte(flags);
+        out.writeLong(birth);
+        out.writeLong(death);
+        out.writeLong(person.getDefaultPortrait() != null ? person.getDefaultPortrait().getId() : Long.MIN_VALUE);
+        out.writeInt(firstPortrait);
+        out.writeInt(person.getPortraits().size());
+    }
+
+    private void writeTime(DataOutputStream out, IDateObject aDateObject) throws IOException {
+        out.writeInt(string(aDateObject.getTimeFormat().name()));
+        switch (aDateObject.getTimeFormat()) {
+            case LOCAL_TIME -> {
+                out.writeBoolean(aDateObject.getDate() != null);
+                out.writeLong(aDateObject.getDate() != null ? aDateObject.getDate().toEpochDay() : 0);
+            }
+            case TIME_MIN -> {
+                out.writeBoolean(true);
+                out.writeLong(Double.doubleToLongBits(aDateObject.getTimestamp()));
+            }
+            default ->
+                throw new UnsupportedOperationException("Unsupported timefomat : " + aDateObject.getTimeFormat());
+        }
+    }
+
+    private static void writeNoTime(DataOutputStream out) throws IOException {
+        out.writeInt(NO_STRING);
+        out.writeBoolean(false);
+        out.writeLong(0);
+    }
+
+    private void writePicture(Picture picture) throws IOException {
+        var refsOffset = data(out -> {
+            writeIds(out, picture.getPersons().stream().mapToLong(Person::getId).toArray());
+            writeIds(out, picture.getPlaces().stream().mapToLong(Place::getId).toArray());
+        });
+        var out = record(Section.PICTURES);
+        out.writeLong(picture.getId());
+        out.writeInt(string(picture.getName()));
+        out.writeInt(string(picture.getProjectRelativePath()));
+        out.writeInt((int) picture.getWidth());
+        out.writeInt((int) picture.getHeight());
+        writeTime(out, picture);
+        out.writeInt(refsOffset);
+    }
+
+    private void writeStay(StayPeriod stay) throws IOException {
+        var out = record(Section.STAYS);
+        out.writeLong(stay.getId());
+        out.writeLong(stay.getPerson().getId());
+        out.writeLong(stay.getPlace().getId());
+        out.writeInt(string(stay.getTimeFormat().name()));
+        out.writeDouble(stay.getStartDate());
+        out.writeDouble(stay.getEndDate());
+    }
+
+    private void writeFrieze(Frieze frieze) throws IOException {
+        var stayRefsOffset = data(out -> writeIds(out, frieze.getStayPeriods().stream().mapToLong(StayPeriod::getId).toArray()));
+        var firstFreeMap = sections.get(Section.FREEMAPS).count;
+        List<FriezeFreeMap> freeMaps = frieze.getFriezeFreeMaps();
+        for (FriezeFreeMap freeMap : freeMaps) {
+            writeFreeMap(freeMap);
+        }
+        var out = record(Section.FRIEZES);
+        out.writeLong(frieze.getId());
+        out.writeInt(string(frieze.getName()));
+        out.writeInt(stayRefsOffset);
+        out.writeInt(firstFreeMap);
+        out.writeInt(freeMaps.size());
+    }
+
+    private void writeFreeMap(FriezeFreeMap freeMap) throws IOException {
+        var firstPortrait = sections.get(Section.FREEMAP_PORTRAITS).count;
+        for (FreeMapPortrait portrait : freeMap.getPortraits()) {
+            var out = record(Section.FREEMAP_PORTRAITS);
+            out.writeLong(portrait.getPerson().getId());
+            out.writeDouble(portrait.getX());
+            out.writeDouble(portrait.getY());
+            out.writeDouble(portrait.getRadius());
+        }
+        var firstPlace = sections.get(Section.FREEMAP_PLACES).count;
+        for (FreeMapPlace place : freeMap.getPlaces()) {
+            var out = record(Section.FREEMAP_PLACES);
+            out.writeLong(place.getPlace().getId());
+            out.writeDouble(place.getYPos());
+            out.writeDouble(place.getHeight());
+        }
+        var firstPlot = sections.get(Section.PLOTS).count;
+        for (Plot plot : freeMap.getPlots()) {
+            var out = record(Section.PLOTS);
+            out.writeLong(plot.getParentPeriodID());
+            out.writeInt(string(plot.getType().name()));
+            out.writeDouble(plot.getX());
+            out.writeDouble(plot.getY());
+        }
+        var out = record(Section.FREEMAPS);
+        out.writeLong(freeMap.getId());
+        out.writeInt(string(freeMap.getName()));
+        out.writeDouble(freeMap.getFreeMapWidth());
+        out.writeDouble(freeMap.getFreeMapHeight());
+        out.writeDouble(freeMap.getPersonWidth());
+        out.writeDouble(freeMap.getPlaceNamesWidth());
+        out.writeDouble(freeMap.getFontSize());
+        out.writeDouble(freeMap.getPlotSeparation());
+        out.writeDouble(freeMap.getPlotSize());
+        out.writeBoolean(freeMap.getPlotVisibility());
+        out.writeInt(firstPortrait);
+        out.writeInt(sections.get(Section.FREEMAP_PORTRAITS).count - firstPortrait);
+        out.writeInt(firstPlace);
+        out.writeInt(sections.get(Section.FREEMAP_PLACES).count - firstPlace);
+        out.writeInt(firstPlot);
+        out.writeInt(sections.get(Section.PLOTS).count - firstPlot);
+    }
+
+    private void writePictureChronology(PictureChronology pictureChronology) throws IOException {
+        var firstMiniature = sections.get(Section.MINIATURES).count;
+        for (ChronologyPictureMiniature miniature : pictureChronology.getChronologyPictures()) {
+            var out = record(Section.MINIATURES);
+            out.writeLong(miniature.getId());
+            out.writeLong(miniature.getPicture().getId());
+            out.writeDouble(miniature.getPosition().getX());
+            out.writeDouble(miniature.getPosition().getY());
+            out.writeDouble(miniature.getScale());
+            if (miniature.isInSyncWithPicture()) {
+                writeNoTime(out);
+            } else {
+                writeTime(out, miniature.getDateObject());
+            }
+        }
+        var firstLink = sections.get(Section.CHRONOLOGY_LINKS).count;
+        for (ChronologyLink link : pictureChronology.getLinks()) {
+            var parameters = link.getLinkParameters();
+            var parametersOffset = data(out -> {
+                writeVarint(out, parameters.length);
+                for (double parameter : parameters) {
+                    out.writeDouble(parameter);
+                }
+            });
+            var out = record(Section.CHRONOLOGY_LINKS);
+            out.writeLong(link.getId());
+            out.writeInt(string(link.getLinkType().name()));
+            out.writeLong(link.getStartMiniature().getId());
+            out.writeLong(link.getEndMiniature().getId());
+            out.writeLong(link.getPerson().getId());
+            out.writeInt(parametersOffset);
+        }
+        var out = record(Section.CHRONOLOGIES);
+        out.writeLong(pictureChronology.getId());
+        out.writeInt(string(pictureChronology.getName()));
+        out.writeDouble(pictureChronology.getWidth());
+        out.writeDouble(pictureChronology.getHeight());
+        out.writeInt(firstMiniature);
+        out.writeInt(sections.get(Section.MINIATURES).count - firstMiniature);
+        out.writeInt(firstLink);
+        out.writeInt(sections.get(Section.CHRONOLOGY_LINKS).count - firstLink);
+    }
+
+    //
+    // section helpers
+    //
+    private DataOutputStream record(Section section) {
+        var sectionBuffer = sections.get(section);
+        sectionBuffer.count++;
+        return sectionBuffer.out;
+    }
+
+    private int data(DataWriter writer) throws IOException {
+        var dataBuffer = sections.get(Section.DATA);
+        var offset = dataBuffer.size();
+        writer.write(dataBuffer.out);
+        return offset;
+    }
+
+    private int string(String value) throws IOException {
+        if (value == null) {
+            return NO_STRING;
+        }
+        var index = stringIndexes.get(value);
+        if (index == null) {
+            var bytes = value.getBytes(StandardCharsets.UTF_8);
+            var offset = data(out -> {
+                writeVarint(out, bytes.length);
+                out.write(bytes);
+            });
+            index = sections.get(Section.STRINGS).count;
+            record(Section.STRINGS).writeInt(offset);
+            stringIndexes.put(value, index);
+        }
+        return index;
+    }
+
+    private static int rgba(Color color) {
+        return (int) Math.round(color.getRed() * 255) << 24
+                | (int) Math.round(color.getGreen() * 255) << 16
+                | (int) Math.round(color.getBlue() * 255) << 8
+                | (int) Math.round(color.getOpacity() * 255);
+    }
+
+    @FunctionalInterface
+    private interface DataWriter {
+
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static final class SectionBuffer {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private int count = 0;
+
+        private int size() {
+            return bytes.size();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.save.journal;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Periodically folds the committed records of a {@link ProjectJournal} into
+ * its project file.
+ *
+ * A background thread checks the journal and compacts it once the journal
+ * grows over a size limit or once its oldest commit is older than a delay.
+ * The compaction runs on that thread: it only reads the saved files and never
+ * touches the project being edited.
+ *
+ * @author hamon
+ */
+public final class JournalCompactor {
+
+    public static final long DEFAULT_MAX_JOURNAL_SIZE = 4L * 1024 * 1024;
+    public static final long DEFAULT_COMPACTION_DELAY_MS = 60_000;
+
+    private static final Logger LOG = Logger.getGlobal();
+
+    private static final long CHECK_PERIOD_MS = 5_000;
+
+    private final ProjectJournal journal;
+    private final long maxJournalSize;
+    private final long compactionDelay;
+
+    private ScheduledExecutorService scheduler = null;
+
+    public JournalCompactor(ProjectJournal aJournal) {
+        this(aJournal, DEFAULT_MAX_JOURNAL_SIZE, DEFAULT_COMPACTION_DELAY_MS);
+    }
+
+    /**
+     *
+     * @param aJournal the journal to compact
+     * @param aMaxJournalSize the journal size in bytes over which it is
+     * compacted
+     * @param aCompactionDelay the delay in ms after which a commit is compacted
+     */
+    public JournalCompactor(ProjectJournal aJournal, long aMaxJournalSize, long aCompactionDelay) {
+        journal = aJournal;
+        maxJournalSize = aMaxJournalSize;
+        compactionDelay = aCompactionDelay;
+    }
+
+    public void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "JournalCompactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::checkJournal, CHECK_PERIOD_MS, CHECK_PERIOD_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     *
+     * @return true if the journal should be folded into a full save
+     */
+    public boolean isCompactionDue() {
+        var uncompactedSince = journal.getUncompactedSince();
+        if (uncompactedSince < 0) {
+            return false;
+        }
+        return journal.getJournalSize() >= maxJournalSize
+                || System.currentTimeMillis() - uncompactedSince >= compactionDelay;
+    }
+
+    private void checkJournal() {
+        if (isCompactionDue()) {
+            LOG.log(Level.FINE, "Compacting {0}", new Object[]{journal.getJournalFile()});
+            journal.compact();
+        }
+    }
+}
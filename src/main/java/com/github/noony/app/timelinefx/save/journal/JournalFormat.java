@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.save.journal;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Layout of the project journal.
+ *
+ * The file starts with the magic number and the format version, followed by
+ * the records. Each record is written as its payload length (int), the CRC32
+ * of its payload (int) and the payload, which starts with the code of its
+ * {@link RecordType}. A record whose length or checksum does not match was
+ * not completely written and ends the journal.
+ *
+ * Records hold the whole state of the object they describe rather than the
+ * change itself, so that replaying a record already folded into the snapshot
+ * leaves the project unchanged.
+ *
+ * @author hamon
+ */
+final class JournalFormat {
+
+    static final int MAGIC = 0x544C464A; // TLFJ
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int RECORD_HEADER_SIZE = 8;
+
+    static final long NO_ID = -1;
+
+    enum RecordType {
+        /**
+         * id, name, level, color, parent id.
+         */
+        PLACE(1),
+        /**
+         * id, name, color, default portrait id, default portrait path (if it
+         * has a default portrait).
+         */
+        PERSON(2),
+        /**
+         * id, person id, place id, time format, start (double), end (double).
+         */
+        STAY(3),
+        /**
+         * id, name, stay ids.
+         */
+        FRIEZE(4),
+        /**
+         * id, name.
+         */
+        FRIEZE_NAME(5),
+        /**
+         * frieze id, stay ids.
+         */
+        FRIEZE_STAYS_ADDED(6),
+        /**
+         * frieze id, stay ids.
+         */
+        FRIEZE_STAYS_REMOVED(7),
+        /**
+         * id.
+         */
+        STAY_REMOVED(8),
+        /**
+         * id.
+         */
+        PERSON_REMOVED(9),
+        /**
+         * id.
+         */
+        PLACE_REMOVED(10);
+
+        private final int code;
+
+        RecordType(int aCode) {
+            code = aCode;
+        }
+
+        int getCode() {
+            return code;
+        }
+
+        static RecordType fromCode(int code) {
+            for (RecordType type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new UnsupportedOperationException("Unknown journal record type : " + code);
+        }
+    }
+
+    private JournalFormat() {
+        // private utility constructor
+    }
+
+    static void writeIds(DataOutputStream out, long[] ids) throws IOException {
+        out.writeInt(ids.length);
+        for (long id : ids) {
+            out.writeLong(id);
+        }
+    }
+
+    static long[] readIds(DataInputStream in) throws IOException {
+        var ids = new long[in.readInt()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = in.readLong();
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.save.journal;
+
+import com.github.noony.app.timelinefx.core.Frieze;
+import com.github.noony.app.timelinefx.core.FriezeFactory;
+import com.github.noony.app.timelinefx.core.PersonFactory;
+import com.github.noony.app.timelinefx.core.PlaceFactory;
+import com.github.noony.app.timelinefx.core.PlaceLevel;
+import com.github.noony.app.timelinefx.core.PortraitFactory;
+import com.github.noony.app.timelinefx.core.StayFactory;
+import com.github.noony.app.timelinefx.core.StayPeriod;
+import com.github.noony.app.timelinefx.core.StayPeriodLocalDate;
+import com.github.noony.app.timelinefx.core.StayPeriodSimpleTime;
+import com.github.noony.app.timelinefx.core.TimeFormat;
+import com.github.noony.app.timelinefx.core.TimeLineProject;
+import com.github.noony.app.timelinefx.save.journal.JournalFormat.RecordType;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import javafx.scene.paint.Color;
+
+/**
+ * Applies the records of a journal to a project.
+ *
+ * Records are applied in the order they were written. An incomplete record at
+ * the end of the journal, left by an interrupted commit, is dropped and the
+ * journal file is truncated before it so that the next commits follow the
+ * last complete record.
+ *
+ * @author hamon
+ */
+final class JournalReplayer {
+
+    private static final Logger LOG = Logger.getGlobal();
+
+    private final TimeLineProject project;
+
+    JournalReplayer(TimeLineProject aProject) {
+        project = aProject;
+    }
+
+    int replay(File journalFile) throws IOException {
+        var content = ByteBuffer.wrap(Files.readAllBytes(journalFile.toPath()));
+        List<byte[]> payloads = new ArrayList<>();
+        var validEnd = readRecords(journalFile, content, payloads);
+        if (validEnd < content.limit()) {
+            LOG.log(Level.WARNING, "Dropping the {0} bytes of incomplete records at the end of {1}", new Object[]{content.limit() - validEnd, journalFile});
+            truncate(journalFile, validEnd);
+        }
+        return apply(journalFile, payloads);
+    }
+
+    /**
+     * Replays the records committed in the first bytes of the journal. The
+     * journal file is left untouched since commits may still be appended to
+     * it.
+     *
+     * @param journalFile the journal file
+     * @param committedSize the size of the journal when it was last committed
+     * @return the number of records replayed
+     * @throws IOException if the journal could not be read
+     */
+    int replay(File journalFile, long committedSize) throws IOException {
+        var content = ByteBuffer.allocate((int) committedSize);
+        try (var channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.READ)) {
+            while (content.hasRemaining() && channel.read(content) >= 0) {
+                // reads up to the committed size
+            }
+        }
+        content.flip();
+        List<byte[]> payloads = new ArrayList<>();
+        var validEnd = readRecords(journalFile, content, payloads);
+        if (validEnd < content.limit()) {
+            throw new IOException("Committed records of " + journalFile + " end at " + validEnd + " instead of " + content.limit());
+        }
+        return apply(journalFile, payloads);
+    }
+
+    /**
+     * Reads the complete records of the journal content.
+     *
+     * @return the end of the last complete record, 0 if the journal has no
+     * complete header
+     */
+    private static int readRecords(File journalFile, ByteBuffer content, List<byte[]> payloads) throws IOException {
+        if (content.remaining() < JournalFormat.HEADER_SIZE) {
+            LOG.log(Level.WARNING, "Ignoring journal {0} without header", new Object[]{journalFile});
+            return 0;
+        }
+        var magic = content.getInt();
+        var version = content.getInt();
+        if (magic != JournalFormat.MAGIC || version != JournalFormat.FORMAT_VERSION) {
+            throw new IOException("Unsupported journal " + journalFile + " (magic=" + Integer.toHexString(magic) + " version=" + version + ")");
+        }
+        var crc = new CRC32();
+        var validEnd = content.position();
+        while (content.remaining() >= JournalFormat.RECORD_HEADER_SIZE) {
+            var length = content.getInt();
+            var checksum = content.getInt();
+            if (length <= 0 || length > content.remaining()) {
+                break;
+            }
+            var payload = new byte[length];
+            content.get(payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            payloads.add(payload);
+            validEnd = content.position();
+        }
+        return validEnd;
+    }
+
+    private int apply(File journalFile, List<byte[]> payloads) {
+        var startTime = System.nanoTime();
+        project.batch(() -> payloads.forEach(this::apply));
+        LOG.log(Level.INFO, "Replayed {0} records of {1} in {2} ms", new Object[]{payloads.size(), journalFile, (System.nanoTime() - startTime) / 1_000_000});
+        return payloads.size();
+    }
+
+    private void apply(byte[] payload) {
+        try (var in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            var type = RecordType.fromCode(in.readByte());
+            switch (type) {
+                case PLACE ->
+                    applyPlace(in);
+                case PERSON ->
+                    applyPerson(in);
+                case STAY ->
+                    applyStay(in);
+                case FRIEZE ->
+                    applyFrieze(in);
+                case FRIEZE_NAME -> {
+                    var frieze = getFrieze(in.readLong());
+                    var name = in.readUTF();
+                    if (frieze != null) {
+                        frieze.setName(name);
+                    }
+                }
+                case FRIEZE_STAYS_ADDED -> {
+                    var frieze = getFrieze(in.readLong());
+                    var stays = getStays(JournalFormat.readIds(in));
+                    if (frieze != null) {
+                        frieze.addStayPeriods(stays);
+                    }
+                }
+                case FRIEZE_STAYS_REMOVED -> {
+                    var frieze = getFrieze(in.readLong());
+                    var stays = getStays(JournalFormat.readIds(in));
+                    if (frieze != null) {
+                        stays.forEach(frieze::removeStay);
+                    }
+                }
+                case STAY_REMOVED -> {
+                    var stay = StayFactory.getStay(project, in.readLong());
+                    if (stay != null) {
+                        project.removeStay(stay);
+                    }
+                }
+                case PERSON_REMOVED -> {
+                    var person = PersonFactory.getPerson(project, in.readLong());
+                    if (person != null) {
+                        project.removePerson(person);
+                    }
+                }
+                case PLACE_REMOVED -> {
+                    var place = PlaceFactory.getPlace(project, in.readLong());
+                    if (place != null) {
+                        project.removePlace(place);
+                    }
+                }
+                default ->
+                    throw new UnsupportedOperationException("Unsupported journal record : " + type);
+            }
+        } catch (IOException ex) {
+            // the checksum matched, the record was written by another version
+            LOG.log(Level.SEVERE, "Could not read journal record :: {0}", new Object[]{ex});
+        }
+    }
+
+    private void applyPlace(DataInputStream in) throws IOException {
+        var id = in.readLong();
+        var name = in.readUTF();
+        var level = PlaceLevel.valueOf(in.readUTF());
+        var color = Color.valueOf(in.readUTF());
+        var parentId = in.readLong();
+        var parent = parentId == JournalFormat.NO_ID ? null : PlaceFactory.getPlace(project, parentId);
+        var place = PlaceFactory.getPlace(project, id);
+        if (place == null) {
+            place = PlaceFactory.createPlace(project, id, name, level, parent, color);
+        } else {
+            place.setName(name);
+            place.setLevel(level);
+            place.setColor(color);
+            var trueParent = parent != null ? parent : PlaceFactory.PLACES_PLACE;
+            if (place.getParent() != trueParent) {
+                place.setParent(trueParent);
+            }
+        }
+        project.addPlace(place);
+    }
+
+    private void applyPerson(DataInputStream in) throws IOException {
+        var id = in.readLong();
+        var name = in.readUTF();
+        var color = Color.valueOf(in.readUTF());
+        var portraitId = in.readLong();
+        var portraitPath = portraitId != JournalFormat.NO_ID ? in.readUTF() : null;
+        var person = PersonFactory.getPerson(project, id);
+        var newPerson = person == null;
+        if (newPerson) {
+            person = PersonFactory.createPerson(project, id, name, color);
+        } else {
+            person.setName(name);
+            person.setColor(color);
+        }
+        if (portraitPath != null) {
+            // the default portrait is needed before the person is displayed
+            var portrait = PortraitFactory.getPortrait(project, portraitId);
+            person.setDefaultPortrait(portrait != null ? portrait : PortraitFactory.createPortrait(portraitId, person, portraitPath));
+        }
+        if (newPerson) {
+            // as when loading, the friezes get the stays of the person with the stay records
+            project.addAll(List.of(), List.of(person), List.of());
+        }
+    }
+
+    private void applyStay(DataInputStream in) throws IOException {
+        var id = in.readLong();
+        var person = PersonFactory.getPerson(project, in.readLong());
+        var place = PlaceFactory.getPlace(project, in.readLong());
+        var timeFormat = TimeFormat.valueOf(in.readUTF());
+        var start = in.readDouble();
+        var end = in.readDouble();
+        if (person == null || place == null) {
+            LOG.log(Level.WARNING, "Skipping journaled stay {0} with unknown person or place", new Object[]{id});
+            return;
+        }
+        var stay = StayFactory.getStay(project, id);
+        if (stay == null) {
+            stay = switch (timeFormat) {
+                case LOCAL_TIME ->
+                    StayFactory.createStayPeriodLocalDate(id, person, LocalDate.ofEpochDay((long) start), LocalDate.ofEpochDay((long) end), place);
+                case TIME_MIN ->
+                    StayFactory.createStayPeriodSimpleTime(id, person, start, end, place);
+                default ->
+                    throw new UnsupportedOperationException("Unknown time format : " + timeFormat);
+            };
+            project.addStay(stay);
+            return;
+        }
+        stay.setPerson(person);
+        stay.setPlace(place);
+        if (stay instanceof StayPeriodLocalDate localDateStay) {
+            localDateStay.setStartDate(LocalDate.ofEpochDay((long) start));
+            localDateStay.setEndDate(LocalDate.ofEpochDay((long) end));
+        } else if (stay instanceof StayPeriodSimpleTime simpleTimeStay) {
+            simpleTimeStay.setStartDate(start);
+            simpleTimeStay.setEndDate(end);
+        } else {
+            throw new UnsupportedOperationException("Unknown stay type : " + stay.getClass());
+        }
+    }
+
+    private void applyFrieze(DataInputStream in) throws IOException {
+        var id = in.readLong();
+        var name = in.readUTF();
+        var stays = getStays(JournalFormat.readIds(in));
+        var frieze = getFrieze(id);
+        if (frieze == null) {
+            FriezeFactory.createFrieze(id, project, name, stays);
+        } else {
+            frieze.setName(name);
+            frieze.addStayPeriods(stays);
+        }
+    }
+
+    private Frieze getFrieze(long id) {
+        var frieze = FriezeFactory.getFrieze(project, id);
+        if (frieze == null) {
+            LOG.log(Level.WARNING, "Skipping journaled change of unknown frieze {0}", new Object[]{id});
+        }
+        return frieze;
+    }
+
+    private List<StayPeriod> getStays(long[] ids) {
+        List<StayPeriod> stays = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            var stay = StayFactory.getStay(project, id);
+            if (stay != null) {
+                stays.add(stay);
+            }
+        }
+        return stays;
+    }
+
+    private static void truncate(File journalFile, long size) throws IOException {
+        try (var channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+        }
+    }
+}
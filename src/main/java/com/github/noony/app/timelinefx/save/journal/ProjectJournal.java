@@ -0,0 +1,733 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.save.journal;
+
+import com.github.noony.app.timelinefx.core.BatchContent;
+import com.github.noony.app.timelinefx.core.Frieze;
+import com.github.noony.app.timelinefx.core.Person;
+import com.github.noony.app.timelinefx.core.Place;
+import com.github.noony.app.timelinefx.core.StayPeriod;
+import com.github.noony.app.timelinefx.core.TimeLineProject;
+import com.github.noony.app.timelinefx.save.XMLHandler;
+import com.github.noony.app.timelinefx.save.journal.JournalFormat.RecordType;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of the changes made to a project since its last full
+ * save.
+ *
+ * The journal listens to the change events of the project, of its friezes and
+ * of its stays, and keeps track of the places, persons, stays and frieze
+ * contents that changed. {@link #commit()} appends them to the journal file
+ * next to the project file, so that a save costs as much as the changes made
+ * since the previous one. {@link #compact()} folds the committed records into
+ * the project file and drops them from the journal; it is triggered by a
+ * {@link JournalCompactor}.
+ *
+ * Layouts (free maps, picture chronologies), pictures, person dates and extra
+ * portraits are not journaled: {@link #save()} saves the whole project when
+ * they changed. When a project is loaded, its journal is replayed over the
+ * saved file, see {@link #replay(TimeLineProject, File)}.
+ *
+ * The journal is not thread safe, it must be used from the thread modifying
+ * the project, except {@link #compact()} which only reads the files and may
+ * run on any thread.
+ *
+ * @author hamon
+ */
+public final class ProjectJournal {
+
+    public static final String JOURNAL_FILE_EXTENSION = ".tlfxj";
+
+    private static final Logger LOG = Logger.getGlobal();
+
+    private final TimeLineProject project;
+    private final File projectFile;
+    private final File journalFile;
+    //
+    private final PropertyChangeListener projectListener = this::handleProjectChanges;
+    private final PropertyChangeListener friezeListener = this::handleFriezeChanges;
+    private final PropertyChangeListener stayListener = this::handleStayChanges;
+    private final PropertyChangeListener personListener = this::handlePersonChanges;
+    private final PropertyChangeListener placeListener = this::handlePlaceChanges;
+    //
+    private final Set<Place> listenedPlaces = new HashSet<>();
+    private final Set<Frieze> knownFriezes = new HashSet<>();
+    private final UnjournaledChanges unjournaledChanges;
+    // pending changes
+    private final Map<Long, Place> changedPlaces = new LinkedHashMap<>();
+    private final Map<Long, Person> changedPersons = new LinkedHashMap<>();
+    private final Map<Long, StayPeriod> changedStays = new LinkedHashMap<>();
+    private final Set<Frieze> createdFriezes = new LinkedHashSet<>();
+    private final Set<Frieze> renamedFriezes = new LinkedHashSet<>();
+    private final Map<Frieze, Set<StayPeriod>> addedFriezeStays = new LinkedHashMap<>();
+    private final Map<Frieze, Set<StayPeriod>> removedFriezeStays = new LinkedHashMap<>();
+    private final Set<Long> removedStays = new LinkedHashSet<>();
+    private final Set<Long> removedPersons = new LinkedHashSet<>();
+    private final Set<Long> removedPlaces = new LinkedHashSet<>();
+    //
+    private final ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream();
+    private final DataOutputStream payload = new DataOutputStream(payloadBytes);
+    private final CRC32 crc = new CRC32();
+    // guards the project and journal files against the compactor thread
+    private final Object fileLock = new Object();
+    private long saveCount = 0;
+    // read by the compactor thread
+    private volatile long journalSize;
+    private volatile long uncompactedSince;
+    private volatile boolean closed = false;
+
+    /**
+     * Starts journaling the changes of the project. The journal file of the
+     * project may already hold the changes replayed when it was loaded.
+     *
+     * @param aProject the project to journal
+     */
+    public ProjectJournal(TimeLineProject aProject) {
+        project = aProject;
+        projectFile = project.getTimelineFile();
+        journalFile = getJournalFile(projectFile);
+        journalSize = journalFile.isFile() ? journalFile.length() : 0;
+        uncompactedSince = journalSize > 0 ? System.currentTimeMillis() : -1;
+        //
+        project.addListener(projectListener);
+        project.getAllPlaces().forEach(this::listenToPlace);
+        project.getPersons().forEach(p -> p.addPropertyChangeListener(personListener));
+        project.getStays().forEach(s -> s.addListener(stayListener));
+        project.getFriezes().forEach(this::listenToFrieze);
+        unjournaledChanges = new UnjournaledChanges(project);
+    }
+
+    /**
+     *
+     * @param projectFile the project file
+     * @return the journal file of the project file, which may not exist
+     */
+    public static File getJournalFile(File projectFile) {
+        var name = projectFile.getName();
+        var extensionIndex = name.lastIndexOf('.');
+        var baseName = extensionIndex > 0 ? name.substring(0, extensionIndex) : name;
+        return new File(projectFile.getAbsoluteFile().getParentFile(), baseName + JOURNAL_FILE_EXTENSION);
+    }
+
+    /**
+     * Replays the journal of the project file, if any, over the project that
+     * was loaded from it.
+     *
+     * @param project the project loaded from the project file
+     * @param projectFile the project file
+     * @return the number of records replayed
+     */
+    public static int replay(TimeLineProject project, File projectFile) {
+        var file = getJournalFile(projectFile);
+        if (!file.isFile()) {
+            return 0;
+        }
+        try {
+            return new JournalReplayer(project).replay(file);
+        } catch (IOException ex) {
+            LOG.log(Level.SEVERE, "Exception while replaying journal {0} :: {1}", new Object[]{file, ex});
+            return 0;
+        }
+    }
+
+    public File getJournalFile() {
+        return journalFile;
+    }
+
+    /**
+     *
+     * @return the size in bytes of the journal file
+     */
+    public long getJournalSize() {
+        return journalSize;
+    }
+
+    /**
+     *
+     * @return the time of the first commit that was not compacted yet, -1 if
+     * everything committed is compacted
+     */
+    public long getUncompactedSince() {
+        return uncompactedSince;
+    }
+
+    /**
+     * Saves the changes made since the previous save: they are committed to
+     * the journal, unless some of them cannot be journaled, in which case the
+     * whole project is saved.
+     *
+     * @return true if the changes were saved
+     */
+    public boolean save() {
+        if (closed) {
+            throw new IllegalStateException("Journal of " + projectFile + " is closed");
+        }
+        unjournaledChanges.discover();
+        if (unjournaledChanges.hasChanges()) {
+            return saveProject();
+        }
+        try {
+            commit();
+            return true;
+        } catch (IOException ex) {
+            LOG.log(Level.WARNING, "Could not commit journal {0}, saving the whole project :: {1}", new Object[]{journalFile, ex});
+            return saveProject();
+        }
+    }
+
+    /**
+     * Appends the pending changes to the journal file and forces them to the
+     * disk. A project that was never saved is saved in full instead.
+     *
+     * @throws IOException if the journal file could not be written
+     */
+    public void commit() throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Journal of " + projectFile + " is closed");
+        }
+        if (!projectFile.isFile()) {
+            if (!saveProject()) {
+                throw new IOException("Could not save " + projectFile);
+            }
+            return;
+        }
+        discoverFriezes();
+        var records = new ByteArrayOutputStream();
+        var out = new DataOutputStream(records);
+        var nbRecords = writePendingChanges(out);
+        if (nbRecords > 0) {
+            append(records.toByteArray());
+        }
+        clearPendingChanges();
+        if (uncompactedSince < 0) {
+            uncompactedSince = System.currentTimeMillis();
+        }
+        LOG.log(Level.INFO, "Committed {0} records to {1} ({2} bytes)", new Object[]{nbRecords, journalFile, journalSize});
+    }
+
+    /**
+     * Folds the committed records into the project file and drops them from
+     * the journal.
+     *
+     * The project is rebuilt from the saved file and the committed records,
+     * never from the project being edited, so that changes that were not
+     * saved stay out of the project file. The rebuilt project is written to a
+     * temporary file which atomically replaces the project file; records
+     * committed in the meantime stay in the journal.
+     *
+     * @return true if the journal was compacted
+     */
+    public boolean compact() {
+        long committedSize;
+        long committedSaveCount;
+        synchronized (fileLock) {
+            if (closed || !projectFile.isFile()) {
+                return false;
+            }
+            committedSize = journalSize;
+            committedSaveCount = saveCount;
+            if (committedSize == 0) {
+                uncompactedSince = -1;
+                return true;
+            }
+        }
+        var startTime = System.nanoTime();
+        File tmpFile = null;
+        try {
+            var snapshot = XMLHandler.loadSavedFile(projectFile);
+            if (snapshot == null) {
+                throw new IOException("Could not load " + projectFile);
+            }
+            new JournalReplayer(snapshot).replay(journalFile, committedSize);
+            tmpFile = File.createTempFile(projectFile.getName(), ".tmp", projectFile.getAbsoluteFile().getParentFile());
+            if (!XMLHandler.write(snapshot, tmpFile, true)) {
+                throw new IOException("Could not write " + tmpFile);
+            }
+            synchronized (fileLock) {
+                if (saveCount != committedSaveCount) {
+                    // the whole project was saved meanwhile, the snapshot is outdated
+                    return false;
+                }
+                Files.move(tmpFile.toPath(), projectFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                dropRecords(committedSize);
+            }
+        } catch (IOException | RuntimeException ex) {
+            LOG.log(Level.WARNING, "Could not compact {0} :: {1}", new Object[]{journalFile, ex});
+            return false;
+        } finally {
+            if (tmpFile != null) {
+                try {
+                    Files.deleteIfExists(tmpFile.toPath());
+                } catch (IOException ex) {
+                    LOG.log(Level.WARNING, "Could not delete {0} :: {1}", new Object[]{tmpFile, ex});
+                }
+            }
+        }
+        LOG.log(Level.INFO, "Compacted {0} in {1} ms", new Object[]{journalFile, (System.nanoTime() - startTime) / 1_000_000});
+        return true;
+    }
+
+    /**
+     * Stops journaling. Committed changes stay in the journal file and are
+     * replayed when the project is loaded again.
+     */
+    public void close() {
+        closed = true;
+        unjournaledChanges.close();
+        project.removeListener(projectListener);
+        project.getPersons().forEach(p -> p.removePropertyChangeListener(personListener));
+        project.getStays().forEach(s -> s.removeListener(stayListener));
+        listenedPlaces.forEach(p -> p.removePropertyChangeListener(placeListener));
+        listenedPlaces.clear();
+        knownFriezes.forEach(f -> f.removeListener(friezeListener));
+        knownFriezes.clear();
+    }
+
+    /**
+     * Saves the whole project, which drops the journal.
+     *
+     * The pending changes are committed first so that a journal left over by
+     * an interrupted save replays to the saved state.
+     */
+    private boolean saveProject() {
+        if (closed) {
+            return false;
+        }
+        if (projectFile.isFile()) {
+            try {
+                commit();
+            } catch (IOException ex) {
+                LOG.log(Level.WARNING, "Exception while committing {0} before saving the project :: {1}", new Object[]{journalFile, ex});
+            }
+        }
+        var startTime = System.nanoTime();
+        synchronized (fileLock) {
+            if (!XMLHandler.save(project, projectFile)) {
+                return false;
+            }
+            saveCount++;
+            journalSize = 0;
+            uncompactedSince = -1;
+        }
+        discoverFriezes();
+        clearPendingChanges();
+        unjournaledChanges.discover();
+        unjournaledChanges.clear();
+        LOG.log(Level.INFO, "Saved {0} in {1} ms", new Object[]{projectFile, (System.nanoTime() - startTime) / 1_000_000});
+        return true;
+    }
+
+    //
+    // change tracking
+    //
+    private void handleProjectChanges(PropertyChangeEvent event) {
+        if (closed) {
+            return;
+        }
+        switch (event.getPropertyName()) {
+            case TimeLineProject.PLACE_ADDED ->
+                placeChanged((Place) event.getNewValue());
+            case TimeLineProject.PERSON_ADDED ->
+                personAdded((Person) event.getNewValue());
+            case TimeLineProject.STAY_ADDED ->
+                stayAdded((StayPeriod) event.getNewValue());
+            case TimeLineProject.BATCH_ADDED -> {
+                var content = (BatchContent) event.getNewValue();
+                content.getPlaces().forEach(this::placeChanged);
+                content.getPersons().forEach(this::personAdded);
+                content.getStays().forEach(this::stayAdded);
+            }
+            case TimeLineProject.PLACE_REMOVED -> {
+                var place = (Place) event.getNewValue();
+                changedPlaces.remove(place.getId());
+                removedPlaces.add(place.getId());
+            }
+            case TimeLineProject.PERSON_REMOVED -> {
+                var person = (Person) event.getNewValue();
+                person.removePropertyChangeListener(personListener);
+                changedPersons.remove(person.getId());
+                removedPersons.add(person.getId());
+            }
+            case TimeLineProject.STAY_REMOVED -> {
+                var stay = (StayPeriod) event.getNewValue();
+                stay.removeListener(stayListener);
+                changedStays.remove(stay.getId());
+                removedStays.add(stay.getId());
+            }
+            case TimeLineProject.HIGH_LEVEL_PLACE_ADDED -> {
+                // already journaled with PLACE_ADDED
+            }
+            default ->
+                LOG.log(Level.FINE, "{0} ignores {1}", new Object[]{getClass().getSimpleName(), event.getPropertyName()});
+        }
+    }
+
+    private void handleFriezeChanges(PropertyChangeEvent event) {
+        if (closed) {
+            return;
+        }
+        var frieze = (Frieze) event.getSource();
+        switch (event.getPropertyName()) {
+            case Frieze.NAME_CHANGED -> {
+                if (!createdFriezes.contains(frieze)) {
+                    renamedFriezes.add(frieze);
+                }
+            }
+            case Frieze.STAY_ADDED ->
+                friezeStayAdded(frieze, (StayPeriod) event.getNewValue());
+            case Frieze.BATCH_ADDED ->
+                ((BatchContent) event.getNewValue()).getStays().forEach(stay -> friezeStayAdded(frieze, stay));
+            case Frieze.STAY_REMOVED ->
+                friezeStayRemoved(frieze, (StayPeriod) event.getNewValue());
+            case Frieze.DATE_WINDOW_CHANGED,
+                    Frieze.STAY_UPDATED,
+                    Frieze.PERSON_ADDED,
+                    Frieze.PLACE_ADDED,
+                    Frieze.PERSON_REMOVED,
+                    Frieze.PLACE_REMOVED,
+                    Frieze.START_DATE_ADDED,
+                    Frieze.START_DATE_REMOVED,
+                    Frieze.END_DATE_ADDED,
+                    Frieze.END_DATE_REMOVED -> {
+                // derived from the stays of the frieze
+            }
+            default ->
+                LOG.log(Level.FINE, "{0} ignores {1}", new Object[]{getClass().getSimpleName(), event.getPropertyName()});
+        }
+    }
+
+    private void handleStayChanges(PropertyChangeEvent event) {
+        if (closed) {
+            return;
+        }
+        switch (event.getPropertyName()) {
+            case StayPeriod.PERSON_CHANGED,
+                    StayPeriod.PLACE_CHANGED,
+                    StayPeriod.START_DATE_CHANGED,
+                    StayPeriod.END_DATE_CHANGED -> {
+                var stay = (StayPeriod) event.getSource();
+                changedStays.put(stay.getId(), stay);
+            }
+            default ->
+                LOG.log(Level.FINE, "{0} ignores {1}", new Object[]{getClass().getSimpleName(), event.getPropertyName()});
+        }
+    }
+
+    private void handlePersonChanges(PropertyChangeEvent event) {
+        if (closed) {
+            return;
+        }
+        switch (event.getPropertyName()) {
+            case Person.NAME_CHANGED, Person.COLOR_CHANGED, Person.DEFAULT_PORTRAIT_CHANGED -> {
+                var person = (Person) event.getSource();
+                changedPersons.put(person.getId(), person);
+            }
+            default ->
+                // other portraits and dates are saved with the whole project
+                unjournaledChanges.personChanged(event);
+        }
+    }
+
+    private void handlePlaceChanges(PropertyChangeEvent event) {
+        if (closed) {
+            return;
+        }
+        switch (event.getPropertyName()) {
+            case Place.CONTENT_CHANGED -> {
+                var place = (Place) event.getNewValue();
+                if (!removedPlaces.contains(place.getId())) {
+                    changedPlaces.put(place.getId(), place);
+                }
+            }
+            case Place.SELECTION_CHANGED -> {
+                // not saved
+            }
+            default ->
+                LOG.log(Level.FINE, "{0} ignores {1}", new Object[]{getClass().getSimpleName(), event.getPropertyName()});
+        }
+    }
+
+    private void placeChanged(Place place) {
+        listenToPlace(place);
+        removedPlaces.remove(place.getId());
+        changedPlaces.put(place.getId(), place);
+    }
+
+    private void personAdded(Person person) {
+        person.addPropertyChangeListener(personListener);
+        removedPersons.remove(person.getId());
+        changedPersons.put(person.getId(), person);
+    }
+
+    private void stayAdded(StayPeriod stay) {
+        stay.addListener(stayListener);
+        removedStays.remove(stay.getId());
+        changedStays.put(stay.getId(), stay);
+    }
+
+    private void friezeStayAdded(Frieze frieze, StayPeriod stay) {
+        if (createdFriezes.contains(frieze)) {
+            return;
+        }
+        var removed = removedFriezeStays.get(frieze);
+        if (removed == null || !removed.remove(stay)) {
+            addedFriezeStays.computeIfAbsent(frieze, f -> new LinkedHashSet<>()).add(stay);
+        }
+    }
+
+    private void friezeStayRemoved(Frieze frieze, StayPeriod stay) {
+        if (createdFriezes.contains(frieze)) {
+            return;
+        }
+        var added = addedFriezeStays.get(frieze);
+        if (added == null || !added.remove(stay)) {
+            removedFriezeStays.computeIfAbsent(frieze, f -> new LinkedHashSet<>()).add(stay);
+        }
+    }
+
+    private void listenToPlace(Place place) {
+        if (listenedPlaces.add(place)) {
+            place.addPropertyChangeListener(placeListener);
+        }
+    }
+
+    private void listenToFrieze(Frieze frieze) {
+        if (knownFriezes.add(frieze)) {
+            frieze.addListener(friezeListener);
+        }
+    }
+
+    /**
+     * Friezes are added to the project without any event, new ones are looked
+     * for before writing the changes and journaled with their whole content.
+     */
+    private void discoverFriezes() {
+        for (Frieze frieze : project.getFriezes()) {
+            if (!knownFriezes.contains(frieze)) {
+                listenToFrieze(frieze);
+                createdFriezes.add(frieze);
+            }
+        }
+    }
+
+    private void clearPendingChanges() {
+        changedPlaces.clear();
+        changedPersons.clear();
+        changedStays.clear();
+        createdFriezes.clear();
+        renamedFriezes.clear();
+        addedFriezeStays.clear();
+        removedFriezeStays.clear();
+        removedStays.clear();
+        removedPersons.clear();
+        removedPlaces.clear();
+    }
+
+    //
+    // writing
+    //
+    private int writePendingChanges(DataOutputStream out) throws IOException {
+        var nbRecords = 0;
+        // parents first, so that replaying a place never misses its parent
+        List<Place> places = new ArrayList<>(changedPlaces.values());
+        places.sort(Comparator.comparingInt(ProjectJournal::depth));
+        for (Place place : places) {
+            startRecord(RecordType.PLACE);
+            payload.writeLong(place.getId());
+            payload.writeUTF(place.getName());
+            payload.writeUTF(place.getLevel().name());
+            payload.writeUTF(place.getColor().toString());
+            payload.writeLong(place.isRootPlace() ? JournalFormat.NO_ID : place.getParent().getId());
+            nbRecords += endRecord(out);
+        }
+        for (Person person : changedPersons.values()) {
+            startRecord(RecordType.PERSON);
+            payload.writeLong(person.getId());
+            payload.writeUTF(person.getName());
+            payload.writeUTF(person.getColor().toString());
+            var portrait = person.getDefaultPortrait();
+            payload.writeLong(portrait != null ? portrait.getId() : JournalFormat.NO_ID);
+            if (portrait != null) {
+                payload.writeUTF(portrait.getProjectRelativePath());
+            }
+            nbRecords += endRecord(out);
+        }
+        for (StayPeriod stay : changedStays.values()) {
+            startRecord(RecordType.STAY);
+            payload.writeLong(stay.getId());
+            payload.writeLong(stay.getPerson().getId());
+            payload.writeLong(stay.getPlace().getId());
+            payload.writeUTF(stay.getTimeFormat().name());
+            payload.writeDouble(stay.getStartDate());
+            payload.writeDouble(stay.getEndDate());
+            nbRecords += endRecord(out);
+        }
+        for (Frieze frieze : createdFriezes) {
+            startRecord(RecordType.FRIEZE);
+            payload.writeLong(frieze.getId());
+            payload.writeUTF(frieze.getName());
+            JournalFormat.writeIds(payload, ids(frieze.getStayPeriods()));
+            nbRecords += endRecord(out);
+        }
+        for (Frieze frieze : renamedFriezes) {
+            startRecord(RecordType.FRIEZE_NAME);
+            payload.writeLong(frieze.getId());
+            payload.writeUTF(frieze.getName());
+            nbRecords += endRecord(out);
+        }
+        nbRecords += writeFriezeStays(out, RecordType.FRIEZE_STAYS_ADDED, addedFriezeStays);
+        nbRecords += writeFriezeStays(out, RecordType.FRIEZE_STAYS_REMOVED, removedFriezeStays);
+        nbRecords += writeRemovals(out, RecordType.STAY_REMOVED, removedStays);
+        nbRecords += writeRemovals(out, RecordType.PERSON_REMOVED, removedPersons);
+        nbRecords += writeRemovals(out, RecordType.PLACE_REMOVED, removedPlaces);
+        return nbRecords;
+    }
+
+    private int writeFriezeStays(DataOutputStream out, RecordType type, Map<Frieze, Set<StayPeriod>> friezeStays) throws IOException {
+        var nbRecords = 0;
+        for (var entry : friezeStays.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                startRecord(type);
+                payload.writeLong(entry.getKey().getId());
+                JournalFormat.writeIds(payload, ids(entry.getValue()));
+                nbRecords += endRecord(out);
+            }
+        }
+        return nbRecords;
+    }
+
+    private int writeRemovals(DataOutputStream out, RecordType type, Set<Long> ids) throws IOException {
+        for (long id : ids) {
+            startRecord(type);
+            payload.writeLong(id);
+            endRecord(out);
+        }
+        return ids.size();
+    }
+
+    private void startRecord(RecordType type) throws IOException {
+        payloadBytes.reset();
+        payload.writeByte(type.getCode());
+    }
+
+    private int endRecord(DataOutputStream out) throws IOException {
+        payload.flush();
+        var bytes = payloadBytes.toByteArray();
+        crc.reset();
+        crc.update(bytes);
+        out.writeInt(bytes.length);
+        out.writeInt((int) crc.getValue());
+        out.write(bytes);
+        return 1;
+    }
+
+    private void append(byte[] records) throws IOException {
+        synchronized (fileLock) {
+            try (var channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                if (channel.size() < JournalFormat.HEADER_SIZE) {
+                    // new journal, or one whose header was not completely written
+                    channel.truncate(0);
+                    writeFully(channel, createHeader());
+                }
+                writeFully(channel, ByteBuffer.wrap(records));
+                channel.force(false);
+                journalSize = channel.size();
+            }
+        }
+    }
+
+    /**
+     * Drops the records folded into the project file. Replaying them again,
+     * should the journal not be replaced, leaves the project unchanged.
+     */
+    private void dropRecords(long foldedSize) throws IOException {
+        var remainingSize = journalSize - foldedSize;
+        if (remainingSize <= 0) {
+            Files.deleteIfExists(journalFile.toPath());
+            journalSize = 0;
+            uncompactedSince = -1;
+            return;
+        }
+        var tmpJournal = File.createTempFile(journalFile.getName(), ".tmp", journalFile.getAbsoluteFile().getParentFile());
+        try {
+            try (var source = FileChannel.open(journalFile.toPath(), StandardOpenOption.READ);
+                    var target = FileChannel.open(tmpJournal.toPath(), StandardOpenOption.WRITE)) {
+                writeFully(target, createHeader());
+                var position = foldedSize;
+                while (position < journalSize) {
+                    position += source.transferTo(position, journalSize - position, target);
+                }
+                target.force(false);
+                journalSize = target.size();
+            }
+            Files.move(tmpJournal.toPath(), journalFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmpJournal.toPath());
+        }
+        uncompactedSince = System.currentTimeMillis();
+    }
+
+    private static ByteBuffer createHeader() {
+        var header = ByteBuffer.allocate(JournalFormat.HEADER_SIZE);
+        header.putInt(JournalFormat.MAGIC);
+        header.putInt(JournalFormat.FORMAT_VERSION);
+        return header.flip();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static long[] ids(Collection<StayPeriod> stays) {
+        return stays.stream().mapToLong(StayPeriod::getId).toArray();
+    }
+
+    private static int depth(Place place) {
+        var depth = 0;
+        var current = place;
+        while (!current.isRootPlace()) {
+            current = current.getParent();
+            depth++;
+        }
+        return depth;
+    }
+}
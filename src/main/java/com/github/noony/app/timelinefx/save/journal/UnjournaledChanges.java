@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.save.journal;
+
+import com.github.noony.app.timelinefx.core.AbstractPicture;
+import com.github.noony.app.timelinefx.core.Frieze;
+import com.github.noony.app.timelinefx.core.Person;
+import com.github.noony.app.timelinefx.core.Picture;
+import com.github.noony.app.timelinefx.core.PictureFactory;
+import com.github.noony.app.timelinefx.core.PortraitFactory;
+import com.github.noony.app.timelinefx.core.TimeLineProject;
+import com.github.noony.app.timelinefx.core.freemap.DateHandle;
+import com.github.noony.app.timelinefx.core.freemap.FreeMapPlace;
+import com.github.noony.app.timelinefx.core.freemap.FreeMapPortrait;
+import com.github.noony.app.timelinefx.core.freemap.FriezeFreeMap;
+import com.github.noony.app.timelinefx.core.freemap.Selectable;
+import com.github.noony.app.timelinefx.core.picturechronology.ChronologyLink;
+import com.github.noony.app.timelinefx.core.picturechronology.ChronologyPictureMiniature;
+import com.github.noony.app.timelinefx.core.picturechronology.PictureChronology;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Tracks the changes of the state a {@link ProjectJournal} does not journal:
+ * free map layouts, picture chronologies, pictures, person dates and extra
+ * portraits.
+ *
+ * These changes are only saved with the whole project, the journal uses this
+ * tracker to know whether a save has to save the whole project. Free maps and picture chronologies
+ * are added to their frieze and project without any event, they are looked
+ * for by {@link #discover()}.
+ *
+ * @author hamon
+ */
+final class UnjournaledChanges {
+
+    private final TimeLineProject project;
+    //
+    private final PropertyChangeListener changeListener = this::handleChanges;
+    private final PropertyChangeListener pictureFactoryListener = this::handlePictureFactoryChanges;
+    //
+    private final Set<Object> listenedObjects = Collections.newSetFromMap(new IdentityHashMap<>());
+    private Set<Object> knownLayouts = Collections.newSetFromMap(new IdentityHashMap<>());
+    //
+    private boolean changed = false;
+    private boolean closed = false;
+
+    UnjournaledChanges(TimeLineProject aProject) {
+        project = aProject;
+        PictureFactory.getPictures(project).forEach(this::listenTo);
+        PortraitFactory.getPortraits(project).forEach(this::listenTo);
+        PictureFactory.addPropertyChangeListener(pictureFactoryListener);
+        discover();
+        changed = false;
+    }
+
+    /**
+     *
+     * @return true if some state that is not journaled changed since the
+     * last {@link #clear()}
+     */
+    boolean hasChanges() {
+        return changed;
+    }
+
+    void clear() {
+        changed = false;
+    }
+
+    void close() {
+        closed = true;
+        PictureFactory.removePropertyChangeListener(pictureFactoryListener);
+    }
+
+    /**
+     * Looks for the free maps and picture chronologies added or removed since
+     * the previous call.
+     */
+    void discover() {
+        Set<Object> layouts = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Frieze frieze : project.getFriezes()) {
+            layouts.addAll(frieze.getFriezeFreeMaps());
+        }
+        layouts.addAll(project.getPictureChronologies());
+        if (!knownLayouts.containsAll(layouts) || layouts.size() != knownLayouts.size()) {
+            changed = true;
+            layouts.forEach(this::listenTo);
+        }
+        knownLayouts = layouts;
+    }
+
+    /**
+     * Called by the journal for the person changes it does not journal.
+     *
+     * @param event the person change
+     */
+    void personChanged(PropertyChangeEvent event) {
+        switch (event.getPropertyName()) {
+            case Person.SELECTION_CHANGED, Person.VISIBILITY_CHANGED -> {
+                // not saved
+            }
+            default -> {
+                changed = true;
+                listenTo(event.getNewValue());
+            }
+        }
+    }
+
+    private void handleChanges(PropertyChangeEvent event) {
+        // free map portraits forward the events of their person
+        if (closed || event.getSource() instanceof Person) {
+            return;
+        }
+        switch (event.getPropertyName()) {
+            case Selectable.SELECTION_CHANGED -> {
+                // not saved
+            }
+            case FriezeFreeMap.FREE_MAP_PERSON_ADDED -> {
+                changed = true;
+                ((FriezeFreeMap) event.getSource()).getPortraits().forEach(this::listenTo);
+            }
+            default -> {
+                changed = true;
+                listenTo(event.getNewValue());
+            }
+        }
+    }
+
+    private void handlePictureFactoryChanges(PropertyChangeEvent event) {
+        if (closed) {
+            return;
+        }
+        switch (event.getPropertyName()) {
+            case PictureFactory.PICTURE_ADDED -> {
+                var picture = (Picture) event.getNewValue();
+                if (picture.getProject() == project) {
+                    changed = true;
+                    listenTo(picture);
+                }
+            }
+            default ->
+                throw new UnsupportedOperationException(this.getClass().getSimpleName() + " :: " + event);
+        }
+    }
+
+    /**
+     * Listens once to an object whose changes are saved with the whole project, and
+     * to the children it already has.
+     */
+    private void listenTo(Object object) {
+        if (object == null || !listenedObjects.add(object)) {
+            return;
+        }
+        if (object instanceof FriezeFreeMap freeMap) {
+            freeMap.addPropertyChangeListener(changeListener);
+            freeMap.getPlaces().forEach(this::listenTo);
+            freeMap.getStartDateHandles().forEach(this::listenTo);
+            freeMap.getEndDateHandles().forEach(this::listenTo);
+            freeMap.getPortraits().forEach(this::listenTo);
+        } else if (object instanceof FreeMapPlace place) {
+            place.addListener(changeListener);
+        } else if (object instanceof DateHandle dateHandle) {
+            dateHandle.addListener(changeListener);
+        } else if (object instanceof FreeMapPortrait portrait) {
+            portrait.addListener(changeListener);
+        } else if (object instanceof PictureChronology chronology) {
+            chronology.addListener(changeListener);
+            chronology.getChronologyPictures().forEach(this::listenTo);
+            chronology.getLinks().forEach(this::listenTo);
+        } else if (object instanceof ChronologyPictureMiniature miniature) {
+            miniature.addListener(changeListener);
+        } else if (object instanceof ChronologyLink link) {
+            link.addListener(changeListener);
+        } else if (object instanceof AbstractPicture picture) {
+            picture.addPropertyChangeListener(changeListener);
+        } else {
+            // not a saved layout object
+            listenedObjects.remove(object);
+        }
+    }
+}
@@ -151,7 +151,7 @@ public class TimeProjectProviderV1 implements TimelineProjectProvider {
             if (node instanceof Element element) {
                 switch (element.getTagName()) {
                     case PLACES_GROUP -> {
-                        List<Place> places = parsePlaces(element, null);
+                        List<Place> places = parsePlaces(element, null, project);
                         places.stream().filter(p -> p.getParent() == null).forEach(p -> project.addHighLevelPlace(p));
                     }
                     case PERSONS_GROUP -> {
@@ -161,7 +161,7 @@ public class TimeProjectProviderV1 implements TimelineProjectProvider {
                     case PICTURES_GROUP ->
                         parsePictures(element, project);
                     case STAYS_GROUP -> {
-                        List<StayPeriod> stays = parseStays(element);
+                        List<StayPeriod> stays = parseStays(element, project);
                         stays.forEach(s -> project.addStay(s));
                     }
                     case FRIEZES_GROUP -> {
@@ -196,7 +196,7 @@ public class TimeProjectProviderV1 implements TimelineProjectProvider {
             // save pictures
             Element picturesGroupElement = doc.createElement(PICTURES_GROUP);
             rootElement.appendChild(picturesGroupElement);
-            PictureFactory.getPictures().forEach(picture -> picturesGroupElement.appendChild(createPictureElement(doc, picture)));
+            PictureFactory.getPictures(project).forEach(picture -> picturesGroupElement.appendChild(createPictureElement(doc, picture)));
             // save stays
             Element staysGroupElement = doc.createElement(STAYS_GROUP);
             rootElement.appendChild(staysGroupElement);
@@ -222,27 +222,27 @@ public class TimeProjectProviderV1 implements TimelineProjectProvider {
         return true;
     }
 
-    private static List<Place> parsePlaces(Element placesRootElement, Place parentPlace) {
+    private static List<Place> parsePlaces(Element placesRootElement, Place parentPlace, TimeLineProject project) {
         List<Place> places = new LinkedList<>();
         NodeList placeElements = placesRootElement.getChildNodes();
         for (int i = 0; i < placeElements.getLength(); i++) {
             if (placeElements.item(i).getNodeName().equals(PLACE_ELEMENT)) {
                 Element e = (Element) placeElements.item(i);
-                Place p = parsePlace(e, parentPlace);
+                Place p = parsePlace(e, parentPlace, project);
                 places.add(p);
             }
         }
         return places;
     }
 
-    private static Place parsePlace(Element placeElement, Place parentPlace) {
+    private static Place parsePlace(Element placeElement, Place parentPlace, TimeLineProject project) {
         // <place color="0xf5deb3ff" id="1" level="GALAXY" name="Galaxy">
         Color color = Color.valueOf(placeElement.getAttribute(COLOR_ATR));
         long id = Long.parseLong(placeElement.getAttribute(ID_ATR));
         PlaceLevel level = PlaceLevel.valueOf(placeElement.getAttribute(PLACE_LEVEL_ATR));
         String name = placeElement.getAttribute(NAME_ATR);
-        Place place = PlaceFactory.createPlace(id, name, level, parentPlace, color);
-        parsePlaces(placeElement, place);
+        Place place = PlaceFactory.createPlace(project, id, name, level, parentPlace, color);
+        parsePlaces(placeElement, place, project);
         return place;
     }
 
@@ -301,13 +301,13 @@ public class TimeProjectProviderV1 implements TimelineProjectProvider {
                 case PERSON_REF_ELEMENT -> {
                     Element e = (Element) n;
                     long personID = Long.parseLong(e.getAttribute(ID_ATR));
-                    Person person = PersonFactory.getPerson(personID);
+                    Person person = PersonFactory.getPerson(project, personID);
                     picture.addPerson(person);
                 }
                 case PLACE_REF_ELEMENT -> {
                     Element e = (Element) n;
                     long placeID = Long.parseLong(e.getAttribute(ID_ATR));
-                    Place place = PlaceFactory.getPlace(placeID);
+                    Place place = PlaceFactory.getPlace(project, placeID);
                     picture.addPlace(place);
                 }
                 case "#text" ->
@@ -337,7 +337,7 @@ public class TimeProjectProviderV1 implements TimelineProjectProvider {
         var name = friezeElement.getAttribute(NAME_ATR);
         var id = Long.parseLong(friezeElement.getAttribute(ID_ATR));
         NodeList stayGroups = friezeElement.getElementsByTagName(STAYS_REF_GROUP);
-        List<StayPeriod> stays = parseStaysInFreize((Element) stayGroups.item(0));
+        List<StayPeriod> stays = parseStaysInFreize((Element) stayGroups.item(0), project);
         var frieze = FriezeFactory.createFrieze(id, project, name, stays);
         if (stayGroups.getLength() != 1) {
             throw new IllegalStateException("Wrong number of STAYS_GROUP : " + stayGroups.getLength());
@@ -352,16 +352,16 @@ public class TimeProjectProviderV1 implements TimelineProjectProvider {
         return frieze;
     }
 
-    private List<StayPeriod> parseStays(Element staysRootElement) {
+    private List<StayPeriod> parseStays(Element staysRootElement, TimeLineProject project) {
         List<StayPeriod> stayPeriods = new LinkedList<>();
         NodeList stayElements = staysRootElement.getChildNodes();
         for (int i = 0; i < stayElements.getLength(); i++) {
             if (stayElements.item(i).getNodeName().equals(STAY_ELEMENT)) {
                 Element e = (Element) stayElements.item(i);
                 if (e.getAttribute(TIME_FORMAT_ATR).equals(TimeFormat.LOCAL_TIME.name())) {
-                    stayPeriods.add(parseStayPeriodLocalTime(e));
+                    stayPeriods.add(parseStayPeriodLocalTime(e, project));
                 } else if (e.getAttribute(TIME_FORMAT_ATR).equals(TimeFormat.TIME_MIN.name())) {
-                    stayPeriods.add(parseStayPeriodSimpleTime(e));
+                    stayPeriods.add(parseStayPeriodSimpleTime(e, project));
                 } else {
                     throw new UnsupportedOperationException("Time format not recognized: " + e.getAttribute(TIME_FORMAT_ATR));
                 }
@@ -370,14 +370,14 @@ public class TimeProjectProviderV1 implements TimelineProjectProvider {
         return stayPeriods;
     }
 
-    private List<StayPeriod> parseStaysInFreize(Element staysRootElement) {
+    private List<StayPeriod> parseStaysInFreize(Element staysRootElement, TimeLineProject project) {
         List<StayPeriod> stayPeriods = new LinkedList<>();
         NodeList stayElements = staysRootElement.getChildNodes();
         for (int i = 0; i < stayElements.getLength(); i++) {
             if (stayElements.item(i).getNodeName().equals(STAY_ELEMENT_REF)) {
                 Element e = (Element) stayElements.item(i);
                 long id = Long.parseLong(e.getAttribute(ID_ATR));
-                var stay = StayFactory.getStay(id);
+                var stay = StayFactory.getStay(project, id);
                 if (stay == null) {
                     throw new UnsupportedOperationException("StayPerido reference does not exist " + id);
                 }
@@ -387,16 +387,16 @@ public class TimeProjectProviderV1 implements TimelineProjectProvider {
         return stayPeriods;
     }
 
-    private StayPeriodLocalDate parseStayPeriodLocalTime(Element stayElement) {
+    private StayPeriodLocalDate parseStayPeriodLocalTime(Element stayElement, TimeLineProject project) {
         // <stay endDate="20" id="1" person="5" startDate="0" timeFormat="LOCAL_TIME"/>
         long id = Long.parseLong(stayElement.getAttribute(ID_ATR));
         long personID = Long.parseLong(stayElement.getAttribute(PERSON_ATR));
-        Person person = PersonFactory.getPerson(personID);
+        Person person = PersonFactory.getPerson(project, personID);
         if (person == null) {
             throw new IllegalStateException();
         }
         long placeID = Long.parseLong(stayElement.getAttribute(PLACE_ID_ATR));
-        Place place = PlaceFactory.getPlace(placeID);
+        Place place = PlaceFactory.getPlace(project, placeID);
         if (place == null) {
             throw new IllegalStateException();
         }
@@ -410,16 +410,16 @@ public class TimeProjectProviderV1 implements TimelineProjectProvider {
         return stay;
     }
 
-    private StayPeriodSimpleTime parseStayPeriodSimpleTime(Element stayElement) {
+    private StayPeriodSimpleTime parseStayPeriodSimpleTime(Element stayElement, TimeLineProject project) {
         // <stay endDate="20" id="1" person="5" startDate="0" timeFormat="TIME_MIN"/>
         long id = Long.parseLong(stayElement.getAttribute(ID_ATR));
         long personID = Long.parseLong(stayElement.getAttribute(PERSON_ATR));
-        Person person = PersonFactory.getPerson(personID);
+        Person person = PersonFactory.getPerson(project, personID);
         if (person == null) {
             throw new IllegalStateException("Could not load StayPeriodSimpleTime id=" + id + " with personID=" + personID);
         }
         long placeID = Long.parseLong(stayElement.getAttribute(PLACE_ID_ATR));
-        Place place = PlaceFactory.getPlace(placeID);
+        Place place = PlaceFactory.getPlace(project, placeID);
         if (place == null) {
             throw new IllegalStateException("Could not load StayPeriodSimpleTime id=" + id + " with placeID=" + placeID);
         }
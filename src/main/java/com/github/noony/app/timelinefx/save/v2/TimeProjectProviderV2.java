@@ -39,11 +39,8 @@ import com.github.noony.app.timelinefx.core.freemap.FreeMapPlace;
 import com.github.noony.app.timelinefx.core.freemap.FreeMapPortrait;
 import com.github.noony.app.timelinefx.core.freemap.FriezeFreeMap;
 import com.github.noony.app.timelinefx.core.freemap.FriezeFreeMapFactory;
-import com.github.noony.app.timelinefx.core.freemap.Link;
 import com.github.noony.app.timelinefx.core.freemap.Plot;
 import com.github.noony.app.timelinefx.core.freemap.PlotType;
-import com.github.noony.app.timelinefx.core.freemap.StayLink;
-import com.github.noony.app.timelinefx.core.freemap.TravelLink;
 import com.github.noony.app.timelinefx.core.picturechronology.ChronologyLink;
 import com.github.noony.app.timelinefx.core.picturechronology.ChronologyLinkType;
 import com.github.noony.app.timelinefx.core.picturechronology.ChronologyPictureMiniature;
@@ -52,34 +49,28 @@ import com.github.noony.app.timelinefx.core.picturechronology.PictureChronologyF
 import com.github.noony.app.timelinefx.save.TimelineProjectProvider;
 import com.github.noony.app.timelinefx.utils.CustomFileUtils;
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import javafx.geometry.Point2D;
 import javafx.scene.paint.Color;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import javax.xml.stream.XMLStreamException;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.DirectoryFileFilter;
 import org.apache.commons.io.filefilter.RegexFileFilter;
 import org.openide.util.lookup.ServiceProvider;
-import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
@@ -167,7 +158,7 @@ public class TimeProjectProviderV2 implements TimelineProjectProvider {
 
     private static final Logger LOG = Logger.getGlobal();
 
-    private static final String TARGET_VERSION = "2";
+    static final String TARGET_VERSION = "2";
 
     @Override
     public List<String> getSupportedVersions() {
@@ -198,19 +189,19 @@ public class TimeProjectProviderV2 implements TimelineProjectProvider {
             if (node instanceof Element element) {
                 switch (element.getTagName()) {
                     case PLACES_GROUP -> {
-                        List<Place> places = parsePlaces(element, null);
+                        List<Place> places = parsePlaces(element, null, project);
                         places.stream().filter(p -> p.getParent() == null).forEach(p -> project.addHighLevelPlace(p));
                     }
                     case PERSONS_GROUP -> {
                         List<Person> persons = parsePersons(element, project, relativePathLoaded);
-                        persons.forEach(p -> project.addPerson(p));
+                        project.addAll(Collections.emptyList(), persons, Collections.emptyList());
                     }
                     case PICTURES_GROUP -> {
                         parsePictures(element, project, relativePathLoaded);
                     }
                     case STAYS_GROUP -> {
-                        List<StayPeriod> stays = parseStays(element);
-                        stays.forEach(s -> project.addStay(s));
+                        List<StayPeriod> stays = parseStays(element, project);
+                        project.addAll(Collections.emptyList(), Collections.emptyList(), stays);
                     }
                     case FRIEZES_GROUP -> {
                         parseFriezes(project, element);
@@ -223,6 +214,21 @@ public class TimeProjectProviderV2 implements TimelineProjectProvider {
                 }
             }
         }
+        checkLoadedFiles(project, relativePathLoaded);
+        //
+        // FUTURE IMPROVMENT : ENABLE AUTO IMPORT => in config
+        //
+        return project;
+    }
+
+    /**
+     * Logs the loaded files that do not exist and the files of the project
+     * folders that were not loaded.
+     *
+     * @param project the loaded project
+     * @param relativePathLoaded the project relative paths of the loaded files
+     */
+    static void checkLoadedFiles(TimeLineProject project, List<String> relativePathLoaded) {
         // check every file exists
         relativePathLoaded.forEach(path -> {
             var absolutePath = CustomFileUtils.fromProjectRelativeToAbsolute(project, path);
@@ -233,17 +239,17 @@ public class TimeProjectProviderV2 implements TimelineProjectProvider {
             }
         });
         //
-        List<Path> absolutePathsLoaded = relativePathLoaded
+        Set<Path> absolutePathsLoaded = relativePathLoaded
                 .stream()
                 .map(p -> Paths.get(CustomFileUtils.fromProjectRelativeToAbsolute(project, p)))
                 .map(p -> p.normalize())
-                .collect(Collectors.toList());
+                .collect(Collectors.toSet());
         // * Portraits
         File portraitFolder = project.getPortraitsFolder();
         FileUtils.listFiles(portraitFolder, new RegexFileFilter("^(.*?)"), DirectoryFileFilter.DIRECTORY)
                 .stream()
                 .map(portraitFile -> Paths.get(portraitFile.toURI()))
-                .filter(portraitAbsolutePath -> !absolutePathsLoaded.stream().anyMatch(loaded -> portraitAbsolutePath.compareTo(loaded) == 0))
+                .filter(portraitAbsolutePath -> !absolutePathsLoaded.contains(portraitAbsolutePath))
                 .forEach(portraitAbsolutePath -> {
                     // FUTURE IMPROVMENT : create actions;
                     LOG.log(Level.WARNING, "Found unused portrait file: {0}", new Object[]{portraitAbsolutePath});
@@ -253,96 +259,50 @@ public class TimeProjectProviderV2 implements TimelineProjectProvider {
         FileUtils.listFiles(picturesFolder, new RegexFileFilter("^(.*?)"), DirectoryFileFilter.DIRECTORY)
                 .stream()
                 .map(pictureFile -> Paths.get(pictureFile.toURI()))
-                .filter(pictureAbsolutePath -> !absolutePathsLoaded.stream().anyMatch(loaded -> pictureAbsolutePath.compareTo(loaded) == 0))
+                .filter(pictureAbsolutePath -> !absolutePathsLoaded.contains(pictureAbsolutePath))
                 .forEach(pictureAbsolutePath -> {
                     // FUTURE IMPROVMENT : create actions;
                     LOG.log(Level.WARNING, "Found unused picture file: {0}", new Object[]{pictureAbsolutePath});
                 });
-        //
-        // FUTURE IMPROVMENT : ENABLE AUTO IMPORT => in config
-        //
-        return project;
     }
 
     @Override
     public boolean save(TimeLineProject project, File destFile) {
+        return save(project, destFile, true);
+    }
+
+    @Override
+    public boolean save(TimeLineProject project, File destFile, boolean prettyPrint) {
         try {
-            DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-            // root elements
-            Document doc = docBuilder.newDocument();
-            Element rootElement = doc.createElement(PROJECT_GROUP);
-            rootElement.setAttribute(NAME_ATR, project.getName());
-            rootElement.setAttribute(PROJECT_VERSION_ATR, TARGET_VERSION);
-            var portraitsFolderName = CustomFileUtils.fromAbsoluteToProjectRelative(project, project.getPortraitsFolder());
-            var picturesFolderName = CustomFileUtils.fromAbsoluteToProjectRelative(project, project.getPicturesFolder());
-            var miniaturesFolderName = CustomFileUtils.fromAbsoluteToProjectRelative(project, project.getMiniaturesFolder());
-            rootElement.setAttribute(PORTRAIT_FOLDER_ATR, portraitsFolderName);
-            rootElement.setAttribute(PICTURES_LOCATION_ATR, picturesFolderName);
-            rootElement.setAttribute(MINIATURES_FOLDER_ATR, miniaturesFolderName);
-            doc.appendChild(rootElement);
-            // save places
-            Element placesGroupElement = doc.createElement(PLACES_GROUP);
-            rootElement.appendChild(placesGroupElement);
-            project.getHighLevelPlaces().forEach(place -> placesGroupElement.appendChild(createPlaceElement(doc, place, "root")));
-            // save persons
-            Element personsGroupElement = doc.createElement(PERSONS_GROUP);
-            rootElement.appendChild(personsGroupElement);
-            project.getPersons().forEach(person -> personsGroupElement.appendChild(createPersonElement(doc, person)));
-            // save pictures
-            Element picturesGroupElement = doc.createElement(PICTURES_GROUP);
-            rootElement.appendChild(picturesGroupElement);
-            PictureFactory.getPictures().forEach(picture -> picturesGroupElement.appendChild(createPictureElement(doc, picture)));
-            // save stays
-            Element staysGroupElement = doc.createElement(STAYS_GROUP);
-            rootElement.appendChild(staysGroupElement);
-            project.getStays().forEach(stay -> staysGroupElement.appendChild(createStayElement(doc, stay)));
-            // save friezes
-            Element friezesGroupElement = doc.createElement(FRIEZES_GROUP);
-            rootElement.appendChild(friezesGroupElement);
-            project.getFriezes().forEach(frieze -> friezesGroupElement.appendChild(createFriezeElement(doc, frieze)));
-            // save picture chronologies
-            Element pictureChronologiesGroupElement = doc.createElement(PICTURE_CHRONOLOGIES_GROUP);
-            rootElement.appendChild(pictureChronologiesGroupElement);
-            project.getPictureChronologies().forEach(picChronology -> pictureChronologiesGroupElement.appendChild(createPictureChronologyElement(doc, picChronology)));
-            //
-            rootElement.normalize();
-            // write the content into xml file
-            TransformerFactory transformerFactory = TransformerFactory.newInstance();
-            Transformer transformer = transformerFactory.newTransformer();
-            transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
-            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-            DOMSource source = new DOMSource(doc);
-            StreamResult result = new StreamResult(destFile);
-            transformer.transform(source, result);
-        } catch (ParserConfigurationException | TransformerException ex) {
+            new TimeProjectStreamWriterV2(prettyPrint).write(project, destFile);
+        } catch (IOException | XMLStreamException ex) {
             LOG.log(Level.SEVERE, " Exception while exporting timeline :: {0}", ex);
             return false;
         }
         return true;
     }
 
-    private static List<Place> parsePlaces(Element placesRootElement, Place parentPlace) {
+    private static List<Place> parsePlaces(Element placesRootElement, Place parentPlace, TimeLineProject project) {
         List<Place> places = new LinkedList<>();
         NodeList placeElements = placesRootElement.getChildNodes();
         for (int i = 0; i < placeElements.getLength(); i++) {
             if (placeElements.item(i).getNodeName().equals(PLACE_ELEMENT)) {
                 Element e = (Element) placeElements.item(i);
-                Place p = parsePlace(e, parentPlace);
+                Place p = parsePlace(e, parentPlace, project);
                 places.add(p);
             }
         }
         return places;
     }
 
-    private static Place parsePlace(Element placeElement, Place parentPlace) {
+    private static Place parsePlace(Element placeElement, Place parentPlace, TimeLineProject project) {
         // <place color="0xf5deb3ff" id="1" level="GALAXY" name="Galaxy">
         Color color = Color.valueOf(placeElement.getAttribute(COLOR_ATR));
         long id = Long.parseLong(placeElement.getAttribute(ID_ATR));
         PlaceLevel level = PlaceLevel.valueOf(placeElement.getAttribute(PLACE_LEVEL_ATR));
         String name = placeElement.getAttribute(NAME_ATR);
-        Place place = PlaceFactory.createPlace(id, name, level, parentPlace, color);
-        parsePlaces(placeElement, place);
+        Place place = PlaceFactory.createPlace(project, id, name, level, parentPlace, color);
+        parsePlaces(placeElement, place, project);
         return place;
     }
 
@@ -478,13 +438,13 @@ public class TimeProjectProviderV2 implements TimelineProjectProvider {
                 case PERSON_REF_ELEMENT -> {
                     Element e = (Element) n;
                     long personID = Long.parseLong(e.getAttribute(ID_ATR));
-                    Person person = PersonFactory.getPerson(personID);
+                    Person person = PersonFactory.getPerson(project, personID);
                     picture.addPerson(person);
                 }
                 case PLACE_REF_ELEMENT -> {
                     Element e = (Element) n;
                     long placeID = Long.parseLong(e.getAttribute(ID_ATR));
-                    Place place = PlaceFactory.getPlace(placeID);
+                    Place place = PlaceFactory.getPlace(project, placeID);
                     picture.addPlace(place);
                 }
                 case "#text" ->
@@ -514,7 +474,7 @@ public class TimeProjectProviderV2 implements TimelineProjectProvider {
         var name = friezeElement.getAttribute(NAME_ATR);
         var id = Long.parseLong(friezeElement.getAttribute(ID_ATR));
         NodeList stayGroups = friezeElement.getElementsByTagName(STAYS_REF_GROUP);
-        List<StayPeriod> stays = parseStaysInFreize((Element) stayGroups.item(0));
+        List<StayPeriod> stays = parseStaysInFreize((Element) stayGroups.item(0), project);
         var frieze = FriezeFactory.createFrieze(id, project, name, stays);
         if (stayGroups.getLength() != 1) {
             throw new IllegalStateException("Wrong number of STAYS_GROUP : " + stayGroups.getLength());
@@ -529,16 +489,16 @@ public class TimeProjectProviderV2 implements TimelineProjectProvider {
         return frieze;
     }
 
-    private List<StayPeriod> parseStays(Element staysRootElement) {
+    private List<StayPeriod> parseStays(Element staysRootElement, TimeLineProject project) {
         List<StayPeriod> stayPeriods = new LinkedList<>();
         NodeList stayElements = staysRootElement.getChildNodes();
         for (int i = 0; i < stayElements.getLength(); i++) {
             if (stayElements.item(i).getNodeName().equals(STAY_ELEMENT)) {
                 Element e = (Element) stayElements.item(i);
                 if (e.getAttribute(TIME_FORMAT_ATR).equals(TimeFormat.LOCAL_TIME.name())) {
-                    stayPeriods.add(parseStayPeriodLocalTime(e));
+                    stayPeriods.add(parseStayPeriodLocalTime(e, project));
                 } else if (e.getAttribute(TIME_FORMAT_ATR).equals(TimeFormat.TIME_MIN.name())) {
-                    stayPeriods.add(parseStayPeriodSimpleTime(e));
+                    stayPeriods.add(parseStayPeriodSimpleTime(e, project));
                 } else {
                     throw new UnsupportedOperationException("Time format not recognized: " + e.getAttribute(TIME_FORMAT_ATR));
                 }
@@ -547,14 +507,14 @@ public class TimeProjectProviderV2 implements TimelineProjectProvider {
         return stayPeriods;
     }
 
-    private List<StayPeriod> parseStaysInFreize(Element staysRootElement) {
+    private List<StayPeriod> parseStaysInFreize(Element staysRootElement, TimeLineProject project) {
         List<StayPeriod> stayPeriods = new LinkedList<>();
         NodeList stayElements = staysRootElement.getChildNodes();
         for (int i = 0; i < stayElements.getLength(); i++) {
             if (stayElements.item(i).getNodeName().equals(STAY_ELEMENT_REF)) {
                 Element e = (Element) stayElements.item(i);
                 long id = Long.parseLong(e.getAttribute(ID_ATR));
-                var stay = StayFactory.getStay(id);
+                var stay = StayFactory.getStay(project, id);
                 if (stay == null) {
                     throw new UnsupportedOperationException("StayPerido reference does not exist " + id);
                 }
@@ -564,16 +524,16 @@ public class TimeProjectProviderV2 implements TimelineProjectProvider {
         return stayPeriods;
     }
 
-    private StayPeriodLocalDate parseStayPeriodLocalTime(Element stayElement) {
+    private StayPeriodLocalDate parseStayPeriodLocalTime(Element stayElement, TimeLineProject project) {
         // <stay endDate="20" id="1" person="5" startDate="0" timeFormat="LOCAL_TIME"/>
         long id = Long.parseLong(stayElement.getAttribute(ID_ATR));
         long personID = Long.parseLong(stayElement.getAttribute(PERSON_ATR));
-        Person person = PersonFactory.getPerson(personID);
+        Person person = PersonFactory.getPerson(project, personID);
         if (person == null) {
             throw new IllegalStateException();
         }
         long placeID = Long.parseLong(stayElement.getAttribute(PLACE_ID_ATR));
-        Place place = PlaceFactory.getPlace(placeID);
+        Place place = PlaceFactory.getPlace(project, placeID);
         if (place == null) {
             throw new IllegalStateException();
         }
@@ -585,16 +545,16 @@ public class TimeProjectProviderV2 implements TimelineProjectProvider {
         return stay;
     }
 
-    private StayPeriodSimpleTime parseStayPeriodSimpleTime(Element stayElement) {
+    private StayPeriodSimpleTime parseStayPeriodSimpleTime(Element stayElement, TimeLineProject project) {
         // <stay endDate="20" id="1" person="5" startDate="0" timeFormat="TIME_MIN"/>
         long id = Long.parseLong(stayElement.getAttribute(ID_ATR));
         long personID = Long.parseLong(stayElement.getAttribute(PERSON_ATR));
-        Person person = PersonFactory.getPerson(personID);
+        Person person = PersonFactory.getPerson(project, personID);
         if (person == null) {
             throw new IllegalStateException("Could not load StayPeriodSimpleTime id=" + id + " with personID=" + personID);
         }
         long placeID = Long.parseLong(stayElement.getAttribute(PLACE_ID_ATR));
-        Place place = PlaceFactory.getPlace(placeID);
+        Place place = PlaceFactory.getPlace(project, placeID);
         if (place == null) {
             throw new IllegalStateException("Could not load StayPeriodSimpleTime id=" + id + " with placeID=" + placeID);
         }
@@ -771,7 +731,7 @@ public class TimeProjectProviderV2 implements TimelineProjectProvider {
                 miniatures.add(miniature);
             } else if (miniaturesElements.item(i).getNodeName().equals(PICTURE_CHRONOLOGY_LINK_ELEMENT)) {
                 Element e = (Element) miniaturesElements.item(i);
-                links.add(parsePictureChronologyLink(e));
+                links.add(parsePictureChronologyLink(e, project));
             }
         }
         //
@@ -789,266 +749,27 @@ public class TimeProjectProviderV2 implements TimelineProjectProvider {
         double xPos = Double.parseDouble(miniatureElement.getAttribute(X_POS_ATR));
         double yPos = Double.parseDouble(miniatureElement.getAttribute(Y_POS_ATR));
         double scale = Double.parseDouble(miniatureElement.getAttribute(SCALE_ATR));
-        var miniature = PictureChronologyFactory.createChronologyPictureMiniature(id, IPicture.getPicture(pictureRef), new Point2D(xPos, yPos), scale);
+        var miniature = PictureChronologyFactory.createChronologyPictureMiniature(id, IPicture.getPicture(project, pictureRef), new Point2D(xPos, yPos), scale);
         parseObjectTimeValue(miniatureElement, miniature.getDateObject());
         miniature.setUseCustomTime(!miniature.isInSyncWithPicture());
         return miniature;
     }
 
-    private static ChronologyLink parsePictureChronologyLink(Element linkElement) {
+    private static ChronologyLink parsePictureChronologyLink(Element linkElement, TimeLineProject project) {
         var id = Long.parseLong(linkElement.getAttribute(ID_ATR));
         var type = ChronologyLinkType.valueOf(linkElement.getAttribute(TYPE_ATR));
         var fromID = Long.parseLong(linkElement.getAttribute(FROM_ATR));
-        var from = PictureChronologyFactory.getChronologyPictureMiniature(fromID);
+        var from = PictureChronologyFactory.getChronologyPictureMiniature(project, fromID);
         var toID = Long.parseLong(linkElement.getAttribute(TO_ATR));
-        var to = PictureChronologyFactory.getChronologyPictureMiniature(toID);
+        var to = PictureChronologyFactory.getChronologyPictureMiniature(project, toID);
         var personRef = Long.parseLong(linkElement.getAttribute(PERSON_REF_ATR));
-        var person = PersonFactory.getPerson(personRef);
+        var person = PersonFactory.getPerson(project, personRef);
         var paramsAsString = linkElement.getAttribute(PARAMETERS_ATR);
         var parameters = CustomFileUtils.toDoubleArray(paramsAsString);
         var link = PictureChronologyFactory.createChronologyLink(id, person, from, to, type, parameters);
         return link;
     }
 
-    private static Element createPlaceElement(Document doc, Place place, String fromPlace) {
-        LOG.log(Level.FINE, "> Creating place {0} from {1}", new Object[]{place.getName(), fromPlace});
-        Element placeElement = doc.createElement(PLACE_ELEMENT);
-        placeElement.setAttribute(ID_ATR, Long.toString(place.getId()));
-        placeElement.setAttribute(NAME_ATR, place.getName());
-        placeElement.setAttribute(PLACE_LEVEL_ATR, place.getLevel().name());
-        placeElement.setAttribute(COLOR_ATR, place.getColor().toString());
-        place.getPlaces().forEach(p -> placeElement.appendChild(createPlaceElement(doc, p, place.getName())));
-        return placeElement;
-    }
-
-    private static Element createPersonElement(Document doc, Person person) {
-        LOG.log(Level.FINE, "> Creating person {0}", new Object[]{person.getName()});
-        var personElement = doc.createElement(PERSON_ELEMENT);
-        personElement.setAttribute(ID_ATR, Long.toString(person.getId()));
-        personElement.setAttribute(NAME_ATR, person.getName());
-        if (person.getDefaultPortrait() != null) {
-            personElement.setAttribute(DEFAULT_PORTRAIT_REF_ATR, Long.toString(person.getDefaultPortrait().getId()));
-        }
-        personElement.setAttribute(COLOR_ATR, person.getColor().toString());
-        personElement.setAttribute(TIME_FORMAT_ATR, person.getTimeFormat().name());
-        switch (person.getTimeFormat()) {
-            case LOCAL_TIME -> {
-                if (person.getDateOfBirth() != null) {
-                    personElement.setAttribute(DATE_OF_BIRTH_ATR, IDateObject.DEFAULT_DATE_FORMATTER.format(person.getDateOfBirth()));
-                }
-                if (person.getDateOfDeath() != null) {
-                    personElement.setAttribute(DATE_OF_DEATH_ATR, IDateObject.DEFAULT_DATE_FORMATTER.format(person.getDateOfDeath()));
-                }
-            }
-            case TIME_MIN -> {
-                personElement.setAttribute(DATE_OF_BIRTH_ATR, Long.toString(person.getTimeOfBirth()));
-                personElement.setAttribute(DATE_OF_DEATH_ATR, Long.toString(person.getTimeOfDeath()));
-            }
-            default ->
-                throw new UnsupportedOperationException("Unsupported timefomat : " + person.getTimeFormat());
-        }
-        person.getPortraits().forEach(portrait -> {
-            var portraitElement = doc.createElement(PORTRAIT_ELEMENT);
-            portraitElement.setAttribute(ID_ATR, Long.toString(portrait.getId()));
-            portraitElement.setAttribute(PATH_ATR, portrait.getProjectRelativePath());
-            saveObjectTime(portraitElement, portrait);
-            personElement.appendChild(portraitElement);
-        });
-        return personElement;
-    }
-
-    private static void saveObjectTime(Element targetElement, IDateObject aDateObject) {
-        targetElement.setAttribute(TIME_FORMAT_ATR, aDateObject.getTimeFormat().name());
-        switch (aDateObject.getTimeFormat()) {
-            case LOCAL_TIME -> {
-                if (aDateObject.getDate() != null) {
-                    targetElement.setAttribute(DATE_ATR, IDateObject.DEFAULT_DATE_FORMATTER.format(aDateObject.getDate()));
-                }
-            }
-            case TIME_MIN -> {
-                targetElement.setAttribute(DATE_ATR, Double.toString(aDateObject.getTimestamp()));
-            }
-            default ->
-                throw new UnsupportedOperationException("Unsupported timefomat : " + aDateObject.getTimeFormat());
-        }
-    }
-
-    private static Element createPictureElement(Document doc, Picture picture) {
-        Element pictureElement = doc.createElement(PICTURE_ELEMENT);
-        pictureElement.setAttribute(ID_ATR, Long.toString(picture.getId()));
-        pictureElement.setAttribute(NAME_ATR, picture.getName());
-        pictureElement.setAttribute(PATH_ATR, picture.getProjectRelativePath());
-        pictureElement.setAttribute(WIDTH_ATR, Integer.toString((int) picture.getWidth()));
-        pictureElement.setAttribute(HEIGHT_ATR, Integer.toString((int) picture.getHeight()));
-        picture.getPersons().forEach(person -> {
-            Element personElement = doc.createElement(PERSON_REF_ELEMENT);
-            personElement.setAttribute(ID_ATR, Long.toString(person.getId()));
-            pictureElement.appendChild(personElement);
-        });
-        picture.getPlaces().forEach(place -> {
-            Element placeElement = doc.createElement(PLACE_REF_ELEMENT);
-            placeElement.setAttribute(ID_ATR, Long.toString(place.getId()));
-            pictureElement.appendChild(placeElement);
-        });
-        saveObjectTime(pictureElement, picture);
-        return pictureElement;
-    }
-
-    private static Element createFriezeElement(Document doc, Frieze frieze) {
-        LOG.log(Level.INFO, "Saving Frieze {0}", new Object[]{frieze.getName()});
-        Element friezeElement = doc.createElement(FRIEZE_ELEMENT);
-        friezeElement.setAttribute(NAME_ATR, frieze.getName());
-        friezeElement.setAttribute(ID_ATR, Long.toString(frieze.getId()));
-        // Stays
-        Element staysElement = doc.createElement(STAYS_REF_GROUP);
-        friezeElement.appendChild(staysElement);
-        frieze.getStayPeriods().forEach(stay -> staysElement.appendChild(createStayElementInFreize(doc, stay)));
-        // FreeMaps
-        Element freemapsElement = doc.createElement(FREEMAPS_GROUP);
-        friezeElement.appendChild(freemapsElement);
-        frieze.getFriezeFreeMaps().forEach(freeMap -> freemapsElement.appendChild(createFreeMapElement(doc, freeMap)));
-        return friezeElement;
-    }
-
-    private static Element createStayElement(Document doc, StayPeriod stay) {
-        Element stayElement = doc.createElement(STAY_ELEMENT);
-        stayElement.setAttribute(ID_ATR, Long.toString(stay.getId()));
-        stayElement.setAttribute(PERSON_ATR, Long.toString(stay.getPerson().getId()));
-        switch (stay.getTimeFormat()) {
-            case LOCAL_TIME -> {
-                LocalDate startDate = LocalDate.ofEpochDay((long) stay.getStartDate());
-                LocalDate endDate = LocalDate.ofEpochDay((long) stay.getEndDate());
-                stayElement.setAttribute(START_DATE_ATR, IDateObject.DEFAULT_DATE_FORMATTER.format(startDate));
-                stayElement.setAttribute(END_DATE_ATR, IDateObject.DEFAULT_DATE_FORMATTER.format(endDate));
-            }
-            case TIME_MIN -> {
-                stayElement.setAttribute(START_DATE_ATR, Double.toString(stay.getStartDate()));
-                stayElement.setAttribute(END_DATE_ATR, Double.toString(stay.getEndDate()));
-            }
-            default ->
-                throw new UnsupportedOperationException("Unknown time format : " + stay.getTimeFormat());
-        }
-        stayElement.setAttribute(TIME_FORMAT_ATR, stay.getTimeFormat().name());
-        stayElement.setAttribute(PLACE_ID_ATR, Long.toString(stay.getPlace().getId()));
-        return stayElement;
-    }
-
-    private static Element createStayElementInFreize(Document doc, StayPeriod stay) {
-        Element stayElement = doc.createElement(STAY_ELEMENT_REF);
-        stayElement.setAttribute(ID_ATR, Long.toString(stay.getId()));
-        return stayElement;
-    }
-
-    private static Element createFreeMapElement(Document doc, FriezeFreeMap friezeFreeMap) {
-        var friezeFreeMapElement = doc.createElement(FREEMAP_ELEMENT);
-        friezeFreeMapElement.setAttribute(NAME_ATR, friezeFreeMap.getName());
-        friezeFreeMapElement.setAttribute(ID_ATR, Long.toString(friezeFreeMap.getId()));
-        friezeFreeMapElement.setAttribute(WIDTH_ATR, Double.toString(friezeFreeMap.getFreeMapWidth()));
-        friezeFreeMapElement.setAttribute(HEIGHT_ATR, Double.toString(friezeFreeMap.getFreeMapHeight()));
-        friezeFreeMapElement.setAttribute(FREEMAP_PERSON_WIDTH_ATR, Double.toString(friezeFreeMap.getPersonWidth()));
-        friezeFreeMapElement.setAttribute(FREEMAP_PLACE_NAME_WIDTH_ATR, Double.toString(friezeFreeMap.getPlaceNamesWidth()));
-        friezeFreeMapElement.setAttribute(FREEMAP_FONT_SIZE_ATR, Double.toString(friezeFreeMap.getFontSize()));
-        friezeFreeMapElement.setAttribute(FREEMAP_PLOT_SEPARATION_ATR, Double.toString(friezeFreeMap.getPlotSeparation()));
-        friezeFreeMapElement.setAttribute(FREEMAP_PLOT_VISIBILITY_ATR, Boolean.toString(friezeFreeMap.getPlotVisibility()));
-        friezeFreeMapElement.setAttribute(FREEMAP_PLOT_SIZE_ATR, Double.toString(friezeFreeMap.getPlotSize()));
-        //
-        var portraitsGroupElement = doc.createElement(PORTRAITS_GROUP);
-        friezeFreeMap.getPortraits().forEach(portrait -> portraitsGroupElement.appendChild(createFreeMapPortraitElement(doc, portrait)));
-        friezeFreeMapElement.appendChild(portraitsGroupElement);
-        //
-        var plotsGroupElement = doc.createElement(PLOTS_GROUP);
-        friezeFreeMap.getPlots().forEach(plot -> plotsGroupElement.appendChild(createPlotElement(doc, plot)));
-        friezeFreeMapElement.appendChild(plotsGroupElement);
-        //
-        var placesGroupElement = doc.createElement(FREEMAP_PLACES_GROUP);
-        friezeFreeMap.getPlaces().forEach(place -> placesGroupElement.appendChild(createFreeMapPlaceElement(doc, place)));
-        friezeFreeMapElement.appendChild(placesGroupElement);
-        //
-        var linksGroupElement = doc.createElement(LINKS_GROUP);
-        friezeFreeMap.getStayLinks().forEach(link -> linksGroupElement.appendChild(createLinkElement(doc, link)));
-        friezeFreeMap.getTravelLinks().forEach(link -> linksGroupElement.appendChild(createLinkElement(doc, link)));
-        friezeFreeMapElement.appendChild(linksGroupElement);
-        //
-        return friezeFreeMapElement;
-    }
-
-    private static Element createFreeMapPortraitElement(Document doc, FreeMapPortrait portrait) {
-        var portraitElement = doc.createElement(PORTRAIT_ELEMENT);
-        portraitElement.setAttribute(PERSON_ATR, Long.toString(portrait.getPerson().getId()));
-        portraitElement.setAttribute(X_POS_ATR, Double.toString(portrait.getX()));
-        portraitElement.setAttribute(Y_POS_ATR, Double.toString(portrait.getY()));
-        portraitElement.setAttribute(RADIUS_ATR, Double.toString(portrait.getRadius()));
-        return portraitElement;
-    }
-
-    private static Element createPlotElement(Document doc, Plot plot) {
-        var plotElement = doc.createElement(PLOT_ELEMENT);
-        plotElement.setAttribute(TYPE_ATR, plot.getType().name());
-        plotElement.setAttribute(STAY_ID_ATR, Long.toString(plot.getParentPeriodID()));
-        plotElement.setAttribute(X_POS_ATR, Double.toString(plot.getX()));
-        plotElement.setAttribute(Y_POS_ATR, Double.toString(plot.getY()));
-        return plotElement;
-    }
-
-    private static Element createLinkElement(Document doc, Link link) {
-        var linkElement = doc.createElement(LINK_ELEMENT);
-        linkElement.setAttribute(TYPE_ATR, link.getType().name());
-        linkElement.setAttribute(START_ID_ATR, Long.toString(link.getBeginPlot().getParentPeriodID()));
-        linkElement.setAttribute(END_ID_ATR, Long.toString(link.getEndPlot().getParentPeriodID()));
-        if (link instanceof StayLink stayLink) {
-            linkElement.setAttribute(END_ID_ATR, Long.toString(stayLink.getStayPeriod().getId()));
-        } else if (link instanceof TravelLink travelLink) {
-            linkElement.setAttribute(END_ID_ATR, Long.toString(travelLink.getPerson().getId()));
-        }
-
-        linkElement.setAttribute(STAY_ID_ATR, Long.toString(link.getEndPlot().getParentPeriodID()));
-        return linkElement;
-    }
-
-    private static Element createFreeMapPlaceElement(Document doc, FreeMapPlace freeMapPlace) {
-        var placeElement = doc.createElement(FREEMAP_PLACE_ELEMENT);
-        placeElement.setAttribute(HEIGHT_ATR, Double.toString(freeMapPlace.getHeight()));
-        placeElement.setAttribute(PLACE_ID_ATR, Long.toString(freeMapPlace.getPlace().getId()));
-        placeElement.setAttribute(Y_POS_ATR, Double.toString(freeMapPlace.getYPos()));
-        return placeElement;
-    }
-
-    private static Element createPictureChronologyElement(Document doc, PictureChronology pictureChronology) {
-        var pictureChronologyElement = doc.createElement(PICTURE_CHRONOLOGY_ELEMENT);
-        pictureChronologyElement.setAttribute(ID_ATR, Long.toString(pictureChronology.getId()));
-        pictureChronologyElement.setAttribute(NAME_ATR, pictureChronology.getName());
-        pictureChronologyElement.setAttribute(WIDTH_ATR, Double.toString(pictureChronology.getWidth()));
-        pictureChronologyElement.setAttribute(HEIGHT_ATR, Double.toString(pictureChronology.getHeight()));
-        //
-        pictureChronology.getChronologyPictures().forEach(miniature -> pictureChronologyElement.appendChild(createPictureChronologyMiniature(doc, miniature)));
-        pictureChronology.getLinks().forEach(link -> pictureChronologyElement.appendChild(createPictureChronologyLink(doc, link)));
-        return pictureChronologyElement;
-    }
-
-    private static Element createPictureChronologyMiniature(Document doc, ChronologyPictureMiniature miniature) {
-        var pictureChronologyMiniatureElement = doc.createElement(PICTURE_CHRONOLOGY_MINIATURE_ELEMENT);
-        pictureChronologyMiniatureElement.setAttribute(ID_ATR, Long.toString(miniature.getId()));
-        pictureChronologyMiniatureElement.setAttribute(X_POS_ATR, Double.toString(miniature.getPosition().getX()));
-        pictureChronologyMiniatureElement.setAttribute(Y_POS_ATR, Double.toString(miniature.getPosition().getY()));
-        pictureChronologyMiniatureElement.setAttribute(PICTURE_REF_ELEMENT, Long.toString(miniature.getPicture().getId()));
-        pictureChronologyMiniatureElement.setAttribute(SCALE_ATR, Double.toString(miniature.getScale()));
-        if (!miniature.isInSyncWithPicture()) {
-            saveObjectTime(pictureChronologyMiniatureElement, miniature.getDateObject());
-        }
-        return pictureChronologyMiniatureElement;
-    }
-
-    private static Element createPictureChronologyLink(Document doc, ChronologyLink link) {
-        var pictureChronologyLinkElement = doc.createElement(PICTURE_CHRONOLOGY_LINK_ELEMENT);
-        pictureChronologyLinkElement.setAttribute(ID_ATR, Long.toString(link.getId()));
-        pictureChronologyLinkElement.setAttribute(TYPE_ATR, link.getLinkType().name());
-        pictureChronologyLinkElement.setAttribute(FROM_ATR, Long.toString(link.getStartMiniature().getId()));
-        pictureChronologyLinkElement.setAttribute(TO_ATR, Long.toString(link.getEndMiniature().getId()));
-        pictureChronologyLinkElement.setAttribute(PERSON_REF_ATR, Long.toString(link.getPerson().getId()));
-        pictureChronologyLinkElement.setAttribute(PARAMETERS_ATR, Arrays.toString(link.getLinkParameters()));
-        return pictureChronologyLinkElement;
-    }
-
     @Override
     public String toString() {
         return this.getClass().getSimpleName();
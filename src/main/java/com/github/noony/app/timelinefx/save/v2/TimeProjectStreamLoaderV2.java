@@ -0,0 +1,676 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.save.v2;
+
+import com.github.noony.app.timelinefx.core.Frieze;
+import com.github.noony.app.timelinefx.core.FriezeFactory;
+import com.github.noony.app.timelinefx.core.IDateObject;
+import com.github.noony.app.timelinefx.core.IPicture;
+import com.github.noony.app.timelinefx.core.Person;
+import com.github.noony.app.timelinefx.core.PersonFactory;
+import com.github.noony.app.timelinefx.core.Picture;
+import com.github.noony.app.timelinefx.core.PictureFactory;
+import com.github.noony.app.timelinefx.core.Place;
+import com.github.noony.app.timelinefx.core.PlaceFactory;
+import com.github.noony.app.timelinefx.core.PlaceLevel;
+import com.github.noony.app.timelinefx.core.PortraitFactory;
+import com.github.noony.app.timelinefx.core.StayFactory;
+import com.github.noony.app.timelinefx.core.StayPeriod;
+import com.github.noony.app.timelinefx.core.TimeFormat;
+import com.github.noony.app.timelinefx.core.TimeLineProject;
+import com.github.noony.app.timelinefx.core.TimeLineProjectFactory;
+import com.github.noony.app.timelinefx.core.freemap.FriezeFreeMap;
+import com.github.noony.app.timelinefx.core.freemap.FriezeFreeMapFactory;
+import com.github.noony.app.timelinefx.core.freemap.Plot;
+import com.github.noony.app.timelinefx.core.freemap.PlotType;
+import com.github.noony.app.timelinefx.core.picturechronology.ChronologyLink;
+import com.github.noony.app.timelinefx.core.picturechronology.ChronologyLinkType;
+import com.github.noony.app.timelinefx.core.picturechronology.ChronologyPictureMiniature;
+import com.github.noony.app.timelinefx.core.picturechronology.PictureChronologyFactory;
+import com.github.noony.app.timelinefx.save.ForwardReferences;
+import com.github.noony.app.timelinefx.save.TimelineProjectStreamLoader;
+import static com.github.noony.app.timelinefx.save.v2.TimeProjectProviderV2.*;
+import com.github.noony.app.timelinefx.utils.CustomFileUtils;
+import java.io.File;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.geometry.Point2D;
+import javafx.scene.paint.Color;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.openide.util.lookup.ServiceProvider;
+
+/**
+ * StAX loader of the version 2 format written by {@link TimeProjectProviderV2}.
+ *
+ * The model is built while the file is read: only the layout of the free maps
+ * is kept until its frieze can be created. References to objects appearing
+ * later in the file are resolved with {@link ForwardReferences}.
+ *
+ * @author hamon
+ */
+@ServiceProvider(service = TimelineProjectStreamLoader.class)
+public class TimeProjectStreamLoaderV2 implements TimelineProjectStreamLoader {
+
+    private static final Logger LOG = Logger.getGlobal();
+
+    private static final String TARGET_VERSION = "2";
+
+    @Override
+    public List<String> getSupportedVersions() {
+        return Arrays.asList(TARGET_VERSION);
+    }
+
+    @Override
+    public TimeLineProject load(File projectFile, XMLStreamReader reader) throws XMLStreamException {
+        var projectName = attribute(reader, NAME_ATR);
+        var portraitsFolderValue = hasAttribute(reader, PORTRAIT_FOLDER_ATR) ? attribute(reader, PORTRAIT_FOLDER_ATR) : TimeLineProject.DEFAULT_PORTRAIT_FOLDER;
+        var picturesFolderValue = hasAttribute(reader, PICTURES_FOLDER_ATR) ? attribute(reader, PICTURES_FOLDER_ATR) : TimeLineProject.DEFAULT_PICTURES_FOLDER;
+        var miniaturesFolderValue = hasAttribute(reader, MINIATURES_FOLDER_ATR) ? attribute(reader, MINIATURES_FOLDER_ATR) : TimeLineProject.DEFAULT_MINIATURES_FOLDER;
+        //
+        Map<String, String> configParams = Map.of(
+                TimeLineProject.PROJECT_FOLDER_KEY, projectFile.getParent(),
+                TimeLineProject.PORTRAIT_FOLDER_KEY, portraitsFolderValue,
+                TimeLineProject.PICTURES_FOLDER_KEY, picturesFolderValue,
+                TimeLineProject.MINIATURES_FOLDER_KEY, miniaturesFolderValue
+        );
+        var project = TimeLineProjectFactory.createProject(projectName, configParams);
+        var context = new LoadingContext(project);
+        //
+        while (nextChildElement(reader)) {
+            switch (reader.getLocalName()) {
+                case PLACES_GROUP ->
+                    // as with the DOM provider, the high level places are added with the stays
+                    readPlaces(reader, null, context);
+                case PERSONS_GROUP ->
+                    readPersons(reader, context);
+                case PICTURES_GROUP ->
+                    readPictures(reader, context);
+                case STAYS_GROUP ->
+                    readStays(reader, context);
+                case FRIEZES_GROUP ->
+                    readFriezes(reader, context);
+                case PICTURE_CHRONOLOGIES_GROUP ->
+                    readPictureChronologies(reader, context);
+                default ->
+                    throw new UnsupportedOperationException("Unknown element :: " + reader.getLocalName());
+            }
+        }
+        context.references.checkResolved();
+        context.flushStays();
+        LOG.log(Level.FINE, "Project {0} streamed with {1} deferred loading steps", new Object[]{projectName, context.references.getNbDeferredSteps()});
+        TimeProjectProviderV2.checkLoadedFiles(project, context.relativePathLoaded);
+        return project;
+    }
+
+    private static void readPlaces(XMLStreamReader reader, Place parentPlace, LoadingContext context) throws XMLStreamException {
+        while (nextChildElement(reader)) {
+            if (PLACE_ELEMENT.equals(reader.getLocalName())) {
+                // <place color="0xf5deb3ff" id="1" level="GALAXY" name="Galaxy">
+                var color = Color.valueOf(attribute(reader, COLOR_ATR));
+                var id = Long.parseLong(attribute(reader, ID_ATR));
+                var level = PlaceLevel.valueOf(attribute(reader, PLACE_LEVEL_ATR));
+                var name = attribute(reader, NAME_ATR);
+                var place = PlaceFactory.createPlace(context.project, id, name, level, parentPlace, color);
+                context.references.objectLoaded(id);
+                readPlaces(reader, place, context);
+            } else {
+                skipElement(reader);
+            }
+        }
+    }
+
+    private static void readPersons(XMLStreamReader reader, LoadingContext context) throws XMLStreamException {
+        List<Person> persons = new LinkedList<>();
+        while (nextChildElement(reader)) {
+            if (PERSON_ELEMENT.equals(reader.getLocalName())) {
+                persons.add(readPerson(reader, context));
+            } else {
+                skipElement(reader);
+            }
+        }
+        context.project.addAll(Collections.emptyList(), persons, Collections.emptyList());
+    }
+
+    private static Person readPerson(XMLStreamReader reader, LoadingContext context) throws XMLStreamException {
+        // <person color="0x7fffd4ff" id="1" name="Obi Wan Kenobi"/>
+        var color = Color.valueOf(attribute(reader, COLOR_ATR));
+        var id = Long.parseLong(attribute(reader, ID_ATR));
+        var name = attribute(reader, NAME_ATR);
+        var defaultPortraitRef = hasAttribute(reader, DEFAULT_PORTRAIT_REF_ATR) ? Long.parseLong(attribute(reader, DEFAULT_PORTRAIT_REF_ATR)) : Long.MIN_VALUE;
+        var timeFormat = hasAttribute(reader, TIME_FORMAT_ATR) ? TimeFormat.valueOf(attribute(reader, TIME_FORMAT_ATR)) : null;
+        var dateOfBirth = attribute(reader, DATE_OF_BIRTH_ATR);
+        var dateOfDeath = attribute(reader, DATE_OF_DEATH_ATR);
+        var person = PersonFactory.createPerson(context.project, id, name, color);
+        context.references.objectLoaded(id);
+        while (nextChildElement(reader)) {
+            if (PORTRAIT_ELEMENT.equals(reader.getLocalName())) {
+                // <portrait id="147" path="portraits\obi_wan.png"/>
+                var portraitID = Long.parseLong(attribute(reader, ID_ATR));
+                var portraitPath = attribute(reader, PATH_ATR);
+                var portrait = PortraitFactory.createPortrait(portraitID, person, portraitPath);
+                if (portrait.getId() == defaultPortraitRef) {
+                    person.setDefaultPortrait(portrait);
+                } else {
+                    person.addPortrait(portrait);
+                }
+                readObjectTimeValue(reader, portrait);
+                context.relativePathLoaded.add(portraitPath);
+                context.references.objectLoaded(portraitID);
+            }
+            skipElement(reader);
+        }
+        //
+        if (timeFormat != null) {
+            person.setTimeFormat(timeFormat);
+            switch (timeFormat) {
+                case LOCAL_TIME -> {
+                    if (!dateOfBirth.isEmpty()) {
+                        person.setDateOfBirth(LocalDate.parse(dateOfBirth));
+                    }
+                    if (!dateOfDeath.isEmpty()) {
+                        person.setDateOfDeath(LocalDate.parse(dateOfDeath));
+                    }
+                }
+                case TIME_MIN -> {
+                    if (!dateOfBirth.isEmpty()) {
+                        person.setTimeOfBirth(Long.parseLong(dateOfBirth));
+                    }
+                    if (!dateOfDeath.isEmpty()) {
+                        person.setTimeOfDeath(Long.parseLong(dateOfDeath));
+                    }
+                }
+                default ->
+                    throw new UnsupportedOperationException("Unsupported timefomat : " + timeFormat);
+            }
+        }
+        return person;
+    }
+
+    private static void readObjectTimeValue(XMLStreamReader reader, IDateObject aDateObject) {
+        if (hasAttribute(reader, TIME_FORMAT_ATR)) {
+            var timeFormat = TimeFormat.valueOf(attribute(reader, TIME_FORMAT_ATR));
+            aDateObject.setTimeFormat(timeFormat);
+            if (!hasAttribute(reader, DATE_ATR)) {
+                return;
+            }
+            switch (timeFormat) {
+                case LOCAL_TIME ->
+                    aDateObject.setDate(LocalDate.parse(attribute(reader, DATE_ATR)));
+                case TIME_MIN ->
+                    aDateObject.setTimestamp(Double.parseDouble(attribute(reader, DATE_ATR)));
+                default ->
+                    throw new UnsupportedOperationException("Unsupported timefomat : " + timeFormat);
+            }
+        }
+    }
+
+    private static void readPictures(XMLStreamReader reader, LoadingContext context) throws XMLStreamException {
+        while (nextChildElement(reader)) {
+            if (PICTURE_ELEMENT.equals(reader.getLocalName())) {
+                readPicture(reader, context);
+            } else {
+                skipElement(reader);
+            }
+        }
+    }
+
+    private static void readPicture(XMLStreamReader reader, LoadingContext context) throws XMLStreamException {
+        var project = context.project;
+        var id = Long.parseLong(attribute(reader, ID_ATR));
+        var name = attribute(reader, NAME_ATR);
+        var path = attribute(reader, PATH_ATR);
+        context.relativePathLoaded.add(path);
+        var width = Integer.parseInt(attribute(reader, WIDTH_ATR));
+        var height = Integer.parseInt(attribute(reader, HEIGHT_ATR));
+        //
+        Picture picture = PictureFactory.createPicture(project, id, name, LocalDateTime.MIN, path, width, height);
+        readObjectTimeValue(reader, picture);
+        context.references.objectLoaded(id);
+        //
+        while (nextChildElement(reader)) {
+            switch (reader.getLocalName()) {
+                case PERSON_REF_ELEMENT -> {
+                    long personID = Long.parseLong(attribute(reader, ID_ATR));
+                    context.references.whenLoaded(() -> picture.addPerson(PersonFactory.getPerson(project, personID)), personID);
+                }
+                case PLACE_REF_ELEMENT -> {
+                    long placeID = Long.parseLong(attribute(reader, ID_ATR));
+                    context.references.whenLoaded(() -> picture.addPlace(PlaceFactory.getPlace(project, placeID)), placeID);
+                }
+                default ->
+                    throw new UnsupportedOperationException("Could not parse child element of picture " + name + " :: " + reader.getLocalName());
+            }
+            skipElement(reader);
+        }
+    }
+
+    private static void readStays(XMLStreamReader reader, LoadingContext context) throws XMLStreamException {
+        while (nextChildElement(reader)) {
+            if (STAY_ELEMENT.equals(reader.getLocalName())) {
+                readStay(reader, context);
+            }
+            skipElement(reader);
+        }
+        context.flushStays();
+    }
+
+    private static void readStay(XMLStreamReader reader, LoadingContext context) {
+        // <stay endDate="20" id="1" person="5" startDate="0" timeFormat="LOCAL_TIME"/>
+        var project = context.project;
+        long id = Long.parseLong(attribute(reader, ID_ATR));
+        long personID = Long.parseLong(attribute(reader, PERSON_ATR));
+        long placeID = Long.parseLong(attribute(reader, PLACE_ID_ATR));
+        var timeFormat = attribute(reader, TIME_FORMAT_ATR);
+        var startS = attribute(reader, START_DATE_ATR);
+        var endS = attribute(reader, END_DATE_ATR);
+        Runnable stayCreation;
+        if (timeFormat.equals(TimeFormat.LOCAL_TIME.name())) {
+            var start = LocalDate.parse(startS);
+            var end = LocalDate.parse(endS);
+            stayCreation = () -> context.stayLoaded(StayFactory.createStayPeriodLocalDate(id,
+                    PersonFactory.getPerson(project, personID), start, end, PlaceFactory.getPlace(project, placeID)));
+        } else if (timeFormat.equals(TimeFormat.TIME_MIN.name())) {
+            var start = Double.parseDouble(startS);
+            var end = Double.parseDouble(endS);
+            stayCreation = () -> context.stayLoaded(StayFactory.createStayPeriodSimpleTime(id,
+                    PersonFactory.getPerson(project, personID), start, end, PlaceFactory.getPlace(project, placeID)));
+        } else {
+            throw new UnsupportedOperationException("Time format not recognized: " + timeFormat);
+        }
+        context.references.whenLoaded(stayCreation, personID, placeID);
+    }
+
+    private static void readFriezes(XMLStreamReader reader, LoadingContext context) throws XMLStreamException {
+        while (nextChildElement(reader)) {
+            if (FRIEZE_ELEMENT.equals(reader.getLocalName())) {
+                readFrieze(reader, context);
+            } else {
+                skipElement(reader);
+            }
+        }
+    }
+
+    private static void readFrieze(XMLStreamReader reader, LoadingContext context) throws XMLStreamException {
+        // <frieze name="SW 1-2">
+        var project = context.project;
+        var name = attribute(reader, NAME_ATR);
+        var id = Long.parseLong(attribute(reader, ID_ATR));
+        var stayIDs = new ArrayList<Long>();
+        var freeMapLayouts = new LinkedList<FreeMapLayout>();
+        var nbStayGroups = 0;
+        while (nextChildElement(reader)) {
+            switch (reader.getLocalName()) {
+                case STAYS_REF_GROUP -> {
+                    nbStayGroups++;
+                    while (nextChildElement(reader)) {
+                        if (STAY_ELEMENT_REF.equals(reader.getLocalName())) {
+                            stayIDs.add(Long.parseLong(attribute(reader, ID_ATR)));
+                        }
+                        skipElement(reader);
+                    }
+                }
+                case FREEMAPS_GROUP -> {
+                    while (nextChildElement(reader)) {
+                        if (FREEMAP_ELEMENT.equals(reader.getLocalName())) {
+                            freeMapLayouts.add(readFreeMapLayout(reader));
+                        } else {
+                            skipElement(reader);
+                        }
+                    }
+                }
+                default ->
+                    skipElement(reader);
+            }
+        }
+        if (nbStayGroups != 1) {
+            throw new IllegalStateException("Wrong number of STAYS_GROUP : " + nbStayGroups);
+        }
+        var stayIDsArray = stayIDs.stream().mapToLong(Long::longValue).toArray();
+        context.references.whenLoaded(() -> {
+            List<StayPeriod> stays = new ArrayList<>(stayIDsArray.length);
+            for (long stayID : stayIDsArray) {
+                stays.add(StayFactory.getStay(project, stayID));
+            }
+            var frieze = FriezeFactory.createFrieze(id, project, name, stays);
+            freeMapLayouts.forEach(layout -> layout.createFreeMap(frieze));
+            context.references.objectLoaded(id);
+        }, stayIDsArray);
+    }
+
+    private static FreeMapLayout readFreeMapLayout(XMLStreamReader reader) throws XMLStreamException {
+        var layout = new FreeMapLayout(readAttributes(reader));
+        while (nextChildElement(reader)) {
+            switch (reader.getLocalName()) {
+                case PORTRAITS_GROUP ->
+                    readLayoutElements(reader, PORTRAIT_ELEMENT, layout.portraits);
+                case FREEMAP_PLACES_GROUP ->
+                    readLayoutElements(reader, FREEMAP_PLACE_ELEMENT, layout.places);
+                case PLOTS_GROUP ->
+                    readLayoutElements(reader, PLOT_ELEMENT, layout.plots);
+                default ->
+                    skipElement(reader);
+            }
+        }
+        return layout;
+    }
+
+    private static void readLayoutElements(XMLStreamReader reader, String elementName, List<Map<String, String>> elements) throws XMLStreamException {
+        while (nextChildElement(reader)) {
+            if (elementName.equals(reader.getLocalName())) {
+                elements.add(readAttributes(reader));
+            }
+            skipElement(reader);
+        }
+    }
+
+    private static void readPictureChronologies(XMLStreamReader reader, LoadingContext context) throws XMLStreamException {
+        while (nextChildElement(reader)) {
+            if (PICTURE_CHRONOLOGY_ELEMENT.equals(reader.getLocalName())) {
+                readPictureChronology(reader, context);
+            } else {
+                skipElement(reader);
+            }
+        }
+    }
+
+    private static void readPictureChronology(XMLStreamReader reader, LoadingContext context) throws XMLStreamException {
+        var project = context.project;
+        long id = Long.parseLong(attribute(reader, ID_ATR));
+        String name = attribute(reader, NAME_ATR);
+        double width = Double.parseDouble(attribute(reader, WIDTH_ATR));
+        double height = Double.parseDouble(attribute(reader, HEIGHT_ATR));
+        //
+        List<Long> contentIDs = new ArrayList<>();
+        List<ChronologyPictureMiniature> miniatures = new LinkedList<>();
+        List<ChronologyLink> links = new LinkedList<>();
+        while (nextChildElement(reader)) {
+            switch (reader.getLocalName()) {
+                case PICTURE_CHRONOLOGY_MINIATURE_ELEMENT ->
+                    contentIDs.add(readChronologyPictureMiniature(reader, context, miniatures));
+                case PICTURE_CHRONOLOGY_LINK_ELEMENT ->
+                    contentIDs.add(readPictureChronologyLink(reader, context, links));
+                default -> {
+                    // ignored
+                }
+            }
+            skipElement(reader);
+        }
+        context.references.whenLoaded(() -> {
+            var pictureChronology = PictureChronologyFactory.createPictureChronology(id, project, name, miniatures, links);
+            pictureChronology.setWidth(width);
+            pictureChronology.setHeight(height);
+            context.references.objectLoaded(id);
+        }, contentIDs.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    private static long readChronologyPictureMiniature(XMLStreamReader reader, LoadingContext context, List<ChronologyPictureMiniature> miniatures) {
+        // <pictureChronologyMiniature id="138" pictureRef="125" xPos="897.0" yPos="329.0" scale="0.5"/>
+        var project = context.project;
+        long id = Long.parseLong(attribute(reader, ID_ATR));
+        long pictureRef = Long.parseLong(attribute(reader, PICTURE_REF_ELEMENT));
+        double xPos = Double.parseDouble(attribute(reader, X_POS_ATR));
+        double yPos = Double.parseDouble(attribute(reader, Y_POS_ATR));
+        double scale = Double.parseDouble(attribute(reader, SCALE_ATR));
+        var timeAttributes = readAttributes(reader);
+        context.references.whenLoaded(() -> {
+            var miniature = PictureChronologyFactory.createChronologyPictureMiniature(id, IPicture.getPicture(project, pictureRef), new Point2D(xPos, yPos), scale);
+            applyObjectTimeValue(timeAttributes, miniature.getDateObject());
+            miniature.setUseCustomTime(!miniature.isInSyncWithPicture());
+            miniatures.add(miniature);
+            context.references.objectLoaded(id);
+        }, pictureRef);
+        return id;
+    }
+
+    private static long readPictureChronologyLink(XMLStreamReader reader, LoadingContext context, List<ChronologyLink> links) {
+        var project = context.project;
+        var id = Long.parseLong(attribute(reader, ID_ATR));
+        var type = ChronologyLinkType.valueOf(attribute(reader, TYPE_ATR));
+        var fromID = Long.parseLong(attribute(reader, FROM_ATR));
+        var toID = Long.parseLong(attribute(reader, TO_ATR));
+        var personRef = Long.parseLong(attribute(reader, PERSON_REF_ATR));
+        var parameters = CustomFileUtils.toDoubleArray(attribute(reader, PARAMETERS_ATR));
+        context.references.whenLoaded(() -> {
+            var from = PictureChronologyFactory.getChronologyPictureMiniature(project, fromID);
+            var to = PictureChronologyFactory.getChronologyPictureMiniature(project, toID);
+            var person = PersonFactory.getPerson(project, personRef);
+            links.add(PictureChronologyFactory.createChronologyLink(id, person, from, to, type, parameters));
+            context.references.objectLoaded(id);
+        }, fromID, toID, personRef);
+        return id;
+    }
+
+    private static void applyObjectTimeValue(Map<String, String> attributes, IDateObject aDateObject) {
+        var timeFormatS = attributes.get(TIME_FORMAT_ATR);
+        if (timeFormatS == null) {
+            return;
+        }
+        var timeFormat = TimeFormat.valueOf(timeFormatS);
+        aDateObject.setTimeFormat(timeFormat);
+        var dateS = attributes.get(DATE_ATR);
+        if (dateS == null) {
+            return;
+        }
+        switch (timeFormat) {
+            case LOCAL_TIME ->
+                aDateObject.setDate(LocalDate.parse(dateS));
+            case TIME_MIN ->
+                aDateObject.setTimestamp(Double.parseDouble(dateS));
+            default ->
+                throw new UnsupportedOperationException("Unsupported timefomat : " + timeFormat);
+        }
+    }
+
+    //
+    // StAX cursor helpers
+    //
+    /**
+     * Moves to the next child element of the current element.
+     *
+     * @param reader a reader on a start element or after a child end
+     * @return true if positioned on a child start element, false if positioned
+     * on the end of the current element
+     * @throws XMLStreamException if the stream cannot be read
+     */
+    private static boolean nextChildElement(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT -> {
+                    return true;
+                }
+                case XMLStreamConstants.END_ELEMENT -> {
+                    return false;
+                }
+                default -> {
+                    // text, comments...
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves to the end of the current element, skipping its content.
+     */
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        if (!reader.isStartElement()) {
+            return;
+        }
+        var depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT ->
+                    depth++;
+                case XMLStreamConstants.END_ELEMENT ->
+                    depth--;
+                default -> {
+                    // text, comments...
+                }
+            }
+        }
+    }
+
+    private static String attribute(XMLStreamReader reader, String name) {
+        var value = reader.getAttributeValue(null, name);
+        return value != null ? value : "";
+    }
+
+    private static boolean hasAttribute(XMLStreamReader reader, String name) {
+        return reader.getAttributeValue(null, name) != null;
+    }
+
+    private static Map<String, String> readAttributes(XMLStreamReader reader) {
+        var nbAttributes = reader.getAttributeCount();
+        Map<String, String> attributes = new HashMap<>(2 * nbAttributes);
+        for (int i = 0; i < nbAttributes; i++) {
+            attributes.put(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+        }
+        return attributes;
+    }
+
+    @Override
+    public String toString() {
+        return "TimeProjectStreamLoaderV2 [version=" + TARGET_VERSION + "]";
+    }
+
+    /**
+     * State of one load.
+     */
+    private static final class LoadingContext {
+
+        private final TimeLineProject project;
+        private final ForwardReferences references;
+        private final List<String> relativePathLoaded;
+        private final List<StayPeriod> loadedStays;
+
+        private LoadingContext(TimeLineProject aProject) {
+            project = aProject;
+            references = new ForwardReferences(aProject.getRegistry());
+            relativePathLoaded = new LinkedList<>();
+            loadedStays = new ArrayList<>();
+        }
+
+        private void stayLoaded(StayPeriod stay) {
+            loadedStays.add(stay);
+            references.objectLoaded(stay.getId());
+        }
+
+        private void flushStays() {
+            if (!loadedStays.isEmpty()) {
+                project.addAll(Collections.emptyList(), Collections.emptyList(), new ArrayList<>(loadedStays));
+                loadedStays.clear();
+            }
+        }
+    }
+
+    /**
+     * Layout of a free map, applied once its frieze is created.
+     */
+    private static final class FreeMapLayout {
+
+        private final Map<String, String> attributes;
+        private final List<Map<String, String>> portraits;
+        private final List<Map<String, String>> places;
+        private final List<Map<String, String>> plots;
+
+        private FreeMapLayout(Map<String, String> freeMapAttributes) {
+            attributes = freeMapAttributes;
+            portraits = new LinkedList<>();
+            places = new LinkedList<>();
+            plots = new LinkedList<>();
+        }
+
+        private void createFreeMap(Frieze frieze) {
+            long freeMapID = Long.parseLong(attributes.get(ID_ATR));
+            FriezeFreeMap freeMap = FriezeFreeMapFactory.createFriezeFreeMap(freeMapID, frieze);
+            if (attributes.containsKey(NAME_ATR)) {
+                freeMap.setName(attributes.get(NAME_ATR));
+            }
+            // !! IMPORTANT : set all the properties before updating plots, places...
+            freeMap.setWidth(doubleValue(attributes, WIDTH_ATR));
+            freeMap.setHeight(doubleValue(attributes, HEIGHT_ATR));
+            freeMap.setPersonWidth(doubleValue(attributes, FREEMAP_PERSON_WIDTH_ATR));
+            freeMap.setPlaceNameWidth(doubleValue(attributes, FREEMAP_PLACE_NAME_WIDTH_ATR));
+            freeMap.setFontSize(doubleValue(attributes, FREEMAP_FONT_SIZE_ATR));
+            freeMap.setPlotSeparation(doubleValue(attributes, FREEMAP_PLOT_SEPARATION_ATR));
+            freeMap.setPlotVisibility(Boolean.parseBoolean(attributes.get(FREEMAP_PLOT_VISIBILITY_ATR)));
+            freeMap.setPlotSize(doubleValue(attributes, FREEMAP_PLOT_SIZE_ATR));
+            //
+            for (Map<String, String> portraitAttributes : portraits) {
+                // <portrait person="21" xPos="690.0" yPos="179.8"/>
+                long personID = Long.parseLong(portraitAttributes.get(PERSON_ATR));
+                var portrait = freeMap.getPortrait(personID);
+                if (portrait == null) {
+                    throw new IllegalStateException("Cannot find portrait with personID=" + personID);
+                }
+                portrait.setX(doubleValue(portraitAttributes, X_POS_ATR));
+                portrait.setY(doubleValue(portraitAttributes, Y_POS_ATR));
+                portrait.setRadius(doubleValue(portraitAttributes, RADIUS_ATR));
+            }
+            //
+            for (Map<String, String> placeAttributes : places) {
+                //  <freeMapPlace height="72.0" placeID="6" yPos="439.2"/>
+                long placeID = Long.parseLong(placeAttributes.get(PLACE_ID_ATR));
+                var freeMapPlace = freeMap.getFreeMapPlace(placeID);
+                if (freeMapPlace == null) {
+                    throw new IllegalStateException("Cannot find freeMapPlace with personID=" + placeID);
+                }
+                freeMapPlace.setHeight(doubleValue(placeAttributes, HEIGHT_ATR));
+                freeMapPlace.setY(doubleValue(placeAttributes, Y_POS_ATR));
+            }
+            //
+            Map<Long, Plot> startPlots = new HashMap<>();
+            Map<Long, Plot> endPlots = new HashMap<>();
+            freeMap.getPlots().forEach(plot -> (plot.getType() == PlotType.START ? startPlots : endPlots).put(plot.getParentPeriodID(), plot));
+            for (Map<String, String> plotAttributes : plots) {
+                // <plot stayID="1" type="START" xPos="10.350877192982455" yPos="23.0"/>
+                var typeS = plotAttributes.get(TYPE_ATR);
+                long stayID = Long.parseLong(plotAttributes.get(STAY_ID_ATR));
+                Plot plot;
+                if (PlotType.START.name().equals(typeS)) {
+                    plot = startPlots.get(stayID);
+                } else if (PlotType.END.name().equals(typeS)) {
+                    plot = endPlots.get(stayID);
+                } else {
+                    throw new UnsupportedOperationException();
+                }
+                if (plot == null) {
+                    throw new IllegalStateException("Cannot find plot with stayID=" + stayID + " and of type " + typeS);
+                }
+                plot.setX(doubleValue(plotAttributes, X_POS_ATR));
+                plot.setY(doubleValue(plotAttributes, Y_POS_ATR));
+            }
+            //
+            frieze.addFriezeFreeMap(freeMap);
+        }
+
+        private static double doubleValue(Map<String, String> attributes, String name) {
+            return Double.parseDouble(attributes.get(name));
+        }
+    }
+}
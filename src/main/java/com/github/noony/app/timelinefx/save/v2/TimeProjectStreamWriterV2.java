@@ -0,0 +1,488 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.save.v2;
+
+import com.github.noony.app.timelinefx.core.Frieze;
+import com.github.noony.app.timelinefx.core.IDateObject;
+import com.github.noony.app.timelinefx.core.Person;
+import com.github.noony.app.timelinefx.core.Picture;
+import com.github.noony.app.timelinefx.core.PictureFactory;
+import com.github.noony.app.timelinefx.core.Place;
+import com.github.noony.app.timelinefx.core.StayPeriod;
+import com.github.noony.app.timelinefx.core.TimeLineProject;
+import com.github.noony.app.timelinefx.core.freemap.FreeMapPlace;
+import com.github.noony.app.timelinefx.core.freemap.FreeMapPortrait;
+import com.github.noony.app.timelinefx.core.freemap.FriezeFreeMap;
+import com.github.noony.app.timelinefx.core.freemap.Link;
+import com.github.noony.app.timelinefx.core.freemap.Plot;
+import com.github.noony.app.timelinefx.core.freemap.StayLink;
+import com.github.noony.app.timelinefx.core.freemap.TravelLink;
+import com.github.noony.app.timelinefx.core.picturechronology.ChronologyLink;
+import com.github.noony.app.timelinefx.core.picturechronology.ChronologyPictureMiniature;
+import com.github.noony.app.timelinefx.core.picturechronology.PictureChronology;
+import static com.github.noony.app.timelinefx.save.TimelineProjectProvider.PROJECT_VERSION_ATR;
+import static com.github.noony.app.timelinefx.save.v2.TimeProjectProviderV2.*;
+import com.github.noony.app.timelinefx.utils.CustomFileUtils;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Writes a project in the V2 format directly to the file, element by element,
+ * without building a DOM.
+ *
+ * The attributes of an element are written in alphabetical order and elements
+ * without children are written as empty elements, like the DOM serializer
+ * does, so that saving a project again does not reorder its file.
+ *
+ * @author hamon
+ */
+final class TimeProjectStreamWriterV2 {
+
+    private static final Logger LOG = Logger.getGlobal();
+
+    private static final String INDENT = "  ";
+
+    private final boolean prettyPrint;
+    private final Map<String, String> pendingAttributes = new TreeMap<>();
+    private final List<String> indents = new ArrayList<>();
+
+    private XMLStreamWriter writer;
+    private String pendingElement = null;
+    private int depth = 0;
+
+    /**
+     *
+     * @param indentOutput whether to write each element on its own indented
+     * line
+     */
+    TimeProjectStreamWriterV2(boolean indentOutput) {
+        prettyPrint = indentOutput;
+    }
+
+    /**
+     * Writes the project to a temporary file which then replaces the
+     * destination file, so that an interrupted save does not leave a truncated
+     * project file.
+     *
+     * @param project the project to write
+     * @param destFile the destination file
+     */
+    void write(TimeLineProject project, File destFile) throws IOException, XMLStreamException {
+        var tmpFile = File.createTempFile(destFile.getName(), ".tmp", destFile.getAbsoluteFile().getParentFile());
+        try {
+            writeTo(project, tmpFile);
+            Files.move(tmpFile.toPath(), destFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmpFile.toPath());
+        }
+    }
+
+    private void writeTo(TimeLineProject project, File destFile) throws IOException, XMLStreamException {
+        try (Writer fileWriter = Files.newBufferedWriter(destFile.toPath(), StandardCharsets.UTF_8)) {
+            writer = XMLOutputFactory.newInstance().createXMLStreamWriter(fileWriter);
+            try {
+                writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+                writeProject(project);
+                writer.writeEndDocument();
+                if (prettyPrint) {
+                    writer.writeCharacters("\n");
+                }
+                writer.flush();
+            } finally {
+                writer.close();
+                writer = null;
+                pendingElement = null;
+                pendingAttributes.clear();
+                depth = 0;
+            }
+        }
+    }
+
+    private void writeProject(TimeLineProject project) throws XMLStreamException {
+        openElement(PROJECT_GROUP);
+        attribute(NAME_ATR, project.getName());
+        attribute(PROJECT_VERSION_ATR, TARGET_VERSION);
+        attribute(PORTRAIT_FOLDER_ATR, CustomFileUtils.fromAbsoluteToProjectRelative(project, project.getPortraitsFolder()));
+        attribute(PICTURES_LOCATION_ATR, CustomFileUtils.fromAbsoluteToProjectRelative(project, project.getPicturesFolder()));
+        attribute(MINIATURES_FOLDER_ATR, CustomFileUtils.fromAbsoluteToProjectRelative(project, project.getMiniaturesFolder()));
+        // save places
+        openElement(PLACES_GROUP);
+        for (Place place : project.getHighLevelPlaces()) {
+            writePlace(place);
+        }
+        closeElement();
+        // save persons
+        openElement(PERSONS_GROUP);
+        for (Person person : project.getPersons()) {
+            writePerson(person);
+        }
+        closeElement();
+        // save pictures
+        openElement(PICTURES_GROUP);
+        for (Picture picture : PictureFactory.getPictures(project)) {
+            writePicture(picture);
+        }
+        closeElement();
+        // save stays
+        openElement(STAYS_GROUP);
+        for (StayPeriod stay : project.getStays()) {
+            writeStay(stay);
+        }
+        closeElement();
+        // save friezes
+        openElement(FRIEZES_GROUP);
+        for (Frieze frieze : project.getFriezes()) {
+            writeFrieze(frieze);
+        }
+        closeElement();
+        // save picture chronologies
+        openElement(PICTURE_CHRONOLOGIES_GROUP);
+        for (PictureChronology pictureChronology : project.getPictureChronologies()) {
+            writePictureChronology(pictureChronology);
+        }
+        closeElement();
+        //
+        closeElement();
+    }
+
+    private void writePlace(Place place) throws XMLStreamException {
+        openElement(PLACE_ELEMENT);
+        attribute(ID_ATR, place.getId());
+        attribute(NAME_ATR, place.getName());
+        attribute(PLACE_LEVEL_ATR, place.getLevel().name());
+        attribute(COLOR_ATR, place.getColor().toString());
+        for (Place subPlace : place.getPlaces()) {
+            writePlace(subPlace);
+        }
+        closeElement();
+    }
+
+    private void writePerson(Person person) throws XMLStreamException {
+        openElement(PERSON_ELEMENT);
+        attribute(ID_ATR, person.getId());
+        attribute(NAME_ATR, person.getName());
+        if (person.getDefaultPortrait() != null) {
+            attribute(DEFAULT_PORTRAIT_REF_ATR, person.getDefaultPortrait().getId());
+        }
+        attribute(COLOR_ATR, person.getColor().toString());
+        attribute(TIME_FORMAT_ATR, person.getTimeFormat().name());
+        switch (person.getTimeFormat()) {
+            case LOCAL_TIME -> {
+                if (person.getDateOfBirth() != null) {
+                    attribute(DATE_OF_BIRTH_ATR, IDateObject.DEFAULT_DATE_FORMATTER.format(person.getDateOfBirth()));
+                }
+                if (person.getDateOfDeath() != null) {
+                    attribute(DATE_OF_DEATH_ATR, IDateObject.DEFAULT_DATE_FORMATTER.format(person.getDateOfDeath()));
+                }
+            }
+            case TIME_MIN -> {
+                attribute(DATE_OF_BIRTH_ATR, person.getTimeOfBirth());
+                attribute(DATE_OF_DEATH_ATR, person.getTimeOfDeath());
+            }
+            default ->
+                throw new UnsupportedOperationException("Unsupported timefomat : " + person.getTimeFormat());
+        }
+        for (var portrait : person.getPortraits()) {
+            openElement(PORTRAIT_ELEMENT);
+            attribute(ID_ATR, portrait.getId());
+            attribute(PATH_ATR, portrait.getProjectRelativePath());
+            writeObjectTime(portrait);
+            closeElement();
+        }
+        closeElement();
+    }
+
+    private void writeObjectTime(IDateObject aDateObject) {
+        attribute(TIME_FORMAT_ATR, aDateObject.getTimeFormat().name());
+        switch (aDateObject.getTimeFormat()) {
+            case LOCAL_TIME -> {
+                if (aDateObject.getDate() != null) {
+                    attribute(DATE_ATR, IDateObject.DEFAULT_DATE_FORMATTER.format(aDateObject.getDate()));
+                }
+            }
+            case TIME_MIN ->
+                attribute(DATE_ATR, aDateObject.getTimestamp());
+            default ->
+                throw new UnsupportedOperationException("Unsupported timefomat : " + aDateObject.getTimeFormat());
+        }
+    }
+
+    private void writePicture(Picture picture) throws XMLStreamException {
+        openElement(PICTURE_ELEMENT);
+        attribute(ID_ATR, picture.getId());
+        attribute(NAME_ATR, picture.getName());
+        attribute(PATH_ATR, picture.getProjectRelativePath());
+        attribute(WIDTH_ATR, Integer.toString((int) picture.getWidth()));
+        attribute(HEIGHT_ATR, Integer.toString((int) picture.getHeight()));
+        writeObjectTime(picture);
+        for (Person person : picture.getPersons()) {
+            openElement(PERSON_REF_ELEMENT);
+            attribute(ID_ATR, person.getId());
+            closeElement();
+        }
+        for (Place place : picture.getPlaces()) {
+            openElement(PLACE_REF_ELEMENT);
+            attribute(ID_ATR, place.getId());
+            closeElement();
+        }
+        closeElement();
+    }
+
+    private void writeStay(StayPeriod stay) throws XMLStreamException {
+        openElement(STAY_ELEMENT);
+        attribute(ID_ATR, stay.getId());
+        attribute(PERSON_ATR, stay.getPerson().getId());
+        switch (stay.getTimeFormat()) {
+            case LOCAL_TIME -> {
+                LocalDate startDate = LocalDate.ofEpochDay((long) stay.getStartDate());
+                LocalDate endDate = LocalDate.ofEpochDay((long) stay.getEndDate());
+                attribute(START_DATE_ATR, IDateObject.DEFAULT_DATE_FORMATTER.format(startDate));
+                attribute(END_DATE_ATR, IDateObject.DEFAULT_DATE_FORMATTER.format(endDate));
+            }
+            case TIME_MIN -> {
+                attribute(START_DATE_ATR, stay.getStartDate());
+                attribute(END_DATE_ATR, stay.getEndDate());
+            }
+            default ->
+                throw new UnsupportedOperationException("Unknown time format : " + stay.getTimeFormat());
+        }
+        attribute(TIME_FORMAT_ATR, stay.getTimeFormat().name());
+        attribute(PLACE_ID_ATR, stay.getPlace().getId());
+        closeElement();
+    }
+
+    private void writeFrieze(Frieze frieze) throws XMLStreamException {
+        LOG.log(Level.INFO, "Saving Frieze {0}", new Object[]{frieze.getName()});
+        openElement(FRIEZE_ELEMENT);
+        attribute(NAME_ATR, frieze.getName());
+        attribute(ID_ATR, frieze.getId());
+        // Stays
+        openElement(STAYS_REF_GROUP);
+        for (StayPeriod stay : frieze.getStayPeriods()) {
+            openElement(STAY_ELEMENT_REF);
+            attribute(ID_ATR, stay.getId());
+            closeElement();
+        }
+        closeElement();
+        // FreeMaps
+        openElement(FREEMAPS_GROUP);
+        for (FriezeFreeMap freeMap : frieze.getFriezeFreeMaps()) {
+            writeFreeMap(freeMap);
+        }
+        closeElement();
+        closeElement();
+    }
+
+    private void writeFreeMap(FriezeFreeMap friezeFreeMap) throws XMLStreamException {
+        openElement(FREEMAP_ELEMENT);
+        attribute(NAME_ATR, friezeFreeMap.getName());
+        attribute(ID_ATR, friezeFreeMap.getId());
+        attribute(WIDTH_ATR, friezeFreeMap.getFreeMapWidth());
+        attribute(HEIGHT_ATR, friezeFreeMap.getFreeMapHeight());
+        attribute(FREEMAP_PERSON_WIDTH_ATR, friezeFreeMap.getPersonWidth());
+        attribute(FREEMAP_PLACE_NAME_WIDTH_ATR, friezeFreeMap.getPlaceNamesWidth());
+        attribute(FREEMAP_FONT_SIZE_ATR, friezeFreeMap.getFontSize());
+        attribute(FREEMAP_PLOT_SEPARATION_ATR, friezeFreeMap.getPlotSeparation());
+        attribute(FREEMAP_PLOT_VISIBILITY_ATR, Boolean.toString(friezeFreeMap.getPlotVisibility()));
+        attribute(FREEMAP_PLOT_SIZE_ATR, friezeFreeMap.getPlotSize());
+        //
+        openElement(PORTRAITS_GROUP);
+        for (FreeMapPortrait portrait : friezeFreeMap.getPortraits()) {
+            writeFreeMapPortrait(portrait);
+        }
+        closeElement();
+        //
+        openElement(PLOTS_GROUP);
+        for (Plot plot : friezeFreeMap.getPlots()) {
+            writePlot(plot);
+        }
+        closeElement();
+        //
+        openElement(FREEMAP_PLACES_GROUP);
+        for (FreeMapPlace place : friezeFreeMap.getPlaces()) {
+            writeFreeMapPlace(place);
+        }
+        closeElement();
+        //
+        openElement(LINKS_GROUP);
+        for (Link link : friezeFreeMap.getStayLinks()) {
+            writeLink(link);
+        }
+        for (Link link : friezeFreeMap.getTravelLinks()) {
+            writeLink(link);
+        }
+        closeElement();
+        //
+        closeElement();
+    }
+
+    private void writeFreeMapPortrait(FreeMapPortrait portrait) throws XMLStreamException {
+        openElement(PORTRAIT_ELEMENT);
+        attribute(PERSON_ATR, portrait.getPerson().getId());
+        attribute(X_POS_ATR, portrait.getX());
+        attribute(Y_POS_ATR, portrait.getY());
+        attribute(RADIUS_ATR, portrait.getRadius());
+        closeElement();
+    }
+
+    private void writePlot(Plot plot) throws XMLStreamException {
+        openElement(PLOT_ELEMENT);
+        attribute(TYPE_ATR, plot.getType().name());
+        attribute(STAY_ID_ATR, plot.getParentPeriodID());
+        attribute(X_POS_ATR, plot.getX());
+        attribute(Y_POS_ATR, plot.getY());
+        closeElement();
+    }
+
+    private void writeLink(Link link) throws XMLStreamException {
+        openElement(LINK_ELEMENT);
+        attribute(TYPE_ATR, link.getType().name());
+        attribute(START_ID_ATR, link.getBeginPlot().getParentPeriodID());
+        if (link instanceof StayLink stayLink) {
+            attribute(END_ID_ATR, stayLink.getStayPeriod().getId());
+        } else if (link instanceof TravelLink travelLink) {
+            attribute(END_ID_ATR, travelLink.getPerson().getId());
+        } else {
+            attribute(END_ID_ATR, link.getEndPlot().getParentPeriodID());
+        }
+        attribute(STAY_ID_ATR, link.getEndPlot().getParentPeriodID());
+        closeElement();
+    }
+
+    private void writeFreeMapPlace(FreeMapPlace freeMapPlace) throws XMLStreamException {
+        openElement(FREEMAP_PLACE_ELEMENT);
+        attribute(HEIGHT_ATR, freeMapPlace.getHeight());
+        attribute(PLACE_ID_ATR, freeMapPlace.getPlace().getId());
+        attribute(Y_POS_ATR, freeMapPlace.getYPos());
+        closeElement();
+    }
+
+    private void writePictureChronology(PictureChronology pictureChronology) throws XMLStreamException {
+        openElement(PICTURE_CHRONOLOGY_ELEMENT);
+        attribute(ID_ATR, pictureChronology.getId());
+        attribute(NAME_ATR, pictureChronology.getName());
+        attribute(WIDTH_ATR, pictureChronology.getWidth());
+        attribute(HEIGHT_ATR, pictureChronology.getHeight());
+        //
+        for (ChronologyPictureMiniature miniature : pictureChronology.getChronologyPictures()) {
+            writePictureChronologyMiniature(miniature);
+        }
+        for (ChronologyLink link : pictureChronology.getLinks()) {
+            writePictureChronologyLink(link);
+        }
+        closeElement();
+    }
+
+    private void writePictureChronologyMiniature(ChronologyPictureMiniature miniature) throws XMLStreamException {
+        openElement(PICTURE_CHRONOLOGY_MINIATURE_ELEMENT);
+        attribute(ID_ATR, miniature.getId());
+        attribute(X_POS_ATR, miniature.getPosition().getX());
+        attribute(Y_POS_ATR, miniature.getPosition().getY());
+        attribute(PICTURE_REF_ELEMENT, miniature.getPicture().getId());
+        attribute(SCALE_ATR, miniature.getScale());
+        if (!miniature.isInSyncWithPicture()) {
+            writeObjectTime(miniature.getDateObject());
+        }
+        closeElement();
+    }
+
+    private void writePictureChronologyLink(ChronologyLink link) throws XMLStreamException {
+        openElement(PICTURE_CHRONOLOGY_LINK_ELEMENT);
+        attribute(ID_ATR, link.getId());
+        attribute(TYPE_ATR, link.getLinkType().name());
+        attribute(FROM_ATR, link.getStartMiniature().getId());
+        attribute(TO_ATR, link.getEndMiniature().getId());
+        attribute(PERSON_REF_ATR, link.getPerson().getId());
+        attribute(PARAMETERS_ATR, Arrays.toString(link.getLinkParameters()));
+        closeElement();
+    }
+
+    //
+    // element writing
+    //
+    /**
+     * Starts an element. Its start tag is only written once its first child is
+     * opened, or as an empty element when it is closed without any child.
+     */
+    private void openElement(String name) throws XMLStreamException {
+        if (pendingElement != null) {
+            writePendingElement(false);
+        }
+        pendingElement = name;
+    }
+
+    private void closeElement() throws XMLStreamException {
+        if (pendingElement != null) {
+            writePendingElement(true);
+        } else {
+            depth--;
+            newLine();
+            writer.writeEndElement();
+        }
+    }
+
+    private void writePendingElement(boolean empty) throws XMLStreamException {
+        newLine();
+        if (empty) {
+            writer.writeEmptyElement(pendingElement);
+        } else {
+            writer.writeStartElement(pendingElement);
+            depth++;
+        }
+        for (var attribute : pendingAttributes.entrySet()) {
+            writer.writeAttribute(attribute.getKey(), attribute.getValue());
+        }
+        pendingAttributes.clear();
+        pendingElement = null;
+    }
+
+    private void attribute(String name, String value) {
+        pendingAttributes.put(name, value);
+    }
+
+    private void attribute(String name, long value) {
+        attribute(name, Long.toString(value));
+    }
+
+    private void attribute(String name, double value) {
+        attribute(name, Double.toString(value));
+    }
+
+    private void newLine() throws XMLStreamException {
+        if (prettyPrint) {
+            while (indents.size() <= depth) {
+                indents.add("\n" + INDENT.repeat(indents.size()));
+            }
+            writer.writeCharacters(indents.get(depth));
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2020 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Stores files by content in a folder, so that identical files are stored
+ * once and different files never share a name.
+ *
+ * A file is stored as {@code <hash>.<extension>} in a sub folder named after
+ * the first two characters of its hash, the hash being the SHA-256 of its
+ * content. The extension is the one of the image format detected from the
+ * content, whatever the name of the source file, so that a {@code .jpg} and a
+ * {@code .jpeg} copy of a picture share the same stored file. The source file
+ * is hashed before anything is written, and only copied if its content is
+ * not stored yet.
+ *
+ * @author hamon
+ */
+public final class ContentStore {
+
+    public static final String HASH_ALGORITHM = "SHA-256";
+
+    private static final Logger LOG = Logger.getGlobal();
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final int HEADER_SIZE = 8;
+    private static final Pattern BLOB_NAME = Pattern.compile("[0-9a-f]{64}(\\.\\w+)?");
+
+    private ContentStore() {
+        // private utility constructor
+    }
+
+    /**
+     * Copies a file into the store, unless a file with the same content is
+     * already stored.
+     *
+     * @param sourceFile the file to store
+     * @param storeFolder the folder of the store
+     * @return the stored file
+     * @throws IOException if the file cannot be copied
+     */
+    public static File store(File sourceFile, File storeFolder) throws IOException {
+        if (isStored(sourceFile, storeFolder)) {
+            return sourceFile;
+        }
+        var header = ByteBuffer.allocate(HEADER_SIZE);
+        var hash = hash(sourceFile, header);
+        var storedFile = getStoredFile(storeFolder, hash, getContentExtension(header.flip()));
+        if (storedFile.exists() && storedFile.length() == sourceFile.length()) {
+            LOG.log(Level.FINE, "{0} is already stored as {1}", new Object[]{sourceFile, storedFile});
+            return storedFile;
+        }
+        storedFile.getParentFile().mkdirs();
+        var tempFile = File.createTempFile("store", ".tmp", storeFolder);
+        try {
+            if (!hash.equals(copyAndHash(sourceFile, tempFile))) {
+                throw new IOException(sourceFile + " changed while being stored");
+            }
+            try {
+                Files.move(tempFile.toPath(), storedFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tempFile.toPath(), storedFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } catch (FileAlreadyExistsException ex) {
+                // stored concurrently
+            }
+            return storedFile;
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
+
+    /**
+     *
+     * @param storeFolder the folder of the store
+     * @param hash the hash of the file content
+     * @param extension the extension of the file, including the dot, or an
+     * empty string
+     * @return the file holding that content in the store, which may not exist
+     */
+    public static File getStoredFile(File storeFolder, String hash, String extension) {
+        return new File(new File(storeFolder, hash.substring(0, 2)), hash + extension);
+    }
+
+    /**
+     *
+     * @param file a file
+     * @param storeFolder the folder of the store
+     * @return true if the file is a file of the store
+     */
+    public static boolean isStored(File file, File storeFolder) {
+        var parent = file.getAbsoluteFile().getParentFile();
+        return parent != null
+                && storeFolder.getAbsoluteFile().equals(parent.getParentFile())
+                && BLOB_NAME.matcher(file.getName()).matches()
+                && file.getName().startsWith(parent.getName());
+    }
+
+    /**
+     * Hashes the content of a file without writing anything.
+     *
+     * @param file the file to hash
+     * @param header filled with the first bytes of the file
+     * @return the hash of the file content
+     */
+    private static String hash(File file, ByteBuffer header) throws IOException {
+        var digest = newDigest();
+        var buffer = ByteBuffer.allocateDirect(COPY_BUFFER_SIZE);
+        try (var source = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            while (source.read(buffer) >= 0) {
+                buffer.flip();
+                var bytes = buffer.duplicate();
+                while (header.hasRemaining() && bytes.hasRemaining()) {
+                    header.put(bytes.get());
+                }
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String copyAndHash(File sourceFile, File targetFile) throws IOException {
+        var digest = newDigest();
+        var buffer = ByteBuffer.allocateDirect(COPY_BUFFER_SIZE);
+        try (var source = FileChannel.open(sourceFile.toPath(), StandardOpenOption.READ);
+                var target = FileChannel.open(targetFile.toPath(), StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (source.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    target.write(buffer);
+                }
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     *
+     * @return a new digest of the algorithm used to hash files
+     */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException ex) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     *
+     * @param header the first bytes of a file
+     * @return the extension of the image format of the file, including the
+     * dot, or an empty string if the format is not known
+     */
+    private static String getContentExtension(ByteBuffer header) {
+        if (startsWith(header, 0xFF, 0xD8, 0xFF)) {
+            return ".jpg";
+        } else if (startsWith(header, 0x89, 'P', 'N', 'G')) {
+            return ".png";
+        } else if (startsWith(header, 'G', 'I', 'F', '8')) {
+            return ".gif";
+        } else if (startsWith(header, 'B', 'M')) {
+            return ".bmp";
+        } else if (startsWith(header, 'I', 'I', 0x2A, 0x00) || startsWith(header, 'M', 'M', 0x00, 0x2A)) {
+            return ".tif";
+        }
+        return "";
+    }
+
+    private static boolean startsWith(ByteBuffer header, int... prefix) {
+        if (header.remaining() < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if ((header.get(header.position() + i) & 0xFF) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
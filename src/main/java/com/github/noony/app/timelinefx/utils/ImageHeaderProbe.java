@@ -0,0 +1,342 @@
+/*
+ * Copyright (C) 2020 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads the dimensions and the EXIF dates of an image from its header,
+ * without decoding it.
+ *
+ * Dimensions come from the SOF segment of JPEG files, the IHDR chunk of PNG
+ * files and the first IFD of TIFF files; dates come from the EXIF segment of
+ * JPEG files and from the IFDs of TIFF files. Only the headers are read, with
+ * reads bounded to {@link #MAX_SEGMENT_SIZE} bytes.
+ *
+ * @author hamon
+ */
+final class ImageHeaderProbe {
+
+    private static final Logger LOG = Logger.getGlobal();
+
+    /**
+     * Maximum size of a header segment read at once, a JPEG segment cannot be
+     * larger.
+     */
+    static final int MAX_SEGMENT_SIZE = 64 * 1024;
+
+    private static final DateTimeFormatter DT_PARSER = DateTimeFormatter.ofPattern("yyyy:MM:dd HH:mm:ss");
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] EXIF_HEADER = {'E', 'x', 'i', 'f', 0, 0};
+    private static final int PNG_IHDR = 0x49484452;
+
+    private static final int JPEG_SOI = 0xD8;
+    private static final int JPEG_EOI = 0xD9;
+    private static final int JPEG_SOS = 0xDA;
+    private static final int JPEG_APP1 = 0xE1;
+
+    private static final int TIFF_IMAGE_WIDTH = 256;
+    private static final int TIFF_IMAGE_LENGTH = 257;
+    private static final int TIFF_DATE_TIME = 306;
+    private static final int TIFF_EXIF_IFD = 34665;
+    private static final int EXIF_DATE_TIME_ORIGINAL = 36867;
+    private static final int TIFF_SHORT = 3;
+    private static final int TIFF_LONG = 4;
+    private static final int MAX_IFD_ENTRIES = 1024;
+    // the EXIF IFD is nested in IFD0, a deeper one can only come from a loop
+    private static final int MAX_IFD_DEPTH = 2;
+
+    private final FileChannel channel;
+    private final ByteBuffer smallBuffer = ByteBuffer.allocate(16);
+
+    private int width = -1;
+    private int height = -1;
+    private String dateTime = null;
+    private String dateTimeOriginal = null;
+
+    private ImageHeaderProbe(FileChannel aChannel) {
+        channel = aChannel;
+    }
+
+    /**
+     * Probes the header of an image file.
+     *
+     * @param file the image file
+     * @return the probe holding the dimensions and dates found, null if the
+     * format is not supported or the header could not be read
+     */
+    static ImageHeaderProbe probe(File file) {
+        try (var fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            var probe = new ImageHeaderProbe(fileChannel);
+            return probe.readHeader() ? probe : null;
+        } catch (IOException | RuntimeException ex) {
+            LOG.log(Level.FINE, "Could not probe header of {0} :: {1}", new Object[]{file, ex});
+            return null;
+        }
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getHeight() {
+        return height;
+    }
+
+    /**
+     * Uses the same precedence as the full parsing: the TIFF date time over
+     * the EXIF original date time.
+     *
+     * @param defaultDate the date returned when the header has no valid date
+     * @return the creation date of the image
+     */
+    LocalDateTime getCreationDate(LocalDateTime defaultDate) {
+        var result = defaultDate;
+        try {
+            if (dateTimeOriginal != null) {
+                result = LocalDateTime.parse(dateTimeOriginal, DT_PARSER);
+            }
+            if (dateTime != null) {
+                result = LocalDateTime.parse(dateTime, DT_PARSER);
+            }
+        } catch (DateTimeParseException ex) {
+            LOG.log(Level.SEVERE, null, ex);
+        }
+        return result;
+    }
+
+    private boolean readHeader() throws IOException {
+        var start = read(0, 8);
+        if (start.remaining() < 8) {
+            return false;
+        }
+        if ((start.get(0) & 0xFF) == 0xFF && (start.get(1) & 0xFF) == JPEG_SOI) {
+            return readJpeg();
+        }
+        if (startsWith(start, PNG_SIGNATURE)) {
+            return readPng();
+        }
+        if ((start.get(0) == 'I' && start.get(1) == 'I') || (start.get(0) == 'M' && start.get(1) == 'M')) {
+            return readTiff(0, Math.min(channel.size(), Integer.MAX_VALUE));
+        }
+        return false;
+    }
+
+    //
+    // JPEG
+    //
+    private boolean readJpeg() throws IOException {
+        long position = 2;
+        var size = channel.size();
+        while (position + 4 <= size) {
+            var header = read(position, 4);
+            if ((header.get(0) & 0xFF) != 0xFF) {
+                return false;
+            }
+            var marker = header.get(1) & 0xFF;
+            if (marker == 0xFF) {
+                // fill byte
+                position++;
+                continue;
+            }
+            if (marker == JPEG_SOS || marker == JPEG_EOI) {
+                return false;
+            }
+            var segmentLength = header.getShort(2) & 0xFFFF;
+            if (isStartOfFrame(marker)) {
+                var frame = read(position + 4, 5);
+                height = frame.getShort(1) & 0xFFFF;
+                width = frame.getShort(3) & 0xFFFF;
+                return width > 0 && height > 0;
+            }
+            if (marker == JPEG_APP1 && dateTime == null && dateTimeOriginal == null) {
+                readExifSegment(position + 4, segmentLength - 2);
+            }
+            position += 2 + segmentLength;
+        }
+        return false;
+    }
+
+    private static boolean isStartOfFrame(int marker) {
+        // SOF0 to SOF15, except DHT, JPG and DAC
+        return marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+    }
+
+    private void readExifSegment(long position, int length) throws IOException {
+        if (length <= EXIF_HEADER.length) {
+            return;
+        }
+        var segment = read(position, Math.min(length, MAX_SEGMENT_SIZE));
+        if (!startsWith(segment, EXIF_HEADER)) {
+            return;
+        }
+        segment.position(EXIF_HEADER.length);
+        var tiff = segment.slice();
+        try {
+            readTiffDates(tiff);
+        } catch (RuntimeException ex) {
+            // a broken EXIF segment does not prevent reading the dimensions
+            LOG.log(Level.FINE, "Could not read EXIF segment :: {0}", ex);
+        }
+    }
+
+    //
+    // PNG
+    //
+    private boolean readPng() throws IOException {
+        var ihdr = read(PNG_SIGNATURE.length, 16);
+        if (ihdr.remaining() < 16 || ihdr.getInt(4) != PNG_IHDR) {
+            return false;
+        }
+        width = ihdr.getInt(8);
+        height = ihdr.getInt(12);
+        return width > 0 && height > 0;
+    }
+
+    //
+    // TIFF
+    //
+    private boolean readTiff(long position, long length) throws IOException {
+        var tiff = read(position, (int) Math.min(length, MAX_SEGMENT_SIZE));
+        var byteOrder = getByteOrder(tiff);
+        tiff.order(byteOrder);
+        var ifdOffset = tiff.getInt(4);
+        if (ifdOffset >= 0 && ifdOffset + 2 <= tiff.limit()) {
+            readIfd(tiff, ifdOffset, true, 0);
+        } else {
+            // the first IFD is written after the image data: its value offsets
+            // do not match the buffer, only the inline dimensions are read
+            tiff = read(position + Integer.toUnsignedLong(ifdOffset), MAX_SEGMENT_SIZE);
+            tiff.order(byteOrder);
+            readIfd(tiff, 0, false, 0);
+        }
+        return width > 0 && height > 0;
+    }
+
+    private void readTiffDates(ByteBuffer tiff) {
+        tiff.order(getByteOrder(tiff));
+        readIfd(tiff, tiff.getInt(4), true, 0);
+    }
+
+    private void readIfd(ByteBuffer tiff, int offset, boolean readDates, int depth) {
+        if (depth >= MAX_IFD_DEPTH || offset < 0 || offset + 2 > tiff.limit()) {
+            return;
+        }
+        var nbEntries = Math.min(tiff.getShort(offset) & 0xFFFF, MAX_IFD_ENTRIES);
+        for (int i = 0; i < nbEntries; i++) {
+            var entry = offset + 2 + i * 12;
+            if (entry + 12 > tiff.limit()) {
+                return;
+            }
+            var tag = tiff.getShort(entry) & 0xFFFF;
+            var type = tiff.getShort(entry + 2) & 0xFFFF;
+            var count = tiff.getInt(entry + 4);
+            switch (tag) {
+                case TIFF_IMAGE_WIDTH ->
+                    width = readInteger(tiff, entry, type);
+                case TIFF_IMAGE_LENGTH ->
+                    height = readInteger(tiff, entry, type);
+                case TIFF_DATE_TIME -> {
+                    if (readDates) {
+                        dateTime = readAscii(tiff, entry, count);
+                    }
+                }
+                case EXIF_DATE_TIME_ORIGINAL -> {
+                    if (readDates) {
+                        dateTimeOriginal = readAscii(tiff, entry, count);
+                    }
+                }
+                case TIFF_EXIF_IFD -> {
+                    if (readDates) {
+                        readIfd(tiff, tiff.getInt(entry + 8), true, depth + 1);
+                    }
+                }
+                default -> {
+                    // not needed
+                }
+            }
+        }
+    }
+
+    private static int readInteger(ByteBuffer tiff, int entry, int type) {
+        return switch (type) {
+            case TIFF_SHORT ->
+                tiff.getShort(entry + 8) & 0xFFFF;
+            case TIFF_LONG ->
+                tiff.getInt(entry + 8);
+            default ->
+                -1;
+        };
+    }
+
+    private static String readAscii(ByteBuffer tiff, int entry, int count) {
+        // dates are 20 bytes long, stored after the IFD
+        var offset = count <= 4 ? entry + 8 : tiff.getInt(entry + 8);
+        if (count <= 1 || offset < 0 || offset + count > tiff.limit()) {
+            return null;
+        }
+        var bytes = new byte[count - 1];
+        tiff.get(offset, bytes);
+        var value = new String(bytes, StandardCharsets.US_ASCII).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static ByteOrder getByteOrder(ByteBuffer tiff) {
+        return tiff.get(0) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+    }
+
+    //
+    // reading
+    //
+    private ByteBuffer read(long position, int length) throws IOException {
+        var buffer = length <= smallBuffer.capacity() ? smallBuffer.clear().limit(length) : ByteBuffer.allocate(length);
+        var readPosition = position;
+        while (buffer.hasRemaining()) {
+            var nbRead = channel.read(buffer, readPosition);
+            if (nbRead < 0) {
+                break;
+            }
+            readPosition += nbRead;
+        }
+        buffer.flip();
+        return buffer.order(ByteOrder.BIG_ENDIAN);
+    }
+
+    private static boolean startsWith(ByteBuffer buffer, byte[] prefix) {
+        if (buffer.remaining() < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(buffer.position() + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,398 @@
+/*
+ * Copyright (C) 2020 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.utils;
+
+import com.github.noony.app.timelinefx.core.IFileObject;
+import com.github.noony.app.timelinefx.core.TimeLineProject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.application.Platform;
+import javafx.embed.swing.SwingFXUtils;
+import javafx.scene.image.Image;
+import javax.imageio.ImageIO;
+
+/**
+ * Loads the images of pictures and portraits for display.
+ *
+ * Images are decoded on a pool of background threads, at one of the
+ * {@link Resolution} levels. Decoded images are kept in a least recently used
+ * cache bounded by their size in memory, and concurrent requests for the same
+ * image share the same decoding. Reduced images are also written as PNG
+ * miniatures in the miniatures folder of the project, so that they are only
+ * computed once from the full image.
+ *
+ * @author hamon
+ */
+public final class ImageService {
+
+    public static final long DEFAULT_MAX_CACHE_SIZE = 256L * 1024 * 1024;
+    public static final String MINIATURE_EXTENSION = ".png";
+
+    private static final Logger LOG = Logger.getGlobal();
+
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private static ImageService instance = null;
+
+    /**
+     * The resolution an image is loaded at, from the lowest to the highest.
+     */
+    public enum Resolution {
+        /**
+         * Fits in 128x128, for portraits drawn as small circles.
+         */
+        ICON(128, "_icon"),
+        /**
+         * Fits in 256x256, for tiles and small drawings.
+         */
+        THUMB(256, "_thumb"),
+        /**
+         * Fits in 1024x1024.
+         */
+        MEDIUM(1024, "_medium"),
+        /**
+         * Fits in 2048x2048, decoded from the image and never written as a
+         * miniature.
+         */
+        LARGE(2048, null),
+        /**
+         * The image as stored.
+         */
+        FULL(0, null);
+
+        /**
+         * A higher resolution is kept until the drawn size gets below this
+         * ratio of the lower resolution, so that zooming around a threshold
+         * does not reload the image at each step.
+         */
+        private static final double DOWNGRADE_RATIO = 0.75;
+
+        private final int maxSize;
+        private final String suffix;
+
+        Resolution(int aMaxSize, String aSuffix) {
+            maxSize = aMaxSize;
+            suffix = aSuffix;
+        }
+
+        /**
+         *
+         * @return the maximum width and height of the images, 0 if they are
+         * not reduced
+         */
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        /**
+         *
+         * @return true if the images at this resolution are written as
+         * miniatures
+         */
+        public boolean isPersisted() {
+            return suffix != null;
+        }
+
+        /**
+         *
+         * @param displaySize the largest dimension of the image on screen, in
+         * pixels
+         * @param current the resolution the image is currently loaded at, null
+         * if none
+         * @return the lowest resolution at which the image is not enlarged on
+         * screen
+         */
+        public static Resolution forDisplaySize(double displaySize, Resolution current) {
+            var needed = FULL;
+            for (Resolution resolution : values()) {
+                if (resolution.maxSize >= displaySize) {
+                    needed = resolution;
+                    break;
+                }
+            }
+            if (current != null && current.ordinal() > needed.ordinal() && displaySize > needed.maxSize * DOWNGRADE_RATIO) {
+                return current;
+            }
+            return needed;
+        }
+    }
+
+    private final ExecutorService decoders;
+    private final Map<String, CompletableFuture<Image>> pendingRequests = new ConcurrentHashMap<>();
+    // access ordered, guarded by this
+    private final LinkedHashMap<String, Image> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private final long maxCacheSize;
+    private long cacheSize = 0;
+
+    /**
+     *
+     * @param aMaxCacheSize the maximum size in bytes of the decoded images kept
+     * in memory
+     * @param nbDecoders the number of images decoded in parallel
+     */
+    public ImageService(long aMaxCacheSize, int nbDecoders) {
+        maxCacheSize = aMaxCacheSize;
+        decoders = Executors.newFixedThreadPool(Math.max(1, nbDecoders), runnable -> {
+            var thread = new Thread(runnable, "ImageService");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     *
+     * @return the image service shared by the application
+     */
+    public static synchronized ImageService getInstance() {
+        if (instance == null) {
+            instance = new ImageService(DEFAULT_MAX_CACHE_SIZE, Math.max(2, Runtime.getRuntime().availableProcessors() - 1));
+        }
+        return instance;
+    }
+
+    /**
+     *
+     * @param project a project
+     * @param picturePath the project relative path of an image
+     * @param resolution a reduced resolution
+     * @return the miniature file of the image at that resolution, which may
+     * not exist
+     */
+    public static File getMiniatureFile(TimeLineProject project, String picturePath, Resolution resolution) {
+        if (!resolution.isPersisted()) {
+            throw new IllegalArgumentException(resolution + " images have no miniature");
+        }
+        var miniatureName = picturePath.replace('/', '_').replace('\\', '_').replace(':', '_') + resolution.suffix + MINIATURE_EXTENSION;
+        return new File(project.getMiniaturesFolder(), miniatureName);
+    }
+
+    /**
+     * Loads the image of a file object and gives it to the consumer on the
+     * JavaFX thread. If the image is not in memory but a lower resolution of
+     * it is, the consumer gets the lower resolution first.
+     *
+     * @param fileObject the picture or portrait to load the image of
+     * @param resolution the resolution to load the image at
+     * @param consumer the consumer of the image, called on the JavaFX thread
+     */
+    public void load(IFileObject fileObject, Resolution resolution, Consumer<Image> consumer) {
+        load(fileObject, resolution, consumer, true);
+    }
+
+    /**
+     * Loads the image of a file object and gives it to the consumer on the
+     * JavaFX thread.
+     *
+     * @param fileObject the picture or portrait to load the image of
+     * @param resolution the resolution to load the image at
+     * @param consumer the consumer of the image, called on the JavaFX thread
+     * @param preview whether the consumer first gets a lower resolution
+     * already in memory, if the requested one is not
+     */
+    public void load(IFileObject fileObject, Resolution resolution, Consumer<Image> consumer, boolean preview) {
+        var cachedImage = getCachedImage(fileObject, resolution);
+        if (cachedImage != null) {
+            deliver(cachedImage, consumer);
+            return;
+        }
+        for (int i = resolution.ordinal() - 1; preview && i >= 0; i--) {
+            var lowerImage = getCachedImage(fileObject, Resolution.values()[i]);
+            if (lowerImage != null) {
+                deliver(lowerImage, consumer);
+                break;
+            }
+        }
+        request(fileObject, resolution).whenComplete((image, ex) -> {
+            if (ex != null) {
+                LOG.log(Level.SEVERE, "Could not load image of {0} :: {1}", new Object[]{fileObject.getAbsolutePath(), ex});
+            } else {
+                Platform.runLater(() -> consumer.accept(image));
+            }
+        });
+    }
+
+    /**
+     *
+     * @param fileObject the picture or portrait to load the image of
+     * @param resolution the resolution to load the image at
+     * @return the image, completed on a decoding thread
+     */
+    public CompletableFuture<Image> request(IFileObject fileObject, Resolution resolution) {
+        var key = getKey(fileObject, resolution);
+        var cachedImage = getCachedImage(key);
+        if (cachedImage != null) {
+            return CompletableFuture.completedFuture(cachedImage);
+        }
+        var future = new CompletableFuture<Image>();
+        var pendingRequest = pendingRequests.putIfAbsent(key, future);
+        if (pendingRequest != null) {
+            return pendingRequest;
+        }
+        CompletableFuture.supplyAsync(() -> decode(fileObject, resolution), decoders).whenComplete((image, ex) -> {
+            if (image != null) {
+                putCachedImage(key, image);
+            }
+            pendingRequests.remove(key, future);
+            if (ex != null) {
+                future.completeExceptionally(ex);
+            } else {
+                future.complete(image);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Used to render drawings offscreen once their images are loaded.
+     *
+     * @return a future completed once the requests pending when it is called
+     * are done, whether they succeeded or not
+     */
+    public CompletableFuture<Void> whenIdle() {
+        return CompletableFuture.allOf(pendingRequests.values().toArray(CompletableFuture[]::new))
+                .handle((result, ex) -> null);
+    }
+
+    /**
+     *
+     * @param fileObject a picture or portrait
+     * @param resolution a resolution
+     * @return the image if it is in memory, null otherwise
+     */
+    public Image getCachedImage(IFileObject fileObject, Resolution resolution) {
+        return getCachedImage(getKey(fileObject, resolution));
+    }
+
+    public synchronized long getCacheSize() {
+        return cacheSize;
+    }
+
+    public synchronized void clearCache() {
+        cache.clear();
+        cacheSize = 0;
+    }
+
+    private static String getKey(IFileObject fileObject, Resolution resolution) {
+        return fileObject.getAbsolutePath() + '#' + resolution.name();
+    }
+
+    private synchronized Image getCachedImage(String key) {
+        return cache.get(key);
+    }
+
+    private synchronized void putCachedImage(String key, Image image) {
+        var previousImage = cache.put(key, image);
+        if (previousImage != null) {
+            cacheSize -= getByteSize(previousImage);
+        }
+        cacheSize += getByteSize(image);
+        var iterator = cache.entrySet().iterator();
+        // the last image is kept even if it is larger than the cache
+        while (cacheSize > maxCacheSize && cache.size() > 1 && iterator.hasNext()) {
+            var eldest = iterator.next();
+            cacheSize -= getByteSize(eldest.getValue());
+            iterator.remove();
+        }
+    }
+
+    private static long getByteSize(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * BYTES_PER_PIXEL;
+    }
+
+    private static void deliver(Image image, Consumer<Image> consumer) {
+        if (Platform.isFxApplicationThread()) {
+            consumer.accept(image);
+        } else {
+            Platform.runLater(() -> consumer.accept(image));
+        }
+    }
+
+    private static Image decode(IFileObject fileObject, Resolution resolution) {
+        var imageFile = new File(fileObject.getAbsolutePath());
+        File miniatureFile = null;
+        if (resolution.isPersisted()) {
+            miniatureFile = getMiniatureFile(fileObject.getProject(), fileObject.getProjectRelativePath(), resolution);
+            if (isUpToDate(miniatureFile, imageFile)) {
+                var miniature = new Image(miniatureFile.toURI().toString(), false);
+                if (!miniature.isError()) {
+                    return miniature;
+                }
+                LOG.log(Level.WARNING, "Could not read miniature {0}, decoding {1}", new Object[]{miniatureFile, imageFile});
+            }
+        }
+        // a higher resolution miniature is faster to decode than the image
+        var sourceFile = imageFile;
+        var resolutions = Resolution.values();
+        for (int i = resolution.ordinal() + 1; i < resolutions.length && resolutions[i].isPersisted(); i++) {
+            var higherMiniatureFile = getMiniatureFile(fileObject.getProject(), fileObject.getProjectRelativePath(), resolutions[i]);
+            if (isUpToDate(higherMiniatureFile, imageFile)) {
+                sourceFile = higherMiniatureFile;
+                break;
+            }
+        }
+        Image image;
+        var probe = ImageHeaderProbe.probe(sourceFile);
+        var maxSize = resolution.getMaxSize();
+        if (maxSize > 0 && (probe == null || Math.max(probe.getWidth(), probe.getHeight()) > maxSize)) {
+            // decoded at the reduced size, the full image is never in memory
+            image = new Image(sourceFile.toURI().toString(), maxSize, maxSize, true, true, false);
+        } else {
+            image = new Image(sourceFile.toURI().toString(), false);
+        }
+        if (image.isError()) {
+            throw new IllegalStateException("Could not decode " + sourceFile, image.getException());
+        }
+        if (miniatureFile != null) {
+            writeMiniature(image, miniatureFile);
+        }
+        return image;
+    }
+
+    private static boolean isUpToDate(File miniatureFile, File imageFile) {
+        return miniatureFile.isFile() && miniatureFile.lastModified() >= imageFile.lastModified();
+    }
+
+    private static void writeMiniature(Image image, File miniatureFile) {
+        var miniaturesFolder = miniatureFile.getParentFile();
+        File tempFile = null;
+        try {
+            miniaturesFolder.mkdirs();
+            tempFile = File.createTempFile(miniatureFile.getName(), ".tmp", miniaturesFolder);
+            if (ImageIO.write(SwingFXUtils.fromFXImage(image, null), "png", tempFile)) {
+                Files.move(tempFile.toPath(), miniatureFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException ex) {
+            // the miniature is computed again on next load
+            LOG.log(Level.WARNING, "Could not write miniature {0} :: {1}", new Object[]{miniatureFile, ex});
+        } finally {
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        }
+    }
+}
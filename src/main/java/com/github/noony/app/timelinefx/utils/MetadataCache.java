@@ -0,0 +1,287 @@
+/*
+ * Copyright (C) 2020 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.utils;
+
+import com.github.noony.app.timelinefx.core.PictureInfo;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Persistent cache of the image metadata of a project, stored beside the
+ * project file.
+ *
+ * Entries hold the dimensions, the creation date and the content hash of an
+ * image, keyed by its project relative path. An entry is only valid while the
+ * size and the last modification time of the file match the ones it was
+ * computed from; this is checked when the entry is looked up, so that loading
+ * a project whose images did not change reads no image at all.
+ *
+ * @author hamon
+ */
+public final class MetadataCache {
+
+    public static final String METADATA_CACHE_FILE_EXTENSION = ".tlfxm";
+
+    private static final Logger LOG = Logger.getGlobal();
+
+    private static final int MAGIC = 0x544C464D; // TLFM
+    private static final int FORMAT_VERSION = 1;
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    private final File cacheFile;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private boolean loaded = false;
+    private volatile boolean modified = false;
+
+    /**
+     *
+     * @param projectFile the project file, null for a cache that is not
+     * persisted
+     */
+    public MetadataCache(File projectFile) {
+        cacheFile = projectFile != null ? getCacheFile(projectFile) : null;
+    }
+
+    /**
+     *
+     * @param projectFile the project file
+     * @return the metadata cache file of the project file, which may not exist
+     */
+    public static File getCacheFile(File projectFile) {
+        var name = projectFile.getName();
+        var extensionIndex = name.lastIndexOf('.');
+        var baseName = extensionIndex > 0 ? name.substring(0, extensionIndex) : name;
+        return new File(projectFile.getAbsoluteFile().getParentFile(), baseName + METADATA_CACHE_FILE_EXTENSION);
+    }
+
+    public File getCacheFile() {
+        return cacheFile;
+    }
+
+    /**
+     *
+     * @param relativePath the project relative path of the image
+     * @param file the image file
+     * @return the cached metadata of the image, null if it is not cached or if
+     * the file changed since it was cached
+     */
+    public PictureInfo get(String relativePath, File file) {
+        var entry = getValidEntry(relativePath, file);
+        if (entry == null) {
+            return null;
+        }
+        return new PictureInfo(file.getName(), relativePath, entry.creationDate, entry.width, entry.height);
+    }
+
+    /**
+     * Caches the metadata of an image, read from its current content.
+     *
+     * @param relativePath the project relative path of the image
+     * @param file the image file
+     * @param info the metadata of the image
+     */
+    public void put(String relativePath, File file, PictureInfo info) {
+        var entry = new Entry(file.length(), file.lastModified(), info.getCreationDate(), info.getWidth(), info.getHeight(), null);
+        entries.put(relativePath, entry);
+        modified = true;
+    }
+
+    /**
+     * Returns the content hash of an image, computing it if it is not cached
+     * or if the file changed since it was cached.
+     *
+     * @param relativePath the project relative path of the image
+     * @param file the image file
+     * @return the SHA-256 of the file content as an hexadecimal string, null
+     * if the file cannot be read or if its metadata is not cached
+     */
+    public String getContentHash(String relativePath, File file) {
+        var entry = getValidEntry(relativePath, file);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.contentHash == null) {
+            try (var inputStream = new FileInputStream(file)) {
+                var hash = computeHash(inputStream);
+                entries.put(relativePath, entry.withContentHash(hash));
+                modified = true;
+                return hash;
+            } catch (IOException ex) {
+                LOG.log(Level.WARNING, "Could not hash file {0} :: {1}", new Object[]{file, ex});
+                return null;
+            }
+        }
+        return entry.contentHash;
+    }
+
+    /**
+     *
+     * @param inputStream the content to hash, read until its end
+     * @return the SHA-256 of the content as an hexadecimal string
+     * @throws IOException if the content cannot be read
+     */
+    public static String computeHash(InputStream inputStream) throws IOException {
+        var digest = ContentStore.newDigest();
+        var buffer = new byte[HASH_BUFFER_SIZE];
+        int nbRead;
+        while ((nbRead = inputStream.read(buffer)) >= 0) {
+            digest.update(buffer, 0, nbRead);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Writes the cache file if entries were added since it was loaded. Entries
+     * of files that no longer exist are dropped.
+     *
+     * @return true if the cache file is up to date
+     */
+    public synchronized boolean save() {
+        if (cacheFile == null || !modified) {
+            return cacheFile != null;
+        }
+        var projectFolder = cacheFile.getParentFile();
+        entries.keySet().removeIf(relativePath -> !new File(projectFolder, relativePath).isFile());
+        modified = false;
+        File tempFile = null;
+        try {
+            tempFile = File.createTempFile(cacheFile.getName(), ".tmp", projectFolder);
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(entries.size());
+                for (var mapEntry : entries.entrySet()) {
+                    out.writeUTF(mapEntry.getKey());
+                    mapEntry.getValue().write(out);
+                }
+            }
+            Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            LOG.log(Level.FINE, "Saved {0} metadata entries to {1}", new Object[]{entries.size(), cacheFile});
+            return true;
+        } catch (IOException ex) {
+            modified = true;
+            LOG.log(Level.WARNING, "Could not save metadata cache {0} :: {1}", new Object[]{cacheFile, ex});
+            return false;
+        } finally {
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    private Entry getValidEntry(String relativePath, File file) {
+        ensureLoaded();
+        var entry = entries.get(relativePath);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.size != file.length() || entry.lastModified != file.lastModified()) {
+            entries.remove(relativePath, entry);
+            modified = true;
+            return null;
+        }
+        return entry;
+    }
+
+    private synchronized void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (cacheFile == null || !cacheFile.isFile()) {
+            return;
+        }
+        try (var in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+            var magic = in.readInt();
+            var version = in.readInt();
+            if (magic != MAGIC || version != FORMAT_VERSION) {
+                LOG.log(Level.WARNING, "Ignoring metadata cache {0} with unsupported version {1}", new Object[]{cacheFile, version});
+                return;
+            }
+            var nbEntries = in.readInt();
+            for (int i = 0; i < nbEntries; i++) {
+                var relativePath = in.readUTF();
+                entries.putIfAbsent(relativePath, Entry.read(in));
+            }
+            LOG.log(Level.FINE, "Loaded {0} metadata entries from {1}", new Object[]{nbEntries, cacheFile});
+        } catch (EOFException ex) {
+            LOG.log(Level.WARNING, "Ignoring the end of truncated metadata cache {0}", new Object[]{cacheFile});
+        } catch (IOException ex) {
+            LOG.log(Level.WARNING, "Could not load metadata cache {0} :: {1}", new Object[]{cacheFile, ex});
+        }
+    }
+
+    private static final class Entry {
+
+        private final long size;
+        private final long lastModified;
+        private final LocalDateTime creationDate;
+        private final int width;
+        private final int height;
+        private final String contentHash;
+
+        private Entry(long aSize, long aLastModified, LocalDateTime aCreationDate, int aWidth, int aHeight, String aContentHash) {
+            size = aSize;
+            lastModified = aLastModified;
+            creationDate = aCreationDate;
+            width = aWidth;
+            height = aHeight;
+            contentHash = aContentHash;
+        }
+
+        private Entry withContentHash(String aContentHash) {
+            return new Entry(size, lastModified, creationDate, width, height, aContentHash);
+        }
+
+        private void write(DataOutputStream out) throws IOException {
+            out.writeLong(size);
+            out.writeLong(lastModified);
+            out.writeLong(creationDate.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(creationDate.getNano());
+            out.writeInt(width);
+            out.writeInt(height);
+            out.writeUTF(contentHash != null ? contentHash : "");
+        }
+
+        private static Entry read(DataInputStream in) throws IOException {
+            var size = in.readLong();
+            var lastModified = in.readLong();
+            var creationDate = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+            var width = in.readInt();
+            var height = in.readInt();
+            var contentHash = in.readUTF();
+            return new Entry(size, lastModified, creationDate, width, height, contentHash.isEmpty() ? null : contentHash);
+        }
+    }
+}
@@ -9,7 +9,6 @@ import com.github.noony.app.timelinefx.core.PictureInfo;
 import com.github.noony.app.timelinefx.core.TimeLineProject;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -38,21 +37,52 @@ public class MetadataParser {
     private static final LocalDateTime DEFAULT_DATE = LocalDateTime.MIN;
     private static final int DEFAULT_RESOLUTION = -1;
 
+    /**
+     * Reads the dimensions and creation date of an image. They are read from
+     * the header of JPEG, PNG and TIFF files, see {@link ImageHeaderProbe};
+     * other files, or files whose header cannot be read, are fully decoded.
+     * The result is kept in the {@link MetadataCache} of the project until the
+     * file changes.
+     *
+     * @param project the project the image belongs to
+     * @param file the image file
+     * @return the image information, null if the image could not be read
+     */
     public static PictureInfo parseMetadata(TimeLineProject project, File file) {
-        String fileName = file.getName();
-        String filePath = file.getAbsolutePath();
         String projectRelativePath = CustomFileUtils.fromAbsoluteToProjectRelative(project, file);
+        var metadataCache = project.getMetadataCache();
+        var cachedInfo = metadataCache.get(projectRelativePath, file);
+        if (cachedInfo != null) {
+            return cachedInfo;
+        }
+        var info = readMetadata(file, projectRelativePath);
+        if (info != null) {
+            metadataCache.put(projectRelativePath, file, info);
+        }
+        return info;
+    }
+
+    private static PictureInfo readMetadata(File file, String projectRelativePath) {
+        String fileName = file.getName();
+        var probe = ImageHeaderProbe.probe(file);
+        if (probe != null) {
+            return new PictureInfo(fileName, projectRelativePath, probe.getCreationDate(DEFAULT_DATE), probe.getWidth(), probe.getHeight());
+        }
+        LOG.log(Level.FINE, "Decoding image to read its metadata :: {0}", new Object[]{file});
+        return decodeMetadata(file, fileName, projectRelativePath);
+    }
+
+    private static PictureInfo decodeMetadata(File file, String fileName, String projectRelativePath) {
         LocalDateTime creationDate = DEFAULT_DATE;
         int xRes = DEFAULT_RESOLUTION;
         int yRes = DEFAULT_RESOLUTION;
 
-        try {
+        try (var imageStream = new FileInputStream(file)) {
             // Using the Javafx API to get resolution
-            var imageStream = new FileInputStream(filePath);
             var image = new Image(imageStream);
             xRes = (int) image.getWidth();
             yRes = (int) image.getHeight();
-        } catch (FileNotFoundException ex) {
+        } catch (IOException ex) {
             LOG.log(Level.SEVERE, "Exception while loading image :: {0}", new Object[]{ex});
         }
 
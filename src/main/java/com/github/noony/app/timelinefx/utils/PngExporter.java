@@ -23,17 +23,34 @@ import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javafx.application.Platform;
 import javafx.embed.swing.SwingFXUtils;
+import javafx.event.Event;
+import javafx.event.EventHandler;
+import javafx.geometry.Bounds;
+import javafx.geometry.Rectangle2D;
 import javafx.scene.CacheHint;
 import javafx.scene.Node;
 import javafx.scene.SnapshotParameters;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
 import javafx.scene.image.WritableImage;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.paint.Color;
+import javafx.scene.transform.Transform;
 import javax.imageio.ImageIO;
 
 /**
@@ -42,8 +59,24 @@ import javax.imageio.ImageIO;
  */
 public class PngExporter {
 
+    /**
+     * The resolution of a drawing exported at scale 1.
+     */
+    public static final double SCREEN_DPI = 96;
+    /**
+     * The default width and height of the tiles rendered by the tiled export,
+     * below the texture size limit of common graphic cards.
+     */
+    public static final int DEFAULT_TILE_SIZE = 1024;
+
     private static final Logger LOG = Logger.getGlobal();
 
+    private static final Executor EXPORT_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        var thread = new Thread(runnable, "PngExporter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     public static final void exportToPNG(Node node, File file) {
         Platform.runLater(() -> {
             SnapshotParameters snapShotparams = new SnapshotParameters();
@@ -63,6 +96,135 @@ public class PngExporter {
         });
     }
 
+    /**
+     * Exports a node to a PNG file, on a background thread, with
+     * {@link #exportTiledPNG(Node, File, double)}.
+     *
+     * The tiles are snapshotted over several pulses, so the mouse and key
+     * events of the scene of the node are blocked until the file is written,
+     * the node not being edited in between. Must be called on the JavaFX
+     * thread.
+     *
+     * @param node the node to export
+     * @param file the PNG file to write
+     * @param dpiMultiplier the scale the node is rendered at
+     * @return a future completed once the file is written
+     */
+    public static CompletableFuture<Void> exportTiledPNGInBackground(Node node, File file, double dpiMultiplier) {
+        var root = node.getScene() != null ? node.getScene().getRoot() : node;
+        var wasMouseTransparent = root.isMouseTransparent();
+        EventHandler<KeyEvent> keyBlocker = Event::consume;
+        root.setMouseTransparent(true);
+        root.addEventFilter(KeyEvent.ANY, keyBlocker);
+        return CompletableFuture.runAsync(() -> {
+            try {
+                exportTiledPNG(node, file, dpiMultiplier);
+            } catch (IOException ex) {
+                LOG.log(Level.SEVERE, "Could not export {0} :: {1}", new Object[]{file, ex});
+                throw new IllegalStateException(ex);
+            }
+        }, EXPORT_EXECUTOR).whenComplete((result, ex) -> Platform.runLater(() -> {
+            root.removeEventFilter(KeyEvent.ANY, keyBlocker);
+            root.setMouseTransparent(wasMouseTransparent);
+        }));
+    }
+
+    /**
+     * Exports a node to a PNG file, rendering it in tiles of
+     * {@link #DEFAULT_TILE_SIZE} pixels.
+     *
+     * @param node the node to export
+     * @param file the PNG file to write
+     * @param dpiMultiplier the scale the node is rendered at, the file
+     * resolution being {@link #SCREEN_DPI} times this multiplier
+     * @throws IOException if the file cannot be written
+     * @see #exportTiledPNG(Node, WritableByteChannel, double, int)
+     */
+    public static void exportTiledPNG(Node node, File file, double dpiMultiplier) throws IOException {
+        try (var channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            exportTiledPNG(node, channel, dpiMultiplier, DEFAULT_TILE_SIZE);
+        }
+    }
+
+    /**
+     * Exports a node as a PNG image, whatever its size.
+     *
+     * The node is snapshotted on the JavaFX thread one tile at a time, each
+     * tile being a viewport of the scaled node, and the rows of pixels are
+     * compressed into the channel as soon as a band of tiles is rendered.
+     * The bands are as many rows high as fit in the pixels of one tile, so
+     * the memory used is about one tile whatever the size of the image, and
+     * no snapshot is larger than a tile. This method waits for the JavaFX
+     * thread and must be called from another thread. The node must not be
+     * modified until the export is done.
+     *
+     * @param node the node to export
+     * @param channel the channel to write the image to
+     * @param dpiMultiplier the scale the node is rendered at, the image
+     * resolution being {@link #SCREEN_DPI} times this multiplier
+     * @param tileSize the maximum width and height of a snapshot
+     * @throws IOException if the image cannot be written
+     */
+    public static void exportTiledPNG(Node node, WritableByteChannel channel, double dpiMultiplier, int tileSize) throws IOException {
+        if (Platform.isFxApplicationThread()) {
+            throw new IllegalStateException("The tiled export waits for the JavaFX thread and cannot run on it");
+        }
+        var startTime = System.nanoTime();
+        var transform = Transform.scale(dpiMultiplier, dpiMultiplier);
+        Bounds bounds = runOnFxThread(() -> transform.transform(node.getBoundsInParent()));
+        var width = (int) Math.ceil(bounds.getWidth());
+        var height = (int) Math.ceil(bounds.getHeight());
+        var writer = new PngStreamWriter(channel, width, height, SCREEN_DPI * dpiMultiplier);
+        var nbColumns = (width + tileSize - 1) / tileSize;
+        // a full width band holds no more pixels than a tile
+        var maxBandHeight = Math.min(tileSize, Math.max(1, tileSize * tileSize / Math.max(1, width)));
+        var bandPixels = new int[width * Math.min(maxBandHeight, height)];
+        var format = PixelFormat.getIntArgbInstance();
+        var tileImage = new AtomicReference<WritableImage>();
+        var nbTiles = 0;
+        for (int bandY = 0; bandY < height; bandY += maxBandHeight) {
+            var bandHeight = Math.min(maxBandHeight, height - bandY);
+            for (int column = 0; column < nbColumns; column++) {
+                var tileX = column * tileSize;
+                var tileWidth = Math.min(tileSize, width - tileX);
+                var parameters = new SnapshotParameters();
+                parameters.setFill(Color.BLACK);
+                parameters.setTransform(transform);
+                parameters.setViewport(new Rectangle2D(bounds.getMinX() + tileX, bounds.getMinY() + bandY, tileWidth, bandHeight));
+                // the previous tile image is reused when it is large enough
+                var tile = runOnFxThread(() -> node.snapshot(parameters, tileImage.get()));
+                tileImage.set(tile);
+                tile.getPixelReader().getPixels(0, 0, tileWidth, bandHeight, format, bandPixels, tileX, width);
+                nbTiles++;
+            }
+            for (int row = 0; row < bandHeight; row++) {
+                writer.writeRow(bandPixels, row * width);
+            }
+        }
+        writer.finish();
+        LOG.log(Level.INFO, "Exported {0}x{1} image in {2} tiles in {3} ms",
+                new Object[]{width, height, nbTiles, (System.nanoTime() - startTime) / 1_000_000});
+    }
+
+    private static <T> T runOnFxThread(Supplier<T> supplier) throws IOException {
+        var future = new CompletableFuture<T>();
+        Platform.runLater(() -> {
+            try {
+                future.complete(supplier.get());
+            } catch (RuntimeException ex) {
+                future.completeExceptionally(ex);
+            }
+        });
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Export interrupted");
+        } catch (ExecutionException ex) {
+            throw new IOException("Could not render the node", ex.getCause());
+        }
+    }
+
     public static void saveImage(Image image, String outputPath) {
         System.err.println(" Saving to  " + outputPath);
         File outputFile = new File(outputPath);
@@ -74,6 +236,41 @@ public class PngExporter {
         }
     }
 
+    /**
+     * Writes a PNG miniature of an image file, fitting in a square of the
+     * given size. The image is decoded with a subsampling matching the
+     * miniature size, so that large pictures are never fully decoded.
+     *
+     * @param imageFile the image to reduce
+     * @param miniatureFile the PNG file to write
+     * @param maxSize the maximum width and height of the miniature
+     * @throws IOException if the image cannot be read or the miniature written
+     */
+    public static void exportMiniature(File imageFile, File miniatureFile, int maxSize) throws IOException {
+        BufferedImage image;
+        try (var input = ImageIO.createImageInputStream(imageFile)) {
+            var readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("No image reader for " + imageFile);
+            }
+            var reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                var subsampling = Math.max(1, Math.max(reader.getWidth(0), reader.getHeight(0)) / maxSize);
+                var readParam = reader.getDefaultReadParam();
+                readParam.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                image = reader.read(0, readParam);
+            } finally {
+                reader.dispose();
+            }
+        }
+        var size = getScaledDimension(new Dimension(image.getWidth(), image.getHeight()), new Dimension(maxSize, maxSize));
+        var miniature = toBufferedImage(resizeToBig(image, Math.max(1, size.width), Math.max(1, size.height)));
+        if (!ImageIO.write(miniature, "png", miniatureFile)) {
+            throw new IOException("Could not write miniature " + miniatureFile);
+        }
+    }
+
     /**
      * https://stackoverflow.com/questions/10245220/java-image-resize-maintain-aspect-ratio
      *
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2020 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes an opaque RGB PNG image row by row to a channel.
+ *
+ * Rows are filtered with the PNG Sub filter and compressed as they are
+ * written, compressed data being flushed in IDAT chunks of
+ * {@link #CHUNK_SIZE} bytes, so that the image is never held in memory.
+ *
+ * @author hamon
+ */
+final class PngStreamWriter {
+
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int BYTES_PER_PIXEL = 3;
+    private static final int COLOR_TYPE_RGB = 2;
+    private static final int BIT_DEPTH = 8;
+    private static final int FILTER_SUB = 1;
+    private static final int PHYS_UNIT_METER = 1;
+    private static final double INCHES_PER_METER = 1 / 0.0254;
+
+    private final WritableByteChannel channel;
+    private final int width;
+    private final int height;
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final byte[] rowBytes;
+    private final byte[] compressed = new byte[CHUNK_SIZE];
+
+    private int compressedLength = 0;
+    private int nbRowsWritten = 0;
+
+    /**
+     * Writes the header of the image.
+     *
+     * @param aChannel the channel to write the image to, not closed by the
+     * writer
+     * @param aWidth the width of the image in pixels
+     * @param aHeight the height of the image in pixels
+     * @param dpi the resolution of the image in dots per inch, written so that
+     * the image is printed at its intended size
+     * @throws IOException if the header cannot be written
+     */
+    PngStreamWriter(WritableByteChannel aChannel, int aWidth, int aHeight, double dpi) throws IOException {
+        if (aWidth <= 0 || aHeight <= 0) {
+            throw new IllegalArgumentException("Invalid image size " + aWidth + "x" + aHeight);
+        }
+        channel = aChannel;
+        width = aWidth;
+        height = aHeight;
+        deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        rowBytes = new byte[1 + width * BYTES_PER_PIXEL];
+        writeFully(ByteBuffer.wrap(PNG_SIGNATURE));
+        var header = ByteBuffer.allocate(13);
+        header.putInt(width).putInt(height).put((byte) BIT_DEPTH).put((byte) COLOR_TYPE_RGB);
+        // deflate compression, adaptive filtering, no interlace
+        header.put((byte) 0).put((byte) 0).put((byte) 0);
+        writeChunk("IHDR", header.array(), header.position());
+        var pixelsPerMeter = (int) Math.round(dpi * INCHES_PER_METER);
+        var physicalSize = ByteBuffer.allocate(9);
+        physicalSize.putInt(pixelsPerMeter).putInt(pixelsPerMeter).put((byte) PHYS_UNIT_METER);
+        writeChunk("pHYs", physicalSize.array(), physicalSize.position());
+    }
+
+    /**
+     *
+     * @param argb the pixels of the row, in the ARGB format, alpha being
+     * ignored
+     * @param offset the index of the first pixel of the row
+     * @throws IOException if the compressed data cannot be written
+     */
+    void writeRow(int[] argb, int offset) throws IOException {
+        if (nbRowsWritten >= height) {
+            throw new IllegalStateException("All the " + height + " rows are already written");
+        }
+        rowBytes[0] = FILTER_SUB;
+        int previous = 0;
+        for (int x = 0; x < width; x++) {
+            var pixel = argb[offset + x];
+            var index = 1 + x * BYTES_PER_PIXEL;
+            rowBytes[index] = (byte) ((pixel >> 16) - (previous >> 16));
+            rowBytes[index + 1] = (byte) ((pixel >> 8) - (previous >> 8));
+            rowBytes[index + 2] = (byte) (pixel - previous);
+            previous = pixel;
+        }
+        deflater.setInput(rowBytes);
+        while (!deflater.needsInput()) {
+            deflate();
+        }
+        nbRowsWritten++;
+    }
+
+    /**
+     * Writes the remaining compressed data and the end of the image.
+     *
+     * @throws IOException if the data cannot be written
+     */
+    void finish() throws IOException {
+        if (nbRowsWritten != height) {
+            throw new IllegalStateException("Only " + nbRowsWritten + " of the " + height + " rows are written");
+        }
+        deflater.finish();
+        while (!deflater.finished()) {
+            deflate();
+        }
+        if (compressedLength > 0) {
+            writeChunk("IDAT", compressed, compressedLength);
+            compressedLength = 0;
+        }
+        writeChunk("IEND", compressed, 0);
+        deflater.end();
+    }
+
+    private void deflate() throws IOException {
+        compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+        if (compressedLength == compressed.length) {
+            writeChunk("IDAT", compressed, compressedLength);
+            compressedLength = 0;
+        }
+    }
+
+    private void writeChunk(String type, byte[] data, int length) throws IOException {
+        var typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        crc.reset();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+        var chunkHeader = ByteBuffer.allocate(8).putInt(length).put(typeBytes).flip();
+        writeFully(chunkHeader);
+        writeFully(ByteBuffer.wrap(data, 0, length));
+        writeFully(ByteBuffer.allocate(4).putInt((int) crc.getValue()).flip());
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,370 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.utils;
+
+import java.util.Arrays;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Sorted multiset of primitive double values.
+ *
+ * Each distinct value is stored once with a reference count. Values are kept
+ * in an AVL tree whose nodes live in parallel primitive arrays, so that no
+ * boxing happens on add / remove / lookup, which are all O(log n).
+ *
+ * Values are compared with {@link Double#compare(double, double)}.
+ *
+ * @author hamon
+ */
+public final class SortedDoubleMultiset {
+
+    private static final int NIL = -1;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private double[] values;
+    private int[] counts;
+    private int[] lefts;
+    private int[] rights;
+    private int[] heights;
+    //
+    private int root = NIL;
+    private int nextFreeNode = 0;
+    private int freeList = NIL;
+    private int nbDistinctValues = 0;
+
+    public SortedDoubleMultiset() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public SortedDoubleMultiset(int initialCapacity) {
+        var capacity = Math.max(1, initialCapacity);
+        values = new double[capacity];
+        counts = new int[capacity];
+        lefts = new int[capacity];
+        rights = new int[capacity];
+        heights = new int[capacity];
+    }
+
+    /**
+     * Adds one occurrence of the value.
+     *
+     * @param value the value to add
+     * @return true if the value was not present before
+     */
+    public boolean add(double value) {
+        var node = find(value);
+        if (node != NIL) {
+            counts[node]++;
+            return false;
+        }
+        root = insert(root, allocate(value));
+        nbDistinctValues++;
+        return true;
+    }
+
+    /**
+     * Removes one occurrence of the value.
+     *
+     * @param value the value to remove
+     * @return true if the last occurrence of the value was removed
+     */
+    public boolean remove(double value) {
+        var node = find(value);
+        if (node == NIL) {
+            return false;
+        }
+        if (--counts[node] > 0) {
+            return false;
+        }
+        root = delete(root, node);
+        release(node);
+        nbDistinctValues--;
+        return true;
+    }
+
+    /**
+     *
+     * @param value a value
+     * @return the number of occurrences of the value
+     */
+    public int count(double value) {
+        var node = find(value);
+        return node == NIL ? 0 : counts[node];
+    }
+
+    public boolean contains(double value) {
+        return find(value) != NIL;
+    }
+
+    /**
+     *
+     * @return the number of distinct values
+     */
+    public int size() {
+        return nbDistinctValues;
+    }
+
+    public boolean isEmpty() {
+        return root == NIL;
+    }
+
+    public void clear() {
+        root = NIL;
+        nextFreeNode = 0;
+        freeList = NIL;
+        nbDistinctValues = 0;
+    }
+
+    /**
+     *
+     * @return the smallest value, or NaN if empty
+     */
+    public double first() {
+        if (root == NIL) {
+            return Double.NaN;
+        }
+        var node = root;
+        while (lefts[node] != NIL) {
+            node = lefts[node];
+        }
+        return values[node];
+    }
+
+    /**
+     *
+     * @return the greatest value, or NaN if empty
+     */
+    public double last() {
+        if (root == NIL) {
+            return Double.NaN;
+        }
+        var node = root;
+        while (rights[node] != NIL) {
+            node = rights[node];
+        }
+        return values[node];
+    }
+
+    /**
+     * Visits the distinct values in ascending order.
+     *
+     * @param consumer the consumer called on each value
+     */
+    public void forEach(DoubleConsumer consumer) {
+        forEachBetween(root, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, consumer);
+    }
+
+    /**
+     * Visits the distinct values within [min, max] in ascending order.
+     *
+     * @param min lower bound (included)
+     * @param max upper bound (included)
+     * @param consumer the consumer called on each value
+     */
+    public void forEachBetween(double min, double max, DoubleConsumer consumer) {
+        forEachBetween(root, min, max, consumer);
+    }
+
+    /**
+     *
+     * @return the distinct values in ascending order
+     */
+    public double[] toArray() {
+        return valuesBetween(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     *
+     * @param min lower bound (included)
+     * @param max upper bound (included)
+     * @return the distinct values within [min, max] in ascending order
+     */
+    public double[] valuesBetween(double min, double max) {
+        var collector = new ArrayCollector(nbDistinctValues);
+        forEachBetween(root, min, max, collector);
+        return collector.toArray();
+    }
+
+    private void forEachBetween(int node, double min, double max, DoubleConsumer consumer) {
+        if (node == NIL) {
+            return;
+        }
+        var value = values[node];
+        if (Double.compare(min, value) < 0) {
+            forEachBetween(lefts[node], min, max, consumer);
+        }
+        if (Double.compare(min, value) <= 0 && Double.compare(value, max) <= 0) {
+            consumer.accept(value);
+        }
+        if (Double.compare(value, max) < 0) {
+            forEachBetween(rights[node], min, max, consumer);
+        }
+    }
+
+    private int find(double value) {
+        var node = root;
+        while (node != NIL) {
+            var comparison = Double.compare(value, values[node]);
+            if (comparison == 0) {
+                return node;
+            }
+            node = comparison < 0 ? lefts[node] : rights[node];
+        }
+        return NIL;
+    }
+
+    private int allocate(double value) {
+        int node;
+        if (freeList != NIL) {
+            node = freeList;
+            freeList = lefts[node];
+        } else {
+            if (nextFreeNode == values.length) {
+                grow();
+            }
+            node = nextFreeNode++;
+        }
+        values[node] = value;
+        counts[node] = 1;
+        lefts[node] = NIL;
+        rights[node] = NIL;
+        heights[node] = 1;
+        return node;
+    }
+
+    private void release(int node) {
+        counts[node] = 0;
+        lefts[node] = freeList;
+        freeList = node;
+    }
+
+    private void grow() {
+        var newCapacity = values.length * 2;
+        values = Arrays.copyOf(values, newCapacity);
+        counts = Arrays.copyOf(counts, newCapacity);
+        lefts = Arrays.copyOf(lefts, newCapacity);
+        rights = Arrays.copyOf(rights, newCapacity);
+        heights = Arrays.copyOf(heights, newCapacity);
+    }
+
+    private int insert(int node, int newNode) {
+        if (node == NIL) {
+            return newNode;
+        }
+        if (Double.compare(values[newNode], values[node]) < 0) {
+            lefts[node] = insert(lefts[node], newNode);
+        } else {
+            rights[node] = insert(rights[node], newNode);
+        }
+        return rebalance(node);
+    }
+
+    private int delete(int node, int toDelete) {
+        if (node == toDelete) {
+            if (lefts[node] == NIL) {
+                return rights[node];
+            } else if (rights[node] == NIL) {
+                return lefts[node];
+            }
+            var successor = rights[node];
+            while (lefts[successor] != NIL) {
+                successor = lefts[successor];
+            }
+            rights[successor] = deleteMin(rights[node]);
+            lefts[successor] = lefts[node];
+            return rebalance(successor);
+        }
+        if (Double.compare(values[toDelete], values[node]) < 0) {
+            lefts[node] = delete(lefts[node], toDelete);
+        } else {
+            rights[node] = delete(rights[node], toDelete);
+        }
+        return rebalance(node);
+    }
+
+    private int deleteMin(int node) {
+        if (lefts[node] == NIL) {
+            return rights[node];
+        }
+        lefts[node] = deleteMin(lefts[node]);
+        return rebalance(node);
+    }
+
+    private int height(int node) {
+        return node == NIL ? 0 : heights[node];
+    }
+
+    private void updateHeight(int node) {
+        heights[node] = 1 + Math.max(height(lefts[node]), height(rights[node]));
+    }
+
+    private int rebalance(int node) {
+        updateHeight(node);
+        var balance = height(lefts[node]) - height(rights[node]);
+        if (balance > 1) {
+            var left = lefts[node];
+            if (height(lefts[left]) < height(rights[left])) {
+                lefts[node] = rotateLeft(left);
+            }
+            return rotateRight(node);
+        } else if (balance < -1) {
+            var right = rights[node];
+            if (height(rights[right]) < height(lefts[right])) {
+                rights[node] = rotateRight(right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private int rotateRight(int node) {
+        var pivot = lefts[node];
+        lefts[node] = rights[pivot];
+        rights[pivot] = node;
+        updateHeight(node);
+        updateHeight(pivot);
+        return pivot;
+    }
+
+    private int rotateLeft(int node) {
+        var pivot = rights[node];
+        rights[node] = lefts[pivot];
+        lefts[pivot] = node;
+        updateHeight(node);
+        updateHeight(pivot);
+        return pivot;
+    }
+
+    private static final class ArrayCollector implements DoubleConsumer {
+
+        private final double[] buffer;
+        private int length = 0;
+
+        private ArrayCollector(int maxLength) {
+            buffer = new double[maxLength];
+        }
+
+        @Override
+        public void accept(double value) {
+            buffer[length++] = value;
+        }
+
+        private double[] toArray() {
+            return length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+        }
+    }
+}
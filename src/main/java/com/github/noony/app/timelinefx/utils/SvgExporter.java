@@ -0,0 +1,808 @@
+/*
+ * Copyright (C) 2020 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.embed.swing.SwingFXUtils;
+import javafx.geometry.VPos;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.LinearGradient;
+import javafx.scene.paint.Paint;
+import javafx.scene.paint.RadialGradient;
+import javafx.scene.shape.ArcTo;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.ClosePath;
+import javafx.scene.shape.CubicCurve;
+import javafx.scene.shape.CubicCurveTo;
+import javafx.scene.shape.Ellipse;
+import javafx.scene.shape.HLineTo;
+import javafx.scene.shape.Line;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.Path;
+import javafx.scene.shape.PathElement;
+import javafx.scene.shape.Polygon;
+import javafx.scene.shape.Polyline;
+import javafx.scene.shape.QuadCurve;
+import javafx.scene.shape.QuadCurveTo;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.SVGPath;
+import javafx.scene.shape.Shape;
+import javafx.scene.shape.StrokeLineCap;
+import javafx.scene.shape.VLineTo;
+import javafx.scene.text.Text;
+import javafx.scene.transform.Affine;
+import javafx.scene.transform.Transform;
+import javax.imageio.ImageIO;
+
+/**
+ * Writes a node and its descendants as an SVG document.
+ *
+ * The node tree is walked once and written as it is walked: groups become
+ * {@code g} elements carrying the transform of their node, so that no
+ * coordinate is converted to the scene, and shapes, texts and images become
+ * the matching SVG elements. Shapes sharing the same style share a CSS class,
+ * the style sheet being written at the end of the document. Each image is
+ * written once in a {@code defs} element and drawn by {@code use} elements,
+ * so that a picture shown several times is embedded once. Numbers are
+ * written with at most {@link #COORDINATE_DECIMALS} decimals.
+ *
+ * An exporter holds no state of its own during an export, it can be used by
+ * several threads at once. The node must not be modified during its export,
+ * which must run on the JavaFX thread for a node displayed in a scene.
+ *
+ * @author hamon
+ */
+public final class SvgExporter {
+
+    public static final String SVG_EXTENSION = ".svg";
+    public static final int COORDINATE_DECIMALS = 2;
+    public static final int TRANSFORM_DECIMALS = 4;
+
+    private static final Logger LOG = Logger.getGlobal();
+
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+    private static final Map<String, String> IMAGE_MIME_TYPES = Map.of(
+            "png", "image/png",
+            "jpg", "image/jpeg",
+            "jpeg", "image/jpeg",
+            "gif", "image/gif",
+            "bmp", "image/bmp");
+
+    /**
+     * How images are written.
+     */
+    public enum ImageMode {
+        /**
+         * The content of the image files is embedded in the document.
+         */
+        EMBED,
+        /**
+         * The document references the image files, images without a file
+         * are embedded.
+         */
+        REFERENCE
+    }
+
+    private final ImageMode imageMode;
+
+    public SvgExporter(ImageMode anImageMode) {
+        imageMode = anImageMode;
+    }
+
+    /**
+     * Exports a node to a standalone SVG file, images being embedded.
+     *
+     * @param node the node to export
+     * @param file the SVG file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void export(Node node, File file) throws IOException {
+        export(node, file, 1);
+    }
+
+    /**
+     * Exports a node to a standalone SVG file, images being embedded.
+     *
+     * @param node the node to export
+     * @param file the SVG file to write
+     * @param scale the scale of the document size, the drawing coordinates
+     * are not scaled
+     * @throws IOException if the file cannot be written
+     */
+    public static void export(Node node, File file, double scale) throws IOException {
+        new SvgExporter(ImageMode.EMBED).write(node, file, scale);
+    }
+
+    public ImageMode getImageMode() {
+        return imageMode;
+    }
+
+    /**
+     *
+     * @param node the node to export
+     * @param file the SVG file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Node node, File file) throws IOException {
+        write(node, file, 1);
+    }
+
+    /**
+     *
+     * @param node the node to export
+     * @param file the SVG file to write
+     * @param scale the scale of the document size
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Node node, File file, double scale) throws IOException {
+        var startTime = System.nanoTime();
+        try (var writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            var nbElements = write(node, writer, scale);
+            LOG.log(Level.INFO, "Exported {0} SVG elements to {1} in {2} ms", new Object[]{nbElements, file, (System.nanoTime() - startTime) / 1_000_000});
+        }
+    }
+
+    /**
+     *
+     * @param node the node to export
+     * @param writer the writer the document is written to, preferably
+     * buffered, not closed by the exporter
+     * @return the number of elements written
+     * @throws IOException if the document cannot be written
+     */
+    public int write(Node node, Writer writer) throws IOException {
+        return write(node, writer, 1);
+    }
+
+    /**
+     *
+     * @param node the node to export
+     * @param writer the writer the document is written to, preferably
+     * buffered, not closed by the exporter
+     * @param scale the scale of the document size, applied through the view
+     * box so that the drawing coordinates are written unchanged
+     * @return the number of elements written
+     * @throws IOException if the document cannot be written
+     */
+    public int write(Node node, Writer writer, double scale) throws IOException {
+        var export = new Export(writer);
+        export.writeDocument(node, scale);
+        writer.flush();
+        return export.nbElements;
+    }
+
+    /**
+     * The state of one export.
+     */
+    private final class Export {
+
+        private final Writer out;
+        private final Map<String, String> styleClasses = new LinkedHashMap<>();
+        // by image file, or by image for the images without a file
+        private final Map<Object, ImageDefinition> imageDefinitions = new HashMap<>();
+        private final StringBuilder style = new StringBuilder();
+        private int nbClips = 0;
+        private int nbElements = 0;
+
+        private Export(Writer aWriter) {
+            out = aWriter;
+        }
+
+        private void writeDocument(Node node, double scale) throws IOException {
+            var bounds = node.getBoundsInParent();
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<svg xmlns=\"http://www.w3.org/2000/svg\" xmlns:xlink=\"http://www.w3.org/1999/xlink\"");
+            writeAttribute("width", scale * bounds.getWidth());
+            writeAttribute("height", scale * bounds.getHeight());
+            out.write(" viewBox=\"");
+            writeNumber(bounds.getMinX(), COORDINATE_DECIMALS);
+            out.write(' ');
+            writeNumber(bounds.getMinY(), COORDINATE_DECIMALS);
+            out.write(' ');
+            writeNumber(bounds.getWidth(), COORDINATE_DECIMALS);
+            out.write(' ');
+            writeNumber(bounds.getHeight(), COORDINATE_DECIMALS);
+            out.write("\">\n");
+            writeNode(node);
+            // applies to the whole document wherever it is
+            out.write("<style>\n");
+            for (var styleClass : styleClasses.entrySet()) {
+                out.write('.');
+                out.write(styleClass.getValue());
+                out.write('{');
+                out.write(styleClass.getKey());
+                out.write("}\n");
+            }
+            out.write("</style>\n</svg>\n");
+        }
+
+        private void writeNode(Node node) throws IOException {
+            if (!node.isVisible() || node.getOpacity() == 0) {
+                return;
+            }
+            if (node instanceof Shape shape) {
+                writeShape(shape);
+            } else if (node instanceof ImageView imageView) {
+                writeImageView(imageView);
+            } else if (node instanceof Parent parent) {
+                writeParent(parent);
+            } else {
+                LOG.log(Level.FINE, "Node {0} is not exported to SVG", node);
+            }
+        }
+
+        private void writeParent(Parent parent) throws IOException {
+            var clipId = writeClip(parent);
+            out.write("<g");
+            writeCommonAttributes(parent, clipId);
+            out.write(">\n");
+            nbElements++;
+            if (parent instanceof Region region && region.getBackground() != null) {
+                for (var backgroundFill : region.getBackground().getFills()) {
+                    var insets = backgroundFill.getInsets();
+                    out.write("<rect");
+                    writeAttribute("x", insets.getLeft());
+                    writeAttribute("y", insets.getTop());
+                    writeAttribute("width", region.getWidth() - insets.getLeft() - insets.getRight());
+                    writeAttribute("height", region.getHeight() - insets.getTop() - insets.getBottom());
+                    style.setLength(0);
+                    appendPaint("fill", backgroundFill.getFill());
+                    writeStyleClass();
+                    out.write("/>\n");
+                    nbElements++;
+                }
+            }
+            for (var child : parent.getChildrenUnmodifiable()) {
+                writeNode(child);
+            }
+            out.write("</g>\n");
+        }
+
+        private void writeShape(Shape shape) throws IOException {
+            var clipId = writeClip(shape);
+            if (!writeGeometry(shape)) {
+                LOG.log(Level.FINE, "Shape {0} is not exported to SVG", shape);
+                return;
+            }
+            writeCommonAttributes(shape, clipId);
+            style.setLength(0);
+            appendPaint("fill", shape.getFill());
+            appendPaint("stroke", shape.getStroke());
+            if (shape.getStroke() != null) {
+                appendStyleNumber("stroke-width", shape.getStrokeWidth());
+                if (shape.getStrokeLineCap() != StrokeLineCap.BUTT) {
+                    style.append("stroke-linecap:").append(shape.getStrokeLineCap() == StrokeLineCap.ROUND ? "round" : "square").append(';');
+                }
+                if (!shape.getStrokeDashArray().isEmpty()) {
+                    style.append("stroke-dasharray:");
+                    for (var dash : shape.getStrokeDashArray()) {
+                        appendNumber(dash);
+                        style.append(' ');
+                    }
+                    style.setCharAt(style.length() - 1, ';');
+                    appendStyleNumber("stroke-dashoffset", shape.getStrokeDashOffset());
+                }
+            }
+            if (shape instanceof Text text) {
+                var font = text.getFont();
+                style.append("font-family:'").append(font.getFamily()).append("';");
+                appendStyleNumber("font-size", font.getSize());
+                var fontStyle = font.getStyle().toLowerCase(Locale.ROOT);
+                if (fontStyle.contains("bold")) {
+                    style.append("font-weight:bold;");
+                }
+                if (fontStyle.contains("italic")) {
+                    style.append("font-style:italic;");
+                }
+                writeStyleClass();
+                out.write('>');
+                writeEscaped(text.getText());
+                out.write("</text>\n");
+            } else {
+                writeStyleClass();
+                out.write("/>\n");
+            }
+            nbElements++;
+        }
+
+        /**
+         * Writes the start of the element of a shape, up to its geometry
+         * attributes.
+         *
+         * @return false if the shape is not supported
+         */
+        private boolean writeGeometry(Shape shape) throws IOException {
+            if (shape instanceof Rectangle rectangle) {
+                out.write("<rect");
+                writeAttribute("x", rectangle.getX());
+                writeAttribute("y", rectangle.getY());
+                writeAttribute("width", rectangle.getWidth());
+                writeAttribute("height", rectangle.getHeight());
+                if (rectangle.getArcWidth() > 0 && rectangle.getArcHeight() > 0) {
+                    writeAttribute("rx", rectangle.getArcWidth() / 2.0);
+                    writeAttribute("ry", rectangle.getArcHeight() / 2.0);
+                }
+            } else if (shape instanceof Circle circle) {
+                out.write("<circle");
+                writeAttribute("cx", circle.getCenterX());
+                writeAttribute("cy", circle.getCenterY());
+                writeAttribute("r", circle.getRadius());
+            } else if (shape instanceof Ellipse ellipse) {
+                out.write("<ellipse");
+                writeAttribute("cx", ellipse.getCenterX());
+                writeAttribute("cy", ellipse.getCenterY());
+                writeAttribute("rx", ellipse.getRadiusX());
+                writeAttribute("ry", ellipse.getRadiusY());
+            } else if (shape instanceof Line line) {
+                out.write("<line");
+                writeAttribute("x1", line.getStartX());
+                writeAttribute("y1", line.getStartY());
+                writeAttribute("x2", line.getEndX());
+                writeAttribute("y2", line.getEndY());
+            } else if (shape instanceof Polygon polygon) {
+                out.write("<polygon");
+                writePoints(polygon.getPoints());
+            } else if (shape instanceof Polyline polyline) {
+                out.write("<polyline");
+                writePoints(polyline.getPoints());
+            } else if (shape instanceof CubicCurve curve) {
+                out.write("<path d=\"M");
+                writeCoordinates(curve.getStartX(), curve.getStartY());
+                out.write('C');
+                writeCoordinates(curve.getControlX1(), curve.getControlY1());
+                out.write(' ');
+                writeCoordinates(curve.getControlX2(), curve.getControlY2());
+                out.write(' ');
+                writeCoordinates(curve.getEndX(), curve.getEndY());
+                out.write('"');
+            } else if (shape instanceof QuadCurve curve) {
+                out.write("<path d=\"M");
+                writeCoordinates(curve.getStartX(), curve.getStartY());
+                out.write('Q');
+                writeCoordinates(curve.getControlX(), curve.getControlY());
+                out.write(' ');
+                writeCoordinates(curve.getEndX(), curve.getEndY());
+                out.write('"');
+            } else if (shape instanceof Path path) {
+                out.write("<path d=\"");
+                for (var element : path.getElements()) {
+                    writePathElement(element);
+                }
+                out.write('"');
+            } else if (shape instanceof SVGPath svgPath) {
+                out.write("<path d=\"");
+                writeEscaped(svgPath.getContent());
+                out.write('"');
+            } else if (shape instanceof Text text) {
+                out.write("<text");
+                writeAttribute("x", text.getX());
+                writeAttribute("y", text.getY());
+                var baseline = getDominantBaseline(text.getTextOrigin());
+                if (baseline != null) {
+                    out.write(" dominant-baseline=\"");
+                    out.write(baseline);
+                    out.write('"');
+                }
+            } else {
+                return false;
+            }
+            return true;
+        }
+
+        private void writePathElement(PathElement element) throws IOException {
+            if (element instanceof MoveTo moveTo) {
+                out.write(element.isAbsolute() ? 'M' : 'm');
+                writeCoordinates(moveTo.getX(), moveTo.getY());
+            } else if (element instanceof LineTo lineTo) {
+                out.write(element.isAbsolute() ? 'L' : 'l');
+                writeCoordinates(lineTo.getX(), lineTo.getY());
+            } else if (element instanceof HLineTo hLineTo) {
+                out.write(element.isAbsolute() ? 'H' : 'h');
+                writeNumber(hLineTo.getX(), COORDINATE_DECIMALS);
+            } else if (element instanceof VLineTo vLineTo) {
+                out.write(element.isAbsolute() ? 'V' : 'v');
+                writeNumber(vLineTo.getY(), COORDINATE_DECIMALS);
+            } else if (element instanceof QuadCurveTo quadCurveTo) {
+                out.write(element.isAbsolute() ? 'Q' : 'q');
+                writeCoordinates(quadCurveTo.getControlX(), quadCurveTo.getControlY());
+                out.write(' ');
+                writeCoordinates(quadCurveTo.getX(), quadCurveTo.getY());
+            } else if (element instanceof CubicCurveTo cubicCurveTo) {
+                out.write(element.isAbsolute() ? 'C' : 'c');
+                writeCoordinates(cubicCurveTo.getControlX1(), cubicCurveTo.getControlY1());
+                out.write(' ');
+                writeCoordinates(cubicCurveTo.getControlX2(), cubicCurveTo.getControlY2());
+                out.write(' ');
+                writeCoordinates(cubicCurveTo.getX(), cubicCurveTo.getY());
+            } else if (element instanceof ArcTo arcTo) {
+                out.write(element.isAbsolute() ? 'A' : 'a');
+                writeCoordinates(arcTo.getRadiusX(), arcTo.getRadiusY());
+                out.write(' ');
+                writeNumber(arcTo.getXAxisRotation(), COORDINATE_DECIMALS);
+                out.write(arcTo.isLargeArcFlag() ? " 1" : " 0");
+                out.write(arcTo.isSweepFlag() ? " 1 " : " 0 ");
+                writeCoordinates(arcTo.getX(), arcTo.getY());
+            } else if (element instanceof ClosePath) {
+                out.write('Z');
+            }
+        }
+
+        private void writeImageView(ImageView imageView) throws IOException {
+            var image = imageView.getImage();
+            if (image == null || image.getWidth() <= 0 || image.getHeight() <= 0) {
+                return;
+            }
+            var definition = getImageDefinition(image);
+            var clipId = writeClip(imageView);
+            // the layout bounds are where the image view draws its image, with or without its ratio
+            var bounds = imageView.getLayoutBounds();
+            var placement = new Affine(bounds.getWidth() / definition.width, 0, bounds.getMinX(), 0, bounds.getHeight() / definition.height, bounds.getMinY());
+            if (clipId != null) {
+                // the clip is in the coordinates of the image view, not of the placed image
+                out.write("<g");
+                writeCommonAttributes(imageView, clipId);
+                out.write(">\n");
+                nbElements++;
+            }
+            out.write("<use xlink:href=\"#");
+            out.write(definition.id);
+            out.write('"');
+            if (clipId != null) {
+                writeTransform(placement);
+            } else {
+                writeCommonAttributes(imageView, imageView.getLocalToParentTransform().createConcatenation(placement), null);
+            }
+            out.write("/>\n");
+            nbElements++;
+            if (clipId != null) {
+                out.write("</g>\n");
+            }
+        }
+
+        /**
+         * Writes the definition of an image the first time it is met, each
+         * image file being written once whatever the number of image views
+         * showing it.
+         */
+        private ImageDefinition getImageDefinition(Image image) throws IOException {
+            var imageFile = getImageFile(image);
+            Object key = imageFile != null ? imageFile : image;
+            var definition = imageDefinitions.get(key);
+            if (definition != null) {
+                return definition;
+            }
+            definition = new ImageDefinition("i" + imageDefinitions.size(), image.getWidth(), image.getHeight());
+            imageDefinitions.put(key, definition);
+            out.write("<defs><image id=\"");
+            out.write(definition.id);
+            out.write('"');
+            writeAttribute("width", definition.width);
+            writeAttribute("height", definition.height);
+            out.write(" preserveAspectRatio=\"none\" xlink:href=\"");
+            writeImageReference(image);
+            out.write("\"/></defs>\n");
+            nbElements++;
+            return definition;
+        }
+
+        private void writeImageReference(Image image) throws IOException {
+            var imageFile = getImageFile(image);
+            var mimeType = imageFile != null ? IMAGE_MIME_TYPES.get(getExtension(imageFile)) : null;
+            if (imageFile != null && imageMode == ImageMode.REFERENCE) {
+                writeEscaped(image.getUrl());
+            } else if (mimeType != null) {
+                out.write("data:");
+                out.write(mimeType);
+                out.write(";base64,");
+                try (var base64 = Base64.getEncoder().wrap(new WriterOutputStream(out))) {
+                    Files.copy(imageFile, base64);
+                }
+            } else {
+                // images without a file, or in a format that may not be supported
+                out.write("data:image/png;base64,");
+                try (var base64 = Base64.getEncoder().wrap(new WriterOutputStream(out))) {
+                    ImageIO.write(SwingFXUtils.fromFXImage(image, null), "png", base64);
+                }
+            }
+        }
+
+        private String writeClip(Node node) throws IOException {
+            if (!(node.getClip() instanceof Shape clip)) {
+                return null;
+            }
+            var clipId = "c" + nbClips++;
+            out.write("<clipPath id=\"");
+            out.write(clipId);
+            out.write("\">");
+            if (writeGeometry(clip)) {
+                writeTransform(clip.getLocalToParentTransform());
+                out.write("/>");
+            }
+            out.write("</clipPath>\n");
+            return clipId;
+        }
+
+        private void writeCommonAttributes(Node node, String clipId) throws IOException {
+            writeCommonAttributes(node, node.getLocalToParentTransform(), clipId);
+        }
+
+        private void writeCommonAttributes(Node node, Transform transform, String clipId) throws IOException {
+            writeTransform(transform);
+            if (node.getOpacity() < 1) {
+                out.write(" opacity=\"");
+                writeNumber(node.getOpacity(), COORDINATE_DECIMALS);
+                out.write('"');
+            }
+            if (clipId != null) {
+                out.write(" clip-path=\"url(#");
+                out.write(clipId);
+                out.write(")\"");
+            }
+        }
+
+        private void writeTransform(Transform transform) throws IOException {
+            if (transform.isIdentity()) {
+                return;
+            }
+            if (transform.getMxx() == 1 && transform.getMyx() == 0 && transform.getMxy() == 0 && transform.getMyy() == 1) {
+                out.write(" transform=\"translate(");
+                writeCoordinates(transform.getTx(), transform.getTy());
+            } else {
+                out.write(" transform=\"matrix(");
+                writeNumber(transform.getMxx(), TRANSFORM_DECIMALS);
+                out.write(' ');
+                writeNumber(transform.getMyx(), TRANSFORM_DECIMALS);
+                out.write(' ');
+                writeNumber(transform.getMxy(), TRANSFORM_DECIMALS);
+                out.write(' ');
+                writeNumber(transform.getMyy(), TRANSFORM_DECIMALS);
+                out.write(' ');
+                writeCoordinates(transform.getTx(), transform.getTy());
+            }
+            out.write(")\"");
+        }
+
+        private void writeStyleClass() throws IOException {
+            var styleClass = styleClasses.get(style.toString());
+            if (styleClass == null) {
+                styleClass = "s" + styleClasses.size();
+                styleClasses.put(style.toString(), styleClass);
+            }
+            out.write(" class=\"");
+            out.write(styleClass);
+            out.write('"');
+        }
+
+        private void appendPaint(String property, Paint paint) {
+            var color = toColor(paint);
+            style.append(property).append(':');
+            if (color == null || color.getOpacity() == 0) {
+                style.append("none;");
+                return;
+            }
+            var rgb = ((int) Math.round(color.getRed() * 255) << 16) | ((int) Math.round(color.getGreen() * 255) << 8) | (int) Math.round(color.getBlue() * 255);
+            style.append('#');
+            for (int shift = 20; shift >= 0; shift -= 4) {
+                style.append(Character.forDigit((rgb >> shift) & 0xF, 16));
+            }
+            style.append(';');
+            if (color.getOpacity() < 1) {
+                appendStyleNumber(property + "-opacity", color.getOpacity());
+            }
+        }
+
+        private void appendStyleNumber(String property, double value) {
+            style.append(property).append(':');
+            appendNumber(value);
+            style.append(';');
+        }
+
+        private void appendNumber(double value) {
+            var scaled = Math.round(value * POWERS_OF_TEN[COORDINATE_DECIMALS]);
+            style.append(scaled / (double) POWERS_OF_TEN[COORDINATE_DECIMALS]);
+            // drops the ".0" of integers
+            if (style.charAt(style.length() - 1) == '0' && style.charAt(style.length() - 2) == '.') {
+                style.setLength(style.length() - 2);
+            }
+        }
+
+        private void writePoints(List<Double> points) throws IOException {
+            out.write(" points=\"");
+            for (int i = 0; i + 1 < points.size(); i += 2) {
+                if (i > 0) {
+                    out.write(' ');
+                }
+                writeCoordinates(points.get(i), points.get(i + 1));
+            }
+            out.write('"');
+        }
+
+        private void writeAttribute(String name, double value) throws IOException {
+            out.write(' ');
+            out.write(name);
+            out.write("=\"");
+            writeNumber(value, COORDINATE_DECIMALS);
+            out.write('"');
+        }
+
+        private void writeCoordinates(double x, double y) throws IOException {
+            writeNumber(x, COORDINATE_DECIMALS);
+            out.write(',');
+            writeNumber(y, COORDINATE_DECIMALS);
+        }
+
+        /**
+         * Writes a number rounded to the given decimals, without trailing
+         * zeros nor exponent.
+         */
+        private void writeNumber(double value, int decimals) throws IOException {
+            if (!Double.isFinite(value)) {
+                out.write('0');
+                return;
+            }
+            var factor = POWERS_OF_TEN[decimals];
+            var scaled = Math.round(value * factor);
+            if (scaled < 0) {
+                out.write('-');
+                scaled = -scaled;
+            }
+            out.write(Long.toString(scaled / factor));
+            var fraction = scaled % factor;
+            if (fraction != 0) {
+                out.write('.');
+                for (var digitFactor = factor / 10; fraction != 0; digitFactor /= 10) {
+                    out.write((char) ('0' + fraction / digitFactor));
+                    fraction %= digitFactor;
+                }
+            }
+        }
+
+        private void writeEscaped(String text) throws IOException {
+            if (text == null) {
+                return;
+            }
+            for (int i = 0; i < text.length(); i++) {
+                var c = text.charAt(i);
+                switch (c) {
+                    case '&' ->
+                        out.write("&amp;");
+                    case '<' ->
+                        out.write("&lt;");
+                    case '>' ->
+                        out.write("&gt;");
+                    case '"' ->
+                        out.write("&quot;");
+                    default ->
+                        out.write(c);
+                }
+            }
+        }
+    }
+
+    private static Color toColor(Paint paint) {
+        if (paint instanceof Color color) {
+            return color;
+        }
+        // gradients are approximated by their first color
+        if (paint instanceof LinearGradient gradient && !gradient.getStops().isEmpty()) {
+            return gradient.getStops().get(0).getColor();
+        }
+        if (paint instanceof RadialGradient gradient && !gradient.getStops().isEmpty()) {
+            return gradient.getStops().get(0).getColor();
+        }
+        return null;
+    }
+
+    private static String getDominantBaseline(VPos textOrigin) {
+        return switch (textOrigin) {
+            case BASELINE ->
+                null;
+            case TOP ->
+                "text-before-edge";
+            case CENTER ->
+                "central";
+            case BOTTOM ->
+                "text-after-edge";
+            default ->
+                throw new UnsupportedOperationException("Unsupported text origin: " + textOrigin);
+        };
+    }
+
+    private static java.nio.file.Path getImageFile(Image image) {
+        var url = image.getUrl();
+        if (url == null || !url.startsWith("file:")) {
+            return null;
+        }
+        try {
+            var path = java.nio.file.Path.of(new URI(url));
+            return Files.isRegularFile(path) ? path : null;
+        } catch (URISyntaxException | IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static String getExtension(java.nio.file.Path file) {
+        var name = file.getFileName().toString();
+        var extensionIndex = name.lastIndexOf('.');
+        return extensionIndex > 0 ? name.substring(extensionIndex + 1).toLowerCase(Locale.ROOT) : "";
+    }
+
+    /**
+     * Writes the bytes it is given as characters, for base64 data only.
+     */
+    private static final class WriterOutputStream extends OutputStream {
+
+        private final Writer writer;
+
+        private WriterOutputStream(Writer aWriter) {
+            writer = aWriter;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            writer.write(b & 0xFF);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            for (int i = offset; i < offset + length; i++) {
+                writer.write(bytes[i] & 0xFF);
+            }
+        }
+
+        @Override
+        public void close() {
+            // the writer is closed by its owner
+        }
+    }
+
+    /**
+     * An image written once in the definitions of a document.
+     */
+    private static final class ImageDefinition {
+
+        private final String id;
+        private final double width;
+        private final double height;
+
+        private ImageDefinition(String anId, double aWidth, double aHeight) {
+            id = anId;
+            width = aWidth;
+            height = aHeight;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.benchmark;
+
+import com.github.noony.app.timelinefx.Configuration;
+import com.github.noony.app.timelinefx.core.FriezeFactory;
+import com.github.noony.app.timelinefx.core.Person;
+import com.github.noony.app.timelinefx.core.PersonFactory;
+import com.github.noony.app.timelinefx.core.Place;
+import com.github.noony.app.timelinefx.core.PlaceFactory;
+import com.github.noony.app.timelinefx.core.PlaceLevel;
+import com.github.noony.app.timelinefx.core.StayFactory;
+import com.github.noony.app.timelinefx.core.StayPeriod;
+import com.github.noony.app.timelinefx.core.TimeLineProject;
+import com.github.noony.app.timelinefx.core.TimeLineProjectFactory;
+import com.github.noony.app.timelinefx.save.XMLHandler;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import javafx.scene.paint.Color;
+
+/**
+ * Compares the wall time and the peak heap of the DOM, streaming and binary
+ * project loaders.
+ *
+ * Usage: {@code ProjectLoadBenchmark <projectFile.xml> [nbRuns]} or
+ * {@code ProjectLoadBenchmark --generate <nbPersons> <nbStays> [nbRuns]} to
+ * benchmark a generated project. It lives with the test sources and is run
+ * with the {@code benchmark} profile:
+ * {@code mvn -Pbenchmark test-compile exec:java -Dexec.args="<projectFile.xml>"}.
+ *
+ * @author hamon
+ */
+public final class ProjectLoadBenchmark {
+
+    private static final int DEFAULT_NB_RUNS = 3;
+
+    private ProjectLoadBenchmark() {
+        // private utility constructor
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("Usage: ProjectLoadBenchmark <projectFile.xml> [nbRuns] | --generate <nbPersons> <nbStays> [nbRuns]");
+            return;
+        }
+        Configuration.loadPreferences();
+        File projectFile;
+        int nbRuns;
+        if ("--generate".equals(args[0])) {
+            projectFile = generateProject(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+            nbRuns = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_NB_RUNS;
+        } else {
+            projectFile = new File(args[0]);
+            nbRuns = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_NB_RUNS;
+        }
+        System.out.println("Project file: " + projectFile + " (" + projectFile.length() / 1024 + " KB)");
+        var withBinary = XMLHandler.loadBinaryFile(projectFile) != null;
+        if (!withBinary) {
+            System.out.println("No up to date binary file, see BinaryProjectConverter --to-binary");
+        }
+        // warm up
+        run("dom", projectFile, XMLHandler::loadFileWithDom);
+        run("stream", projectFile, XMLHandler::loadXMLFile);
+        for (int i = 0; i < nbRuns; i++) {
+            System.out.println(run("dom", projectFile, XMLHandler::loadFileWithDom));
+            System.out.println(run("stream", projectFile, XMLHandler::loadXMLFile));
+            if (withBinary) {
+                System.out.println(run("binary", projectFile, XMLHandler::loadBinaryFile));
+            }
+        }
+    }
+
+    private static String run(String loaderName, File projectFile, Function<File, TimeLineProject> loader) {
+        System.gc();
+        var heapPools = getHeapPools();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        var baseline = usedHeap();
+        var startTime = System.nanoTime();
+        var project = loader.apply(projectFile);
+        var duration = System.nanoTime() - startTime;
+        var peak = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum() - baseline;
+        System.gc();
+        var retained = usedHeap() - baseline;
+        return String.format("%-6s :: %6d ms | peak heap %6d MB | retained heap %6d MB | %d persons, %d stays, %d friezes",
+                loaderName, duration / 1_000_000, peak / (1024 * 1024), retained / (1024 * 1024),
+                project.getPersons().size(), project.getStays().size(), project.getFriezes().size());
+    }
+
+    private static List<MemoryPoolMXBean> getHeapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream().filter(pool -> pool.getType() == MemoryType.HEAP).toList();
+    }
+
+    private static long usedHeap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static File generateProject(int nbPersons, int nbStays) throws Exception {
+        var folder = Files.createTempDirectory("timelinefx-benchmark").toFile();
+        var project = TimeLineProjectFactory.createProject("benchmark", Map.of(TimeLineProject.PROJECT_FOLDER_KEY, folder.getAbsolutePath()));
+        var random = new Random(42);
+        List<Place> places = new ArrayList<>();
+        for (int c = 0; c < 5; c++) {
+            var continent = PlaceFactory.createPlace(project, "Continent " + c, PlaceLevel.CONTINENT, null, Color.hsb(c * 70.0, 0.6, 0.9));
+            for (int t = 0; t < 20; t++) {
+                places.add(PlaceFactory.createPlace(project, "Town " + c + "-" + t, PlaceLevel.TOWN, continent, Color.hsb(t * 17.0, 0.5, 0.8)));
+            }
+        }
+        var persons = new ArrayList<Person>(nbPersons);
+        for (int p = 0; p < nbPersons; p++) {
+            persons.add(PersonFactory.createPerson(project, "Person " + p, Color.hsb(p % 360, 0.7, 0.7)));
+        }
+        List<StayPeriod> stays = new ArrayList<>(nbStays);
+        for (int s = 0; s < nbStays; s++) {
+            var start = random.nextInt(10_000);
+            stays.add(StayFactory.createStayPeriodSimpleTime(persons.get(s % nbPersons), start, start + 1 + random.nextInt(50), places.get(random.nextInt(places.size()))));
+        }
+        project.addAll(places, persons, stays);
+        FriezeFactory.createFrieze(project, "All", stays);
+        XMLHandler.save(project, project.getTimelineFile());
+        XMLHandler.saveBinaryFile(project, project.getTimelineFile());
+        return project.getTimelineFile();
+    }
+}
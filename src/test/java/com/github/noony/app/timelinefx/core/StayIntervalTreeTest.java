@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.core;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import javafx.scene.paint.Color;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *
+ * @author hamon
+ */
+public class StayIntervalTreeTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Person person;
+    private Place place;
+    private StayIntervalTree tree;
+
+    @BeforeEach
+    public void setUp() {
+        var project = TimeLineProjectFactory.createProject("tree", Map.of(TimeLineProject.PROJECT_FOLDER_KEY, tempDir.toString()));
+        place = PlaceFactory.createPlace(project, "place", PlaceLevel.TOWN, null, Color.BLUE);
+        person = PersonFactory.createPerson(project, "person");
+        tree = new StayIntervalTree();
+    }
+
+    @Test
+    public void testEmptyTree() {
+        assertTrue(tree.isEmpty());
+        assertEquals(0, tree.size());
+        assertEquals(0, tree.height());
+        assertTrue(Double.isNaN(tree.getMinStart()));
+        assertTrue(Double.isNaN(tree.getMaxEnd()));
+        tree.forEachOverlapping(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, s -> {
+            throw new AssertionError("unexpected stay " + s);
+        });
+    }
+
+    @Test
+    public void testInsertAndRemove() {
+        var s1 = createStay(10, 20);
+        var s2 = createStay(5, 30);
+        var s3 = createStay(15, 16);
+        var n1 = tree.insert(s1);
+        var n2 = tree.insert(s2);
+        var n3 = tree.insert(s3);
+        assertEquals(3, tree.size());
+        assertEquals(5, tree.getMinStart());
+        assertEquals(30, tree.getMaxEnd());
+        assertEquals(List.of(s2, s1, s3), inOrder());
+        //
+        tree.remove(n2);
+        assertEquals(2, tree.size());
+        assertEquals(10, tree.getMinStart());
+        assertEquals(20, tree.getMaxEnd());
+        assertEquals(List.of(s1, s3), inOrder());
+        //
+        tree.remove(n1);
+        tree.remove(n3);
+        assertTrue(tree.isEmpty());
+        assertTrue(Double.isNaN(tree.getMinStart()));
+    }
+
+    @Test
+    public void testOverlapBoundsIncluded() {
+        var s1 = createStay(0, 10);
+        var s2 = createStay(10, 20);
+        var s3 = createStay(21, 30);
+        tree.insert(s1);
+        tree.insert(s2);
+        tree.insert(s3);
+        assertEquals(List.of(s1, s2), overlapping(10, 10));
+        assertEquals(List.of(s2, s3), overlapping(20, 21));
+        assertEquals(List.of(), overlapping(30.5, 40));
+        assertEquals(List.of(s1, s2, s3), overlapping(-5, 100));
+    }
+
+    @Test
+    public void testSameStartDates() {
+        var s1 = createStay(0, 10);
+        var s2 = createStay(0, 5);
+        var s3 = createStay(0, 1);
+        tree.insert(s3);
+        var n1 = tree.insert(s1);
+        tree.insert(s2);
+        assertEquals(List.of(s1, s2, s3), inOrder());
+        tree.remove(n1);
+        assertEquals(List.of(s2, s3), inOrder());
+        assertEquals(5, tree.getMaxEnd());
+    }
+
+    @Test
+    public void testRebalancingOnSortedInsertsAndRemovals() {
+        var nodes = new ArrayList<StayIntervalTree.Node>();
+        for (int i = 0; i < 1024; i++) {
+            nodes.add(tree.insert(createStay(i, i + 1)));
+            assertBalanced();
+        }
+        assertEquals(1024, tree.size());
+        // removes the lower half in order, which unbalances a plain binary search tree
+        for (int i = 0; i < 512; i++) {
+            tree.remove(nodes.get(i));
+            assertBalanced();
+        }
+        assertEquals(512, tree.size());
+        assertEquals(512, tree.getMinStart());
+        assertEquals(1024, tree.getMaxEnd());
+    }
+
+    @Test
+    public void testOverlapAgainstBruteForce() {
+        var random = new Random(42);
+        var nodes = new HashMap<StayPeriod, StayIntervalTree.Node>();
+        var stays = new ArrayList<StayPeriod>();
+        for (int step = 0; step < 2000; step++) {
+            if (stays.isEmpty() || random.nextInt(3) > 0) {
+                var start = random.nextInt(1000);
+                var stay = createStay(start, start + random.nextInt(50));
+                stays.add(stay);
+                nodes.put(stay, tree.insert(stay));
+            } else {
+                var stay = stays.remove(random.nextInt(stays.size()));
+                tree.remove(nodes.remove(stay));
+            }
+            if (step % 20 == 0) {
+                var from = random.nextInt(1100) - 50;
+                var to = from + random.nextInt(100);
+                assertEquals(bruteForce(stays, from, to), overlapping(from, to));
+                assertEquals(stays.size(), tree.size());
+                assertBalanced();
+            }
+        }
+    }
+
+    private StayPeriod createStay(double start, double end) {
+        return StayFactory.createStayPeriodSimpleTime(person, start, end, place);
+    }
+
+    private List<StayPeriod> inOrder() {
+        var result = new ArrayList<StayPeriod>();
+        tree.forEachInOrder(result::add);
+        return result;
+    }
+
+    private List<StayPeriod> overlapping(double from, double to) {
+        var result = new ArrayList<StayPeriod>();
+        tree.forEachOverlapping(from, to, result::add);
+        return result;
+    }
+
+    private static List<StayPeriod> bruteForce(List<StayPeriod> stays, double from, double to) {
+        return stays.stream()
+                .filter(s -> s.getStartDate() <= to && s.getEndDate() >= from)
+                .sorted((s1, s2) -> {
+                    int result = Double.compare(s1.getStartDate(), s2.getStartDate());
+                    return result != 0 ? result : Long.compare(s1.getId(), s2.getId());
+                })
+                .toList();
+    }
+
+    private void assertBalanced() {
+        // an AVL tree of n nodes is at most 1.44 * log2(n + 2) high
+        var maxHeight = 1.45 * Math.log(tree.size() + 2) / Math.log(2);
+        assertTrue(tree.height() <= maxHeight, () -> "height " + tree.height() + " for " + tree.size() + " stays");
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.save;
+
+import com.github.noony.app.timelinefx.core.FriezeFactory;
+import com.github.noony.app.timelinefx.core.PersonFactory;
+import com.github.noony.app.timelinefx.core.PlaceFactory;
+import com.github.noony.app.timelinefx.core.PlaceLevel;
+import com.github.noony.app.timelinefx.core.StayFactory;
+import com.github.noony.app.timelinefx.core.StayPeriod;
+import com.github.noony.app.timelinefx.core.TimeLineProject;
+import com.github.noony.app.timelinefx.core.TimeLineProjectFactory;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import javafx.scene.paint.Color;
+
+/**
+ * Small projects shared by the save tests.
+ *
+ * @author hamon
+ */
+public final class ProjectSamples {
+
+    public static final String PROJECT_NAME = "sample";
+
+    private ProjectSamples() {
+        // private utility constructor
+    }
+
+    /**
+     * Creates a project with a place hierarchy, persons, stays and a frieze,
+     * located in the given folder.
+     *
+     * @param folder the project folder
+     * @return the created project
+     */
+    public static TimeLineProject createProject(Path folder) {
+        var project = TimeLineProjectFactory.createProject(PROJECT_NAME, Map.of(TimeLineProject.PROJECT_FOLDER_KEY, folder.toString()));
+        var galaxy = PlaceFactory.createPlace(project, "Galaxy", PlaceLevel.GALAXY, null, Color.WHEAT);
+        var planetA = PlaceFactory.createPlace(project, "Planet A", PlaceLevel.PLANET, galaxy, Color.LIGHTGREEN);
+        var planetB = PlaceFactory.createPlace(project, "Planet B", PlaceLevel.PLANET, galaxy, Color.LIGHTSTEELBLUE);
+        var alice = PersonFactory.createPerson(project, "Alice", Color.RED);
+        var bob = PersonFactory.createPerson(project, "Bob", Color.BLUE);
+        List<StayPeriod> stays = List.of(
+                StayFactory.createStayPeriodSimpleTime(alice, 0, 10, planetA),
+                StayFactory.createStayPeriodSimpleTime(alice, 10, 25, planetB),
+                StayFactory.createStayPeriodSimpleTime(bob, 5, 15, planetB),
+                StayFactory.createStayPeriodSimpleTime(bob, 15, 30, planetA));
+        project.addAll(List.of(galaxy, planetA, planetB), List.of(alice, bob), stays);
+        FriezeFactory.createFrieze(project, "Frieze", stays.subList(0, 3));
+        return project;
+    }
+
+    /**
+     *
+     * @param project a project
+     * @return the project file of the samples created in the project folder
+     */
+    public static File getProjectFile(TimeLineProject project) {
+        return new File(project.getProjectFolder(), PROJECT_NAME + ".xml");
+    }
+
+    /**
+     * Describes the content of a project, independently of the order in which
+     * it was loaded, so that two loads of the same project compare equal.
+     *
+     * @param project a project
+     * @return the description of the places, persons, stays and friezes
+     */
+    public static String describe(TimeLineProject project) {
+        var sb = new StringBuilder();
+        project.getAllPlaces().stream().sorted(Comparator.comparingLong(p -> p.getId())).forEach(place -> sb
+                .append("place ").append(place.getId()).append(' ').append(place.getName())
+                .append(' ').append(place.getLevel()).append(' ').append(place.getColor())
+                .append(' ').append(place.getParent() != null ? place.getParent().getId() : -1).append('\n'));
+        project.getPersons().stream().sorted(Comparator.comparingLong(p -> p.getId())).forEach(person -> sb
+                .append("person ").append(person.getId()).append(' ').append(person.getName())
+                .append(' ').append(person.getColor()).append('\n'));
+        project.getStays().stream().sorted(Comparator.comparingLong(StayPeriod::getId)).forEach(stay -> sb
+                .append("stay ").append(stay.getId()).append(' ').append(stay.getPerson().getId())
+                .append(' ').append(stay.getPlace().getId()).append(' ').append(stay.getStartDate())
+                .append(' ').append(stay.getEndDate()).append('\n'));
+        project.getFriezes().stream().sorted(Comparator.comparingLong(f -> f.getId())).forEach(frieze -> {
+            sb.append("frieze ").append(frieze.getId()).append(' ').append(frieze.getName());
+            frieze.getStayPeriods().stream().mapToLong(StayPeriod::getId).sorted().forEach(id -> sb.append(' ').append(id));
+            sb.append('\n');
+        });
+        return sb.toString();
+    }
+}
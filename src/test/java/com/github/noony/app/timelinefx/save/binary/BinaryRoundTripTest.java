@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.save.binary;
+
+import com.github.noony.app.timelinefx.save.ProjectSamples;
+import com.github.noony.app.timelinefx.save.XMLHandler;
+import java.nio.file.Path;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *
+ * @author hamon
+ */
+public class BinaryRoundTripTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testBinaryLoadMatchesXMLLoad() {
+        var project = ProjectSamples.createProject(tempDir);
+        var file = ProjectSamples.getProjectFile(project);
+        assertTrue(XMLHandler.save(project, file));
+        assertFalse(XMLHandler.getBinaryFile(file).exists());
+        //
+        var xmlProject = XMLHandler.loadXMLFile(file);
+        assertNotNull(xmlProject);
+        assertEquals(ProjectSamples.describe(project), ProjectSamples.describe(xmlProject));
+        assertTrue(XMLHandler.saveBinaryFile(xmlProject, file));
+        var binaryProject = XMLHandler.loadBinaryFile(file);
+        assertNotNull(binaryProject);
+        assertEquals(ProjectSamples.describe(xmlProject), ProjectSamples.describe(binaryProject));
+    }
+
+    @Test
+    public void testStaleSidecarIsIgnoredThenRewrittenOnLoad() {
+        var project = ProjectSamples.createProject(tempDir);
+        var file = ProjectSamples.getProjectFile(project);
+        assertTrue(XMLHandler.save(project, file));
+        assertNotNull(XMLHandler.loadFile(file));
+        assertNotNull(XMLHandler.loadBinaryFile(file));
+        // saving changes the XML file but leaves the sidecar as it was
+        project.getPersons().get(0).setName("Alice Renamed");
+        assertTrue(XMLHandler.save(project, file));
+        assertNull(XMLHandler.loadBinaryFile(file));
+        //
+        var reloaded = XMLHandler.loadFile(file);
+        assertNotNull(reloaded);
+        assertEquals(ProjectSamples.describe(project), ProjectSamples.describe(reloaded));
+        var binaryProject = XMLHandler.loadBinaryFile(file);
+        assertNotNull(binaryProject);
+        assertEquals(ProjectSamples.describe(project), ProjectSamples.describe(binaryProject));
+    }
+}
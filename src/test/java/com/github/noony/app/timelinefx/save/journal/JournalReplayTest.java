@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.save.journal;
+
+import com.github.noony.app.timelinefx.core.StayFactory;
+import com.github.noony.app.timelinefx.core.StayPeriodSimpleTime;
+import com.github.noony.app.timelinefx.core.TimeLineProject;
+import com.github.noony.app.timelinefx.save.ProjectSamples;
+import com.github.noony.app.timelinefx.save.XMLHandler;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import javafx.scene.paint.Color;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *
+ * @author hamon
+ */
+public class JournalReplayTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TimeLineProject project;
+    private File file;
+    private ProjectJournal journal;
+
+    @BeforeEach
+    public void setUp() {
+        project = ProjectSamples.createProject(tempDir);
+        file = ProjectSamples.getProjectFile(project);
+        assertTrue(XMLHandler.save(project, file));
+        journal = new ProjectJournal(project);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        journal.close();
+    }
+
+    @Test
+    public void testReplayCommittedChanges() throws IOException {
+        var savedDescription = ProjectSamples.describe(project);
+        makeChanges();
+        journal.commit();
+        assertTrue(journal.getJournalSize() > 0);
+        assertEquals(journal.getJournalSize(), journal.getJournalFile().length());
+        //
+        var reloaded = XMLHandler.loadFile(file);
+        assertNotEquals(savedDescription, ProjectSamples.describe(reloaded));
+        assertEquals(ProjectSamples.describe(project), ProjectSamples.describe(reloaded));
+        // the saved file itself is untouched by the commit
+        assertEquals(savedDescription, ProjectSamples.describe(XMLHandler.loadSavedFile(file)));
+    }
+
+    @Test
+    public void testTornRecordIsDroppedAndTruncated() throws IOException {
+        makeChanges();
+        journal.commit();
+        var expected = ProjectSamples.describe(project);
+        var validSize = journal.getJournalSize();
+        // a record announcing 40 bytes but interrupted after 3 of them
+        Files.write(journal.getJournalFile().toPath(), new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+        //
+        var reloaded = XMLHandler.loadFile(file);
+        assertEquals(expected, ProjectSamples.describe(reloaded));
+        assertEquals(validSize, journal.getJournalFile().length());
+    }
+
+    @Test
+    public void testTruncatedLastCommitIsDropped() throws IOException {
+        makeChanges();
+        journal.commit();
+        var firstCommit = ProjectSamples.describe(project);
+        var firstCommitSize = journal.getJournalSize();
+        project.getPersons().get(1).setColor(Color.GREEN);
+        journal.commit();
+        assertTrue(journal.getJournalSize() > firstCommitSize);
+        // loses the end of the last record, as a crash while appending would
+        try (var raf = new RandomAccessFile(journal.getJournalFile(), "rw")) {
+            raf.setLength(journal.getJournalSize() - 2);
+        }
+        //
+        var reloaded = XMLHandler.loadFile(file);
+        assertEquals(firstCommit, ProjectSamples.describe(reloaded));
+        assertEquals(firstCommitSize, journal.getJournalFile().length());
+    }
+
+    @Test
+    public void testCommitAfterTruncation() throws IOException {
+        makeChanges();
+        journal.commit();
+        Files.write(journal.getJournalFile().toPath(), new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+        XMLHandler.loadFile(file);
+        journal.close();
+        //
+        var reloaded = XMLHandler.loadFile(file);
+        journal = new ProjectJournal(reloaded);
+        reloaded.getPersons().get(0).setName("Alice After Truncation");
+        journal.commit();
+        assertEquals(ProjectSamples.describe(reloaded), ProjectSamples.describe(XMLHandler.loadFile(file)));
+    }
+
+    @Test
+    public void testCompactionExcludesUncommittedChanges() throws IOException {
+        makeChanges();
+        journal.commit();
+        var committed = ProjectSamples.describe(project);
+        project.getPersons().get(1).setName("Uncommitted");
+        //
+        assertTrue(journal.compact());
+        assertEquals(0, journal.getJournalFile().length());
+        assertEquals(committed, ProjectSamples.describe(XMLHandler.loadSavedFile(file)));
+        assertEquals(committed, ProjectSamples.describe(XMLHandler.loadFile(file)));
+    }
+
+    private void makeChanges() {
+        var alice = project.getPersons().get(0);
+        alice.setName("Alice Renamed");
+        var stay = (StayPeriodSimpleTime) project.getStays().get(0);
+        stay.setEndDate(stay.getEndDate() + 2);
+        var newStay = StayFactory.createStayPeriodSimpleTime(alice, 40, 50, project.getAllPlaces().get(1));
+        project.addAll(List.of(), List.of(), List.of(newStay));
+        var frieze = project.getFriezes().get(0);
+        frieze.addStayPeriod(newStay);
+        frieze.setName("Frieze Renamed");
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2019 NoOnY
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.noony.app.timelinefx.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author hamon
+ */
+public class SortedDoubleMultisetTest {
+
+    @Test
+    public void testEmpty() {
+        var multiset = new SortedDoubleMultiset();
+        assertTrue(multiset.isEmpty());
+        assertEquals(0, multiset.size());
+        assertTrue(Double.isNaN(multiset.first()));
+        assertTrue(Double.isNaN(multiset.last()));
+        assertArrayEquals(new double[0], multiset.toArray());
+        assertFalse(multiset.remove(1.0));
+    }
+
+    @Test
+    public void testReferenceCounts() {
+        var multiset = new SortedDoubleMultiset();
+        assertTrue(multiset.add(5.0));
+        assertFalse(multiset.add(5.0));
+        assertFalse(multiset.add(5.0));
+        assertTrue(multiset.add(2.0));
+        assertEquals(3, multiset.count(5.0));
+        assertEquals(1, multiset.count(2.0));
+        assertEquals(0, multiset.count(7.0));
+        assertEquals(2, multiset.size());
+        //
+        assertFalse(multiset.remove(5.0));
+        assertFalse(multiset.remove(5.0));
+        assertTrue(multiset.contains(5.0));
+        assertTrue(multiset.remove(5.0));
+        assertFalse(multiset.contains(5.0));
+        assertFalse(multiset.remove(5.0));
+        assertEquals(1, multiset.size());
+        assertEquals(2.0, multiset.first());
+        assertEquals(2.0, multiset.last());
+    }
+
+    @Test
+    public void testRangeQueries() {
+        var multiset = new SortedDoubleMultiset();
+        for (var value : new double[]{8, 3, 1, 5, 3, 9, -2}) {
+            multiset.add(value);
+        }
+        assertEquals(-2.0, multiset.first());
+        assertEquals(9.0, multiset.last());
+        assertArrayEquals(new double[]{-2, 1, 3, 5, 8, 9}, multiset.toArray());
+        assertArrayEquals(new double[]{3, 5, 8}, multiset.valuesBetween(3, 8));
+        assertArrayEquals(new double[]{3, 5}, multiset.valuesBetween(2, 7));
+        assertArrayEquals(new double[0], multiset.valuesBetween(6, 7.5));
+        var visited = new ArrayList<Double>();
+        multiset.forEachBetween(0, 4, visited::add);
+        assertEquals(List.of(1.0, 3.0), visited);
+    }
+
+    @Test
+    public void testNodeReuseAfterRemovals() {
+        var multiset = new SortedDoubleMultiset(1);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 100; i++) {
+                multiset.add(round * 1000 + i);
+            }
+            for (int i = 0; i < 100; i++) {
+                assertTrue(multiset.remove(round * 1000 + i));
+            }
+            assertTrue(multiset.isEmpty());
+        }
+        multiset.add(3);
+        multiset.add(1);
+        multiset.add(2);
+        assertArrayEquals(new double[]{1, 2, 3}, multiset.toArray());
+        multiset.clear();
+        assertTrue(multiset.isEmpty());
+        assertTrue(multiset.add(1));
+        assertEquals(1, multiset.count(1));
+    }
+
+    @Test
+    public void testAgainstTreeMap() {
+        var random = new Random(7);
+        var multiset = new SortedDoubleMultiset(4);
+        var reference = new TreeMap<Double, Integer>();
+        for (int step = 0; step < 20000; step++) {
+            double value = random.nextInt(200);
+            if (random.nextBoolean()) {
+                assertEquals(!reference.containsKey(value), multiset.add(value));
+                reference.merge(value, 1, Integer::sum);
+            } else {
+                var count = reference.getOrDefault(value, 0);
+                assertEquals(count == 1, multiset.remove(value));
+                if (count == 1) {
+                    reference.remove(value);
+                } else if (count > 1) {
+                    reference.put(value, count - 1);
+                }
+            }
+            assertEquals(reference.getOrDefault(value, 0), multiset.count(value));
+            if (step % 100 == 0) {
+                assertEquals(reference.size(), multiset.size());
+                assertArrayEquals(toArray(reference.keySet()), multiset.toArray());
+                var min = random.nextInt(200);
+                var max = min + random.nextInt(50);
+                assertArrayEquals(toArray(reference.subMap((double) min, true, (double) max, true).keySet()), multiset.valuesBetween(min, max));
+                if (!reference.isEmpty()) {
+                    assertEquals(reference.firstKey(), multiset.first());
+                    assertEquals(reference.lastKey(), multiset.last());
+                }
+            }
+        }
+    }
+
+    private static double[] toArray(Iterable<Double> values) {
+        var result = new ArrayList<Double>();
+        values.forEach(result::add);
+        return result.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+}